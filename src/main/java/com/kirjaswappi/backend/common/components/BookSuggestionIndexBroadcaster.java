@@ -0,0 +1,69 @@
+/*
+ * Copyright (c) 2026 KirjaSwappi or KirjaSwappi affiliate company. All rights reserved.
+ * Author: Mahiuddin Al Kamal <mahiuddinalkamal>
+ */
+package com.kirjaswappi.backend.common.components;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.UUID;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.kirjaswappi.backend.events.BookSuggestionsChangedEvent;
+import com.kirjaswappi.backend.service.search.BookSuggestionIndex;
+
+/**
+ * Relays book changes to the other nodes over Redis pub/sub, so that every node
+ * brings its {@link BookSuggestionIndex} up to date. Messages carry only the
+ * book ids, which each node reads back from the database. The local index is
+ * updated by BookService, so a node ignores its own messages.
+ */
+@Component
+@Profile("cloud")
+public class BookSuggestionIndexBroadcaster implements MessageListener {
+  public static final String CHANNEL = "books:suggestions:changed";
+
+  private static final Logger logger = LoggerFactory.getLogger(BookSuggestionIndexBroadcaster.class);
+  private static final String SEPARATOR = ",";
+  private final String nodeId = UUID.randomUUID().toString();
+  private final StringRedisTemplate redisTemplate;
+  private final BookSuggestionIndex bookSuggestionIndex;
+
+  public BookSuggestionIndexBroadcaster(StringRedisTemplate redisTemplate, BookSuggestionIndex bookSuggestionIndex) {
+    this.redisTemplate = redisTemplate;
+    this.bookSuggestionIndex = bookSuggestionIndex;
+  }
+
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onBookSuggestionsChanged(BookSuggestionsChangedEvent event) {
+    if (event.bookIds().isEmpty()) {
+      return;
+    }
+    try {
+      redisTemplate.convertAndSend(CHANNEL, nodeId + SEPARATOR + String.join(SEPARATOR, event.bookIds()));
+    } catch (Exception e) {
+      logger.warn("Failed to broadcast changes of {} books: {}", event.bookIds().size(), e.getMessage());
+    }
+  }
+
+  @Override
+  public void onMessage(Message message, byte[] pattern) {
+    var parts = new String(message.getBody(), StandardCharsets.UTF_8).split(SEPARATOR);
+    if (nodeId.equals(parts[0])) {
+      return;
+    }
+    try {
+      bookSuggestionIndex.refresh(Arrays.asList(parts).subList(1, parts.length));
+    } catch (Exception e) {
+      logger.warn("Failed to update book suggestion index after a remote change: {}", e.getMessage());
+    }
+  }
+}
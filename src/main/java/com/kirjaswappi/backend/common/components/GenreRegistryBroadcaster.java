@@ -0,0 +1,62 @@
+/*
+ * Copyright (c) 2026 KirjaSwappi or KirjaSwappi affiliate company. All rights reserved.
+ * Author: Mahiuddin Al Kamal <mahiuddinalkamal>
+ */
+package com.kirjaswappi.backend.common.components;
+
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.kirjaswappi.backend.events.GenresChangedEvent;
+import com.kirjaswappi.backend.service.GenreRegistry;
+
+/**
+ * Relays genre changes to the other nodes over Redis pub/sub, so that every
+ * node rebuilds its {@link GenreRegistry}. The local registry rebuilds itself
+ * from the event, so a node ignores its own messages.
+ */
+@Component
+@Profile("cloud")
+public class GenreRegistryBroadcaster implements MessageListener {
+  public static final String CHANNEL = "genres:changed";
+
+  private static final Logger logger = LoggerFactory.getLogger(GenreRegistryBroadcaster.class);
+  private final String nodeId = UUID.randomUUID().toString();
+  private final StringRedisTemplate redisTemplate;
+  private final GenreRegistry genreRegistry;
+
+  public GenreRegistryBroadcaster(StringRedisTemplate redisTemplate, GenreRegistry genreRegistry) {
+    this.redisTemplate = redisTemplate;
+    this.genreRegistry = genreRegistry;
+  }
+
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onGenresChanged(GenresChangedEvent event) {
+    try {
+      redisTemplate.convertAndSend(CHANNEL, nodeId);
+    } catch (Exception e) {
+      logger.warn("Failed to broadcast genre change {}: {}", event.genreId(), e.getMessage());
+    }
+  }
+
+  @Override
+  public void onMessage(Message message, byte[] pattern) {
+    if (nodeId.equals(new String(message.getBody(), StandardCharsets.UTF_8))) {
+      return;
+    }
+    try {
+      genreRegistry.refresh();
+    } catch (Exception e) {
+      logger.warn("Failed to rebuild genre registry after a remote change: {}", e.getMessage());
+    }
+  }
+}
@@ -16,6 +16,8 @@ import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Profile;
 
 import com.google.common.cache.CacheBuilder;
+import com.kirjaswappi.backend.service.search.BookMapTileCache;
+import com.kirjaswappi.backend.service.search.BookSearchCache;
 
 @Configuration
 @Profile("!cloud")
@@ -23,7 +25,8 @@ public class CacheConfig {
 
   @Bean
   public CacheManager cacheManager() {
-    return new ConcurrentMapCacheManager("imageUrls", "unreadCounts", "users", "books", "genres", "nested_genres") {
+    return new ConcurrentMapCacheManager("unreadCounts", "users", "books", "genres", "nested_genres",
+        BookMapTileCache.CACHE_NAME, BookSearchCache.PAGES_CACHE_NAME, BookSearchCache.GENERATIONS_CACHE_NAME) {
       @NotNull
       @Override
       protected Cache createConcurrentMapCache(@NotNull final String name) {
@@ -33,7 +36,8 @@ public class CacheConfig {
         if (name.equals("unreadCounts")) {
           duration = 5;
           unit = TimeUnit.MINUTES;
-        } else if (name.equals("users") || name.equals("books")) {
+        } else if (name.equals("users") || name.equals("books") || name.equals(BookMapTileCache.CACHE_NAME)
+            || name.equals(BookSearchCache.PAGES_CACHE_NAME)) {
           duration = 30;
           unit = TimeUnit.MINUTES;
         }
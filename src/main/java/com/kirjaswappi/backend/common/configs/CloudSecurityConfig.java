@@ -98,6 +98,7 @@ public class CloudSecurityConfig {
             .requestMatchers(DELETE, API_BASE + ADMIN_USERS + USERNAME).hasAnyAuthority(MASTER_ADMIN, ADMIN)
             .requestMatchers(DELETE, API_BASE + SWAP_REQUESTS).hasAnyAuthority(MASTER_ADMIN, ADMIN)
             .requestMatchers(DELETE, API_BASE + BOOKS).hasAnyAuthority(MASTER_ADMIN, ADMIN)
+            .requestMatchers(GET, API_BASE + MAINTENANCE_JOBS + "/**").hasAnyAuthority(MASTER_ADMIN, ADMIN)
             // Genre taxonomy mutations: admins only
             .requestMatchers(POST, API_BASE + GENRES).hasAnyAuthority(MASTER_ADMIN, ADMIN)
             .requestMatchers(POST, API_BASE + GENRES + "/**").hasAnyAuthority(MASTER_ADMIN, ADMIN)
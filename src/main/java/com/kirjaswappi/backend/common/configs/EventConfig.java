@@ -34,4 +34,39 @@ public class EventConfig {
     executor.initialize();
     return executor;
   }
+
+  /**
+   * Task executor for the consequences of book changes, such as notifying and
+   * cancelling the swap requests for the changed book, off the request thread.
+   */
+  @Bean(name = "bookEventExecutor")
+  public TaskExecutor bookEventExecutor() {
+    ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+    executor.setCorePoolSize(2);
+    executor.setMaxPoolSize(5);
+    executor.setQueueCapacity(500);
+    executor.setThreadNamePrefix("book-event-");
+    executor.setWaitForTasksToCompleteOnShutdown(true);
+    executor.setAwaitTerminationSeconds(30);
+    executor.initialize();
+    return executor;
+  }
+
+  /**
+   * Task executor for maintenance jobs, such as deleting all books. A single
+   * thread, so that jobs run one after another instead of competing for the
+   * database.
+   */
+  @Bean(name = "maintenanceJobExecutor")
+  public TaskExecutor maintenanceJobExecutor() {
+    ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+    executor.setCorePoolSize(1);
+    executor.setMaxPoolSize(1);
+    executor.setQueueCapacity(10);
+    executor.setThreadNamePrefix("maintenance-job-");
+    executor.setWaitForTasksToCompleteOnShutdown(true);
+    executor.setAwaitTerminationSeconds(30);
+    executor.initialize();
+    return executor;
+  }
 }
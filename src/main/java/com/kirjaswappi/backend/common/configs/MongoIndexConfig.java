@@ -13,8 +13,15 @@ import org.springframework.context.annotation.Configuration;
 import org.springframework.core.env.Environment;
 import org.springframework.data.mongodb.core.MongoTemplate;
 import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.PartialIndexFilter;
+import org.springframework.data.mongodb.core.index.TextIndexDefinition;
+import org.springframework.data.mongodb.core.index.TextIndexDefinition.TextIndexDefinitionBuilder;
+import org.springframework.data.mongodb.core.query.Criteria;
 
 import com.kirjaswappi.backend.jpa.daos.BookDao;
+import com.kirjaswappi.backend.jpa.daos.GenreDao;
+import com.kirjaswappi.backend.jpa.daos.NotificationOutboxDao;
+import com.kirjaswappi.backend.jpa.daos.SwapRequestDao;
 
 /**
  * Configuration class for MongoDB indexes, including geospatial indexes for
@@ -36,7 +43,8 @@ public class MongoIndexConfig {
    * Creates necessary indexes for the application after the bean is constructed.
    * This includes proper 2dsphere geospatial indexes for accurate location-based
    * book searches. Only runs for test and cloud profiles to avoid MongoDB
-   * connection issues in CI/local environments without MongoDB.
+   * connection issues in CI/local environments without MongoDB. Other profiles
+   * only get the indexes that queries cannot run without.
    */
   @PostConstruct
   public void createIndexes() {
@@ -49,8 +57,24 @@ public class MongoIndexConfig {
         createIndexesInternal();
       }
     } else {
-      logger.info("Skipping index creation for current profile: {}",
+      logger.info("Creating only required indexes for current profile: {}",
           String.join(", ", environment.getActiveProfiles()));
+      createRequiredIndexes();
+    }
+  }
+
+  /**
+   * Creates the indexes without which queries fail rather than only slow down:
+   * {@code $text} needs a text index and {@code $geoNear} a 2dsphere index. A
+   * missing MongoDB is logged and does not fail startup.
+   */
+  private void createRequiredIndexes() {
+    try {
+      mongoTemplate.getDb().runCommand(new org.bson.Document("ping", 1));
+      createSearchTextIndex();
+      createGeospatialIndexes();
+    } catch (Exception e) {
+      logger.warn("Failed to create required indexes: {}", e.getMessage());
     }
   }
 
@@ -98,9 +122,30 @@ public class MongoIndexConfig {
       // Create compound index for latitude and longitude as fallback
       createLocationIndexes();
 
-      // Create text indexes for city and country for faster text searches
+      // Create indexes on the normalized city and country names
       createTextIndexes();
 
+      // Create the weighted full-text index backing book search
+      createSearchTextIndex();
+
+      // Create (sort key, _id) indexes backing keyset pagination
+      createKeysetIndexes();
+
+      // Create multikey indexes on the denormalized genre snapshots
+      createGenreSnapshotIndexes();
+
+      // Create the geohash index backing map clusters
+      createGeohashIndex();
+
+      // Create the owner index backing the other books of an owner
+      createOwnerIndex();
+
+      // Create the index backing the swap requests of a changed book
+      createSwapRequestBookIndex();
+
+      // Create the partial index backing the claiming of pending notifications
+      createNotificationOutboxPendingIndex();
+
       logger.info("Successfully created all MongoDB indexes");
 
     } catch (Exception e) {
@@ -161,26 +206,174 @@ public class MongoIndexConfig {
   }
 
   /**
-   * Creates text indexes for city and country searches.
+   * Creates indexes on the normalized city and country names, which city and
+   * country filters match by equality.
    */
   private void createTextIndexes() {
     try {
       Index cityIndex = new Index()
-          .on("location.city", org.springframework.data.domain.Sort.Direction.ASC)
-          .named("book_location_city");
+          .on("location.normalizedCity", org.springframework.data.domain.Sort.Direction.ASC)
+          .named("book_location_normalized_city");
       mongoTemplate.indexOps(BookDao.class).createIndex(cityIndex);
 
       Index countryIndex = new Index()
-          .on("location.country", org.springframework.data.domain.Sort.Direction.ASC)
-          .named("book_location_country");
+          .on("location.normalizedCountry", org.springframework.data.domain.Sort.Direction.ASC)
+          .named("book_location_normalized_country");
       mongoTemplate.indexOps(BookDao.class).createIndex(countryIndex);
 
-      logger.debug("Created text indexes for city and country searches");
+      logger.debug("Created indexes for city and country filters");
     } catch (Exception e) {
       logger.warn("Failed to create text indexes: {}", e.getMessage());
     }
   }
 
+  /**
+   * Creates the text index used by book search, weighting title matches over
+   * author matches over description matches. The catalogue mixes languages, so no
+   * stemming or stop words are applied, and the language override points at an
+   * unused field because books already carry their own "language" value.
+   */
+  private void createSearchTextIndex() {
+    try {
+      TextIndexDefinition searchIndex = new TextIndexDefinitionBuilder()
+          .onField("title", 10F)
+          .onField("author", 5F)
+          .onField("description", 1F)
+          .withDefaultLanguage("none")
+          .withLanguageOverride("searchLanguage")
+          .named("book_search_text")
+          .build();
+      mongoTemplate.indexOps(BookDao.class).createIndex(searchIndex);
+      logger.debug("Created weighted text index for book search");
+    } catch (Exception e) {
+      logger.warn("Failed to create book search text index: {}", e.getMessage());
+    }
+  }
+
+  /**
+   * Creates compound (sort key, _id) indexes so keyset pages can seek straight to
+   * the cursor position instead of skipping over earlier documents. There is one
+   * for every keyset sort field of BookService.
+   */
+  private void createKeysetIndexes() {
+    try {
+      for (String sortField : new String[] { "bookUpdatedAt", "title", "author", "language", "condition" }) {
+        Index keysetIndex = new Index()
+            .on(sortField, org.springframework.data.domain.Sort.Direction.ASC)
+            .on("_id", org.springframework.data.domain.Sort.Direction.ASC)
+            .named("book_keyset_" + sortField);
+        mongoTemplate.indexOps(BookDao.class).createIndex(keysetIndex);
+      }
+      logger.debug("Created keyset pagination indexes for books");
+    } catch (Exception e) {
+      logger.warn("Failed to create keyset pagination indexes: {}", e.getMessage());
+    }
+  }
+
+  /**
+   * Creates multikey indexes on the genre snapshots embedded in books: the path
+   * backs the genre filter as a prefix match, the name backs filters that are not
+   * resolved to paths, and the id backs propagation of genre renames. The path
+   * index on genres backs moving a genre's subtree.
+   */
+  private void createGenreSnapshotIndexes() {
+    try {
+      Index nameIndex = new Index()
+          .on("genreSnapshots.name", org.springframework.data.domain.Sort.Direction.ASC)
+          .named("book_genre_snapshots_name");
+      mongoTemplate.indexOps(BookDao.class).createIndex(nameIndex);
+
+      Index idIndex = new Index()
+          .on("genreSnapshots._id", org.springframework.data.domain.Sort.Direction.ASC)
+          .named("book_genre_snapshots_id");
+      mongoTemplate.indexOps(BookDao.class).createIndex(idIndex);
+
+      Index pathIndex = new Index()
+          .on("genreSnapshots.path", org.springframework.data.domain.Sort.Direction.ASC)
+          .named("book_genre_snapshots_path");
+      mongoTemplate.indexOps(BookDao.class).createIndex(pathIndex);
+
+      Index genrePathIndex = new Index()
+          .on("path", org.springframework.data.domain.Sort.Direction.ASC)
+          .named("genre_path");
+      mongoTemplate.indexOps(GenreDao.class).createIndex(genrePathIndex);
+
+      logger.debug("Created genre snapshot indexes for books");
+    } catch (Exception e) {
+      logger.warn("Failed to create genre snapshot indexes: {}", e.getMessage());
+    }
+  }
+
+  /**
+   * Creates an index on the location geohash. Geohash prefixes are anchored
+   * ranges on it, so single cells can be read without scanning the map bounds.
+   */
+  private void createGeohashIndex() {
+    try {
+      Index geohashIndex = new Index()
+          .on("location.geohash", org.springframework.data.domain.Sort.Direction.ASC)
+          .named("book_location_geohash");
+      mongoTemplate.indexOps(BookDao.class).createIndex(geohashIndex);
+      logger.debug("Created geohash index for book locations");
+    } catch (Exception e) {
+      logger.warn("Failed to create geohash index: {}", e.getMessage());
+    }
+  }
+
+  /**
+   * Creates an (owner, bookUpdatedAt, _id) index, so the newest books of an owner
+   * are read in order without sorting all of them.
+   */
+  private void createOwnerIndex() {
+    try {
+      Index ownerIndex = new Index()
+          .on("owner.$id", org.springframework.data.domain.Sort.Direction.ASC)
+          .on("bookUpdatedAt", org.springframework.data.domain.Sort.Direction.DESC)
+          .on("_id", org.springframework.data.domain.Sort.Direction.DESC)
+          .named("book_owner_updated");
+      mongoTemplate.indexOps(BookDao.class).createIndex(ownerIndex);
+      logger.debug("Created owner index for books");
+    } catch (Exception e) {
+      logger.warn("Failed to create book owner index: {}", e.getMessage());
+    }
+  }
+
+  /**
+   * Creates the (book, status) index backing the lookup and cancellation of the
+   * swap requests for a book when it changes.
+   */
+  private void createSwapRequestBookIndex() {
+    try {
+      Index bookStatusIndex = new Index()
+          .on("bookToSwapWith.$id", org.springframework.data.domain.Sort.Direction.ASC)
+          .on("swapStatus", org.springframework.data.domain.Sort.Direction.ASC)
+          .named("swap_request_book_status");
+      mongoTemplate.indexOps(SwapRequestDao.class).createIndex(bookStatusIndex);
+      logger.debug("Created book index for swap requests");
+    } catch (Exception e) {
+      logger.warn("Failed to create swap request book index: {}", e.getMessage());
+    }
+  }
+
+  /**
+   * Creates the (status, nextAttemptAt) index backing the claiming of due outbox
+   * notifications, earliest first. Partial on PENDING, so it stays as small as
+   * the backlog while sent and failed notifications pile up until cleanup.
+   */
+  private void createNotificationOutboxPendingIndex() {
+    try {
+      Index pendingIndex = new Index()
+          .on("status", org.springframework.data.domain.Sort.Direction.ASC)
+          .on("nextAttemptAt", org.springframework.data.domain.Sort.Direction.ASC)
+          .partial(PartialIndexFilter.of(Criteria.where("status").is("PENDING")))
+          .named("notification_outbox_status_next_attempt");
+      mongoTemplate.indexOps(NotificationOutboxDao.class).createIndex(pendingIndex);
+      logger.debug("Created pending index for notification outbox");
+    } catch (Exception e) {
+      logger.warn("Failed to create notification outbox pending index: {}", e.getMessage());
+    }
+  }
+
   /**
    * Checks if indexes should be created based on active profiles. Only creates
    * indexes for test and cloud profiles.
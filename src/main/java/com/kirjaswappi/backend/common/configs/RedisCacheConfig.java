@@ -23,6 +23,8 @@ import com.kirjaswappi.backend.http.dtos.responses.NestedGenresResponse;
 import com.kirjaswappi.backend.service.entities.Book;
 import com.kirjaswappi.backend.service.entities.Genre;
 import com.kirjaswappi.backend.service.entities.User;
+import com.kirjaswappi.backend.service.search.BookMapTileCache;
+import com.kirjaswappi.backend.service.search.BookSearchCache;
 
 @Configuration
 @Profile("cloud")
@@ -60,6 +62,17 @@ public class RedisCacheConfig {
         .withCacheConfiguration("books", config.entryTtl(Duration.ofMinutes(30))
             .serializeValuesWith(RedisSerializationContext.SerializationPair
                 .fromSerializer(new Jackson2JsonRedisSerializer<>(objectMapper, Book.class))))
+        // tiles hold books with presigned image urls, so they expire like "books"
+        .withCacheConfiguration(BookMapTileCache.CACHE_NAME, config.entryTtl(Duration.ofMinutes(30))
+            .serializeValuesWith(RedisSerializationContext.SerializationPair
+                .fromSerializer(new Jackson2JsonRedisSerializer<>(objectMapper, BookMapTileCache.Tile.class))))
+        // pages are hydrated from "books", so they need not outlive it
+        .withCacheConfiguration(BookSearchCache.PAGES_CACHE_NAME, config.entryTtl(Duration.ofMinutes(30))
+            .serializeValuesWith(RedisSerializationContext.SerializationPair
+                .fromSerializer(new Jackson2JsonRedisSerializer<>(objectMapper, BookSearchCache.CachedPage.class))))
+        .withCacheConfiguration(BookSearchCache.GENERATIONS_CACHE_NAME, config.entryTtl(Duration.ofDays(7))
+            .serializeValuesWith(RedisSerializationContext.SerializationPair
+                .fromSerializer(new Jackson2JsonRedisSerializer<>(objectMapper, Long.class))))
         .withCacheConfiguration("genres", config.entryTtl(Duration.ofDays(7))
             .serializeValuesWith(RedisSerializationContext.SerializationPair
                 .fromSerializer(new Jackson2JsonRedisSerializer<>(objectMapper,
@@ -67,9 +80,6 @@ public class RedisCacheConfig {
         .withCacheConfiguration("nested_genres", config.entryTtl(Duration.ofDays(7))
             .serializeValuesWith(RedisSerializationContext.SerializationPair
                 .fromSerializer(new Jackson2JsonRedisSerializer<>(objectMapper, NestedGenresResponse.class))))
-        .withCacheConfiguration("imageUrls", config.entryTtl(Duration.ofDays(6))
-            .serializeValuesWith(RedisSerializationContext.SerializationPair
-                .fromSerializer(new Jackson2JsonRedisSerializer<>(objectMapper, String.class))))
         .build();
   }
 }
@@ -0,0 +1,35 @@
+/*
+ * Copyright (c) 2026 KirjaSwappi or KirjaSwappi affiliate company. All rights reserved.
+ * Author: Mahiuddin Al Kamal <mahiuddinalkamal>
+ */
+package com.kirjaswappi.backend.common.configs;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import com.kirjaswappi.backend.common.components.BookSuggestionIndexBroadcaster;
+import com.kirjaswappi.backend.common.components.GenreRegistryBroadcaster;
+
+/**
+ * Redis pub/sub between the nodes of the cloud deployment.
+ */
+@Configuration
+@Profile("cloud")
+public class RedisMessagingConfig {
+
+  @Bean
+  public RedisMessageListenerContainer redisMessageListenerContainer(RedisConnectionFactory connectionFactory,
+      GenreRegistryBroadcaster genreRegistryBroadcaster,
+      BookSuggestionIndexBroadcaster bookSuggestionIndexBroadcaster) {
+    var container = new RedisMessageListenerContainer();
+    container.setConnectionFactory(connectionFactory);
+    container.addMessageListener(genreRegistryBroadcaster, new ChannelTopic(GenreRegistryBroadcaster.CHANNEL));
+    container.addMessageListener(bookSuggestionIndexBroadcaster,
+        new ChannelTopic(BookSuggestionIndexBroadcaster.CHANNEL));
+    return container;
+  }
+}
@@ -4,12 +4,16 @@
  */
 package com.kirjaswappi.backend.common.configs;
 
+import java.time.Clock;
+
 import io.minio.MinioClient;
 
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import com.kirjaswappi.backend.common.utils.PresignedUrlSigner;
+
 @Configuration
 public class S3BucketConfig {
   @Value("${s3.url}")
@@ -21,11 +25,20 @@ public class S3BucketConfig {
   @Value("${s3.secretKey}")
   private String secretKey;
 
+  @Value("${s3.region:us-east-1}")
+  private String region;
+
   @Bean
   public MinioClient minioClient() {
     return MinioClient.builder()
         .endpoint(s3Url)
         .credentials(accessKey, secretKey)
+        .region(region)
         .build();
   }
+
+  @Bean
+  public PresignedUrlSigner presignedUrlSigner() {
+    return new PresignedUrlSigner(s3Url, region, accessKey, secretKey, Clock.systemUTC());
+  }
 }
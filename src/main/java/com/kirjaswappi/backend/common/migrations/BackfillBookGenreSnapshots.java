@@ -0,0 +1,81 @@
+/*
+ * Copyright (c) 2026 KirjaSwappi or KirjaSwappi affiliate company. All rights reserved.
+ * Author: Mahiuddin Al Kamal <mahiuddinalkamal>
+ */
+package com.kirjaswappi.backend.common.migrations;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import io.mongock.api.annotations.ChangeUnit;
+import io.mongock.api.annotations.Execution;
+import io.mongock.api.annotations.RollbackExecution;
+
+import org.bson.Document;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import com.mongodb.DBRef;
+
+@ChangeUnit(id = "backfillBookGenreSnapshots", order = "0007", author = "mahiuddinalkamal")
+public class BackfillBookGenreSnapshots {
+  private static final int BATCH_SIZE = 500;
+
+  private final MongoTemplate mongoTemplate;
+
+  public BackfillBookGenreSnapshots(MongoTemplate mongoTemplate) {
+    this.mongoTemplate = mongoTemplate;
+  }
+
+  @Execution
+  public void executeMigration() {
+    // Resolve every genre name once instead of once per book
+    Map<Object, String> genreNames = new HashMap<>();
+    for (var genre : mongoTemplate.findAll(Document.class, "genres")) {
+      genreNames.put(genre.get("_id"), genre.getString("name"));
+    }
+
+    // Copy the id and name of each referenced genre onto the book, streaming the
+    // books and writing their snapshots in unordered batches
+    Query query = new Query(Criteria.where("genres").exists(true));
+    query.fields().include("genres");
+    try (var books = mongoTemplate.stream(query, Document.class, "books")) {
+      var updates = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, "books");
+      int batched = 0;
+      for (var iterator = books.iterator(); iterator.hasNext();) {
+        var book = iterator.next();
+        List<Document> snapshots = new ArrayList<>();
+        for (Object genre : book.getList("genres", Object.class, List.of())) {
+          if (genre instanceof DBRef ref && genreNames.containsKey(ref.getId())) {
+            snapshots.add(new Document("_id", ref.getId()).append("name", genreNames.get(ref.getId())));
+          }
+        }
+
+        updates.updateOne(
+            new Query(Criteria.where("_id").is(book.getObjectId("_id"))),
+            new Update().set("genreSnapshots", snapshots));
+        if (++batched == BATCH_SIZE) {
+          updates.execute();
+          updates = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, "books");
+          batched = 0;
+        }
+      }
+      if (batched > 0) {
+        updates.execute();
+      }
+    }
+  }
+
+  @RollbackExecution
+  public void rollback() {
+    mongoTemplate.updateMulti(
+        new Query(Criteria.where("genreSnapshots").exists(true)),
+        new Update().unset("genreSnapshots"),
+        "books");
+  }
+}
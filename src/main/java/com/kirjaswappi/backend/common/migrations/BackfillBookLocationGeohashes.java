@@ -0,0 +1,74 @@
+/*
+ * Copyright (c) 2026 KirjaSwappi or KirjaSwappi affiliate company. All rights reserved.
+ * Author: Mahiuddin Al Kamal <mahiuddinalkamal>
+ */
+package com.kirjaswappi.backend.common.migrations;
+
+import io.mongock.api.annotations.ChangeUnit;
+import io.mongock.api.annotations.Execution;
+import io.mongock.api.annotations.RollbackExecution;
+
+import org.bson.Document;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import com.kirjaswappi.backend.common.utils.Geohash;
+import com.kirjaswappi.backend.service.entities.BookLocation;
+
+@ChangeUnit(id = "backfillBookLocationGeohashes", order = "0008", author = "mahiuddinalkamal")
+public class BackfillBookLocationGeohashes {
+  private static final int BATCH_SIZE = 500;
+
+  private final MongoTemplate mongoTemplate;
+
+  public BackfillBookLocationGeohashes(MongoTemplate mongoTemplate) {
+    this.mongoTemplate = mongoTemplate;
+  }
+
+  @Execution
+  public void executeMigration() {
+    // Only books with a usable position can be placed in a map cell. Books are
+    // streamed and their geohashes written in unordered batches.
+    Query query = new Query(Criteria.where("location.latitude").exists(true)
+        .and("location.longitude").exists(true));
+    query.fields().include("location.latitude", "location.longitude");
+    try (var books = mongoTemplate.stream(query, Document.class, "books")) {
+      var updates = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, "books");
+      int batched = 0;
+      for (var iterator = books.iterator(); iterator.hasNext();) {
+        var book = iterator.next();
+        var location = book.get("location", Document.class);
+        if (!(location.get("latitude") instanceof Number latitude)
+            || !(location.get("longitude") instanceof Number longitude)
+            || !BookLocation.isValidLatitude(latitude.doubleValue())
+            || !BookLocation.isValidLongitude(longitude.doubleValue())) {
+          continue;
+        }
+
+        updates.updateOne(
+            new Query(Criteria.where("_id").is(book.getObjectId("_id"))),
+            new Update().set("location.geohash",
+                Geohash.encode(latitude.doubleValue(), longitude.doubleValue(), Geohash.STORED_PRECISION)));
+        if (++batched == BATCH_SIZE) {
+          updates.execute();
+          updates = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, "books");
+          batched = 0;
+        }
+      }
+      if (batched > 0) {
+        updates.execute();
+      }
+    }
+  }
+
+  @RollbackExecution
+  public void rollback() {
+    mongoTemplate.updateMulti(
+        new Query(Criteria.where("location.geohash").exists(true)),
+        new Update().unset("location.geohash"),
+        "books");
+  }
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright (c) 2026 KirjaSwappi or KirjaSwappi affiliate company. All rights reserved.
+ * Author: Mahiuddin Al Kamal <mahiuddinalkamal>
+ */
+package com.kirjaswappi.backend.common.migrations;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+
+import io.mongock.api.annotations.ChangeUnit;
+import io.mongock.api.annotations.Execution;
+import io.mongock.api.annotations.RollbackExecution;
+
+import org.bson.Document;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import com.mongodb.DBRef;
+
+@ChangeUnit(id = "backfillGenrePaths", order = "0010", author = "mahiuddinalkamal")
+public class BackfillGenrePaths {
+
+  private final MongoTemplate mongoTemplate;
+
+  public BackfillGenrePaths(MongoTemplate mongoTemplate) {
+    this.mongoTemplate = mongoTemplate;
+  }
+
+  @Execution
+  public void executeMigration() {
+    // Resolve every genre's parent once, then walk up to the root for the path
+    Map<Object, Object> parentIds = new HashMap<>();
+    for (var genre : mongoTemplate.findAll(Document.class, "genres")) {
+      parentIds.put(genre.get("_id"), genre.get("parent") instanceof DBRef ref ? ref.getId() : null);
+    }
+    Map<Object, String> paths = new HashMap<>();
+    for (var genreId : parentIds.keySet()) {
+      paths.put(genreId, pathOf(genreId, parentIds));
+      mongoTemplate.updateFirst(
+          new Query(Criteria.where("_id").is(genreId)),
+          new Update().set("path", paths.get(genreId)),
+          "genres");
+    }
+
+    // Copy the path of each genre onto its snapshots embedded in books
+    Query query = new Query(Criteria.where("genreSnapshots").exists(true));
+    var books = mongoTemplate.find(query, Document.class, "books");
+
+    for (var book : books) {
+      List<Document> snapshots = new ArrayList<>();
+      for (var snapshot : book.getList("genreSnapshots", Document.class, List.of())) {
+        snapshots.add(new Document(snapshot).append("path", paths.get(snapshot.get("_id"))));
+      }
+
+      mongoTemplate.updateFirst(
+          new Query(Criteria.where("_id").is(book.getObjectId("_id"))),
+          new Update().set("genreSnapshots", snapshots),
+          "books");
+    }
+  }
+
+  private static String pathOf(Object genreId, Map<Object, Object> parentIds) {
+    List<String> ids = new ArrayList<>();
+    var seen = new HashSet<>();
+    // a parent missing from the collection ends the path, a cycle stops it
+    for (var id = genreId; id != null && parentIds.containsKey(id) && seen.add(id); id = parentIds.get(id)) {
+      ids.add(id.toString());
+    }
+    Collections.reverse(ids);
+    return "/" + String.join("/", ids) + "/";
+  }
+
+  @RollbackExecution
+  public void rollback() {
+    mongoTemplate.updateMulti(
+        new Query(Criteria.where("path").exists(true)),
+        new Update().unset("path"),
+        "genres");
+    mongoTemplate.updateMulti(
+        new Query(Criteria.where("genreSnapshots.path").exists(true)),
+        new Update().unset("genreSnapshots.$[].path"),
+        "books");
+  }
+}
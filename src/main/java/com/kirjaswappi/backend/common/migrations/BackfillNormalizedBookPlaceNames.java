@@ -0,0 +1,79 @@
+/*
+ * Copyright (c) 2026 KirjaSwappi or KirjaSwappi affiliate company. All rights reserved.
+ * Author: Mahiuddin Al Kamal <mahiuddinalkamal>
+ */
+package com.kirjaswappi.backend.common.migrations;
+
+import io.mongock.api.annotations.ChangeUnit;
+import io.mongock.api.annotations.Execution;
+import io.mongock.api.annotations.RollbackExecution;
+
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import com.kirjaswappi.backend.service.entities.BookLocation;
+
+@ChangeUnit(id = "backfillNormalizedBookPlaceNames", order = "0009", author = "mahiuddinalkamal")
+public class BackfillNormalizedBookPlaceNames {
+  private static final Logger logger = LoggerFactory.getLogger(BackfillNormalizedBookPlaceNames.class);
+  private static final int BATCH_SIZE = 500;
+
+  private final MongoTemplate mongoTemplate;
+
+  public BackfillNormalizedBookPlaceNames(MongoTemplate mongoTemplate) {
+    this.mongoTemplate = mongoTemplate;
+  }
+
+  @Execution
+  public void executeMigration() {
+    // Books are streamed and their normalized names written in unordered batches
+    Query query = new Query(new Criteria().orOperator(
+        Criteria.where("location.city").exists(true),
+        Criteria.where("location.country").exists(true)));
+    query.fields().include("location.city", "location.country");
+    try (var books = mongoTemplate.stream(query, Document.class, "books")) {
+      var updates = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, "books");
+      int batched = 0;
+      for (var iterator = books.iterator(); iterator.hasNext();) {
+        var book = iterator.next();
+        var location = book.get("location", Document.class);
+        updates.updateOne(
+            new Query(Criteria.where("_id").is(book.getObjectId("_id"))),
+            new Update()
+                .set("location.normalizedCity", BookLocation.normalizePlaceName(location.getString("city")))
+                .set("location.normalizedCountry", BookLocation.normalizePlaceName(location.getString("country"))));
+        if (++batched == BATCH_SIZE) {
+          updates.execute();
+          updates = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, "books");
+          batched = 0;
+        }
+      }
+      if (batched > 0) {
+        updates.execute();
+      }
+    }
+
+    // The raw name indexes only served the former case-insensitive regex filters
+    for (String index : new String[] { "book_location_city", "book_location_country" }) {
+      try {
+        mongoTemplate.indexOps("books").dropIndex(index);
+      } catch (Exception e) {
+        logger.debug("Index {} not dropped (may not exist): {}", index, e.getMessage());
+      }
+    }
+  }
+
+  @RollbackExecution
+  public void rollback() {
+    mongoTemplate.updateMulti(
+        new Query(Criteria.where("location").exists(true)),
+        new Update().unset("location.normalizedCity").unset("location.normalizedCountry"),
+        "books");
+  }
+}
@@ -5,24 +5,23 @@
 package com.kirjaswappi.backend.common.service;
 
 import java.io.InputStream;
-import java.util.concurrent.TimeUnit;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
-import io.minio.GetPresignedObjectUrlArgs;
 import io.minio.MinioClient;
 import io.minio.PutObjectArgs;
 import io.minio.RemoveObjectArgs;
-import io.minio.http.Method;
 import lombok.RequiredArgsConstructor;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.cache.annotation.CacheEvict;
-import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 
+import com.kirjaswappi.backend.common.utils.PresignedUrlSigner;
 import com.kirjaswappi.backend.service.exceptions.*;
 
 @Service
@@ -36,6 +35,8 @@ public class ImageService {
 
   private final MinioClient minioClient;
 
+  private final PresignedUrlSigner presignedUrlSigner;
+
   public void uploadImage(MultipartFile file, String uniqueId) {
     try {
       try (InputStream inputStream = file.getInputStream()) {
@@ -53,23 +54,30 @@ public class ImageService {
     }
   }
 
-  @Cacheable(value = "imageUrls", key = "#uniqueId")
+  /**
+   * Signs the download URL locally; the URL stays the same for every request
+   * within a signing window, so it needs no cache of its own.
+   */
   public String getDownloadUrl(String uniqueId) {
     try {
-      return minioClient.getPresignedObjectUrl(
-          GetPresignedObjectUrlArgs.builder()
-              .bucket(bucketName)
-              .object(uniqueId)
-              .method(Method.GET)
-              .expiry(7, TimeUnit.DAYS)
-              .build());
+      return presignedUrlSigner.presignGet(bucketName, uniqueId);
     } catch (Exception e) {
       logger.error("Image fetch failed {}", e.getMessage());
       throw new ImageUrlFetchFailureException(uniqueId);
     }
   }
 
-  @CacheEvict(value = "imageUrls", key = "#uniqueId")
+  /**
+   * Bulk variant of {@link #getDownloadUrl(String)} for list pages.
+   *
+   * @return the download URL of every given unique ID
+   */
+  public Map<String, String> getDownloadUrls(Collection<String> uniqueIds) {
+    Map<String, String> urls = new LinkedHashMap<>();
+    uniqueIds.forEach(uniqueId -> urls.computeIfAbsent(uniqueId, this::getDownloadUrl));
+    return urls;
+  }
+
   public void deleteImage(String uniqueId) {
     try {
       minioClient.removeObject(
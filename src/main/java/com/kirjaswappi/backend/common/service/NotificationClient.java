@@ -4,6 +4,8 @@
  */
 package com.kirjaswappi.backend.common.service;
 
+import java.util.Collection;
+
 /**
  * Interface for notification service operations. This interface allows for easy
  * mocking in tests.
@@ -19,6 +21,15 @@ public interface NotificationClient {
    */
   void sendNotification(String userId, String title, String message);
 
+  /**
+   * Sends the same notification to several users at once.
+   *
+   * @param userIds the user IDs to send the notification to
+   * @param title   the notification title
+   * @param message the notification message
+   */
+  void sendNotifications(Collection<String> userIds, String title, String message);
+
   /**
    * Shuts down the notification service.
    */
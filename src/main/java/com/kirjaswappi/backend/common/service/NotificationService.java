@@ -6,9 +6,20 @@ package com.kirjaswappi.backend.common.service;
 
 import java.time.Duration;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
 import io.grpc.CallCredentials;
 import io.grpc.ManagedChannel;
 import io.grpc.ManagedChannelBuilder;
@@ -22,6 +33,10 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.MoreExecutors;
 import com.google.protobuf.Timestamp;
 import com.kirjaswappi.backend.jpa.daos.NotificationOutboxDao;
 import com.kirjaswappi.backend.jpa.repositories.NotificationOutboxRepository;
@@ -40,15 +55,45 @@ public class NotificationService implements NotificationClient {
   private static final Duration FAILED_RETENTION = Duration.ofDays(7);
   private static final Duration SENT_RETENTION = Duration.ofDays(14);
   private static final long CLEANUP_INTERVAL_MS = 86_400_000L; // 1 day
+  // a batch is sent well within its lease, else another node may send it again
+  private static final int CLAIM_BATCH_SIZE = 100;
+  private static final int MAX_BATCHES_PER_RUN = 10;
+  private static final Duration CLAIM_LEASE = Duration.ofMinutes(2);
+  private static final Duration SEND_DEADLINE = Duration.ofSeconds(10);
+  private static final Duration RETRY_BASE_DELAY = Duration.ofSeconds(30);
+  private static final Duration RETRY_MAX_DELAY = Duration.ofMinutes(30);
+
+  // stops sending while most recent calls to the notification service fail,
+  // then lets a few calls through to probe whether it has recovered
+  private static final CircuitBreakerConfig CIRCUIT_BREAKER_CONFIG = CircuitBreakerConfig.custom()
+      .slidingWindowType(CircuitBreakerConfig.SlidingWindowType.COUNT_BASED)
+      .slidingWindowSize(20)
+      .minimumNumberOfCalls(10)
+      .failureRateThreshold(50)
+      .waitDurationInOpenState(Duration.ofSeconds(30))
+      .permittedNumberOfCallsInHalfOpenState(3)
+      .automaticTransitionFromOpenToHalfOpenEnabled(true)
+      .build();
 
   @Autowired
   private NotificationOutboxRepository notificationOutboxRepository;
 
+  // notifications sent at once, waiting for their responses
+  private int maxInFlight = 32;
+
+  // how long a batch waits for responses before giving up on the rest
+  private Duration responseTimeout = SEND_DEADLINE.multipliedBy(2);
+
   private static final Metadata.Key<String> API_KEY_METADATA_KEY = Metadata.Key.of("x-api-key",
       Metadata.ASCII_STRING_MARSHALLER);
 
+  // identifies this node's claims on outbox notifications
+  private final String instanceId = UUID.randomUUID().toString();
+
+  private final CircuitBreaker circuitBreaker = CircuitBreaker.of("notificationService", CIRCUIT_BREAKER_CONFIG);
+
   private final ManagedChannel channel;
-  private final NotificationServiceGrpc.NotificationServiceBlockingStub stub;
+  private final NotificationServiceGrpc.NotificationServiceFutureStub stub;
   private final boolean enabled;
 
   public NotificationService(
@@ -70,7 +115,7 @@ public class NotificationService implements NotificationClient {
       }
       this.channel = builder.build();
 
-      var bareStub = NotificationServiceGrpc.newBlockingStub(channel);
+      var bareStub = NotificationServiceGrpc.newFutureStub(channel);
       if (apiKey != null && !apiKey.isBlank()) {
         this.stub = bareStub.withCallCredentials(apiKeyCallCredentials(apiKey));
         logger.info("Notification service client initialized for {}:{} (with API key auth)", host, port);
@@ -86,6 +131,18 @@ public class NotificationService implements NotificationClient {
     }
   }
 
+  /**
+   * Rejects a window of no notifications at startup, as sending would block
+   * forever waiting for room in it.
+   */
+  @Value("${notification.service.maxInFlight:32}")
+  void setMaxInFlight(int maxInFlight) {
+    if (maxInFlight < 1) {
+      throw new IllegalArgumentException("notification.service.maxInFlight must be at least 1, but is " + maxInFlight);
+    }
+    this.maxInFlight = maxInFlight;
+  }
+
   /**
    * Visible for testing. Builds a {@link CallCredentials} that applies the
    * {@code x-api-key} metadata header on every outgoing call.
@@ -110,70 +167,198 @@ public class NotificationService implements NotificationClient {
     }
 
     try {
-      NotificationOutboxDao outbox = NotificationOutboxDao.builder()
-          .userId(userId)
-          .title(title)
-          .message(message)
-          .status(STATUS_PENDING)
-          .createdAt(Instant.now())
-          .retryCount(0)
-          .build();
-
-      notificationOutboxRepository.save(outbox);
+      notificationOutboxRepository.save(pendingNotification(userId, title, message));
       logger.debug("Notification queued in outbox for user: {}", userId);
     } catch (Exception e) {
       logger.error("Failed to queue notification for user: {}", userId, e);
     }
   }
 
+  @Override
+  public void sendNotifications(Collection<String> userIds, String title, String message) {
+    if (!enabled || userIds.isEmpty()) {
+      return;
+    }
+
+    try {
+      // one insertMany instead of a save per user
+      notificationOutboxRepository.insert(userIds.stream()
+          .map(userId -> pendingNotification(userId, title, message))
+          .toList());
+      logger.debug("Notification queued in outbox for {} users", userIds.size());
+    } catch (Exception e) {
+      logger.error("Failed to queue notification for {} users", userIds.size(), e);
+    }
+  }
+
+  private static NotificationOutboxDao pendingNotification(String userId, String title, String message) {
+    Instant now = Instant.now();
+    return NotificationOutboxDao.builder()
+        .userId(userId)
+        .title(title)
+        .message(message)
+        .status(STATUS_PENDING)
+        .createdAt(now)
+        .nextAttemptAt(now)
+        .retryCount(0)
+        .build();
+  }
+
+  /**
+   * Sends the pending notifications of the outbox that are due, claiming them a
+   * bounded batch at a time, so that every node can run this without sending any
+   * notification twice. Nothing is claimed while the circuit breaker is open.
+   */
   @Scheduled(fixedDelay = 5000) // Run every 5 seconds
   public void processOutbox() {
     if (!enabled || stub == null) {
       return;
     }
 
-    List<NotificationOutboxDao> pendingNotifications = notificationOutboxRepository
-        .findByStatusOrderByCreatedAtAsc(STATUS_PENDING);
-    if (pendingNotifications.isEmpty()) {
-      return;
-    }
+    for (int batch = 0; batch < MAX_BATCHES_PER_RUN; batch++) {
+      if (circuitBreaker.getState() == CircuitBreaker.State.OPEN) {
+        logger.debug("Notification service circuit breaker is open, skipping dispatch");
+        return;
+      }
+      List<NotificationOutboxDao> claimedNotifications = notificationOutboxRepository
+          .claimPending(instanceId, Instant.now().plus(CLAIM_LEASE), CLAIM_BATCH_SIZE);
+      if (claimedNotifications.isEmpty()) {
+        return;
+      }
 
-    logger.debug("Processing {} pending notifications", pendingNotifications.size());
+      logger.debug("Processing {} claimed notifications", claimedNotifications.size());
 
-    for (NotificationOutboxDao notification : pendingNotifications) {
-      processNotification(notification);
+      var processed = dispatch(claimedNotifications);
+      int stillClaimed = notificationOutboxRepository.completeClaims(processed, instanceId);
+      if (stillClaimed < processed.size()) {
+        logger.warn("Lease on {} notifications ran out before they were processed",
+            processed.size() - stillClaimed);
+      }
+      if (claimedNotifications.size() < CLAIM_BATCH_SIZE) {
+        return;
+      }
     }
   }
 
-  private void processNotification(NotificationOutboxDao notification) {
+  /**
+   * Sends the notifications without waiting for each response before the next
+   * send, keeping at most {@code maxInFlight} of them awaiting their responses.
+   * Notifications the circuit breaker does not let through are returned
+   * unchanged, so that their claims are released without counting an attempt.
+   * Sends still unanswered after the response timeout are cancelled and retried
+   * like failed ones, so a late response can no longer change them.
+   *
+   * @return the notifications whose outcome is known; any others are left to
+   *         their lease running out
+   */
+  private List<NotificationOutboxDao> dispatch(List<NotificationOutboxDao> notifications) {
+    var inFlight = new Semaphore(maxInFlight);
+    var outstanding = new CountDownLatch(notifications.size());
+    var processed = new ConcurrentLinkedQueue<NotificationOutboxDao>();
+    // whoever removes a notification from here settles it: its callback, or the
+    // timeout below
+    var awaiting = new ConcurrentHashMap<NotificationOutboxDao, PendingSend>();
     try {
-      Instant now = Instant.now();
-      NotificationRequest request = NotificationRequest.newBuilder()
-          .setUserId(notification.userId())
-          .setTitle(notification.title())
-          .setMessage(notification.message())
-          .setTime(Timestamp.newBuilder()
-              .setSeconds(now.getEpochSecond())
-              .setNanos(now.getNano())
-              .build())
-          .build();
-
-      NotificationResponse response = stub.sendNotification(request);
-
-      if (response.getSuccess()) {
-        notification.status(STATUS_SENT)
-            .sentAt(Instant.now());
-        logger.debug("Notification sent successfully to user: {}", notification.userId());
-      } else {
-        handleHelper(notification, "Service returned failure");
+      for (NotificationOutboxDao notification : notifications) {
+        inFlight.acquire();
+        if (!circuitBreaker.tryAcquirePermission()) {
+          processed.add(notification);
+          inFlight.release();
+          outstanding.countDown();
+          continue;
+        }
+        long sentAt = System.nanoTime();
+        ListenableFuture<NotificationResponse> response;
+        try {
+          response = stub.withDeadlineAfter(SEND_DEADLINE.toMillis(), TimeUnit.MILLISECONDS)
+              .sendNotification(toRequest(notification));
+        } catch (Exception e) {
+          circuitBreaker.onError(System.nanoTime() - sentAt, TimeUnit.NANOSECONDS, e);
+          handleHelper(notification, "Exception: " + e.getMessage());
+          processed.add(notification);
+          inFlight.release();
+          outstanding.countDown();
+          continue;
+        }
+        awaiting.put(notification, new PendingSend(response, sentAt));
+        Futures.addCallback(response, new FutureCallback<>() {
+          @Override
+          public void onSuccess(NotificationResponse result) {
+            if (awaiting.remove(notification) == null) {
+              return;
+            }
+            // the service is up, even if it could not deliver this notification
+            circuitBreaker.onSuccess(System.nanoTime() - sentAt, TimeUnit.NANOSECONDS);
+            if (result.getSuccess()) {
+              notification.status(STATUS_SENT)
+                  .sentAt(Instant.now());
+              logger.debug("Notification sent successfully to user: {}", notification.userId());
+            } else {
+              handleHelper(notification, "Service returned failure");
+            }
+            done();
+          }
+
+          @Override
+          public void onFailure(Throwable t) {
+            if (awaiting.remove(notification) == null) {
+              return;
+            }
+            circuitBreaker.onError(System.nanoTime() - sentAt, TimeUnit.NANOSECONDS, t);
+            if (t instanceof StatusRuntimeException e) {
+              handleHelper(notification, "gRPC Status: " + e.getStatus());
+            } else {
+              handleHelper(notification, "Exception: " + t.getMessage());
+            }
+            done();
+          }
+
+          private void done() {
+            processed.add(notification);
+            inFlight.release();
+            outstanding.countDown();
+          }
+        }, MoreExecutors.directExecutor());
       }
-    } catch (StatusRuntimeException e) {
-      handleHelper(notification, "gRPC Status: " + e.getStatus());
-    } catch (Exception e) {
-      handleHelper(notification, "Exception: " + e.getMessage());
-    } finally {
-      notificationOutboxRepository.save(notification);
+      // every call has a deadline, so this only times out if responses are lost
+      if (!outstanding.await(responseTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+        logger.warn("{} notifications got no response in time", outstanding.getCount());
+        for (var notification : List.copyOf(awaiting.keySet())) {
+          var send = awaiting.remove(notification);
+          if (send == null) {
+            continue;
+          }
+          send.response().cancel(true);
+          var timeout = new TimeoutException("No response within " + responseTimeout);
+          circuitBreaker.onError(System.nanoTime() - send.sentAt(), TimeUnit.NANOSECONDS, timeout);
+          handleHelper(notification, "Exception: " + timeout.getMessage());
+          processed.add(notification);
+          outstanding.countDown();
+        }
+        // only callbacks that settled their notification before the cancel remain
+        outstanding.await();
+      }
+    } catch (InterruptedException e) {
+      logger.warn("Interrupted while sending notifications");
+      Thread.currentThread().interrupt();
     }
+    return new ArrayList<>(processed);
+  }
+
+  private record PendingSend(ListenableFuture<NotificationResponse> response, long sentAt) {
+  }
+
+  private static NotificationRequest toRequest(NotificationOutboxDao notification) {
+    Instant now = Instant.now();
+    return NotificationRequest.newBuilder()
+        .setUserId(notification.userId())
+        .setTitle(notification.title())
+        .setMessage(notification.message())
+        .setTime(Timestamp.newBuilder()
+            .setSeconds(now.getEpochSecond())
+            .setNanos(now.getNano())
+            .build())
+        .build();
   }
 
   private void handleHelper(NotificationOutboxDao notification, String error) {
@@ -182,13 +367,24 @@ public class NotificationService implements NotificationClient {
       logger.error("Notification failed permanently for user: {}. Error: {}", notification.userId(), error);
     } else {
       notification.retryCount(notification.retryCount() + 1);
-      // Keep status PENDING to try again
-      logger.warn("Notification failed for user: {}. Retrying ({}/{}). Error: {}",
-          notification.userId(), notification.retryCount(), MAX_RETRIES, error);
+      // Keep status PENDING to try again once the backoff has passed
+      notification.nextAttemptAt(Instant.now().plus(retryDelay(notification.retryCount())));
+      logger.warn("Notification failed for user: {}. Retrying ({}/{}) at {}. Error: {}",
+          notification.userId(), notification.retryCount(), MAX_RETRIES, notification.nextAttemptAt(), error);
     }
     notification.errorMessage(error);
   }
 
+  /**
+   * Exponential backoff before the given retry, with the upper half jittered so
+   * that notifications failing together are not all retried together.
+   */
+  static Duration retryDelay(int retryCount) {
+    long exponential = RETRY_BASE_DELAY.toMillis() << Math.min(retryCount - 1, 20);
+    long delay = Math.min(exponential, RETRY_MAX_DELAY.toMillis());
+    return Duration.ofMillis(delay / 2 + ThreadLocalRandom.current().nextLong(delay / 2 + 1));
+  }
+
   @Scheduled(fixedDelay = CLEANUP_INTERVAL_MS)
   public void cleanupFailedNotifications() {
     if (!enabled) {
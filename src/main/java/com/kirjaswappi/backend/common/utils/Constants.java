@@ -31,6 +31,8 @@ public class Constants {
   public static final String ID = "/{id}";
   public static final String BOOK_ID = "/{bookId}";
   public static final String MORE_BOOKS = "/more-books";
+  public static final String SUGGEST = "/suggest";
+  public static final String BULK = "/bulk";
   public static final String USERNAME = "/{username}";
   public static final String EMAIL = "/{email}";
   public static final String SEND_OTP = "/send-otp";
@@ -51,6 +53,7 @@ public class Constants {
   public static final String CITIES = "/cities";
   public static final String FORMS = "/forms";
   public static final String REPORTS = "/reports";
+  public static final String MAINTENANCE_JOBS = "/maintenance-jobs";
   public static final String BLOCK = "/block";
   public static final String MUTE = "/mute";
   public static final String READ = "/read";
@@ -0,0 +1,53 @@
+/*
+ * Copyright (c) 2026 KirjaSwappi or KirjaSwappi affiliate company. All rights reserved.
+ * Author: Mahiuddin Al Kamal <mahiuddinalkamal>
+ */
+package com.kirjaswappi.backend.common.utils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public final class CsvUtil {
+
+  private CsvUtil() {
+    throw new IllegalStateException("Utility class  should not be instantiated");
+  }
+
+  /**
+   * Splits one CSV line into its fields. Fields may be quoted with double quotes,
+   * with a doubled quote standing for a quote inside; quoted fields cannot span
+   * lines.
+   *
+   * @throws IllegalArgumentException if a quoted field is not closed
+   */
+  public static List<String> parseLine(String line) {
+    var fields = new ArrayList<String>();
+    var field = new StringBuilder();
+    var quoted = false;
+    for (int i = 0; i < line.length(); i++) {
+      char c = line.charAt(i);
+      if (quoted) {
+        if (c != '"') {
+          field.append(c);
+        } else if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+          field.append('"');
+          i++;
+        } else {
+          quoted = false;
+        }
+      } else if (c == '"') {
+        quoted = true;
+      } else if (c == ',') {
+        fields.add(field.toString());
+        field.setLength(0);
+      } else {
+        field.append(c);
+      }
+    }
+    if (quoted) {
+      throw new IllegalArgumentException("Unclosed quote in CSV line");
+    }
+    fields.add(field.toString());
+    return fields;
+  }
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright (c) 2026 KirjaSwappi or KirjaSwappi affiliate company. All rights reserved.
+ * Author: Mahiuddin Al Kamal <mahiuddinalkamal>
+ */
+package com.kirjaswappi.backend.common.utils;
+
+/**
+ * Geohash encoding. A geohash interleaves longitude and latitude bisections
+ * into base-32 characters, so every prefix of a hash names the grid cell that
+ * contains it and books sharing a prefix lie in the same cell.
+ */
+public final class Geohash {
+
+  /**
+   * Precision stored on book locations, a cell of roughly 38 m by 19 m. Any
+   * coarser cell is a prefix of it.
+   */
+  public static final int STORED_PRECISION = 8;
+
+  private static final String BASE32 = "0123456789bcdefghjkmnpqrstuvwxyz";
+
+  private Geohash() {
+    throw new IllegalStateException("Utility class  should not be instantiated");
+  }
+
+  public static String encode(double latitude, double longitude, int precision) {
+    if (precision < 1 || precision > 12) {
+      throw new IllegalArgumentException("Geohash precision must be between 1 and 12: " + precision);
+    }
+    double minLat = -90, maxLat = 90;
+    double minLng = -180, maxLng = 180;
+    var hash = new StringBuilder(precision);
+    boolean evenBit = true;
+    int bit = 0;
+    int index = 0;
+    while (hash.length() < precision) {
+      if (evenBit) {
+        double mid = (minLng + maxLng) / 2;
+        if (longitude >= mid) {
+          index = index * 2 + 1;
+          minLng = mid;
+        } else {
+          index = index * 2;
+          maxLng = mid;
+        }
+      } else {
+        double mid = (minLat + maxLat) / 2;
+        if (latitude >= mid) {
+          index = index * 2 + 1;
+          minLat = mid;
+        } else {
+          index = index * 2;
+          maxLat = mid;
+        }
+      }
+      evenBit = !evenBit;
+      if (++bit == 5) {
+        hash.append(BASE32.charAt(index));
+        bit = 0;
+        index = 0;
+      }
+    }
+    return hash.toString();
+  }
+
+  /**
+   * Height in degrees of latitude of a cell of the given precision. Latitude
+   * takes the odd bits, five per character.
+   */
+  public static double cellHeight(int precision) {
+    return 180.0 / (1L << (5 * precision / 2));
+  }
+
+  /**
+   * Width in degrees of longitude of a cell of the given precision. Longitude
+   * takes the even bits, so it gets the extra bit of odd precisions.
+   */
+  public static double cellWidth(int precision) {
+    return 360.0 / (1L << ((5 * precision + 1) / 2));
+  }
+}
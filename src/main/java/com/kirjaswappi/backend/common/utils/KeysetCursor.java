@@ -0,0 +1,88 @@
+/*
+ * Copyright (c) 2026 KirjaSwappi or KirjaSwappi affiliate company. All rights reserved.
+ * Author: Mahiuddin Al Kamal <mahiuddinalkamal>
+ */
+package com.kirjaswappi.backend.common.utils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Date;
+
+import org.springframework.data.domain.Sort;
+
+/**
+ * Position of the last element of a keyset (cursor) page: the active sort key,
+ * its direction, the sort value of the last element and its id. Clients only
+ * ever see the opaque {@link #encode() encoded} form.
+ */
+public record KeysetCursor(String property, Sort.Direction direction, Object value, String id) {
+
+  private static final String SEPARATOR = ".";
+  private static final String STRING_VALUE = "s:";
+  private static final String DATE_VALUE = "d:";
+  private static final String DOUBLE_VALUE = "f:";
+  private static final String NULL_VALUE = "n:";
+
+  public Sort.Order order() {
+    return new Sort.Order(direction, property);
+  }
+
+  public String encode() {
+    return String.join(SEPARATOR,
+        encodePart(property),
+        encodePart(direction.name()),
+        encodePart(encodeValue(value)),
+        encodePart(id));
+  }
+
+  /**
+   * Decodes a token produced by {@link #encode()}.
+   *
+   * @throws IllegalArgumentException if the token is malformed
+   */
+  public static KeysetCursor decode(String token) {
+    var parts = token.split("\\" + SEPARATOR, -1);
+    if (parts.length != 4) {
+      throw new IllegalArgumentException("Malformed cursor: " + token);
+    }
+    return new KeysetCursor(
+        decodePart(parts[0]),
+        Sort.Direction.valueOf(decodePart(parts[1])),
+        decodeValue(decodePart(parts[2])),
+        decodePart(parts[3]));
+  }
+
+  private static String encodeValue(Object value) {
+    return switch (value) {
+    case null -> NULL_VALUE;
+    case Date date -> DATE_VALUE + date.getTime();
+    case Double number -> DOUBLE_VALUE + number;
+    case String string -> STRING_VALUE + string;
+    default -> throw new IllegalArgumentException("Unsupported cursor value type: " + value.getClass());
+    };
+  }
+
+  private static Object decodeValue(String value) {
+    if (value.startsWith(DATE_VALUE)) {
+      return new Date(Long.parseLong(value.substring(DATE_VALUE.length())));
+    }
+    if (value.startsWith(DOUBLE_VALUE)) {
+      return Double.parseDouble(value.substring(DOUBLE_VALUE.length()));
+    }
+    if (value.startsWith(STRING_VALUE)) {
+      return value.substring(STRING_VALUE.length());
+    }
+    if (value.equals(NULL_VALUE)) {
+      return null;
+    }
+    throw new IllegalArgumentException("Malformed cursor value: " + value);
+  }
+
+  private static String encodePart(String part) {
+    return Base64.getUrlEncoder().withoutPadding().encodeToString(part.getBytes(StandardCharsets.UTF_8));
+  }
+
+  private static String decodePart(String part) {
+    return new String(Base64.getUrlDecoder().decode(part), StandardCharsets.UTF_8);
+  }
+}
@@ -13,11 +13,14 @@ import org.springframework.data.domain.Page;
 import org.springframework.hateoas.Link;
 import org.springframework.hateoas.PagedModel;
 
+import com.kirjaswappi.backend.service.entities.CursorPage;
+
 @UtilityClass
 public class LinkBuilder {
 
   public static final String PAGE = "page";
   public static final String SIZE = "size";
+  public static final String CURSOR = "cursor";
 
   public static <T> PagedModel<T> forPage(Page<T> pageOfSomething, String endpoint) {
 
@@ -47,4 +50,24 @@ public class LinkBuilder {
     model.add(linkList);
     return model;
   }
+
+  public static <T> PagedModel<T> forPage(CursorPage<T> pageOfSomething, String endpoint) {
+
+    // Keyset pages carry no page metadata, totals are never computed
+    PagedModel<T> model = PagedModel.of(pageOfSomething.content(), (PagedModel.PageMetadata) null);
+
+    // Self link
+    List<Link> linkList = new ArrayList<>();
+    linkList.add(Link.of(endpoint, "self"));
+
+    // Link to next page
+    if (pageOfSomething.hasNext()) {
+      var size = Integer.toString(pageOfSomething.size());
+      linkList.add(Link.of(endpoint + "?" + CURSOR + "=" + pageOfSomething.nextCursor() + "&" + SIZE + "=" + size,
+          "next"));
+    }
+
+    model.add(linkList);
+    return model;
+  }
 }
@@ -0,0 +1,141 @@
+/*
+ * Copyright (c) 2026 KirjaSwappi or KirjaSwappi affiliate company. All rights reserved.
+ * Author: Mahiuddin Al Kamal <mahiuddinalkamal>
+ */
+package com.kirjaswappi.backend.common.utils;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.HexFormat;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+/**
+ * Presigns S3 GET URLs in process with AWS Signature Version 4, using
+ * path-style addressing and the configured region, so signing needs no network
+ * round trip.
+ * <p>
+ * The signing time is the start of the current {@link #WINDOW}, not the current
+ * time. Every node therefore produces a byte-identical URL for an object during
+ * the whole window, which lets browsers and CDNs cache the image. With an
+ * {@link #EXPIRY} of seven days, a URL handed out at the end of its window is
+ * still valid for six days.
+ */
+public final class PresignedUrlSigner {
+  public static final Duration WINDOW = Duration.ofDays(1);
+  public static final Duration EXPIRY = Duration.ofDays(7);
+
+  private static final String ALGORITHM = "AWS4-HMAC-SHA256";
+  private static final String SERVICE = "s3";
+  private static final String TERMINATOR = "aws4_request";
+  private static final String HMAC = "HmacSHA256";
+  private static final DateTimeFormatter AMZ_DATE = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss'Z'")
+      .withZone(ZoneOffset.UTC);
+  private static final DateTimeFormatter SCOPE_DATE = DateTimeFormatter.ofPattern("yyyyMMdd")
+      .withZone(ZoneOffset.UTC);
+  private static final HexFormat HEX = HexFormat.of();
+
+  private final String baseUrl;
+  private final String host;
+  private final String region;
+  private final String accessKey;
+  private final String secretKey;
+  private final Clock clock;
+
+  public PresignedUrlSigner(String endpoint, String region, String accessKey, String secretKey, Clock clock) {
+    var uri = URI.create(endpoint);
+    if (uri.getScheme() == null || uri.getHost() == null) {
+      throw new IllegalArgumentException("Invalid S3 endpoint: " + endpoint);
+    }
+    boolean defaultPort = uri.getPort() == -1
+        || (uri.getScheme().equals("https") && uri.getPort() == 443)
+        || (uri.getScheme().equals("http") && uri.getPort() == 80);
+    this.host = defaultPort ? uri.getHost() : uri.getHost() + ":" + uri.getPort();
+    this.baseUrl = uri.getScheme() + "://" + host;
+    this.region = region;
+    this.accessKey = accessKey;
+    this.secretKey = secretKey;
+    this.clock = clock;
+  }
+
+  /**
+   * Returns the presigned GET URL of the object for the current window.
+   */
+  public String presignGet(String bucket, String object) {
+    if (bucket == null || bucket.isEmpty() || object == null || object.isEmpty()) {
+      throw new IllegalArgumentException("Bucket and object name must not be empty");
+    }
+    var signedAt = windowStart(clock.instant());
+    var amzDate = AMZ_DATE.format(signedAt);
+    var scope = SCOPE_DATE.format(signedAt) + "/" + region + "/" + SERVICE + "/" + TERMINATOR;
+
+    var path = "/" + uriEncode(bucket, false) + "/" + uriEncode(object, true);
+    // parameters in code point order, as the canonical request requires
+    var query = "X-Amz-Algorithm=" + ALGORITHM
+        + "&X-Amz-Credential=" + uriEncode(accessKey + "/" + scope, false)
+        + "&X-Amz-Date=" + amzDate
+        + "&X-Amz-Expires=" + EXPIRY.toSeconds()
+        + "&X-Amz-SignedHeaders=host";
+    var canonicalRequest = "GET\n" + path + "\n" + query + "\nhost:" + host + "\n\nhost\nUNSIGNED-PAYLOAD";
+    var stringToSign = ALGORITHM + "\n" + amzDate + "\n" + scope + "\n" + HEX.formatHex(sha256(canonicalRequest));
+
+    var signature = HEX.formatHex(hmac(signingKey(signedAt), stringToSign));
+    return baseUrl + path + "?" + query + "&X-Amz-Signature=" + signature;
+  }
+
+  static Instant windowStart(Instant now) {
+    long window = WINDOW.toSeconds();
+    return Instant.ofEpochSecond(Math.floorDiv(now.getEpochSecond(), window) * window);
+  }
+
+  private byte[] signingKey(Instant signedAt) {
+    byte[] key = hmac(("AWS4" + secretKey).getBytes(StandardCharsets.UTF_8), SCOPE_DATE.format(signedAt));
+    key = hmac(key, region);
+    key = hmac(key, SERVICE);
+    return hmac(key, TERMINATOR);
+  }
+
+  /**
+   * URI-encodes every byte except the unreserved characters, and optionally '/',
+   * as SigV4 requires; {@link java.net.URLEncoder} differs on ' ', '*' and '~'.
+   */
+  static String uriEncode(String value, boolean keepSlash) {
+    var encoded = new StringBuilder(value.length() * 2);
+    for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+      char c = (char) (b & 0xff);
+      if ((c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z') || (c >= '0' && c <= '9')
+          || c == '-' || c == '_' || c == '.' || c == '~' || (keepSlash && c == '/')) {
+        encoded.append(c);
+      } else {
+        encoded.append('%').append(HEX.withUpperCase().toHexDigits(b));
+      }
+    }
+    return encoded.toString();
+  }
+
+  private static byte[] sha256(String value) {
+    try {
+      return MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8));
+    } catch (GeneralSecurityException e) {
+      throw new IllegalStateException("SHA-256 is not available", e);
+    }
+  }
+
+  private static byte[] hmac(byte[] key, String value) {
+    try {
+      var mac = Mac.getInstance(HMAC);
+      mac.init(new SecretKeySpec(key, HMAC));
+      return mac.doFinal(value.getBytes(StandardCharsets.UTF_8));
+    } catch (GeneralSecurityException e) {
+      throw new IllegalStateException("HMAC-SHA256 is not available", e);
+    }
+  }
+}
@@ -0,0 +1,13 @@
+/*
+ * Copyright (c) 2026 KirjaSwappi or KirjaSwappi affiliate company. All rights reserved.
+ * Author: Mahiuddin Al Kamal <mahiuddinalkamal>
+ */
+package com.kirjaswappi.backend.events;
+
+/**
+ * Domain event published when a book is updated or deleted, so that the senders
+ * of swap requests for the book can be told, and their requests cancelled once
+ * the book is gone.
+ */
+public record BookChangedEvent(String bookId, String title, boolean deleted) {
+}
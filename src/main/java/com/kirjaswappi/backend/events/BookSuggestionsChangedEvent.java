@@ -0,0 +1,14 @@
+/*
+ * Copyright (c) 2026 KirjaSwappi or KirjaSwappi affiliate company. All rights reserved.
+ * Author: Mahiuddin Al Kamal <mahiuddinalkamal>
+ */
+package com.kirjaswappi.backend.events;
+
+import java.util.List;
+
+/**
+ * Domain event published when books are added, updated or deleted, so that the
+ * book suggestion indexes of the other nodes can catch up with them.
+ */
+public record BookSuggestionsChangedEvent(List<String> bookIds) {
+}
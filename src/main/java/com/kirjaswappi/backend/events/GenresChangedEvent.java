@@ -0,0 +1,12 @@
+/*
+ * Copyright (c) 2026 KirjaSwappi or KirjaSwappi affiliate company. All rights reserved.
+ * Author: Mahiuddin Al Kamal <mahiuddinalkamal>
+ */
+package com.kirjaswappi.backend.events;
+
+/**
+ * Domain event published when a genre is added, updated or deleted, so that
+ * in-memory copies of the genre taxonomy can be rebuilt.
+ */
+public record GenresChangedEvent(String genreId) {
+}
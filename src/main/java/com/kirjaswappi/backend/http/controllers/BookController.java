@@ -6,8 +6,18 @@ package com.kirjaswappi.backend.http.controllers;
 
 import static com.kirjaswappi.backend.common.utils.Constants.*;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.security.Principal;
 import java.util.List;
+import java.util.Locale;
 
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 
 import io.swagger.v3.oas.annotations.Operation;
@@ -22,6 +32,7 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
 import org.springframework.hateoas.PagedModel;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.validation.annotation.Validated;
@@ -32,18 +43,31 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kirjaswappi.backend.common.http.ErrorUtils;
 import com.kirjaswappi.backend.common.utils.LinkBuilder;
 import com.kirjaswappi.backend.http.dtos.requests.BookLocationRequest;
 import com.kirjaswappi.backend.http.dtos.requests.CreateBookRequest;
 import com.kirjaswappi.backend.http.dtos.requests.SwapConditionRequest;
 import com.kirjaswappi.backend.http.dtos.requests.UpdateBookRequest;
+import com.kirjaswappi.backend.http.dtos.responses.BookClusterResponse;
+import com.kirjaswappi.backend.http.dtos.responses.BookImportLineResponse;
+import com.kirjaswappi.backend.http.dtos.responses.BookImportProgressResponse;
 import com.kirjaswappi.backend.http.dtos.responses.BookListResponse;
 import com.kirjaswappi.backend.http.dtos.responses.BookResponse;
+import com.kirjaswappi.backend.http.dtos.responses.BookSuggestionResponse;
+import com.kirjaswappi.backend.http.dtos.responses.MaintenanceJobResponse;
+import com.kirjaswappi.backend.service.BookImportService;
 import com.kirjaswappi.backend.service.BookService;
 import com.kirjaswappi.backend.service.entities.Book;
+import com.kirjaswappi.backend.service.entities.BookCluster;
+import com.kirjaswappi.backend.service.entities.BookImportResult;
+import com.kirjaswappi.backend.service.entities.BookSuggestion;
+import com.kirjaswappi.backend.service.entities.CursorPage;
 import com.kirjaswappi.backend.service.enums.Condition;
 import com.kirjaswappi.backend.service.enums.Language;
 import com.kirjaswappi.backend.service.enums.SwapType;
@@ -59,14 +83,23 @@ public class BookController {
   @Autowired
   private BookService bookService;
 
+  @Autowired
+  private BookImportService bookImportService;
+
+  @Autowired
+  private ErrorUtils errorUtils;
+
   private static final ObjectMapper objectMapper = new ObjectMapper();
 
+  private static final String TOTAL_COUNT_CAPPED_HEADER = "X-Total-Count-Capped";
+
+  private static final String TEXT_CSV_VALUE = "text/csv";
+
   @PostMapping(consumes = "multipart/form-data")
   @Operation(summary = "Add book to a user.", responses = {
       @ApiResponse(responseCode = "201", description = "Book created."),
       @ApiResponse(responseCode = "401", description = "Unauthenticated.") })
-  public ResponseEntity<BookResponse> createBook(@Valid @ModelAttribute CreateBookRequest book,
-      java.security.Principal principal) {
+  public ResponseEntity<BookResponse> createBook(@Valid @ModelAttribute CreateBookRequest book, Principal principal) {
     if (principal == null || principal.getName() == null) {
       throw new AccessDeniedException("notAuthenticated", "");
     }
@@ -77,6 +110,47 @@ public class BookController {
     return ResponseEntity.status(HttpStatus.CREATED).body(new BookResponse(savedBook));
   }
 
+  @PostMapping(value = BULK, consumes = { MediaType.APPLICATION_NDJSON_VALUE, TEXT_CSV_VALUE })
+  @Operation(summary = "Import books of a user in bulk.", description = "Streams books as NDJSON, one JSON object per line, or as CSV with a header row naming the columns, separating list values by '|'. Books are imported without cover photos and cannot be swapped by books. Valid books are saved in batches of "
+      + BookImportService.BATCH_SIZE
+      + " while the request is read. The response streams NDJSON: the outcome of every line, running totals after every batch, and the final totals marked done.", responses = {
+          @ApiResponse(responseCode = "200", description = "Import processed; see the outcome of each line."),
+          @ApiResponse(responseCode = "401", description = "Unauthenticated.") })
+  public ResponseEntity<StreamingResponseBody> importBooks(HttpServletRequest request, Principal principal)
+      throws IOException {
+    if (principal == null || principal.getName() == null) {
+      throw new AccessDeniedException("notAuthenticated", "");
+    }
+    var ownerId = principal.getName();
+    var locale = request.getLocale();
+    var isCsv = MediaType.parseMediaType(request.getContentType()).isCompatibleWith(MediaType.valueOf(TEXT_CSV_VALUE));
+    var reader = new BufferedReader(new InputStreamReader(request.getInputStream(), StandardCharsets.UTF_8));
+
+    StreamingResponseBody body = outputStream -> {
+      var writer = new PrintWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+      var progress = new BookImportProgressResponse();
+      bookImportService.importBooks(ownerId, reader, isCsv, new BookImportService.Listener() {
+        @Override
+        public void lineImported(int line, BookImportResult result) throws IOException {
+          var lineResponse = toImportLineResponse(line, result, locale);
+          progress.count(lineResponse);
+          writer.println(objectMapper.writeValueAsString(lineResponse));
+        }
+
+        @Override
+        public void batchImported() throws IOException {
+          writer.println(objectMapper.writeValueAsString(progress));
+          // sends the outcomes of the batch on while the rest is still being read
+          writer.flush();
+        }
+      });
+      progress.setDone(true);
+      writer.println(objectMapper.writeValueAsString(progress));
+      writer.flush();
+    };
+    return ResponseEntity.status(HttpStatus.OK).contentType(MediaType.APPLICATION_NDJSON).body(body);
+  }
+
   @GetMapping(ID)
   @Operation(summary = "Find book by Book ID.", responses = {
       @ApiResponse(responseCode = "200", description = "Book found."),
@@ -86,12 +160,24 @@ public class BookController {
     return ResponseEntity.status(HttpStatus.OK).body(new BookResponse(book));
   }
 
+  @GetMapping(SUGGEST)
+  @Operation(summary = "Suggest books as the user types.", description = "Matches every word of the query anywhere in book titles and authors, ranking title prefixes first. Served from memory without touching the database.", responses = {
+      @ApiResponse(responseCode = "200", description = "Best matching books, possibly empty.") })
+  public ResponseEntity<List<BookSuggestionResponse>> suggestBooks(
+      @Parameter(description = "Text typed so far.") @RequestParam String q,
+      @Parameter(description = "Maximum number of suggestions (1-20).") @RequestParam(defaultValue = "10") int limit) {
+    List<BookSuggestion> suggestions = bookService.suggestBooks(q, limit);
+    return ResponseEntity.status(HttpStatus.OK).body(suggestions.stream().map(BookSuggestionResponse::new).toList());
+  }
+
   @GetMapping(ID + MORE_BOOKS)
-  @Operation(summary = "Find more books of the user by Book ID.", responses = {
-      @ApiResponse(responseCode = "200", description = "Books found.") })
+  @Operation(summary = "Find more books of the user by Book ID.", description = "The other books of the book's owner, newest first.", responses = {
+      @ApiResponse(responseCode = "200", description = "Books found."),
+      @ApiResponse(responseCode = "404", description = "Book not found.") })
   public ResponseEntity<List<BookResponse>> findMoreBooksOfTheUser(
-      @Parameter(description = "Book ID.") @PathVariable String id) {
-    List<Book> moreBooks = bookService.getMoreBooksOfTheUser(id);
+      @Parameter(description = "Book ID.") @PathVariable String id,
+      @Parameter(description = "Maximum number of books (1-50).") @RequestParam(defaultValue = "10") int limit) {
+    List<Book> moreBooks = bookService.getMoreBooksOfTheUser(id, limit);
     return ResponseEntity.status(HttpStatus.OK).body(moreBooks.stream().map(BookResponse::new).toList());
   }
 
@@ -117,12 +203,26 @@ public class BookController {
   }
 
   @GetMapping
-  @Operation(summary = "Search for books with filtering, sorting, and pagination.", description = "Search for books with optional filter properties including language, condition, genres (supports parent genres which return books from all child genres), city, country, location coordinates, and owner filters. Supports pagination and sorting by title, author, createdAt, condition, or language.", responses = {
+  @Operation(summary = "Search for books with filtering, sorting, and pagination.", description = "Search for books with optional filter properties including language, condition, genres (supports parent genres which return books from all child genres), city, country, location coordinates, and owner filters. Supports pagination and sorting by title, author, createdAt, condition, or language, and by relevance when a search term is given. Passing the cursor parameter (empty for the first page) switches to keyset pagination, which follows the 'next' link instead of page numbers and omits page totals. Passing approximateTotal=true caps the total count for infinite-scroll clients.", responses = {
       @ApiResponse(responseCode = "200", description = "Paginated list of books matching the filter criteria."),
-      @ApiResponse(responseCode = "400", description = "Invalid filter parameters provided.") })
+      @ApiResponse(responseCode = "400", description = "Invalid filter parameters or cursor provided.") })
   public ResponseEntity<PagedModel<BookListResponse>> findAllBooks(
       @Valid @ParameterObject FindAllBooksFilter filter,
-      @PageableDefault() Pageable pageable) {
+      @PageableDefault() Pageable pageable,
+      @Parameter(description = "Opaque cursor from the previous page's 'next' link. Empty for the first page of keyset pagination.") @RequestParam(required = false) String cursor,
+      @Parameter(description = "Count the total only up to 10000 books (or one past the requested page). The X-Total-Count-Capped header is true when the total is a lower bound.") @RequestParam(defaultValue = "false") boolean approximateTotal) {
+    if (cursor != null) {
+      CursorPage<Book> books = bookService.getAllBooksByFilter(filter, pageable, cursor);
+      CursorPage<BookListResponse> response = books.map(BookListResponse::new);
+      return ResponseEntity.status(HttpStatus.OK).body(LinkBuilder.forPage(response, API_BASE + BOOKS));
+    }
+    if (approximateTotal) {
+      Page<Book> books = bookService.getAllBooksByFilter(filter, pageable, true);
+      Page<BookListResponse> response = books.map(BookListResponse::new);
+      return ResponseEntity.status(HttpStatus.OK)
+          .header(TOTAL_COUNT_CAPPED_HEADER, Boolean.toString(BookService.isTotalCapped(books, pageable)))
+          .body(LinkBuilder.forPage(response, API_BASE + BOOKS));
+    }
     Page<Book> books = bookService.getAllBooksByFilter(filter, pageable);
     Page<BookListResponse> response = books.map(BookListResponse::new);
     return ResponseEntity.status(HttpStatus.OK).body(LinkBuilder.forPage(response, API_BASE + BOOKS));
@@ -135,6 +235,25 @@ public class BookController {
   public ResponseEntity<PagedModel<BookListResponse>> findBooksInMapBounds(
       @Valid @ParameterObject FindAllBooksFilter filter,
       @PageableDefault(size = 100) Pageable pageable) {
+    validateMapBounds(filter);
+    Page<Book> books = bookService.getBooksInMapBounds(filter, pageable);
+    Page<BookListResponse> response = books.map(BookListResponse::new);
+    return ResponseEntity.status(HttpStatus.OK).body(LinkBuilder.forPage(response, API_BASE + BOOKS + "/map"));
+  }
+
+  @GetMapping("/map/clusters")
+  @Operation(summary = "Count books within map bounding box per grid cell.", description = "Groups the books within the map bounds, and matching any other filter, into geohash cells sized for the zoom level. Each cell carries its book count and the centroid of its books, so zoomed-out maps render from one small response.", responses = {
+      @ApiResponse(responseCode = "200", description = "List of clusters within the map bounds."),
+      @ApiResponse(responseCode = "400", description = "Missing required map bounds.") })
+  public ResponseEntity<List<BookClusterResponse>> findBookClustersInMapBounds(
+      @Valid @ParameterObject FindAllBooksFilter filter,
+      @Parameter(description = "Map zoom level (0 to 22)") @RequestParam int zoom) {
+    validateMapBounds(filter);
+    List<BookCluster> clusters = bookService.getBookClusters(filter, Math.clamp(zoom, 0, 22));
+    return ResponseEntity.status(HttpStatus.OK).body(clusters.stream().map(BookClusterResponse::new).toList());
+  }
+
+  private static void validateMapBounds(FindAllBooksFilter filter) {
     if (filter.getNorth() == null || filter.getSouth() == null
         || filter.getEast() == null || filter.getWest() == null) {
       throw new BadRequestException("allMapBoundsRequired");
@@ -142,20 +261,18 @@ public class BookController {
     if (filter.getNorth() < filter.getSouth()) {
       throw new BadRequestException("invalidMapBounds", "north must be >= south");
     }
-    Page<Book> books = bookService.getAllBooksByFilter(filter, pageable);
-    Page<BookListResponse> response = books.map(BookListResponse::new);
-    return ResponseEntity.status(HttpStatus.OK).body(LinkBuilder.forPage(response, API_BASE + BOOKS + "/map"));
   }
 
   @GetMapping("/near")
-  @Operation(summary = "Find books near a specific location within a given radius.", responses = {
+  @Operation(summary = "Find books near a specific location within a given radius.", description = "Books are ordered by distance, closest first, and each carries its distance in distanceKm. Passing the cursor parameter (empty for the first page) switches to keyset pagination.", responses = {
       @ApiResponse(responseCode = "200", description = "List of Books near the specified location."),
       @ApiResponse(responseCode = "400", description = "Invalid coordinates provided.") })
   public ResponseEntity<PagedModel<BookListResponse>> findBooksNearLocation(
       @Parameter(description = "Latitude coordinate (-85 to 85 degrees)") Double latitude,
       @Parameter(description = "Longitude coordinate (-180 to 180 degrees)") Double longitude,
       @Parameter(description = "Search radius in kilometers (default: 50, max: 1000)") Integer radiusKm,
-      @PageableDefault() Pageable pageable) {
+      @PageableDefault() Pageable pageable,
+      @Parameter(description = "Opaque cursor from the previous page's 'next' link. Empty for the first page of keyset pagination.") @RequestParam(required = false) String cursor) {
 
     // Validate coordinates
     if (latitude == null || longitude == null) {
@@ -171,6 +288,12 @@ public class BookController {
     // Validate and cap radius
     int validRadiusKm = radiusKm != null ? Math.min(Math.max(radiusKm, 1), 1000) : 50;
 
+    if (cursor != null) {
+      CursorPage<Book> books = bookService.findBooksNearLocation(latitude, longitude, validRadiusKm,
+          pageable.getPageSize(), cursor);
+      CursorPage<BookListResponse> response = books.map(BookListResponse::new);
+      return ResponseEntity.status(HttpStatus.OK).body(LinkBuilder.forPage(response, API_BASE + BOOKS + "/near"));
+    }
     Page<Book> books = bookService.findBooksNearLocation(latitude, longitude, validRadiusKm, pageable);
     Page<BookListResponse> response = books.map(BookListResponse::new);
     return ResponseEntity.status(HttpStatus.OK).body(LinkBuilder.forPage(response, API_BASE + BOOKS + "/near"));
@@ -233,11 +356,13 @@ public class BookController {
   }
 
   @DeleteMapping
-  @Operation(summary = "Delete all books.", responses = {
-      @ApiResponse(responseCode = "204", description = "All books are deleted.") })
-  public ResponseEntity<Void> deleteAllBooks() {
-    bookService.deleteAllBooks();
-    return ResponseEntity.noContent().build();
+  @Operation(summary = "Delete all books.", description = "Starts deleting all books in the background. Follow its progress at the returned location.", responses = {
+      @ApiResponse(responseCode = "202", description = "Deletion of all books started.") })
+  public ResponseEntity<MaintenanceJobResponse> deleteAllBooks() {
+    var job = bookService.deleteAllBooks();
+    return ResponseEntity.accepted()
+        .location(URI.create(API_BASE + MAINTENANCE_JOBS + "/" + job.id()))
+        .body(new MaintenanceJobResponse(job));
   }
 
   private void verifyBookOwnership(String bookId) {
@@ -261,6 +386,15 @@ public class BookController {
     }
   }
 
+  private BookImportLineResponse toImportLineResponse(int line, BookImportResult result, Locale locale) {
+    if (result.isCreated()) {
+      return BookImportLineResponse.created(line, result.bookId());
+    }
+    var error = result.error();
+    return BookImportLineResponse.failed(line, error.getMessageKey(),
+        errorUtils.resolveMessage(error.getMessageKey(), error.getMessageParams(), locale));
+  }
+
   private Book parseBookLocation(String locationJson, Book book) {
     if (locationJson == null || locationJson.isBlank()) {
       return book;
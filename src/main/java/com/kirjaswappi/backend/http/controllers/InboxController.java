@@ -9,6 +9,7 @@ import static com.kirjaswappi.backend.common.utils.Constants.*;
 import java.security.Principal;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -69,17 +70,6 @@ public class InboxController {
         .map(swapRequest -> {
           InboxItemResponse item = new InboxItemResponse(swapRequest);
 
-          // Resolve book cover photo ID to presigned URL
-          String coverPhotoId = item.getBookCoverPhotoReference();
-          if (coverPhotoId != null) {
-            try {
-              item.setBookCoverPhotoReference(photoService.getBookCoverPhoto(coverPhotoId));
-            } catch (PhotoNotFoundException | ImageUrlFetchFailureException e) {
-              logger.warn("Failed to resolve cover photo for inbox item {}", swapRequest.id(), e);
-              item.setBookCoverPhotoReference(null);
-            }
-          }
-
           // Use batch-fetched unread count
           long unreadCount = unreadCounts.getOrDefault(swapRequest.id(), 0L);
           item.setUnreadMessageCount(unreadCount);
@@ -108,6 +98,34 @@ public class InboxController {
         })
         .toList();
 
+    resolveCoverPhotoUrls(userId, response);
     return ResponseEntity.ok(response);
   }
+
+  /**
+   * Replaces the book cover photo IDs of the inbox items with presigned URLs,
+   * using a single bulk lookup for the whole inbox.
+   */
+  private void resolveCoverPhotoUrls(String userId, List<InboxItemResponse> items) {
+    List<String> coverPhotoIds = items.stream()
+        .map(InboxItemResponse::getBookCoverPhotoReference)
+        .filter(Objects::nonNull)
+        .toList();
+    if (coverPhotoIds.isEmpty()) {
+      return;
+    }
+    Map<String, String> coverPhotoUrls;
+    try {
+      coverPhotoUrls = photoService.getBookCoverPhotos(coverPhotoIds);
+    } catch (PhotoNotFoundException | ImageUrlFetchFailureException e) {
+      logger.warn("Failed to resolve cover photos for inbox of user {}", userId, e);
+      coverPhotoUrls = Map.of();
+    }
+    for (InboxItemResponse item : items) {
+      String coverPhotoId = item.getBookCoverPhotoReference();
+      if (coverPhotoId != null) {
+        item.setBookCoverPhotoReference(coverPhotoUrls.get(coverPhotoId));
+      }
+    }
+  }
 }
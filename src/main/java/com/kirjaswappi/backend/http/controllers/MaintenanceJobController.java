@@ -0,0 +1,41 @@
+/*
+ * Copyright (c) 2026 KirjaSwappi or KirjaSwappi affiliate company. All rights reserved.
+ * Author: Mahiuddin Al Kamal <mahiuddinalkamal>
+ */
+package com.kirjaswappi.backend.http.controllers;
+
+import static com.kirjaswappi.backend.common.utils.Constants.*;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.kirjaswappi.backend.http.dtos.responses.MaintenanceJobResponse;
+import com.kirjaswappi.backend.service.MaintenanceJobService;
+
+@RestController
+@RequestMapping(API_BASE + MAINTENANCE_JOBS)
+@Validated
+@Tag(name = "Maintenance Jobs", description = "API for following background maintenance jobs")
+public class MaintenanceJobController {
+  @Autowired
+  private MaintenanceJobService maintenanceJobService;
+
+  @GetMapping(ID)
+  @Operation(summary = "Get maintenance job by ID.", description = "Get the status and progress of a maintenance job.", responses = {
+      @ApiResponse(responseCode = "200", description = "Maintenance job found."),
+      @ApiResponse(responseCode = "404", description = "Maintenance job not found.") })
+  public ResponseEntity<MaintenanceJobResponse> getMaintenanceJob(
+      @Parameter(description = "Maintenance job ID.") @PathVariable String id) {
+    return ResponseEntity.ok(new MaintenanceJobResponse(maintenanceJobService.getJob(id)));
+  }
+}
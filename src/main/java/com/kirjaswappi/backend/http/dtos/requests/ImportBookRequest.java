@@ -0,0 +1,176 @@
+/*
+ * Copyright (c) 2026 KirjaSwappi or KirjaSwappi affiliate company. All rights reserved.
+ * Author: Mahiuddin Al Kamal <mahiuddinalkamal>
+ */
+package com.kirjaswappi.backend.http.dtos.requests;
+
+import static io.swagger.v3.oas.annotations.media.Schema.RequiredMode.REQUIRED;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Set;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Getter;
+import lombok.Setter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kirjaswappi.backend.http.validations.ValidationUtil;
+import com.kirjaswappi.backend.service.entities.Book;
+import com.kirjaswappi.backend.service.entities.Genre;
+import com.kirjaswappi.backend.service.entities.User;
+import com.kirjaswappi.backend.service.enums.Condition;
+import com.kirjaswappi.backend.service.enums.Language;
+import com.kirjaswappi.backend.service.enums.SwapType;
+import com.kirjaswappi.backend.service.exceptions.BadRequestException;
+
+/**
+ * One book of a bulk import, read from a line of NDJSON or a row of CSV. Books
+ * are imported without cover photos, and cannot be swapped by books, as neither
+ * fits on a line.
+ */
+@Getter
+@Setter
+public class ImportBookRequest {
+  // CSV columns holding lists, whose values are separated by '|'
+  private static final Set<String> CSV_LIST_COLUMNS = Set.of("genres", "swappableGenres");
+
+  @Schema(description = "The title of the book.", example = "The Alchemist", requiredMode = REQUIRED)
+  private String title;
+
+  @Schema(description = "The author of the book.", example = "Paulo Coelho", requiredMode = REQUIRED)
+  private String author;
+
+  @Schema(description = "The description of the book.", example = "A novel by Paulo Coelho")
+  private String description;
+
+  @Schema(description = "The language of the book.", example = "English", requiredMode = REQUIRED)
+  private String language;
+
+  @Schema(description = "The condition of the book.", example = "New", requiredMode = REQUIRED)
+  private String condition;
+
+  @Schema(description = "The genres of the book.", example = "[\"Fiction\"]", requiredMode = REQUIRED)
+  private List<String> genres;
+
+  @Schema(description = "Swap type for swapping the book.", example = "GiveAway, OpenForOffers, ByGenres", requiredMode = REQUIRED)
+  private String swapType;
+
+  @Schema(description = "The acceptable genres of books to swap with, for swap type ByGenres.", example = "[\"Fiction\"]")
+  private List<String> swappableGenres;
+
+  @Schema(description = "Latitude of the book's location.", example = "60.1699")
+  private Double latitude;
+
+  @Schema(description = "Longitude of the book's location.", example = "24.9384")
+  private Double longitude;
+
+  @Schema(description = "Street address of the book's location.", example = "Mannerheimintie 12")
+  private String address;
+
+  @Schema(description = "City of the book's location.", example = "Helsinki")
+  private String city;
+
+  @Schema(description = "Country of the book's location.", example = "Finland")
+  private String country;
+
+  @Schema(description = "Postal code of the book's location.", example = "00100")
+  private String postalCode;
+
+  /**
+   * Reads a CSV row by the column names of the header row. Blank fields are left
+   * unset.
+   *
+   * @throws IllegalArgumentException if the row does not fit the header
+   */
+  public static ImportBookRequest fromCsv(List<String> header, List<String> values, ObjectMapper objectMapper) {
+    if (values.size() > header.size()) {
+      throw new IllegalArgumentException("CSV row has more fields than the header");
+    }
+    var properties = new HashMap<String, Object>();
+    for (int i = 0; i < values.size(); i++) {
+      var column = header.get(i).trim();
+      var value = values.get(i).trim();
+      if (value.isEmpty()) {
+        continue;
+      }
+      properties.put(column, CSV_LIST_COLUMNS.contains(column)
+          ? Arrays.stream(value.split("\\|")).map(String::trim).toList()
+          : value);
+    }
+    return objectMapper.convertValue(properties, ImportBookRequest.class);
+  }
+
+  public Book toEntity(String ownerId) {
+    this.validateProperties();
+    var book = Book.builder()
+        .title(this.title)
+        .author(this.author)
+        .description(this.description)
+        .language(Language.fromCode(this.language))
+        .condition(Condition.fromCode(this.condition))
+        .genres(this.genres.stream().map(Genre::new).toList())
+        .swapCondition(this.toSwapConditionRequest().toEntity())
+        .owner(new User().id(ownerId))
+        .build();
+    if (!this.hasLocation()) {
+      return book;
+    }
+    try {
+      return book.withLocation(this.toLocationRequest().toEntity());
+    } catch (IllegalArgumentException _) {
+      throw new BadRequestException("invalidLocationRequest", this.latitude + "," + this.longitude);
+    }
+  }
+
+  private void validateProperties() {
+    if (!ValidationUtil.validateNotBlank(this.title)) {
+      throw new BadRequestException("bookTitleCannotBeBlank", this.title);
+    }
+    if (!ValidationUtil.validateNotBlank(this.author)) {
+      throw new BadRequestException("authorCannotBeBlank", this.author);
+    }
+    if (!ValidationUtil.validateNotBlank(this.language)) {
+      throw new BadRequestException("languageCannotBeBlank", this.language);
+    }
+    if (!ValidationUtil.validateNotBlank(this.condition)) {
+      throw new BadRequestException("conditionCannotBeBlank", this.condition);
+    }
+    if (this.genres == null || this.genres.isEmpty()) {
+      throw new BadRequestException("atLeastOneGenreNeeded", this.genres);
+    }
+    if (!ValidationUtil.validateNotBlank(this.swapType)) {
+      throw new BadRequestException("swapConditionIsRequired");
+    }
+    if (SwapType.fromCode(this.swapType) == SwapType.BY_BOOKS) {
+      throw new BadRequestException("swappableBooksCannotBeImported");
+    }
+  }
+
+  private SwapConditionRequest toSwapConditionRequest() {
+    var swapType = SwapType.fromCode(this.swapType);
+    var request = new SwapConditionRequest();
+    request.setSwapType(this.swapType);
+    request.setGiveAway(swapType == SwapType.GIVE_AWAY);
+    request.setOpenForOffers(swapType == SwapType.OPEN_FOR_OFFERS);
+    request.setGenres(this.swappableGenres);
+    return request;
+  }
+
+  private boolean hasLocation() {
+    return this.latitude != null || this.longitude != null || this.address != null || this.city != null
+        || this.country != null || this.postalCode != null;
+  }
+
+  private BookLocationRequest toLocationRequest() {
+    var request = new BookLocationRequest();
+    request.setLatitude(this.latitude);
+    request.setLongitude(this.longitude);
+    request.setAddress(this.address);
+    request.setCity(this.city);
+    request.setCountry(this.country);
+    request.setPostalCode(this.postalCode);
+    return request;
+  }
+}
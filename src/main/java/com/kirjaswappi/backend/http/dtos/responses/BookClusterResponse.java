@@ -0,0 +1,33 @@
+/*
+ * Copyright (c) 2026 KirjaSwappi or KirjaSwappi affiliate company. All rights reserved.
+ * Author: Mahiuddin Al Kamal <mahiuddinalkamal>
+ */
+package com.kirjaswappi.backend.http.dtos.responses;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import com.kirjaswappi.backend.service.entities.BookCluster;
+
+/**
+ * Response DTO for one map cluster: how many books lie in the geohash cell and
+ * where their centroid is.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+public class BookClusterResponse {
+
+  private String geohash;
+  private long count;
+  private double latitude;
+  private double longitude;
+
+  public BookClusterResponse(BookCluster entity) {
+    this.geohash = entity.geohash();
+    this.count = entity.count();
+    this.latitude = entity.latitude();
+    this.longitude = entity.longitude();
+  }
+}
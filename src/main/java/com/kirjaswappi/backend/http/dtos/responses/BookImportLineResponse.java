@@ -0,0 +1,42 @@
+/*
+ * Copyright (c) 2026 KirjaSwappi or KirjaSwappi affiliate company. All rights reserved.
+ * Author: Mahiuddin Al Kamal <mahiuddinalkamal>
+ */
+package com.kirjaswappi.backend.http.dtos.responses;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Outcome of one line of a bulk book import: the created book, or the error of
+ * the line.
+ */
+@Getter
+@Setter
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BookImportLineResponse {
+  private int line;
+  private String status;
+  private String bookId;
+  private String error;
+  private String message;
+
+  public static BookImportLineResponse created(int line, String bookId) {
+    var response = new BookImportLineResponse();
+    response.line = line;
+    response.status = "created";
+    response.bookId = bookId;
+    return response;
+  }
+
+  public static BookImportLineResponse failed(int line, String error, String message) {
+    var response = new BookImportLineResponse();
+    response.line = line;
+    response.status = "failed";
+    response.error = error;
+    response.message = message;
+    return response;
+  }
+}
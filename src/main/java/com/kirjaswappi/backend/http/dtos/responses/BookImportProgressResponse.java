@@ -0,0 +1,30 @@
+/*
+ * Copyright (c) 2026 KirjaSwappi or KirjaSwappi affiliate company. All rights reserved.
+ * Author: Mahiuddin Al Kamal <mahiuddinalkamal>
+ */
+package com.kirjaswappi.backend.http.dtos.responses;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Running totals of a bulk book import, reported after every batch and once
+ * more, marked done, at the end.
+ */
+@Getter
+@Setter
+public class BookImportProgressResponse {
+  private int processed;
+  private int created;
+  private int failed;
+  private boolean done;
+
+  public void count(BookImportLineResponse line) {
+    processed++;
+    if ("created".equals(line.getStatus())) {
+      created++;
+    } else {
+      failed++;
+    }
+  }
+}
@@ -32,6 +32,7 @@ public class BookListResponse {
   private String offeredAgo;
   private String ownerId;
   private String offeredBy;
+  private Double distanceKm;
 
   public BookListResponse(Book entity) {
     this.id = entity.id();
@@ -51,6 +52,7 @@ public class BookListResponse {
     this.offeredBy = entity.owner() != null
         ? entity.owner().firstName() + " " + entity.owner().lastName()
         : null;
+    this.distanceKm = entity.distanceKm() != null ? Math.round(entity.distanceKm() * 100) / 100.0 : null;
   }
 
   private String getOfferedAgoHumanReadable(Duration duration) {
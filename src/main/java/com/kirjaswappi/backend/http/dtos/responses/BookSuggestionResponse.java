@@ -0,0 +1,24 @@
+/*
+ * Copyright (c) 2026 KirjaSwappi or KirjaSwappi affiliate company. All rights reserved.
+ * Author: Mahiuddin Al Kamal <mahiuddinalkamal>
+ */
+package com.kirjaswappi.backend.http.dtos.responses;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import com.kirjaswappi.backend.service.entities.BookSuggestion;
+
+@Getter
+@Setter
+public class BookSuggestionResponse {
+  private String id;
+  private String title;
+  private String author;
+
+  public BookSuggestionResponse(BookSuggestion entity) {
+    this.id = entity.id();
+    this.title = entity.title();
+    this.author = entity.author();
+  }
+}
@@ -5,6 +5,8 @@
 package com.kirjaswappi.backend.http.dtos.responses;
 
 import java.io.Serializable;
+import java.util.List;
+import java.util.Map;
 
 import lombok.Getter;
 import lombok.NoArgsConstructor;
@@ -18,9 +20,17 @@ import com.kirjaswappi.backend.service.entities.Genre;
 public class ChildGenreResponse implements Serializable {
   private String id;
   private String name;
+  private List<ChildGenreResponse> childGenres = List.of();
 
   public ChildGenreResponse(Genre entity) {
     this.id = entity.getId();
     this.name = entity.getName();
   }
+
+  public ChildGenreResponse(Genre entity, Map<String, List<Genre>> childrenByParentId) {
+    this(entity);
+    this.childGenres = childrenByParentId.getOrDefault(entity.getId(), List.of()).stream()
+        .map(child -> new ChildGenreResponse(child, childrenByParentId))
+        .toList();
+  }
 }
@@ -0,0 +1,38 @@
+/*
+ * Copyright (c) 2026 KirjaSwappi or KirjaSwappi affiliate company. All rights reserved.
+ * Author: Mahiuddin Al Kamal <mahiuddinalkamal>
+ */
+package com.kirjaswappi.backend.http.dtos.responses;
+
+import java.time.Instant;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import com.kirjaswappi.backend.service.entities.MaintenanceJob;
+
+@Getter
+@Setter
+public class MaintenanceJobResponse {
+  private String id;
+  private String type;
+  private String status;
+  private long total;
+  private long processed;
+  private String error;
+  private Instant startedAt;
+  private Instant updatedAt;
+  private Instant finishedAt;
+
+  public MaintenanceJobResponse(MaintenanceJob entity) {
+    this.id = entity.id();
+    this.type = entity.type();
+    this.status = entity.status().getCode();
+    this.total = entity.total();
+    this.processed = entity.processed();
+    this.error = entity.error();
+    this.startedAt = entity.startedAt();
+    this.updatedAt = entity.updatedAt();
+    this.finishedAt = entity.finishedAt();
+  }
+}
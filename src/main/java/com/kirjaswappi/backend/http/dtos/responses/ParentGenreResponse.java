@@ -6,6 +6,7 @@ package com.kirjaswappi.backend.http.dtos.responses;
 
 import java.io.Serializable;
 import java.util.List;
+import java.util.Map;
 
 import lombok.Getter;
 import lombok.NoArgsConstructor;
@@ -26,4 +27,15 @@ public class ParentGenreResponse implements Serializable {
     this.name = entity.getName();
     this.childGenres = children.stream().map(ChildGenreResponse::new).toList();
   }
+
+  /**
+   * Nests the children of the genre to any depth.
+   */
+  public ParentGenreResponse(Genre entity, Map<String, List<Genre>> childrenByParentId) {
+    this.id = entity.getId();
+    this.name = entity.getName();
+    this.childGenres = childrenByParentId.getOrDefault(entity.getId(), List.of()).stream()
+        .map(child -> new ChildGenreResponse(child, childrenByParentId))
+        .toList();
+  }
 }
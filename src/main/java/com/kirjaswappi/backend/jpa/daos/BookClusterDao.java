@@ -0,0 +1,31 @@
+/*
+ * Copyright (c) 2026 KirjaSwappi or KirjaSwappi affiliate company. All rights reserved.
+ * Author: Mahiuddin Al Kamal <mahiuddinalkamal>
+ */
+package com.kirjaswappi.backend.jpa.daos;
+
+import lombok.*;
+import lombok.experimental.Accessors;
+
+import org.springframework.data.annotation.Id;
+
+/**
+ * One geohash cell of the map cluster aggregation: the cell's geohash prefix,
+ * the number of books in it and their average position. Never persisted.
+ */
+@Getter
+@Setter
+@Builder
+@Accessors(fluent = true)
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookClusterDao {
+  @Id
+  private String geohash;
+
+  private long count;
+
+  private double latitude;
+
+  private double longitude;
+}
@@ -51,8 +51,13 @@ public class BookDao {
   @DBRef
   private List<GenreDao> genres;
 
+  // denormalized copy of genres for filtering without a $lookup
+  @Nullable
+  private List<GenreSnapshotDao> genreSnapshots;
+
+  // resolved on first use; pages batch their owners through BookOwnerResolver
   @NotNull
-  @DBRef
+  @DBRef(lazy = true)
   private UserDao owner;
 
   @NotNull
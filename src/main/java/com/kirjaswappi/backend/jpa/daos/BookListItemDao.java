@@ -0,0 +1,63 @@
+/*
+ * Copyright (c) 2026 KirjaSwappi or KirjaSwappi affiliate company. All rights reserved.
+ * Author: Mahiuddin Al Kamal <mahiuddinalkamal>
+ */
+package com.kirjaswappi.backend.jpa.daos;
+
+import java.time.Instant;
+import java.util.List;
+
+import lombok.*;
+import lombok.experimental.Accessors;
+
+import org.springframework.data.annotation.Id;
+
+import com.mongodb.lang.Nullable;
+
+/**
+ * Read model of a book in list pages: only the fields the list response shows,
+ * the first cover photo and a summary of the owner. Unlike BookDao it holds no
+ * DBRefs, so reading a page never loads users or genres one by one. Never
+ * persisted.
+ */
+@Getter
+@Setter
+@Builder
+@Accessors(fluent = true)
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookListItemDao {
+  @Id
+  private String id;
+
+  private String title;
+
+  private String author;
+
+  @Nullable
+  private String description;
+
+  private String language;
+
+  private String condition;
+
+  // at most the first cover photo
+  private List<String> coverPhotos;
+
+  @Nullable
+  private List<GenreSnapshotDao> genreSnapshots;
+
+  @Nullable
+  private BookLocationDao location;
+
+  private Instant bookAddedAt;
+
+  private Instant bookUpdatedAt;
+
+  @Nullable
+  private BookOwnerSummaryDao owner;
+
+  // only set by $geoNear searches
+  @Nullable
+  private Double distanceMeters;
+}
@@ -41,6 +41,13 @@ public class BookLocationDao {
   @Nullable
   private Double[] coordinates;
 
+  /**
+   * Geohash of the coordinates at {@code Geohash.STORED_PRECISION}. Map clusters
+   * group books on a prefix of it.
+   */
+  @Nullable
+  private String geohash;
+
   /**
    * Human-readable address of the book location.
    */
@@ -59,6 +66,20 @@ public class BookLocationDao {
   @Nullable
   private String country;
 
+  /**
+   * City normalized by {@code BookLocation.normalizePlaceName}, matched by
+   * equality in city filters.
+   */
+  @Nullable
+  private String normalizedCity;
+
+  /**
+   * Country normalized by {@code BookLocation.normalizePlaceName}, matched by
+   * equality in country filters.
+   */
+  @Nullable
+  private String normalizedCountry;
+
   /**
    * Postal code of the book location.
    */
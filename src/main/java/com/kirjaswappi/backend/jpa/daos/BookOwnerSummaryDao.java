@@ -0,0 +1,37 @@
+/*
+ * Copyright (c) 2026 KirjaSwappi or KirjaSwappi affiliate company. All rights reserved.
+ * Author: Mahiuddin Al Kamal <mahiuddinalkamal>
+ */
+package com.kirjaswappi.backend.jpa.daos;
+
+import lombok.*;
+import lombok.experimental.Accessors;
+
+import org.springframework.data.annotation.Id;
+
+import com.mongodb.lang.Nullable;
+
+/**
+ * The owner fields shown next to a book in lists, joined from the users
+ * collection by the list pipelines. Never persisted.
+ */
+@Getter
+@Setter
+@Builder
+@Accessors(fluent = true)
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookOwnerSummaryDao {
+  @Id
+  private String id;
+
+  private String firstName;
+
+  private String lastName;
+
+  @Nullable
+  private String city;
+
+  @Nullable
+  private String profilePhoto;
+}
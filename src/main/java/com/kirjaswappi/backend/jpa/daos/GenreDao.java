@@ -32,4 +32,8 @@ public class GenreDao {
   @Nullable
   @DBRef
   private GenreDao parent;
+
+  // ids from the root down to this genre, e.g. "/rootId/parentId/id/"
+  @Nullable
+  private String path;
 }
@@ -0,0 +1,36 @@
+/*
+ * Copyright (c) 2026 KirjaSwappi or KirjaSwappi affiliate company. All rights reserved.
+ * Author: Mahiuddin Al Kamal <mahiuddinalkamal>
+ */
+package com.kirjaswappi.backend.jpa.daos;
+
+import jakarta.validation.constraints.NotNull;
+
+import lombok.*;
+import lombok.experimental.Accessors;
+
+import com.mongodb.lang.Nullable;
+
+/**
+ * Copy of a genre's id and name embedded in BookDao, so book searches can
+ * filter by genre without joining the genres collection. The path copies the
+ * genre's materialized path, so a prefix match on it selects a genre together
+ * with all its descendants. Kept in sync by GenreService when a genre is
+ * renamed or moved.
+ */
+@Getter
+@Setter
+@Builder
+@Accessors(fluent = true)
+@NoArgsConstructor
+@AllArgsConstructor
+public class GenreSnapshotDao {
+  @NotNull
+  private String id;
+
+  @NotNull
+  private String name;
+
+  @Nullable
+  private String path;
+}
@@ -0,0 +1,51 @@
+/*
+ * Copyright (c) 2026 KirjaSwappi or KirjaSwappi affiliate company. All rights reserved.
+ * Author: Mahiuddin Al Kamal <mahiuddinalkamal>
+ */
+package com.kirjaswappi.backend.jpa.daos;
+
+import java.time.Instant;
+
+import jakarta.validation.constraints.NotNull;
+
+import lombok.*;
+import lombok.experimental.Accessors;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+/**
+ * A background maintenance job, such as deleting all books, stored so that its
+ * progress can be followed from any instance.
+ */
+@Document(collection = "maintenance_jobs")
+@Getter
+@Setter
+@Builder
+@Accessors(fluent = true)
+@NoArgsConstructor
+@AllArgsConstructor
+public class MaintenanceJobDao {
+  @Id
+  private String id;
+
+  @NotNull
+  private String type;
+
+  @NotNull
+  private String status;
+
+  private long total;
+
+  private long processed;
+
+  private String error;
+
+  @NotNull
+  private Instant startedAt;
+
+  @NotNull
+  private Instant updatedAt;
+
+  private Instant finishedAt;
+}
@@ -41,6 +41,10 @@ public class NotificationOutboxDao {
 
   private int retryCount;
 
+  // not sent before then, backing off after failures
+  @Nullable
+  private Instant nextAttemptAt;
+
   @NotNull
   private Instant createdAt;
 
@@ -49,4 +53,11 @@ public class NotificationOutboxDao {
 
   @Nullable
   private String errorMessage;
+
+  // the node sending the notification, until its lease runs out
+  @Nullable
+  private String claimedBy;
+
+  @Nullable
+  private Instant leaseUntil;
 }
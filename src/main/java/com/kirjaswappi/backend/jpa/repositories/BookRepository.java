@@ -16,6 +16,8 @@ public interface BookRepository extends MongoRepository<BookDao, String>, Custom
 
   List<BookDao> findAllByIsDeletedFalse();
 
+  long countByIsDeletedFalse();
+
   Optional<BookDao> findByIsDeletedFalseAndSwapConditionSwappableBooksId(String swappableBookId);
 
   boolean existsByGenresId(String genreId);
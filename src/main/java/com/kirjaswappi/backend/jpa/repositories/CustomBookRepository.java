@@ -4,14 +4,102 @@
  */
 package com.kirjaswappi.backend.jpa.repositories;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.mongodb.core.query.Criteria;
 
+import com.kirjaswappi.backend.common.utils.KeysetCursor;
+import com.kirjaswappi.backend.jpa.daos.BookClusterDao;
 import com.kirjaswappi.backend.jpa.daos.BookDao;
+import com.kirjaswappi.backend.jpa.daos.BookListItemDao;
 
 public interface CustomBookRepository {
-  Page<BookDao> findAllBooksByFilter(Criteria criteria, Pageable pageable);
+  /**
+   * Sort property ordering books by text search score. Only valid when the
+   * criteria contain a {@code $text} search.
+   */
+  String RELEVANCE_SORT = "relevance";
+
+  /**
+   * Page of books matching the criteria, read as {@link BookListItemDao} list
+   * items with the owner summary joined in the same pipeline.
+   */
+  Page<BookListItemDao> findAllBooksByFilter(Criteria criteria, Pageable pageable);
+
+  /**
+   * Same as {@link #findAllBooksByFilter(Criteria, Pageable)}, but stops counting
+   * at {@code totalCap} when it is positive, so the total is a lower bound once
+   * the cap is reached.
+   */
+  Page<BookListItemDao> findAllBooksByFilter(Criteria criteria, Pageable pageable, long totalCap);
+
+  Slice<BookListItemDao> findAllBooksByFilter(Criteria criteria, Sort.Order order, KeysetCursor after, int size);
+
+  /**
+   * Groups the books matching the criteria by the first {@code precision}
+   * characters of their location geohash, returning each cell's book count and
+   * centroid.
+   */
+  List<BookClusterDao> findBookClusters(Criteria criteria, int precision);
+
+  /**
+   * Books matching the criteria within {@code maxDistanceMeters} of the point,
+   * closest first, with {@link BookListItemDao#distanceMeters()} set.
+   */
+  Page<BookListItemDao> findBooksNearLocation(Criteria criteria, double latitude, double longitude,
+      double maxDistanceMeters, Pageable pageable);
+
+  /**
+   * Keyset variant of the nearby search above, paging on (distance, _id).
+   */
+  Slice<BookListItemDao> findBooksNearLocation(Criteria criteria, double latitude, double longitude,
+      double maxDistanceMeters, KeysetCursor after, int size);
+
+  /**
+   * Up to {@code limit} live books of the owner but the excluded one, newest
+   * first, read through the owner index. Their genre references are not read, as
+   * the genre snapshots stand in for them.
+   */
+  List<BookDao> findOtherBooksOfOwner(String ownerId, String excludedBookId, int limit);
 
   void deleteLogically(String bookId);
+
+  /**
+   * Soft-deletes those of the books that are still live with one update.
+   *
+   * @return the number of books deleted
+   */
+  long deleteLogically(Collection<String> bookIds);
+
+  /**
+   * Up to {@code limit} live books, holding only what their deletion needs to
+   * clean up after them: title, location, genre snapshots and owner. Their genre
+   * references are not read, so nothing else is loaded with them.
+   */
+  List<BookDao> findLiveBooksForDeletion(int limit);
+
+  /**
+   * Inserts the books, which must carry their ids, with one unordered bulk write.
+   *
+   * @return positions in {@code books} of the books that could not be inserted
+   */
+  Set<Integer> insertBooks(List<BookDao> books);
+
+  /**
+   * Renames the denormalized genre snapshot embedded in every book that
+   * references the given genre.
+   */
+  void updateGenreSnapshotName(String genreId, String name);
+
+  /**
+   * Replaces the path prefix of the denormalized genre snapshots whose path
+   * starts with {@code oldPrefix}, after that subtree of genres has moved.
+   */
+  void moveGenreSnapshotPaths(String oldPrefix, String newPrefix);
 }
@@ -6,20 +6,33 @@ package com.kirjaswappi.backend.jpa.repositories;
 
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 import lombok.Getter;
 import lombok.Setter;
 
+import org.bson.Document;
+import org.bson.types.ObjectId;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
 import org.springframework.data.mongodb.core.MongoTemplate;
 import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationExpression;
 import org.springframework.data.mongodb.core.aggregation.AggregationOperation;
-import org.springframework.data.mongodb.core.aggregation.LookupOperation;
+import org.springframework.data.mongodb.core.aggregation.AggregationUpdate;
+import org.springframework.data.mongodb.core.aggregation.ArrayOperators;
 import org.springframework.data.mongodb.core.aggregation.ProjectionOperation;
 import org.springframework.data.mongodb.core.query.Criteria;
 import org.springframework.data.mongodb.core.query.Query;
@@ -27,12 +40,20 @@ import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Repository;
 
 import com.kirjaswappi.backend.common.exceptions.GlobalSystemException;
+import com.kirjaswappi.backend.common.utils.KeysetCursor;
+import com.kirjaswappi.backend.jpa.daos.BookClusterDao;
 import com.kirjaswappi.backend.jpa.daos.BookDao;
+import com.kirjaswappi.backend.jpa.daos.BookListItemDao;
+import com.mongodb.bulk.BulkWriteError;
 
 @Repository
 public class CustomBookRepositoryImpl implements CustomBookRepository {
   private static final Logger logger = LoggerFactory.getLogger(CustomBookRepositoryImpl.class);
   private static final String COLLECTION_NAME = "books";
+  private static final String TEXT_SCORE_FIELD = "textScore";
+  private static final String DISTANCE_FIELD = "distanceMeters";
+  private static final String OWNER_SUMMARY_FIELD = "ownerSummary";
+  private static final Sort DISTANCE_SORT = Sort.by(Sort.Order.asc(DISTANCE_FIELD), Sort.Order.asc("_id"));
 
   private final MongoTemplate mongoTemplate;
 
@@ -41,13 +62,17 @@ public class CustomBookRepositoryImpl implements CustomBookRepository {
   }
 
   @Override
-  public Page<BookDao> findAllBooksByFilter(Criteria criteria, Pageable pageable) {
-    try {
-      // Build and execute the main aggregation pipeline
-      List<BookDao> bookDaos = executeDataAggregation(criteria, pageable);
+  public Page<BookListItemDao> findAllBooksByFilter(Criteria criteria, Pageable pageable) {
+    return findAllBooksByFilter(criteria, pageable, 0);
+  }
 
-      // Execute count aggregation to get total results without pagination
-      long totalBooks = executeTotalCountAggregation(criteria);
+  @Override
+  public Page<BookListItemDao> findAllBooksByFilter(Criteria criteria, Pageable pageable, long totalCap) {
+    try {
+      // Fetch the page and the total in a single round trip
+      FacetResult result = executeFacetAggregation(criteria, pageable, totalCap);
+      List<BookListItemDao> bookDaos = result.getBooks();
+      long totalBooks = result.getTotal().isEmpty() ? 0 : result.getTotal().getFirst().getTotalBooks();
 
       return new PageImpl<>(bookDaos, pageable, totalBooks);
     } catch (Exception e) {
@@ -56,85 +81,278 @@ public class CustomBookRepositoryImpl implements CustomBookRepository {
     }
   }
 
+  @Override
+  public Slice<BookListItemDao> findAllBooksByFilter(Criteria criteria, Sort.Order order, KeysetCursor after,
+      int size) {
+    try {
+      var sort = Sort.by(order, new Sort.Order(order.getDirection(), "_id"));
+      List<BookListItemDao> bookDaos = executeKeysetAggregation(criteria, sort, after, size + 1);
+      boolean hasNext = bookDaos.size() > size;
+      var content = hasNext ? bookDaos.subList(0, size) : bookDaos;
+      return new SliceImpl<>(content, PageRequest.of(0, size, sort), hasNext);
+    } catch (Exception e) {
+      logger.error("Error occurred while fetching books after cursor: {}", e.getMessage(), e);
+      throw new GlobalSystemException("Error occurred while fetching books, please try again later");
+    }
+  }
+
+  @Override
+  public List<BookClusterDao> findBookClusters(Criteria criteria, int precision) {
+    try {
+      var cellCriteria = new Criteria().andOperator(criteria, Criteria.where("location.geohash").exists(true));
+      // $group only accepts an expression as its key, so it is written as a raw stage
+      AggregationOperation groupByCell = context -> new Document("$group",
+          new Document("_id", new Document("$substrCP", List.of("$location.geohash", 0, precision)))
+              .append("count", new Document("$sum", 1))
+              .append("latitude", new Document("$avg", "$location.latitude"))
+              .append("longitude", new Document("$avg", "$location.longitude")));
+      Aggregation aggregation = Aggregation.newAggregation(
+          Aggregation.match(cellCriteria),
+          groupByCell,
+          Aggregation.sort(Sort.by(Sort.Direction.ASC, "_id")));
+      return mongoTemplate.aggregate(aggregation, COLLECTION_NAME, BookClusterDao.class).getMappedResults();
+    } catch (Exception e) {
+      logger.error("Error occurred while clustering books: {}", e.getMessage(), e);
+      throw new GlobalSystemException("Error occurred while fetching books, please try again later");
+    }
+  }
+
+  @Override
+  public Page<BookListItemDao> findBooksNearLocation(Criteria criteria, double latitude, double longitude,
+      double maxDistanceMeters, Pageable pageable) {
+    try {
+      List<AggregationOperation> operations = new ArrayList<>();
+      operations.add(createGeoNearOperation(criteria, latitude, longitude, maxDistanceMeters, null));
+      operations.add(Aggregation.sort(DISTANCE_SORT));
+      List<AggregationOperation> dataOperations = new ArrayList<>();
+      dataOperations.add(Aggregation.skip(pageable.getOffset()));
+      dataOperations.add(Aggregation.limit(pageable.getPageSize()));
+      dataOperations.addAll(createListItemOperations());
+      operations.add(Aggregation.facet(dataOperations.toArray(new AggregationOperation[0])).as("books")
+          .and(Aggregation.count().as("totalBooks")).as("total"));
+
+      FacetResult result = mongoTemplate.aggregate(Aggregation.newAggregation(operations), COLLECTION_NAME,
+          FacetResult.class).getUniqueMappedResult();
+      if (result == null) {
+        result = new FacetResult();
+      }
+      long totalBooks = result.getTotal().isEmpty() ? 0 : result.getTotal().getFirst().getTotalBooks();
+      return new PageImpl<>(result.getBooks(), PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(),
+          DISTANCE_SORT), totalBooks);
+    } catch (Exception e) {
+      logger.error("Error occurred while fetching nearby books: {}", e.getMessage(), e);
+      throw new GlobalSystemException("Error occurred while fetching books, please try again later");
+    }
+  }
+
+  @Override
+  public Slice<BookListItemDao> findBooksNearLocation(Criteria criteria, double latitude, double longitude,
+      double maxDistanceMeters, KeysetCursor after, int size) {
+    try {
+      List<AggregationOperation> operations = new ArrayList<>();
+      // minDistance lets $geoNear skip everything closer than the cursor
+      Double minDistance = after != null ? (Double) after.value() : null;
+      operations.add(createGeoNearOperation(criteria, latitude, longitude, maxDistanceMeters, minDistance));
+      if (after != null) {
+        operations.add(Aggregation.match(createKeysetCriteria(after)));
+      }
+      operations.add(Aggregation.sort(DISTANCE_SORT));
+      operations.add(Aggregation.limit(size + 1));
+      operations.addAll(createListItemOperations());
+
+      List<BookListItemDao> bookDaos = mongoTemplate.aggregate(Aggregation.newAggregation(operations),
+          COLLECTION_NAME, BookListItemDao.class).getMappedResults();
+      boolean hasNext = bookDaos.size() > size;
+      var content = hasNext ? bookDaos.subList(0, size) : bookDaos;
+      return new SliceImpl<>(content, PageRequest.of(0, size, DISTANCE_SORT), hasNext);
+    } catch (Exception e) {
+      logger.error("Error occurred while fetching nearby books after cursor: {}", e.getMessage(), e);
+      throw new GlobalSystemException("Error occurred while fetching books, please try again later");
+    }
+  }
+
   /**
-   * Executes the main data aggregation pipeline to fetch books with pagination
-   * and sorting
+   * Creates the {@code $geoNear} stage. It must open the pipeline, and it walks
+   * the book_location_2dsphere index outwards from the point, so the criteria go
+   * into its query rather than a separate {@code $match}. Distances are in meters
+   * because the point is GeoJSON. {@code $geoNear} does not order equally distant
+   * books, so callers sort on (distance, _id) afterwards.
    */
-  private List<BookDao> executeDataAggregation(Criteria criteria, Pageable pageable) {
-    List<AggregationOperation> operations = new ArrayList<>();
+  private AggregationOperation createGeoNearOperation(Criteria criteria, double latitude, double longitude,
+      double maxDistanceMeters, Double minDistanceMeters) {
+    return context -> {
+      Document geoNear = new Document("near", new Document("type", "Point").append("coordinates",
+          List.of(longitude, latitude)))
+          .append("key", "location.coordinates")
+          .append("distanceField", DISTANCE_FIELD)
+          .append("maxDistance", maxDistanceMeters)
+          .append("query", context.getMappedObject(criteria.getCriteriaObject()))
+          .append("spherical", true);
+      if (minDistanceMeters != null) {
+        geoNear.append("minDistance", minDistanceMeters);
+      }
+      return new Document("$geoNear", geoNear);
+    };
+  }
 
-    // Add lookup operation to join with genres collection
-    operations.add(createGenresLookupOperation());
+  /**
+   * Executes the keyset pipeline. The cursor match and the sort run on the raw
+   * books so MongoDB can walk the (sort key, _id) index and stop after
+   * {@code limit} documents, whatever the depth of the page.
+   */
+  private List<BookListItemDao> executeKeysetAggregation(Criteria criteria, Sort sort, KeysetCursor after, int limit) {
+    List<AggregationOperation> operations = new ArrayList<>();
 
-    // Add matching criteria (includes owner._id if passed in the criteria)
     operations.add(Aggregation.match(criteria));
+    if (after != null) {
+      operations.add(Aggregation.match(createKeysetCriteria(after)));
+    }
+    operations.add(Aggregation.sort(sort));
+    operations.add(Aggregation.limit(limit));
+    operations.addAll(createListItemOperations());
 
-    // Add projection operation to select required fields
-    operations.add(createProjectionOperation());
+    Aggregation aggregation = Aggregation.newAggregation(operations);
 
-    // Add sorting if provided in pageable
-    if (pageable.getSort().isSorted()) {
-      operations.add(Aggregation.sort(pageable.getSort()));
-    }
+    return mongoTemplate.aggregate(aggregation, COLLECTION_NAME, BookListItemDao.class).getMappedResults();
+  }
 
-    // Add pagination
-    operations.add(Aggregation.skip(pageable.getOffset()));
-    operations.add(Aggregation.limit(pageable.getPageSize()));
+  /**
+   * Creates the criteria selecting documents strictly after the cursor position
+   * in (sort key, _id) order
+   */
+  private Criteria createKeysetCriteria(KeysetCursor after) {
+    boolean ascending = after.direction().isAscending();
+    Object id = ObjectId.isValid(after.id()) ? new ObjectId(after.id()) : after.id();
+    Criteria idAfter = ascending ? Criteria.where("_id").gt(id) : Criteria.where("_id").lt(id);
 
-    Aggregation aggregation = Aggregation.newAggregation(operations);
+    if (after.value() == null) {
+      // null sorts before every other value
+      var sameKey = new Criteria().andOperator(Criteria.where(after.property()).is(null), idAfter);
+      return ascending
+          ? new Criteria().orOperator(Criteria.where(after.property()).ne(null), sameKey)
+          : sameKey;
+    }
 
-    return mongoTemplate.aggregate(aggregation, COLLECTION_NAME, BookDao.class).getMappedResults();
+    Criteria keyAfter = ascending
+        ? Criteria.where(after.property()).gt(after.value())
+        : Criteria.where(after.property()).lt(after.value());
+    var sameKey = new Criteria().andOperator(Criteria.where(after.property()).is(after.value()), idAfter);
+    // descending, the books without the key still follow the cursor
+    return ascending
+        ? new Criteria().orOperator(keyAfter, sameKey)
+        : new Criteria().orOperator(keyAfter, sameKey, Criteria.where(after.property()).is(null));
   }
 
   /**
-   * Executes the count aggregation to determine total number of matching books
+   * Executes a single aggregation pipeline that matches once, then fans out into
+   * a {@code $facet} with the paginated data and the total count. With a positive
+   * {@code totalCap} the count stops at the cap instead of counting every
+   * matching book.
    */
-  private long executeTotalCountAggregation(Criteria criteria) {
-    List<AggregationOperation> countOperations = new ArrayList<>();
+  private FacetResult executeFacetAggregation(Criteria criteria, Pageable pageable, long totalCap) {
+    List<AggregationOperation> operations = new ArrayList<>();
+
+    // Add matching criteria (includes owner._id if passed in the criteria). Genre
+    // names are denormalized onto the book, so this is the first stage and can
+    // use the books indexes.
+    operations.add(Aggregation.match(criteria));
+
+    // Materialize the text search score so the data facet can sort on it
+    if (pageable.getSort().getOrderFor(RELEVANCE_SORT) != null) {
+      operations.add(context -> new Document("$addFields",
+          new Document(TEXT_SCORE_FIELD, new Document("$meta", "textScore"))));
+    }
+
+    // Data facet: sorting if provided in pageable, pagination and projection
+    List<AggregationOperation> dataOperations = new ArrayList<>();
+    if (pageable.getSort().isSorted()) {
+      dataOperations.add(createSortOperation(pageable.getSort()));
+    }
+    dataOperations.add(Aggregation.skip(pageable.getOffset()));
+    dataOperations.add(Aggregation.limit(pageable.getPageSize()));
+    dataOperations.addAll(createListItemOperations());
 
-    // Use same lookup and match operations as the main query for consistency
-    countOperations.add(createGenresLookupOperation());
-    countOperations.add(Aggregation.match(criteria));
+    // Count facet: optionally capped
+    List<AggregationOperation> countOperations = new ArrayList<>();
+    if (totalCap > 0) {
+      countOperations.add(Aggregation.limit(totalCap));
+    }
     countOperations.add(Aggregation.count().as("totalBooks"));
 
-    Aggregation countAggregation = Aggregation.newAggregation(countOperations);
+    operations.add(Aggregation.facet(dataOperations.toArray(new AggregationOperation[0])).as("books")
+        .and(countOperations.toArray(new AggregationOperation[0])).as("total"));
+
+    Aggregation aggregation = Aggregation.newAggregation(operations);
 
-    CountResult countResult = mongoTemplate.aggregate(countAggregation, COLLECTION_NAME, CountResult.class)
+    FacetResult result = mongoTemplate.aggregate(aggregation, COLLECTION_NAME, FacetResult.class)
         .getUniqueMappedResult();
 
-    return (countResult != null) ? countResult.getTotalBooks() : 0;
+    return (result != null) ? result : new FacetResult();
   }
 
   /**
-   * Creates the lookup operation to join books with genres
+   * Creates the sort operation. {@link #RELEVANCE_SORT} becomes a descending sort
+   * on the text search score, with {@code _id} as tie-breaker so equally relevant
+   * books do not shift between pages.
    */
-  private LookupOperation createGenresLookupOperation() {
-    return LookupOperation.newLookup()
-        .from("genres")
-        .localField("genres.$id")
-        .foreignField("_id")
-        .as("genres");
+  private AggregationOperation createSortOperation(Sort sort) {
+    if (sort.getOrderFor(RELEVANCE_SORT) == null) {
+      return Aggregation.sort(sort);
+    }
+    List<Sort.Order> orders = new ArrayList<>();
+    for (Sort.Order order : sort) {
+      orders.add(RELEVANCE_SORT.equals(order.getProperty()) ? Sort.Order.desc(TEXT_SCORE_FIELD) : order);
+    }
+    if (sort.getOrderFor("_id") == null) {
+      orders.add(Sort.Order.asc("_id"));
+    }
+    return Aggregation.sort(Sort.by(orders));
+  }
+
+  /**
+   * Creates the stages turning a page of books into list items. They run after
+   * the page is cut, so the owner join touches only the books on the page and
+   * resolves them all in one server-side {@code $lookup} on the users _id index.
+   */
+  private List<AggregationOperation> createListItemOperations() {
+    AggregationOperation lookupOwnerSummary = context -> new Document("$lookup", new Document("from", "users")
+        .append("localField", "owner.$id")
+        .append("foreignField", "_id")
+        .append("pipeline", List.of(new Document("$project", new Document("firstName", 1)
+            .append("lastName", 1)
+            .append("city", 1)
+            .append("profilePhoto", 1))))
+        .append("as", OWNER_SUMMARY_FIELD));
+    return List.of(lookupOwnerSummary, createProjectionOperation());
   }
 
   /**
-   * Creates the projection operation to select fields for the result
+   * Creates the projection operation selecting the list item fields: only the
+   * first cover photo, and the owner summary instead of the owner reference
    */
   private ProjectionOperation createProjectionOperation() {
     return Aggregation.project()
         .and("_id").as("id")
         .and("title").as("title")
         .and("author").as("author")
-        .and("genres").as("genres")
+        .and("genreSnapshots").as("genreSnapshots")
         .and("language").as("language")
         .and("description").as("description")
         .and("condition").as("condition")
-        .and("coverPhotos").as("coverPhotos")
+        .and(ArrayOperators.Slice.sliceArrayOf("coverPhotos").itemCount(1)).as("coverPhotos")
         .and("location").as("location")
-        .and("offeredAgo").as("offeredAgo")
         .and("bookAddedAt").as("bookAddedAt")
         .and("bookUpdatedAt").as("bookUpdatedAt")
-        .and("bookDeletedAt").as("bookDeletedAt")
-        .and("owner").as("owner");
+        .and(ArrayOperators.ArrayElemAt.arrayOf(OWNER_SUMMARY_FIELD).elementAt(0)).as("owner")
+        .and(DISTANCE_FIELD).as(DISTANCE_FIELD);
+  }
+
+  // Helper class for deserializing the $facet aggregation result
+  @Setter
+  @Getter
+  private static class FacetResult {
+    private List<BookListItemDao> books = new ArrayList<>();
+    private List<CountResult> total = new ArrayList<>();
   }
 
   // Helper class for deserializing count aggregation result
@@ -144,6 +362,22 @@ public class CustomBookRepositoryImpl implements CustomBookRepository {
     private long totalBooks;
   }
 
+  @Override
+  public List<BookDao> findOtherBooksOfOwner(String ownerId, String excludedBookId, int limit) {
+    // ids are stored as ObjectIds, so they are matched as such
+    Query query = new Query(Criteria.where("owner.$id").is(toObjectId(ownerId))
+        .and("_id").ne(toObjectId(excludedBookId))
+        .and("isDeleted").is(false))
+        .with(Sort.by(Sort.Order.desc("bookUpdatedAt"), Sort.Order.desc("_id")))
+        .limit(limit);
+    query.fields().exclude("genres");
+    return mongoTemplate.find(query, BookDao.class);
+  }
+
+  private static Object toObjectId(String id) {
+    return ObjectId.isValid(id) ? new ObjectId(id) : id;
+  }
+
   @Override
   public void deleteLogically(String id) {
     Query query = new Query(Criteria.where("_id").is(id));
@@ -151,4 +385,58 @@ public class CustomBookRepositoryImpl implements CustomBookRepository {
     update.set("bookDeletedAt", Instant.now());
     mongoTemplate.updateFirst(query, update, BookDao.class);
   }
+
+  @Override
+  public long deleteLogically(Collection<String> ids) {
+    if (ids.isEmpty()) {
+      return 0;
+    }
+    Query query = new Query(Criteria.where("_id").in(ids).and("isDeleted").is(false));
+    Update update = new Update().set("isDeleted", true);
+    update.set("bookDeletedAt", Instant.now());
+    return mongoTemplate.updateMulti(query, update, BookDao.class).getModifiedCount();
+  }
+
+  @Override
+  public List<BookDao> findLiveBooksForDeletion(int limit) {
+    Query query = new Query(Criteria.where("isDeleted").is(false)).limit(limit);
+    query.fields().include("title", "location", "genreSnapshots", "owner");
+    return mongoTemplate.find(query, BookDao.class);
+  }
+
+  @Override
+  public Set<Integer> insertBooks(List<BookDao> books) {
+    try {
+      mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, BookDao.class).insert(books).execute();
+      return Set.of();
+    } catch (BulkOperationException e) {
+      // unordered, so every other book of the batch has still been inserted
+      logger.error("Failed to insert {} of {} books: {}", e.getErrors().size(), books.size(), e.getMessage());
+      return e.getErrors().stream().map(BulkWriteError::getIndex).collect(Collectors.toSet());
+    }
+  }
+
+  @Override
+  public void updateGenreSnapshotName(String genreId, String name) {
+    Query query = new Query(Criteria.where("genreSnapshots.id").is(genreId));
+    Update update = new Update().set("genreSnapshots.$.name", name);
+    mongoTemplate.updateMulti(query, update, BookDao.class);
+  }
+
+  @Override
+  public void moveGenreSnapshotPaths(String oldPrefix, String newPrefix) {
+    // paths consist of ids and slashes, so the prefix needs no escaping
+    var query = new Query(Criteria.where("genreSnapshots.path").regex("^" + oldPrefix));
+    var path = new Document("$ifNull", List.of("$$snapshot.path", ""));
+    var movedPath = new Document("$concat", List.of(newPrefix,
+        new Document("$substrCP", List.of(path, oldPrefix.length(), new Document("$strLenCP", path)))));
+    AggregationExpression snapshots = _ -> new Document("$map", new Document("input", "$genreSnapshots")
+        .append("as", "snapshot")
+        .append("in", new Document("$cond", List.of(
+            new Document("$eq", List.of(new Document("$indexOfCP", List.of(path, oldPrefix)), 0)),
+            new Document("$mergeObjects", List.of("$$snapshot", new Document("path", movedPath))),
+            "$$snapshot"))));
+    mongoTemplate.updateMulti(query, AggregationUpdate.update().set("genreSnapshots").toValue(snapshots),
+        BookDao.class);
+  }
 }
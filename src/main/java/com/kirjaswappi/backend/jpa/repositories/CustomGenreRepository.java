@@ -0,0 +1,13 @@
+/*
+ * Copyright (c) 2026 KirjaSwappi or KirjaSwappi affiliate company. All rights reserved.
+ * Author: Mahiuddin Al Kamal <mahiuddinalkamal>
+ */
+package com.kirjaswappi.backend.jpa.repositories;
+
+public interface CustomGenreRepository {
+  /**
+   * Replaces the path prefix of every genre whose materialized path starts with
+   * {@code oldPrefix}, moving a whole subtree in one update.
+   */
+  void movePaths(String oldPrefix, String newPrefix);
+}
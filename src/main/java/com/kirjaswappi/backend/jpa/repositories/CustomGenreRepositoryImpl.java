@@ -0,0 +1,36 @@
+/*
+ * Copyright (c) 2026 KirjaSwappi or KirjaSwappi affiliate company. All rights reserved.
+ * Author: Mahiuddin Al Kamal <mahiuddinalkamal>
+ */
+package com.kirjaswappi.backend.jpa.repositories;
+
+import java.util.List;
+
+import org.bson.Document;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.AggregationExpression;
+import org.springframework.data.mongodb.core.aggregation.AggregationUpdate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Repository;
+
+import com.kirjaswappi.backend.jpa.daos.GenreDao;
+
+@Repository
+public class CustomGenreRepositoryImpl implements CustomGenreRepository {
+
+  private final MongoTemplate mongoTemplate;
+
+  public CustomGenreRepositoryImpl(MongoTemplate mongoTemplate) {
+    this.mongoTemplate = mongoTemplate;
+  }
+
+  @Override
+  public void movePaths(String oldPrefix, String newPrefix) {
+    // paths consist of ids and slashes, so the prefix needs no escaping
+    var query = new Query(Criteria.where("path").regex("^" + oldPrefix));
+    AggregationExpression movedPath = _ -> new Document("$concat", List.of(newPrefix,
+        new Document("$substrCP", List.of("$path", oldPrefix.length(), new Document("$strLenCP", "$path")))));
+    mongoTemplate.updateMulti(query, AggregationUpdate.update().set("path").toValue(movedPath), GenreDao.class);
+  }
+}
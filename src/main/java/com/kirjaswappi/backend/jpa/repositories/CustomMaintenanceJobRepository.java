@@ -0,0 +1,38 @@
+/*
+ * Copyright (c) 2026 KirjaSwappi or KirjaSwappi affiliate company. All rights reserved.
+ * Author: Mahiuddin Al Kamal <mahiuddinalkamal>
+ */
+package com.kirjaswappi.backend.jpa.repositories;
+
+import java.time.Instant;
+import java.util.Collection;
+
+public interface CustomMaintenanceJobRepository {
+  /**
+   * Marks the given jobs, if still running, as updated at {@code now}, without
+   * touching their progress.
+   */
+  void touchRunning(Collection<String> ids, Instant now);
+
+  /**
+   * Fails the running jobs last updated before {@code staleBefore}, with one
+   * update.
+   *
+   * @return how many jobs were failed
+   */
+  long failRunningUpdatedBefore(Instant staleBefore, String error, Instant now);
+
+  /**
+   * Stores the progress of the job, provided it is still running.
+   *
+   * @return false when the job is no longer running, e.g. as its lease ran out
+   */
+  boolean updateProgressIfRunning(String id, long total, long processed, Instant now);
+
+  /**
+   * Ends the job with the given status, provided it is still running.
+   *
+   * @return false when the job is no longer running, e.g. as its lease ran out
+   */
+  boolean finishIfRunning(String id, String status, String error, Instant now);
+}
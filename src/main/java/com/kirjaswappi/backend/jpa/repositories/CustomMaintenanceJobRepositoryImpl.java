@@ -0,0 +1,72 @@
+/*
+ * Copyright (c) 2026 KirjaSwappi or KirjaSwappi affiliate company. All rights reserved.
+ * Author: Mahiuddin Al Kamal <mahiuddinalkamal>
+ */
+package com.kirjaswappi.backend.jpa.repositories;
+
+import java.time.Instant;
+import java.util.Collection;
+
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Repository;
+
+import com.kirjaswappi.backend.jpa.daos.MaintenanceJobDao;
+
+@Repository
+public class CustomMaintenanceJobRepositoryImpl implements CustomMaintenanceJobRepository {
+  static final String STATUS_RUNNING = "Running";
+  static final String STATUS_FAILED = "Failed";
+
+  private final MongoTemplate mongoTemplate;
+
+  public CustomMaintenanceJobRepositoryImpl(MongoTemplate mongoTemplate) {
+    this.mongoTemplate = mongoTemplate;
+  }
+
+  @Override
+  public void touchRunning(Collection<String> ids, Instant now) {
+    if (ids.isEmpty()) {
+      return;
+    }
+    var query = new Query(Criteria.where("_id").in(ids).and("status").is(STATUS_RUNNING));
+    mongoTemplate.updateMulti(query, new Update().set("updatedAt", now), MaintenanceJobDao.class);
+  }
+
+  @Override
+  public long failRunningUpdatedBefore(Instant staleBefore, String error, Instant now) {
+    var query = new Query(Criteria.where("status").is(STATUS_RUNNING)
+        .and("updatedAt").lt(staleBefore));
+    var update = new Update()
+        .set("status", STATUS_FAILED)
+        .set("error", error)
+        .set("updatedAt", now)
+        .set("finishedAt", now);
+    return mongoTemplate.updateMulti(query, update, MaintenanceJobDao.class).getModifiedCount();
+  }
+
+  @Override
+  public boolean updateProgressIfRunning(String id, long total, long processed, Instant now) {
+    var update = new Update()
+        .set("total", total)
+        .set("processed", processed)
+        .set("updatedAt", now);
+    return mongoTemplate.updateFirst(runningJob(id), update, MaintenanceJobDao.class).getMatchedCount() > 0;
+  }
+
+  @Override
+  public boolean finishIfRunning(String id, String status, String error, Instant now) {
+    var update = new Update()
+        .set("status", status)
+        .set("error", error)
+        .set("updatedAt", now)
+        .set("finishedAt", now);
+    return mongoTemplate.updateFirst(runningJob(id), update, MaintenanceJobDao.class).getMatchedCount() > 0;
+  }
+
+  private static Query runningJob(String id) {
+    return new Query(Criteria.where("_id").is(id).and("status").is(STATUS_RUNNING));
+  }
+}
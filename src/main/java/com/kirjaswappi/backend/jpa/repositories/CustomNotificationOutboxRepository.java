@@ -0,0 +1,31 @@
+/*
+ * Copyright (c) 2026 KirjaSwappi or KirjaSwappi affiliate company. All rights reserved.
+ * Author: Mahiuddin Al Kamal <mahiuddinalkamal>
+ */
+package com.kirjaswappi.backend.jpa.repositories;
+
+import java.time.Instant;
+import java.util.List;
+
+import com.kirjaswappi.backend.jpa.daos.NotificationOutboxDao;
+
+public interface CustomNotificationOutboxRepository {
+  /**
+   * Claims up to {@code limit} pending notifications that are due, earliest
+   * first, and that no other node holds a live lease on. However many there are,
+   * they take three round trips: the candidates are read, claimed with one update
+   * that only matches those still claimable, and the ones won read back. So no
+   * two nodes ever hold the same notification; a lease that runs out, such as
+   * that of a crashed node, frees its notification to be claimed again.
+   */
+  List<NotificationOutboxDao> claimPending(String claimedBy, Instant leaseUntil, int limit);
+
+  /**
+   * Stores the outcomes of sending claimed notifications and releases their
+   * claims with one bulk write, skipping those whose lease ran out and which
+   * another node claimed meanwhile.
+   *
+   * @return how many of the claims were still held
+   */
+  int completeClaims(List<NotificationOutboxDao> notifications, String claimedBy);
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright (c) 2026 KirjaSwappi or KirjaSwappi affiliate company. All rights reserved.
+ * Author: Mahiuddin Al Kamal <mahiuddinalkamal>
+ */
+package com.kirjaswappi.backend.jpa.repositories;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Repository;
+
+import com.kirjaswappi.backend.jpa.daos.NotificationOutboxDao;
+
+@Repository
+public class CustomNotificationOutboxRepositoryImpl implements CustomNotificationOutboxRepository {
+  static final String STATUS_PENDING = "PENDING";
+
+  private final MongoTemplate mongoTemplate;
+
+  public CustomNotificationOutboxRepositoryImpl(MongoTemplate mongoTemplate) {
+    this.mongoTemplate = mongoTemplate;
+  }
+
+  @Override
+  public List<NotificationOutboxDao> claimPending(String claimedBy, Instant leaseUntil, int limit) {
+    // never-claimed notifications have no lease, and those queued before
+    // backoff no next attempt, both of which match null
+    var now = Instant.now();
+    var claimable = Criteria.where("status").is(STATUS_PENDING).andOperator(
+        new Criteria().orOperator(Criteria.where("nextAttemptAt").is(null), Criteria.where("nextAttemptAt").lte(now)),
+        new Criteria().orOperator(Criteria.where("leaseUntil").is(null), Criteria.where("leaseUntil").lt(now)));
+    var candidates = new Query(claimable).with(Sort.by(Sort.Direction.ASC, "nextAttemptAt")).limit(limit);
+    candidates.fields().include("_id");
+    var ids = mongoTemplate.find(candidates, NotificationOutboxDao.class).stream()
+        .map(NotificationOutboxDao::id)
+        .toList();
+    if (ids.isEmpty()) {
+      return List.of();
+    }
+
+    // the lease is stored to the millisecond, and tells this claim apart from
+    // any other, so it serves as the claim token
+    var lease = leaseUntil.truncatedTo(ChronoUnit.MILLIS);
+    // the candidates are claimed only if still claimable, so a notification
+    // another node claimed meanwhile is left to it
+    mongoTemplate.updateMulti(new Query(Criteria.where("_id").in(ids)).addCriteria(claimable),
+        new Update().set("claimedBy", claimedBy).set("leaseUntil", lease), NotificationOutboxDao.class);
+    return mongoTemplate.find(new Query(Criteria.where("_id").in(ids).and("claimedBy").is(claimedBy)
+        .and("leaseUntil").is(lease)).with(Sort.by(Sort.Direction.ASC, "nextAttemptAt")), NotificationOutboxDao.class);
+  }
+
+  @Override
+  public int completeClaims(List<NotificationOutboxDao> notifications, String claimedBy) {
+    if (notifications.isEmpty()) {
+      return 0;
+    }
+    var bulkOps = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, NotificationOutboxDao.class);
+    for (var notification : notifications) {
+      var query = new Query(Criteria.where("_id").is(notification.id()).and("claimedBy").is(claimedBy));
+      var update = new Update()
+          .set("status", notification.status())
+          .set("retryCount", notification.retryCount())
+          .set("nextAttemptAt", notification.nextAttemptAt())
+          .set("sentAt", notification.sentAt())
+          .set("errorMessage", notification.errorMessage())
+          .unset("claimedBy")
+          .unset("leaseUntil");
+      bulkOps.updateOne(query, update);
+    }
+    return bulkOps.execute().getMatchedCount();
+  }
+}
@@ -0,0 +1,35 @@
+/*
+ * Copyright (c) 2026 KirjaSwappi or KirjaSwappi affiliate company. All rights reserved.
+ * Author: Mahiuddin Al Kamal <mahiuddinalkamal>
+ */
+package com.kirjaswappi.backend.jpa.repositories;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+public interface CustomSwapRequestRepository {
+  /**
+   * Ids of the senders of the swap requests for the book in any of the statuses,
+   * read without loading the requests or their senders.
+   */
+  List<String> findSenderIdsByBookToSwapWith(String bookId, List<String> statuses);
+
+  /**
+   * Sets the swap requests for the book in any of the statuses to
+   * {@code newStatus} with one update.
+   *
+   * @return ids of the senders of the changed requests
+   */
+  List<String> updateStatusByBookToSwapWith(String bookId, List<String> statuses, String newStatus);
+
+  /**
+   * Same as {@link #updateStatusByBookToSwapWith(String, List, String)} for many
+   * books at once, still with one update.
+   *
+   * @return ids of the senders of the changed requests, by the id of the book
+   *         they requested
+   */
+  Map<String, List<String>> updateStatusByBooksToSwapWith(Collection<String> bookIds, List<String> statuses,
+      String newStatus);
+}
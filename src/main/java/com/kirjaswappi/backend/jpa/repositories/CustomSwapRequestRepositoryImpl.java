@@ -0,0 +1,83 @@
+/*
+ * Copyright (c) 2026 KirjaSwappi or KirjaSwappi affiliate company. All rights reserved.
+ * Author: Mahiuddin Al Kamal <mahiuddinalkamal>
+ */
+package com.kirjaswappi.backend.jpa.repositories;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Repository;
+
+import com.kirjaswappi.backend.jpa.daos.SwapRequestDao;
+import com.mongodb.DBRef;
+import com.mongodb.client.MongoCollection;
+
+@Repository
+public class CustomSwapRequestRepositoryImpl implements CustomSwapRequestRepository {
+
+  private final MongoTemplate mongoTemplate;
+
+  public CustomSwapRequestRepositoryImpl(MongoTemplate mongoTemplate) {
+    this.mongoTemplate = mongoTemplate;
+  }
+
+  @Override
+  public List<String> findSenderIdsByBookToSwapWith(String bookId, List<String> statuses) {
+    return findByBookToSwapWith(bookId, statuses).stream()
+        .map(request -> request.get("sender", DBRef.class).getId().toString())
+        .toList();
+  }
+
+  @Override
+  public List<String> updateStatusByBookToSwapWith(String bookId, List<String> statuses, String newStatus) {
+    return updateStatusByBooksToSwapWith(List.of(bookId), statuses, newStatus).getOrDefault(bookId, List.of());
+  }
+
+  @Override
+  public Map<String, List<String>> updateStatusByBooksToSwapWith(Collection<String> bookIds, List<String> statuses,
+      String newStatus) {
+    var requests = findByBooksToSwapWith(bookIds, statuses);
+    if (requests.isEmpty()) {
+      return Map.of();
+    }
+    // only the requests read above, whose senders are returned, and only while
+    // they are still in one of the statuses
+    var requestIds = requests.stream().map(request -> request.get("_id")).toList();
+    collection().updateMany(
+        new Document("_id", new Document("$in", requestIds))
+            .append("swapStatus", new Document("$in", statuses)),
+        new Document("$set", new Document("swapStatus", newStatus).append("updatedAt", new Date()))
+            .append("$inc", new Document("version", 1L)));
+    var senderIdsByBookId = new LinkedHashMap<String, List<String>>();
+    for (var request : requests) {
+      senderIdsByBookId.computeIfAbsent(request.get("bookToSwapWith", DBRef.class).getId().toString(),
+          _ -> new ArrayList<>()).add(request.get("sender", DBRef.class).getId().toString());
+    }
+    return senderIdsByBookId;
+  }
+
+  private List<Document> findByBookToSwapWith(String bookId, List<String> statuses) {
+    return findByBooksToSwapWith(List.of(bookId), statuses);
+  }
+
+  private List<Document> findByBooksToSwapWith(Collection<String> bookIds, List<String> statuses) {
+    var filter = new Document("bookToSwapWith.$id",
+        new Document("$in", bookIds.stream().map(ObjectId::new).toList()))
+        .append("swapStatus", new Document("$in", statuses));
+    return collection().find(filter)
+        .projection(new Document("sender", 1).append("bookToSwapWith", 1))
+        .into(new ArrayList<>());
+  }
+
+  private MongoCollection<Document> collection() {
+    return mongoTemplate.getCollection(mongoTemplate.getCollectionName(SwapRequestDao.class));
+  }
+}
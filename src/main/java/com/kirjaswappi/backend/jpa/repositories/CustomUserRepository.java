@@ -0,0 +1,22 @@
+/*
+ * Copyright (c) 2026 KirjaSwappi or KirjaSwappi affiliate company. All rights reserved.
+ * Author: Mahiuddin Al Kamal <mahiuddinalkamal>
+ */
+package com.kirjaswappi.backend.jpa.repositories;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface CustomUserRepository {
+  /**
+   * Appends the books to the user's books in a single update, without loading the
+   * user.
+   */
+  void addBooks(String userId, List<String> bookIds);
+
+  /**
+   * Removes the books from the books of every user holding any of them, in a
+   * single update.
+   */
+  void removeBooks(Collection<String> bookIds);
+}
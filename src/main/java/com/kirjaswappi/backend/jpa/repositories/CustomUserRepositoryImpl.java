@@ -0,0 +1,54 @@
+/*
+ * Copyright (c) 2026 KirjaSwappi or KirjaSwappi affiliate company. All rights reserved.
+ * Author: Mahiuddin Al Kamal <mahiuddinalkamal>
+ */
+package com.kirjaswappi.backend.jpa.repositories;
+
+import java.util.Collection;
+import java.util.List;
+
+import org.bson.types.ObjectId;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Repository;
+
+import com.kirjaswappi.backend.jpa.daos.BookDao;
+import com.kirjaswappi.backend.jpa.daos.UserDao;
+import com.mongodb.DBRef;
+
+@Repository
+public class CustomUserRepositoryImpl implements CustomUserRepository {
+
+  private final MongoTemplate mongoTemplate;
+
+  public CustomUserRepositoryImpl(MongoTemplate mongoTemplate) {
+    this.mongoTemplate = mongoTemplate;
+  }
+
+  @Override
+  public void addBooks(String userId, List<String> bookIds) {
+    if (bookIds.isEmpty()) {
+      return;
+    }
+    mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(userId)),
+        new Update().push("books").each(bookRefs(bookIds)), UserDao.class);
+  }
+
+  @Override
+  public void removeBooks(Collection<String> bookIds) {
+    if (bookIds.isEmpty()) {
+      return;
+    }
+    var objectIds = bookIds.stream().map(ObjectId::new).toList();
+    mongoTemplate.updateMulti(Query.query(Criteria.where("books.$id").in(objectIds)),
+        new Update().pullAll("books", bookRefs(bookIds)), UserDao.class);
+  }
+
+  private Object[] bookRefs(Collection<String> bookIds) {
+    // stored the way the lazy @DBRef list of UserDao writes its references
+    var booksCollection = mongoTemplate.getCollectionName(BookDao.class);
+    return bookIds.stream().map(id -> new DBRef(booksCollection, new ObjectId(id))).toArray();
+  }
+}
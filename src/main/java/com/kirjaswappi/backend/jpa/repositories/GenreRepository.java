@@ -10,7 +10,7 @@ import org.springframework.data.mongodb.repository.MongoRepository;
 
 import com.kirjaswappi.backend.jpa.daos.GenreDao;
 
-public interface GenreRepository extends MongoRepository<GenreDao, String> {
+public interface GenreRepository extends MongoRepository<GenreDao, String>, CustomGenreRepository {
   boolean existsByName(String name);
 
   Optional<GenreDao> findByName(String name);
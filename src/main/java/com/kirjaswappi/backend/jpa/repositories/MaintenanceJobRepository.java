@@ -0,0 +1,13 @@
+/*
+ * Copyright (c) 2026 KirjaSwappi or KirjaSwappi affiliate company. All rights reserved.
+ * Author: Mahiuddin Al Kamal <mahiuddinalkamal>
+ */
+package com.kirjaswappi.backend.jpa.repositories;
+
+import org.springframework.data.mongodb.repository.MongoRepository;
+
+import com.kirjaswappi.backend.jpa.daos.MaintenanceJobDao;
+
+public interface MaintenanceJobRepository
+    extends MongoRepository<MaintenanceJobDao, String>, CustomMaintenanceJobRepository {
+}
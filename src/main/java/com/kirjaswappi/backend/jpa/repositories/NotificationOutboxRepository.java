@@ -13,7 +13,8 @@ import org.springframework.stereotype.Repository;
 import com.kirjaswappi.backend.jpa.daos.NotificationOutboxDao;
 
 @Repository
-public interface NotificationOutboxRepository extends MongoRepository<NotificationOutboxDao, String> {
+public interface NotificationOutboxRepository
+    extends MongoRepository<NotificationOutboxDao, String>, CustomNotificationOutboxRepository {
   // Find pending notifications created before a certain time (for processing)
   // or just all pending.
   List<NotificationOutboxDao> findByStatus(String status);
@@ -12,7 +12,7 @@ import org.springframework.data.mongodb.repository.Query;
 
 import com.kirjaswappi.backend.jpa.daos.SwapRequestDao;
 
-public interface SwapRequestRepository extends MongoRepository<SwapRequestDao, String> {
+public interface SwapRequestRepository extends MongoRepository<SwapRequestDao, String>, CustomSwapRequestRepository {
   /**
    * Returns true only if there is an *active* swap (PENDING/ACCEPTED/RESERVED)
    * for this triple. Closed states (REJECTED/CANCELLED/EXPIRED/COMPLETED) must
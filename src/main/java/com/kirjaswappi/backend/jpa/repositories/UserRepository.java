@@ -11,7 +11,7 @@ import org.springframework.data.mongodb.repository.MongoRepository;
 
 import com.kirjaswappi.backend.jpa.daos.UserDao;
 
-public interface UserRepository extends MongoRepository<UserDao, String> {
+public interface UserRepository extends MongoRepository<UserDao, String>, CustomUserRepository {
   Optional<UserDao> findByEmailAndPassword(String email, String password);
 
   Optional<UserDao> findByEmail(String email);
@@ -0,0 +1,19 @@
+/*
+ * Copyright (c) 2026 KirjaSwappi or KirjaSwappi affiliate company. All rights reserved.
+ * Author: Mahiuddin Al Kamal <mahiuddinalkamal>
+ */
+package com.kirjaswappi.backend.mapper;
+
+import com.kirjaswappi.backend.jpa.daos.BookClusterDao;
+import com.kirjaswappi.backend.service.entities.BookCluster;
+
+public final class BookClusterMapper {
+
+  private BookClusterMapper() {
+    throw new IllegalStateException("Mapper class should not be instantiated");
+  }
+
+  public static BookCluster toEntity(BookClusterDao dao) {
+    return new BookCluster(dao.geohash(), dao.count(), dao.latitude(), dao.longitude());
+  }
+}
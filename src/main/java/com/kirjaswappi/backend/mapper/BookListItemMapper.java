@@ -0,0 +1,54 @@
+/*
+ * Copyright (c) 2026 KirjaSwappi or KirjaSwappi affiliate company. All rights reserved.
+ * Author: Mahiuddin Al Kamal <mahiuddinalkamal>
+ */
+package com.kirjaswappi.backend.mapper;
+
+import static com.kirjaswappi.backend.common.utils.ListUtil.emptyIfNull;
+import static com.kirjaswappi.backend.common.utils.Util.mapIfNotNull;
+
+import java.util.List;
+
+import com.kirjaswappi.backend.jpa.daos.BookListItemDao;
+import com.kirjaswappi.backend.jpa.daos.BookOwnerSummaryDao;
+import com.kirjaswappi.backend.service.entities.Book;
+import com.kirjaswappi.backend.service.entities.User;
+import com.kirjaswappi.backend.service.enums.Condition;
+import com.kirjaswappi.backend.service.enums.Language;
+
+public final class BookListItemMapper {
+
+  private BookListItemMapper() {
+    throw new IllegalStateException("Mapper class should not be instantiated");
+  }
+
+  public static Book toEntity(BookListItemDao dao, List<String> imageUrls) {
+    return Book.builder()
+        .id(dao.id())
+        .title(dao.title())
+        .author(dao.author())
+        .description(dao.description())
+        .language(Language.fromCode(dao.language()))
+        .condition(Condition.fromCode(dao.condition()))
+        .genres(emptyIfNull(dao.genreSnapshots()).stream()
+            .map(GenreMapper::toEntity)
+            .toList())
+        .coverPhotos(emptyIfNull(imageUrls))
+        .bookAddedAt(dao.bookAddedAt())
+        .bookUpdatedAt(dao.bookUpdatedAt())
+        .location(BookLocationMapper.toEntity(dao.location()))
+        .owner(mapIfNotNull(dao.owner(), BookListItemMapper::toOwner))
+        .distanceKm(dao.distanceMeters() == null ? null : dao.distanceMeters() / 1000)
+        .build();
+  }
+
+  private static User toOwner(BookOwnerSummaryDao dao) {
+    return User.builder()
+        .id(dao.id())
+        .firstName(dao.firstName())
+        .lastName(dao.lastName())
+        .city(dao.city())
+        .profilePhoto(dao.profilePhoto())
+        .build();
+  }
+}
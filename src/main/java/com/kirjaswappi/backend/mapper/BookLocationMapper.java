@@ -4,6 +4,7 @@
  */
 package com.kirjaswappi.backend.mapper;
 
+import com.kirjaswappi.backend.common.utils.Geohash;
 import com.kirjaswappi.backend.jpa.daos.BookLocationDao;
 import com.kirjaswappi.backend.service.entities.BookLocation;
 
@@ -33,9 +34,14 @@ public final class BookLocationMapper {
         .address(entity.address())
         .city(entity.city())
         .country(entity.country())
+        .normalizedCity(BookLocation.normalizePlaceName(entity.city()))
+        .normalizedCountry(BookLocation.normalizePlaceName(entity.country()))
         .postalCode(entity.postalCode())
         .radiusKm(entity.radiusKm())
         .coordinates(entity.hasCoordinates() ? new Double[] { entity.longitude(), entity.latitude() } : null)
+        .geohash(entity.hasCoordinates()
+            ? Geohash.encode(entity.latitude(), entity.longitude(), Geohash.STORED_PRECISION)
+            : null)
         .build();
   }
 
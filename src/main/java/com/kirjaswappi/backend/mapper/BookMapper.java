@@ -12,6 +12,7 @@ import java.util.List;
 import com.kirjaswappi.backend.jpa.daos.BookDao;
 import com.kirjaswappi.backend.jpa.daos.UserDao;
 import com.kirjaswappi.backend.service.entities.Book;
+import com.kirjaswappi.backend.service.entities.Genre;
 import com.kirjaswappi.backend.service.enums.Condition;
 import com.kirjaswappi.backend.service.enums.Language;
 
@@ -33,9 +34,7 @@ public final class BookMapper {
         .description(dao.description())
         .language(Language.fromCode(dao.language()))
         .condition(Condition.fromCode(dao.condition()))
-        .genres(emptyIfNull(dao.genres()).stream()
-            .map(GenreMapper::toEntity)
-            .toList())
+        .genres(toGenres(dao))
         .coverPhotos(emptyIfNull(imageUrls))
         .bookAddedAt(dao.bookAddedAt())
         .bookUpdatedAt(dao.bookUpdatedAt())
@@ -45,6 +44,18 @@ public final class BookMapper {
         .build();
   }
 
+  // list reads project only the genre snapshots, detail reads resolve the refs
+  private static List<Genre> toGenres(BookDao dao) {
+    if (dao.genres() == null && dao.genreSnapshots() != null) {
+      return dao.genreSnapshots().stream()
+          .map(GenreMapper::toEntity)
+          .toList();
+    }
+    return emptyIfNull(dao.genres()).stream()
+        .map(GenreMapper::toEntity)
+        .toList();
+  }
+
   public static Book setOwner(UserDao owner, Book book) {
     return book.withOwner(UserMapper.toEntity(owner));
   }
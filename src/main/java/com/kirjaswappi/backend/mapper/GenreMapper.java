@@ -4,7 +4,12 @@
  */
 package com.kirjaswappi.backend.mapper;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+
 import com.kirjaswappi.backend.jpa.daos.GenreDao;
+import com.kirjaswappi.backend.jpa.daos.GenreSnapshotDao;
 import com.kirjaswappi.backend.service.entities.Genre;
 
 public final class GenreMapper {
@@ -20,6 +25,29 @@ public final class GenreMapper {
 
   public static GenreDao toDao(Genre entity) {
     return new GenreDao(entity.getId(), entity.getName(),
-        entity.getParent() == null ? null : toDao(entity.getParent()));
+        entity.getParent() == null ? null : toDao(entity.getParent()), pathOf(entity));
+  }
+
+  public static Genre toEntity(GenreSnapshotDao dao) {
+    return new Genre(dao.id(), dao.name(), null);
+  }
+
+  public static GenreSnapshotDao toSnapshotDao(Genre entity) {
+    return new GenreSnapshotDao(entity.getId(), entity.getName(), pathOf(entity));
+  }
+
+  /**
+   * The materialized path of the genre: the ids from its root down to itself,
+   * each followed by a slash, e.g. "/rootId/parentId/id/".
+   */
+  public static String pathOf(Genre entity) {
+    var ids = new ArrayList<String>();
+    var seen = new HashSet<String>();
+    // stop at a repeated id rather than looping over a cyclic parent chain
+    for (var genre = entity; genre != null && seen.add(genre.getId()); genre = genre.getParent()) {
+      ids.add(genre.getId());
+    }
+    Collections.reverse(ids);
+    return "/" + String.join("/", ids) + "/";
   }
 }
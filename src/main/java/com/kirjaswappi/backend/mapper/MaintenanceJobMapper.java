@@ -0,0 +1,30 @@
+/*
+ * Copyright (c) 2026 KirjaSwappi or KirjaSwappi affiliate company. All rights reserved.
+ * Author: Mahiuddin Al Kamal <mahiuddinalkamal>
+ */
+package com.kirjaswappi.backend.mapper;
+
+import com.kirjaswappi.backend.jpa.daos.MaintenanceJobDao;
+import com.kirjaswappi.backend.service.entities.MaintenanceJob;
+import com.kirjaswappi.backend.service.enums.MaintenanceJobStatus;
+
+public final class MaintenanceJobMapper {
+
+  private MaintenanceJobMapper() {
+    throw new IllegalStateException("Mapper class should not be instantiated");
+  }
+
+  public static MaintenanceJob toEntity(MaintenanceJobDao dao) {
+    return MaintenanceJob.builder()
+        .id(dao.id())
+        .type(dao.type())
+        .status(MaintenanceJobStatus.fromCode(dao.status()))
+        .total(dao.total())
+        .processed(dao.processed())
+        .error(dao.error())
+        .startedAt(dao.startedAt())
+        .updatedAt(dao.updatedAt())
+        .finishedAt(dao.finishedAt())
+        .build();
+  }
+}
@@ -0,0 +1,114 @@
+/*
+ * Copyright (c) 2026 KirjaSwappi or KirjaSwappi affiliate company. All rights reserved.
+ * Author: Mahiuddin Al Kamal <mahiuddinalkamal>
+ */
+package com.kirjaswappi.backend.service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import lombok.RequiredArgsConstructor;
+
+import org.springframework.stereotype.Service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kirjaswappi.backend.common.exceptions.BusinessException;
+import com.kirjaswappi.backend.common.utils.CsvUtil;
+import com.kirjaswappi.backend.http.dtos.requests.ImportBookRequest;
+import com.kirjaswappi.backend.service.entities.Book;
+import com.kirjaswappi.backend.service.entities.BookImportResult;
+import com.kirjaswappi.backend.service.exceptions.BadRequestException;
+
+/**
+ * Streams a bulk import of a user's books. Books are read line by line, as
+ * NDJSON or as CSV with a header row naming the columns, and imported in
+ * batches while the rest is still being read. The outcome of every line is
+ * reported as soon as it is known; invalid lines never fail the import.
+ */
+@Service
+@RequiredArgsConstructor
+public class BookImportService {
+  public static final int BATCH_SIZE = 100;
+
+  private static final ObjectMapper objectMapper = new ObjectMapper();
+
+  private final BookService bookService;
+
+  /**
+   * Receives the outcomes of a bulk import as they become known.
+   */
+  public interface Listener {
+    /**
+     * The outcome of the line with the given 1-based number.
+     */
+    void lineImported(int line, BookImportResult result) throws IOException;
+
+    /**
+     * Called after the outcomes of every batch of books.
+     */
+    void batchImported() throws IOException;
+  }
+
+  public void importBooks(String ownerId, BufferedReader reader, boolean isCsv, Listener listener) throws IOException {
+    List<String> csvHeader = null;
+    var batchLines = new ArrayList<Integer>();
+    var batchBooks = new ArrayList<Book>();
+    var lineNumber = 0;
+    String line;
+    while ((line = reader.readLine()) != null) {
+      lineNumber++;
+      if (line.isBlank()) {
+        continue;
+      }
+      if (isCsv && csvHeader == null) {
+        csvHeader = CsvUtil.parseLine(line);
+        continue;
+      }
+      try {
+        batchBooks.add(parseImportedBook(line, csvHeader, ownerId));
+        batchLines.add(lineNumber);
+      } catch (BusinessException e) {
+        listener.lineImported(lineNumber, BookImportResult.failed(e));
+      }
+      if (batchBooks.size() == BATCH_SIZE) {
+        importBatch(ownerId, batchLines, batchBooks, listener);
+      }
+    }
+    importBatch(ownerId, batchLines, batchBooks, listener);
+  }
+
+  private static Book parseImportedBook(String line, List<String> csvHeader, String ownerId) {
+    ImportBookRequest request;
+    try {
+      request = csvHeader != null
+          ? ImportBookRequest.fromCsv(csvHeader, CsvUtil.parseLine(line), objectMapper)
+          : objectMapper.readValue(line, ImportBookRequest.class);
+    } catch (JsonProcessingException | IllegalArgumentException _) {
+      throw new BadRequestException("invalidBookImportLine", line);
+    }
+    return request.toEntity(ownerId);
+  }
+
+  private void importBatch(String ownerId, List<Integer> lines, List<Book> books, Listener listener)
+      throws IOException {
+    if (books.isEmpty()) {
+      return;
+    }
+    List<BookImportResult> results;
+    try {
+      results = bookService.importBooks(ownerId, books);
+    } catch (BusinessException e) {
+      // e.g. an unverified owner fails every line of the batch alike
+      results = books.stream().map(_ -> BookImportResult.failed(e)).toList();
+    }
+    for (int i = 0; i < results.size(); i++) {
+      listener.lineImported(lines.get(i), results.get(i));
+    }
+    listener.batchImported();
+    lines.clear();
+    books.clear();
+  }
+}
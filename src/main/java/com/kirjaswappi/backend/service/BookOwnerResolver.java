@@ -0,0 +1,102 @@
+/*
+ * Copyright (c) 2026 KirjaSwappi or KirjaSwappi affiliate company. All rights reserved.
+ * Author: Mahiuddin Al Kamal <mahiuddinalkamal>
+ */
+package com.kirjaswappi.backend.service;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import lombok.RequiredArgsConstructor;
+
+import org.springframework.data.mongodb.core.convert.LazyLoadingProxy;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import com.kirjaswappi.backend.jpa.daos.BookDao;
+import com.kirjaswappi.backend.jpa.daos.UserDao;
+import com.kirjaswappi.backend.jpa.repositories.UserRepository;
+
+/**
+ * Loads the owners of a batch of books with a single {@code $in} query instead
+ * of resolving every book's owner reference on its own. The owner reference is
+ * lazy, so its id is read from the unresolved proxy without touching the
+ * database.
+ * <p>
+ * Loaded owners are kept in the current HTTP request, so books of the same
+ * owner shown by several parts of one response cost a single lookup. Outside a
+ * request every call queries afresh.
+ */
+@Component
+@RequiredArgsConstructor
+public class BookOwnerResolver {
+  private static final String REQUEST_CACHE = BookOwnerResolver.class.getName() + ".owners";
+
+  private final UserRepository userRepository;
+
+  /**
+   * The owners of the books by id. Books whose owner no longer exists have no
+   * entry.
+   */
+  public Map<String, UserDao> ownersOf(Collection<BookDao> books) {
+    var owners = new HashMap<String, UserDao>();
+    var missing = new LinkedHashSet<String>();
+    var cache = requestCache();
+    for (var book : books) {
+      var owner = book.owner();
+      if (owner != null && !(owner instanceof LazyLoadingProxy)) {
+        // assigned in code rather than read from the database
+        owners.put(owner.id(), owner);
+        continue;
+      }
+      var ownerId = ownerId(book);
+      if (ownerId == null) {
+        continue;
+      }
+      var cached = cache.get(ownerId);
+      if (cached != null) {
+        owners.put(ownerId, cached);
+      } else {
+        missing.add(ownerId);
+      }
+    }
+    if (!missing.isEmpty()) {
+      for (var owner : userRepository.findAllById(missing)) {
+        cache.put(owner.id(), owner);
+        owners.put(owner.id(), owner);
+      }
+    }
+    return owners;
+  }
+
+  /**
+   * The id of the book's owner, or null when it has none, without resolving a
+   * lazy owner reference.
+   */
+  public static String ownerId(BookDao book) {
+    var owner = book.owner();
+    if (owner instanceof LazyLoadingProxy proxy) {
+      var ref = proxy.toDBRef();
+      return ref == null ? null : ref.getId().toString();
+    }
+    return owner == null ? null : owner.id();
+  }
+
+  @SuppressWarnings("unchecked")
+  private static Map<String, UserDao> requestCache() {
+    var attributes = RequestContextHolder.getRequestAttributes();
+    if (attributes == null) {
+      return new HashMap<>();
+    }
+    var cache = (Map<String, UserDao>) attributes.getAttribute(REQUEST_CACHE, RequestAttributes.SCOPE_REQUEST);
+    if (cache == null) {
+      cache = new ConcurrentHashMap<>();
+      attributes.setAttribute(REQUEST_CACHE, cache, RequestAttributes.SCOPE_REQUEST);
+    }
+    return cache;
+  }
+}
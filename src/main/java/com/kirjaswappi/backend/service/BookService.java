@@ -4,10 +4,18 @@
  */
 package com.kirjaswappi.backend.service;
 
+import static com.kirjaswappi.backend.common.utils.ListUtil.emptyIfNull;
+
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import jakarta.validation.Valid;
@@ -15,10 +23,12 @@ import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
+import org.bson.types.ObjectId;
 import org.jetbrains.annotations.NotNull;
 import org.jspecify.annotations.NonNull;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
@@ -27,22 +37,36 @@ import org.springframework.data.domain.Sort;
 import org.springframework.data.mongodb.core.query.Criteria;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.multipart.MultipartFile;
 
-import com.kirjaswappi.backend.common.service.NotificationClient;
+import com.kirjaswappi.backend.common.exceptions.BusinessException;
+import com.kirjaswappi.backend.common.utils.Geohash;
+import com.kirjaswappi.backend.common.utils.KeysetCursor;
+import com.kirjaswappi.backend.events.BookChangedEvent;
+import com.kirjaswappi.backend.events.BookSuggestionsChangedEvent;
 import com.kirjaswappi.backend.jpa.daos.BookDao;
+import com.kirjaswappi.backend.jpa.daos.BookListItemDao;
 import com.kirjaswappi.backend.jpa.daos.SwappableBookDao;
 import com.kirjaswappi.backend.jpa.daos.UserDao;
 import com.kirjaswappi.backend.jpa.repositories.BookRepository;
-import com.kirjaswappi.backend.jpa.repositories.SwapRequestRepository;
+import com.kirjaswappi.backend.jpa.repositories.CustomBookRepository;
 import com.kirjaswappi.backend.jpa.repositories.UserRepository;
 import com.kirjaswappi.backend.mapper.*;
 import com.kirjaswappi.backend.service.entities.Book;
+import com.kirjaswappi.backend.service.entities.BookCluster;
+import com.kirjaswappi.backend.service.entities.BookImportResult;
+import com.kirjaswappi.backend.service.entities.BookSuggestion;
+import com.kirjaswappi.backend.service.entities.CursorPage;
 import com.kirjaswappi.backend.service.entities.Genre;
+import com.kirjaswappi.backend.service.entities.MaintenanceJob;
 import com.kirjaswappi.backend.service.entities.SwappableBook;
-import com.kirjaswappi.backend.service.enums.SwapStatus;
+import com.kirjaswappi.backend.service.exceptions.BadRequestException;
 import com.kirjaswappi.backend.service.exceptions.BookNotFoundException;
 import com.kirjaswappi.backend.service.exceptions.UserNotFoundException;
 import com.kirjaswappi.backend.service.filters.FindAllBooksFilter;
+import com.kirjaswappi.backend.service.search.BookMapTileCache;
+import com.kirjaswappi.backend.service.search.BookSearchCache;
+import com.kirjaswappi.backend.service.search.BookSuggestionIndex;
 
 @Slf4j
 @Service
@@ -54,17 +78,39 @@ public class BookService {
 
   private final UserRepository userRepository;
 
-  private final GenreService genreService;
+  private final GenreRegistry genreRegistry;
 
   private final PhotoService photoService;
 
-  private final SwapRequestRepository swapRequestRepository;
+  private final ApplicationEventPublisher eventPublisher;
+
+  private final BookSuggestionIndex bookSuggestionIndex;
+
+  private final BookMapTileCache bookMapTileCache;
+
+  private final BookOwnerResolver bookOwnerResolver;
+
+  private final BookSearchCache bookSearchCache;
+
+  private final MaintenanceJobService maintenanceJobService;
 
-  private final NotificationClient notificationClient;
+  private final SwapRequestBookChangeListener swapRequestBookChangeListener;
 
   private static final List<String> ALLOWED_SORT_FIELDS = Arrays.asList("title", "author", "language", "condition",
 
-      "genres.name", "bookUpdatedAt");
+      "genres.name", "bookUpdatedAt", CustomBookRepository.RELEVANCE_SORT);
+
+  private static final long APPROXIMATE_TOTAL_CAP = 10_000;
+  private static final int MAX_MAP_TILE_BOOKS = 500;
+  private static final int MAX_MORE_BOOKS = 50;
+  private static final int DELETION_BATCH_SIZE = 500;
+
+  static final String DELETE_ALL_BOOKS_JOB = "DeleteAllBooks";
+
+  // genres.name is an array on the book, so it cannot act as a keyset
+  private static final List<String> KEYSET_SORT_FIELDS = Arrays.asList("title", "author", "language", "condition",
+      "bookUpdatedAt");
+  private static final String DISTANCE_FIELD = "distanceMeters";
 
   public Book createBook(Book book) {
     setValidSwappableGenresIfExists(book);
@@ -72,22 +118,96 @@ public class BookService {
     addGenresToBook(book, bookDao);
     setOwnerToBook(book, bookDao);
     var savedDao = bookRepository.save(bookDao);
-    savedDao = addCoverPhotoToBook(book, savedDao);
-    addCoverPhotoToSwappableBooksIfExists(book, savedDao);
+    savedDao = addCoverPhotos(book, savedDao);
     addBookToOwner(savedDao);
+    bookSuggestionIndex.index(savedDao.id(), savedDao.title(), savedDao.author());
+    eventPublisher.publishEvent(new BookSuggestionsChangedEvent(List.of(savedDao.id())));
+    bookMapTileCache.evict(geohashOf(savedDao));
+    bookSearchCache.invalidate(BookSearchCache.scopesOf(savedDao));
     return getBookById(savedDao.id());
   }
 
+  /**
+   * Imports one batch of a bulk import of the owner's books. The valid books are
+   * inserted with one bulk write and appended to the owner's books with one
+   * update; the others are reported without failing the batch.
+   *
+   * @return the outcome of each book, in the order of {@code books}
+   */
+  public List<BookImportResult> importBooks(String ownerId, List<Book> books) {
+    var owner = userRepository.findByIdAndIsEmailVerifiedTrue(ownerId)
+        .orElseThrow(() -> new UserNotFoundException(ownerId));
+    var results = new ArrayList<BookImportResult>(books.size());
+    var bookDaos = new ArrayList<BookDao>();
+    var positions = new ArrayList<Integer>();
+    for (var book : books) {
+      try {
+        var bookDao = toImportedBookDao(book, owner);
+        positions.add(results.size());
+        results.add(BookImportResult.created(bookDao.id()));
+        bookDaos.add(bookDao);
+      } catch (BusinessException e) {
+        results.add(BookImportResult.failed(e));
+      }
+    }
+    if (bookDaos.isEmpty()) {
+      return results;
+    }
+
+    var failedInserts = bookRepository.insertBooks(bookDaos);
+    var insertedDaos = new ArrayList<BookDao>();
+    for (int i = 0; i < bookDaos.size(); i++) {
+      if (failedInserts.contains(i)) {
+        results.set(positions.get(i), BookImportResult.failed(new BadRequestException("bookCouldNotBeImported")));
+      } else {
+        insertedDaos.add(bookDaos.get(i));
+      }
+    }
+    userRepository.addBooks(ownerId, insertedDaos.stream().map(BookDao::id).toList());
+
+    var searchScopes = new LinkedHashSet<String>();
+    for (var bookDao : insertedDaos) {
+      bookSuggestionIndex.index(bookDao.id(), bookDao.title(), bookDao.author());
+      bookMapTileCache.evict(geohashOf(bookDao));
+      searchScopes.addAll(BookSearchCache.scopesOf(bookDao));
+    }
+    bookSearchCache.invalidate(searchScopes);
+    eventPublisher.publishEvent(new BookSuggestionsChangedEvent(insertedDaos.stream().map(BookDao::id).toList()));
+    return results;
+  }
+
+  private BookDao toImportedBookDao(Book book, UserDao owner) {
+    setValidSwappableGenresIfExists(book);
+    var bookDao = BookMapper.toDao(book);
+    addGenresToBook(book, bookDao);
+    // ids are assigned up front, as the bulk write does not report them back
+    bookDao.id(new ObjectId().toHexString());
+    bookDao.owner(owner);
+    return bookDao;
+  }
+
   @CacheEvict(value = "books", key = "#updatedBook.id")
   public Book updateBook(Book updatedBook) {
     var existingBookDao = bookRepository.findByIdAndIsDeletedFalse(updatedBook.id())
         .orElseThrow(() -> new BookNotFoundException(updatedBook.id()));
+    var previousGeohash = geohashOf(existingBookDao);
+    var previousSearchScopes = BookSearchCache.scopesOf(existingBookDao);
     updateExistingDaoWithNewProperties(updatedBook, existingBookDao);
     var updatedBookDao = bookRepository.save(existingBookDao);
-    updatedBookDao = updateBookCoverPhoto(updatedBook, updatedBookDao);
-    addCoverPhotoToSwappableBooksIfExists(updatedBook, updatedBookDao);
-
-    notifySwapRequestSendersAboutBookChange(updatedBook.id(), "updated");
+    if (updatedBook.coverPhotoFiles() != null && !updatedBook.coverPhotoFiles().isEmpty()) {
+      deleteExistingCoverPhoto(updatedBookDao);
+    }
+    updatedBookDao = addCoverPhotos(updatedBook, updatedBookDao);
+    bookSuggestionIndex.index(updatedBookDao.id(), updatedBookDao.title(), updatedBookDao.author());
+    eventPublisher.publishEvent(new BookSuggestionsChangedEvent(List.of(updatedBookDao.id())));
+    // a moved book leaves its old tiles as well as entering new ones
+    bookMapTileCache.evict(previousGeohash);
+    bookMapTileCache.evict(geohashOf(updatedBookDao));
+    // likewise a book leaving a city or genre changes the searches of both
+    previousSearchScopes.addAll(BookSearchCache.scopesOf(updatedBookDao));
+    bookSearchCache.invalidate(previousSearchScopes);
+
+    eventPublisher.publishEvent(new BookChangedEvent(updatedBookDao.id(), updatedBookDao.title(), false));
 
     return getBookById(updatedBookDao.id());
   }
@@ -96,6 +216,10 @@ public class BookService {
   public Book getBookById(String id) {
     var bookDao = bookRepository.findByIdAndIsDeletedFalse(id)
         .orElseThrow(() -> new BookNotFoundException(id));
+    return bookWithImageUrlAndOwner(withoutDeletedSwappableBooks(bookDao));
+  }
+
+  private static BookDao withoutDeletedSwappableBooks(BookDao bookDao) {
     if (bookDao.swapCondition().swappableBooks() != null) {
       var filteredList = bookDao.swapCondition().swappableBooks()
           .stream()
@@ -103,7 +227,15 @@ public class BookService {
           .toList();
       bookDao.swapCondition().swappableBooks(filteredList);
     }
-    return bookWithImageUrlAndOwner(bookDao);
+    return bookDao;
+  }
+
+  /**
+   * Search-as-you-type suggestions served from the in-memory index, without a
+   * database round trip.
+   */
+  public List<BookSuggestion> suggestBooks(String query, int limit) {
+    return bookSuggestionIndex.suggest(query, limit);
   }
 
   public SwappableBook getSwappableBookById(String swappableBookId) {
@@ -116,56 +248,169 @@ public class BookService {
     return swappableBookWithImageUrl(swappableBookDao);
   }
 
+  /**
+   * Search of the books matching the filter. Pages are cached as book ids under
+   * the generations of the cities or genres they depend on (see
+   * {@link BookSearchCache}), so a repeated search only hydrates its books from
+   * the "books" cache.
+   */
   public Page<@NonNull Book> getAllBooksByFilter(FindAllBooksFilter filter, Pageable pageable) {
     // Expand parent genres to include their child genres for filtering
-    expandParentGenresInFilter(filter);
+    var genrePaths = resolveGenrePathsInFilter(filter);
+    expandFuzzySearchInFilter(filter);
+
+    var validPageable = getPageableWithValidSortingCriteria(pageable, filter);
+    var key = bookSearchCache.keyOf(filter.canonicalKey(), validPageable,
+        BookSearchCache.scopesOf(filter.getCity(), genrePaths));
+    var cached = bookSearchCache.get(key).flatMap(page -> hydrateCachedPage(page, validPageable));
+    if (cached.isPresent()) {
+      return cached.get();
+    }
+    var books = getBooks(pageable, filter);
+    bookSearchCache.put(key, new BookSearchCache.CachedPage(books.getContent().stream().map(Book::id).toList(),
+        books.getTotalElements()));
+    return books;
+  }
 
-    var criteria = filter.buildSearchAndFilterCriteria();
-    return getBooks(pageable, criteria);
+  /**
+   * The books of a cached page, taken from the "books" cache. Books missing there
+   * are loaded with a single query and cached in turn. Empty when a book of the
+   * page no longer exists, so the search runs again.
+   */
+  private Optional<Page<@NonNull Book>> hydrateCachedPage(BookSearchCache.CachedPage page, Pageable pageable) {
+    var booksById = new HashMap<>(bookSearchCache.cachedBooks(page.ids()));
+    var missingIds = page.ids().stream().filter(id -> !booksById.containsKey(id)).toList();
+    if (!missingIds.isEmpty()) {
+      var loaded = booksWithImageUrlsAndOwners(bookRepository.findAllById(missingIds).stream()
+          .filter(bookDao -> !bookDao.isDeleted())
+          .map(BookService::withoutDeletedSwappableBooks)
+          .toList());
+      loaded.forEach(book -> booksById.put(book.id(), book));
+      bookSearchCache.cacheBooks(loaded);
+    }
+    if (!booksById.keySet().containsAll(page.ids())) {
+      return Optional.empty();
+    }
+    return Optional.of(new PageImpl<>(page.ids().stream().map(booksById::get).toList(), pageable, page.total()));
   }
 
   /**
-   * Expands parent genres in the filter to include all their child genres. This
-   * allows filtering books by parent genre to return books from all child genres.
+   * Variant of the search above for infinite-scroll clients. With
+   * {@code approximateTotal} the total is only counted up to
+   * {@link #approximateTotalCap(Pageable)}, so it is a lower bound once reached
+   * (see {@link #isTotalCapped(Page, Pageable)}).
    */
-  private void expandParentGenresInFilter(FindAllBooksFilter filter) {
-    if (filter.getGenres() == null || filter.getGenres().isEmpty()) {
-      return;
+  public Page<@NonNull Book> getAllBooksByFilter(FindAllBooksFilter filter, Pageable pageable,
+      boolean approximateTotal) {
+    if (!approximateTotal) {
+      return getAllBooksByFilter(filter, pageable);
     }
+    resolveGenrePathsInFilter(filter);
+    expandFuzzySearchInFilter(filter);
+
+    var criteria = filter.buildSearchAndFilterCriteria();
+    pageable = getPageableWithValidSortingCriteria(pageable, filter);
+    var bookDaos = bookRepository.findAllBooksByFilter(criteria, pageable, approximateTotalCap(pageable));
+    var books = bookListItemsWithImageUrls(bookDaos.getContent());
+    return new PageImpl<>(books, pageable, bookDaos.getTotalElements());
+  }
 
-    List<String> expandedGenres = new ArrayList<>();
+  /**
+   * The count limit of an approximate total. It always reaches one past the
+   * requested page so that {@link Page#hasNext()} stays exact on deep pages.
+   */
+  public static long approximateTotalCap(Pageable pageable) {
+    return Math.max(APPROXIMATE_TOTAL_CAP, pageable.getOffset() + pageable.getPageSize() + 1);
+  }
 
-    for (String genreName : filter.getGenres()) {
-      try {
-        // Try to get the genre by name
-        Genre genre = genreService.getGenreByName(genreName);
-
-        // Check if this is a parent genre (has no parent itself)
-        if (genre.getParent() == null) {
-          // This is a parent genre, add it and all its children
-          expandedGenres.add(genreName);
-
-          // Get all child genres of this parent
-          List<Genre> allGenres = genreService.getGenres();
-          List<String> childGenreNames = allGenres.stream()
-              .filter(g -> g.getParent() != null && genreName.equals(g.getParent().getName()))
-              .map(Genre::getName)
-              .toList();
-
-          expandedGenres.addAll(childGenreNames);
-        } else {
-          // This is already a child genre, just add it
-          expandedGenres.add(genreName);
-        }
-      } catch (Exception e) {
-        // If genre doesn't exist, just add the name as-is
-        // This handles cases where the genre name might not be found
-        expandedGenres.add(genreName);
+  public static boolean isTotalCapped(Page<?> page, Pageable pageable) {
+    return page.getTotalElements() >= approximateTotalCap(pageable);
+  }
+
+  /**
+   * Keyset (cursor) variant of the offset search above. Only the first sort order
+   * of the pageable is honoured, with the book id as tie-breaker; on follow-up
+   * pages the sort is taken from the cursor itself. No total count is computed,
+   * so every page costs the same as the first one.
+   *
+   * @param cursor opaque cursor of the previous page, or blank for the first page
+   */
+  public CursorPage<@NonNull Book> getAllBooksByFilter(FindAllBooksFilter filter, Pageable pageable, String cursor) {
+    resolveGenrePathsInFilter(filter);
+    expandFuzzySearchInFilter(filter);
+
+    var criteria = filter.buildSearchAndFilterCriteria();
+    var after = decodeCursor(cursor);
+    var order = after != null ? after.order() : getKeysetSortOrder(pageable);
+    var bookDaos = bookRepository.findAllBooksByFilter(criteria, order, after, pageable.getPageSize());
+    var books = bookListItemsWithImageUrls(bookDaos.getContent());
+    var nextCursor = bookDaos.hasNext() ? cursorOf(bookDaos.getContent().getLast(), order).encode() : null;
+    return new CursorPage<>(books, pageable.getPageSize(), nextCursor);
+  }
+
+  private static KeysetCursor decodeCursor(String cursor) {
+    if (cursor == null || cursor.isBlank()) {
+      return null;
+    }
+    try {
+      var decoded = KeysetCursor.decode(cursor);
+      if (!KEYSET_SORT_FIELDS.contains(decoded.property())) {
+        throw new IllegalArgumentException("Unsupported cursor sort field: " + decoded.property());
       }
+      return decoded;
+    } catch (IllegalArgumentException e) {
+      throw new BadRequestException("invalidCursor", cursor);
     }
+  }
+
+  private static Sort.Order getKeysetSortOrder(Pageable pageable) {
+    return pageable.getSort().stream()
+        .filter(order -> KEYSET_SORT_FIELDS.contains(order.getProperty()))
+        .findFirst()
+        .orElse(Sort.Order.desc("bookUpdatedAt"));
+  }
 
-    // Remove duplicates and update the filter
-    filter.setGenres(expandedGenres.stream().distinct().toList());
+  private static KeysetCursor cursorOf(BookListItemDao bookDao, Sort.Order order) {
+    Object value = switch (order.getProperty()) {
+    case "title" -> bookDao.title();
+    case "author" -> bookDao.author();
+    case "language" -> bookDao.language();
+    case "condition" -> bookDao.condition();
+    case "bookUpdatedAt" -> bookDao.bookUpdatedAt() == null ? null : Date.from(bookDao.bookUpdatedAt());
+    default -> throw new IllegalStateException("Unsupported keyset sort field: " + order.getProperty());
+    };
+    return new KeysetCursor(order.getProperty(), order.getDirection(), value, bookDao.id());
+  }
+
+  /**
+   * Replaces the misspelt words of a fuzzy search with the closest title and
+   * author words known to the suggestion index, so that the text search finds the
+   * books despite the typos.
+   */
+  private void expandFuzzySearchInFilter(FindAllBooksFilter filter) {
+    if (filter.usesFuzzySearch()) {
+      filter.setSearch(bookSuggestionIndex.correctSearch(filter.getSearch()));
+    }
+  }
+
+  /**
+   * Resolves the genres of the filter to their materialized paths, which the
+   * filter matches as prefixes, so that a parent genre also returns the books of
+   * all its descendant genres, at any depth.
+   *
+   * @return the resolved paths; none for unknown genres
+   */
+  private List<String> resolveGenrePathsInFilter(FindAllBooksFilter filter) {
+    if (filter.getGenres() == null || filter.getGenres().isEmpty()) {
+      return List.of();
+    }
+    // unknown genres are on no book, so they resolve to no path at all
+    var genrePaths = filter.getGenres().stream()
+        .flatMap(genreName -> genreRegistry.findPath(genreName).stream())
+        .distinct()
+        .toList();
+    filter.matchGenrePaths(genrePaths);
+    return genrePaths;
   }
 
   // keeping the book cover photo for future references
@@ -174,35 +419,91 @@ public class BookService {
     var bookDao = bookRepository.findByIdAndIsDeletedFalse(id).orElseThrow(() -> new BookNotFoundException(id));
     removeBookFromOwner(bookDao);
     bookRepository.deleteLogically(id);
+    bookSuggestionIndex.remove(id);
+    eventPublisher.publishEvent(new BookSuggestionsChangedEvent(List.of(id)));
+    bookMapTileCache.evict(geohashOf(bookDao));
+    bookSearchCache.invalidate(BookSearchCache.scopesOf(bookDao));
 
-    notifySwapRequestSendersAboutBookChange(id, "deleted");
+    eventPublisher.publishEvent(new BookChangedEvent(id, bookDao.title(), true));
   }
 
-  public void deleteAllBooks() {
-    bookRepository.findAllByIsDeletedFalse().forEach(bookDao -> deleteBook(bookDao.id()));
+  /**
+   * Deletes all books in a background job, a batch at a time. Each batch is
+   * soft-deleted, removed from its owners and has its swap requests cancelled
+   * with one update each, and its caches are cleaned up together.
+   */
+  public MaintenanceJob deleteAllBooks() {
+    return maintenanceJobService.start(DELETE_ALL_BOOKS_JOB, progress -> {
+      progress.total(bookRepository.countByIsDeletedFalse());
+      List<BookDao> batch;
+      // deleted books are no longer live, so each read returns the next batch
+      while (!(batch = bookRepository.findLiveBooksForDeletion(DELETION_BATCH_SIZE)).isEmpty()) {
+        deleteBooks(batch);
+        progress.advance(batch.size());
+      }
+    });
+  }
+
+  private void deleteBooks(List<BookDao> books) {
+    var ids = books.stream().map(BookDao::id).toList();
+    bookRepository.deleteLogically(ids);
+    userRepository.removeBooks(ids);
+
+    var searchScopes = new LinkedHashSet<String>();
+    var geohashes = new LinkedHashSet<String>();
+    var titlesByBookId = new LinkedHashMap<String, String>();
+    for (var book : books) {
+      bookSuggestionIndex.remove(book.id());
+      geohashes.add(geohashOf(book));
+      searchScopes.addAll(BookSearchCache.scopesOf(book));
+      titlesByBookId.put(book.id(), book.title());
+    }
+    geohashes.forEach(bookMapTileCache::evict);
+    bookSearchCache.evictBooks(ids);
+    bookSearchCache.invalidate(searchScopes);
+    eventPublisher.publishEvent(new BookSuggestionsChangedEvent(ids));
+
+    swapRequestBookChangeListener.cancelSwapRequestsForDeletedBooks(titlesByBookId);
   }
 
-  private void addCoverPhotoToSwappableBooksIfExists(Book parentBook, BookDao bookDao) {
-    var parentSwapBooks = getValidSwappableBooks(parentBook);
-    var daoSwapBooks = getValidSwappableBooks(bookDao);
+  /**
+   * Uploads the new cover photos of the book and those of its swappable books all
+   * at once, so that they are uploaded concurrently, and saves their ids on the
+   * book. The book keeps its cover photos when no new ones are given.
+   */
+  private BookDao addCoverPhotos(Book book, BookDao dao) {
+    var uploads = new LinkedHashMap<String, MultipartFile>();
+    List<String> coverPhotoIds = null;
+    if (book.coverPhotoFiles() != null && !book.coverPhotoFiles().isEmpty()) {
+      coverPhotoIds = new ArrayList<>();
+      var index = 1;
+      for (var coverPhotoFile : book.coverPhotoFiles()) {
+        var uniqueId = dao.id() + "-" + "BookCoverPhoto" + "-" + index;
+        uploads.put(uniqueId, coverPhotoFile);
+        coverPhotoIds.add(uniqueId);
+        index++;
+      }
+    }
 
+    var parentSwapBooks = getValidSwappableBooks(book);
+    var daoSwapBooks = getValidSwappableBooks(dao);
     if (parentSwapBooks.size() != daoSwapBooks.size()) {
       throw new IllegalStateException("Swappable books size doesn't match");
     }
-
-    if (parentSwapBooks.isEmpty()) {
-      return;
-    }
-
     for (int i = 0; i < parentSwapBooks.size(); i++) {
-      var coverPhoto = parentSwapBooks.get(i).getCoverPhotoFile();
-      var bookDaoId = daoSwapBooks.get(i).id();
-      var uniqueId = bookDaoId + "-SwappableBookCoverPhoto";
-
-      photoService.addBookCoverPhoto(coverPhoto, uniqueId);
+      var uniqueId = daoSwapBooks.get(i).id() + "-SwappableBookCoverPhoto";
+      uploads.put(uniqueId, parentSwapBooks.get(i).getCoverPhotoFile());
       daoSwapBooks.get(i).coverPhoto(uniqueId);
     }
-    bookRepository.save(bookDao);
+
+    if (uploads.isEmpty()) {
+      return dao;
+    }
+    photoService.addBookCoverPhotos(uploads);
+    if (coverPhotoIds != null) {
+      dao.coverPhotos(coverPhotoIds);
+    }
+    return bookRepository.save(dao);
   }
 
   private List<SwappableBook> getValidSwappableBooks(Book book) {
@@ -245,14 +546,16 @@ public class BookService {
       return;
     }
     List<Genre> validGenres = swappableGenres.stream()
-        .map(genre -> genreService.getGenreByName(genre.getName())).toList();
+        .map(genre -> genreRegistry.getGenreByName(genre.getName())).toList();
     book.swapCondition().swappableGenres(validGenres);
   }
 
   private void addGenresToBook(Book book, BookDao dao) {
-    dao.genres(book.genres().stream()
-        .map(genre -> GenreMapper.toDao(genreService.getGenreByName(genre.getName())))
-        .toList());
+    var genres = book.genres().stream()
+        .map(genre -> genreRegistry.getGenreByName(genre.getName()))
+        .toList();
+    dao.genres(genres.stream().map(GenreMapper::toDao).toList());
+    dao.genreSnapshots(genres.stream().map(GenreMapper::toSnapshotDao).toList());
   }
 
   private void setOwnerToBook(Book book, BookDao bookDao) {
@@ -261,27 +564,6 @@ public class BookService {
     bookDao.owner(owner);
   }
 
-  private BookDao updateBookCoverPhoto(Book book, BookDao dao) {
-    if (book.coverPhotoFiles() == null || book.coverPhotoFiles().isEmpty()) {
-      return dao; // Keep existing photos if no new ones are provided
-    }
-    deleteExistingCoverPhoto(dao);
-    return addCoverPhotoToBook(book, dao);
-  }
-
-  private BookDao addCoverPhotoToBook(Book book, BookDao dao) {
-    var coverPhotoIds = new ArrayList<String>();
-    var index = 1;
-    for (var coverPhotoFile : book.coverPhotoFiles()) {
-      var uniqueId = dao.id() + "-" + "BookCoverPhoto" + "-" + index;
-      photoService.addBookCoverPhoto(coverPhotoFile, uniqueId);
-      coverPhotoIds.add(uniqueId);
-      index++;
-    }
-    dao.coverPhotos(coverPhotoIds);
-    return bookRepository.save(dao);
-  }
-
   private void addBookToOwner(BookDao dao) {
     var owner = userRepository.findByIdAndIsEmailVerifiedTrue(dao.owner().id())
         .orElseThrow(() -> new UserNotFoundException(dao.owner().id()));
@@ -309,7 +591,12 @@ public class BookService {
     }
   }
 
-  private Pageable getPageableWithValidSortingCriteria(Pageable pageable) {
+  private Pageable getPageableWithValidSortingCriteria(Pageable pageable, FindAllBooksFilter filter) {
+    if (!pageable.getSort().isSorted() && filter.usesFuzzySearch()) {
+      // best corrections first, newest books among equally good matches
+      return PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(),
+          Sort.by(Sort.Order.desc(CustomBookRepository.RELEVANCE_SORT), Sort.Order.desc("bookUpdatedAt")));
+    }
     if (!pageable.getSort().isSorted()) {
       // if no sorting is provided, then add default sorting by offeredAgo
       pageable = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(),
@@ -319,6 +606,9 @@ public class BookService {
 
     List<Sort.Order> allowedOrders = pageable.getSort().stream()
         .filter(order -> ALLOWED_SORT_FIELDS.contains(order.getProperty()))
+        // relevance needs a text search score to sort on
+        .filter(order -> filter.hasSearch() || !CustomBookRepository.RELEVANCE_SORT.equals(order.getProperty()))
+        .map(order -> "genres.name".equals(order.getProperty()) ? order.withProperty("genreSnapshots.name") : order)
         .toList();
 
     if (allowedOrders.isEmpty()) {
@@ -329,15 +619,51 @@ public class BookService {
     return PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), Sort.by(allowedOrders));
   }
 
-  private Book bookWithCoverPhotoUrl(BookDao bookDao) {
-    var book = fetchImageUrlForBookCoverPhoto(bookDao);
-    fetchImageUrlForSwappableBooksIfExists(book);
-    return book;
+  private Book bookWithImageUrlAndOwner(BookDao bookDao) {
+    return booksWithImageUrlsAndOwners(List.of(bookDao)).getFirst();
   }
 
-  private Book bookWithImageUrlAndOwner(BookDao bookDao) {
-    var book = bookWithCoverPhotoUrl(bookDao);
-    return bookWithOwner(bookDao.owner(), book);
+  /**
+   * Maps a page of books, resolving the cover photos of all of them, and of their
+   * swappable books, with a single bulk URL lookup, and their owners with a
+   * single user query.
+   */
+  private List<Book> booksWithImageUrlsAndOwners(List<BookDao> bookDaos) {
+    var coverPhotoIds = new ArrayList<String>();
+    for (var bookDao : bookDaos) {
+      coverPhotoIds.addAll(bookDao.coverPhotos());
+      var swappableBooks = bookDao.swapCondition() != null ? bookDao.swapCondition().swappableBooks() : null;
+      if (swappableBooks != null) {
+        swappableBooks.forEach(swappableBook -> coverPhotoIds.add(swappableBook.coverPhoto()));
+      }
+    }
+    var imageUrls = photoService.getBookCoverPhotos(coverPhotoIds);
+    var owners = bookOwnerResolver.ownersOf(bookDaos);
+    return bookDaos.stream()
+        .map(bookDao -> {
+          var book = fetchImageUrlForBookCoverPhoto(bookDao, imageUrls);
+          fetchImageUrlForSwappableBooksIfExists(book, imageUrls);
+          var owner = owners.get(BookOwnerResolver.ownerId(bookDao));
+          return owner == null ? book : bookWithOwner(owner, book);
+        })
+        .toList();
+  }
+
+  /**
+   * Maps a page of list items, resolving all their cover photos with a single
+   * bulk URL lookup. The owner summary comes with the items, so no users are
+   * loaded.
+   */
+  private List<Book> bookListItemsWithImageUrls(List<BookListItemDao> bookDaos) {
+    var coverPhotoIds = bookDaos.stream()
+        .flatMap(bookDao -> emptyIfNull(bookDao.coverPhotos()).stream())
+        .toList();
+    var imageUrls = photoService.getBookCoverPhotos(coverPhotoIds);
+    return bookDaos.stream()
+        .map(bookDao -> BookListItemMapper.toEntity(bookDao, emptyIfNull(bookDao.coverPhotos()).stream()
+            .map(imageUrls::get)
+            .toList()))
+        .toList();
   }
 
   private SwappableBook swappableBookWithImageUrl(SwappableBookDao bookDao) {
@@ -351,53 +677,137 @@ public class BookService {
   }
 
   @NotNull
-  private Book fetchImageUrlForBookCoverPhoto(BookDao bookDao) {
+  private static Book fetchImageUrlForBookCoverPhoto(BookDao bookDao, Map<String, String> imageUrls) {
     var coverPhotoImageUrls = new ArrayList<String>();
     for (var uniqueId : bookDao.coverPhotos()) {
-      var imageUrl = photoService.getBookCoverPhoto(uniqueId);
-      coverPhotoImageUrls.add(imageUrl);
+      coverPhotoImageUrls.add(imageUrls.get(uniqueId));
     }
     return BookMapper.toEntity(bookDao, coverPhotoImageUrls);
   }
 
-  private void fetchImageUrlForSwappableBooksIfExists(Book parentBook) {
+  private static void fetchImageUrlForSwappableBooksIfExists(Book parentBook, Map<String, String> imageUrls) {
     var swappableBooks = parentBook.swapCondition().swappableBooks();
     if (swappableBooks == null || swappableBooks.isEmpty()) {
       return;
     }
-    for (int i = 0; i < swappableBooks.size(); i++) {
-      var uniqueId = swappableBooks.get(i).getCoverPhoto();
-      String coverPhotoUrl = photoService.getBookCoverPhoto(uniqueId);
-      parentBook.swapCondition().swappableBooks().get(i).setCoverPhoto(coverPhotoUrl);
+    for (var swappableBook : swappableBooks) {
+      swappableBook.setCoverPhoto(imageUrls.get(swappableBook.getCoverPhoto()));
     }
   }
 
-  public List<Book> getMoreBooksOfTheUser(String bookId) {
+  /**
+   * Other books of the owner of the book, newest first, limited to {@code limit}
+   * books. Read by a single query on the owner, then mapped like single books,
+   * with their cover photos and owner resolved in bulk.
+   */
+  public List<Book> getMoreBooksOfTheUser(String bookId, int limit) {
     var bookDao = bookRepository.findByIdAndIsDeletedFalse(bookId)
         .orElseThrow(() -> new BookNotFoundException(bookId));
-    var owner = bookDao.owner();
-    if (owner.books() == null) {
+    var ownerId = BookOwnerResolver.ownerId(bookDao);
+    if (ownerId == null) {
       return List.of();
     }
-    return owner.books().stream()
-        .filter(book -> !book.id().equals(bookId)) // Exclude the current book
-        .map(this::bookWithImageUrlAndOwner).toList();
+    var bookDaos = bookRepository.findOtherBooksOfOwner(ownerId, bookId, Math.clamp(limit, 1, MAX_MORE_BOOKS));
+    return booksWithImageUrlsAndOwners(bookDaos.stream().map(BookService::withoutDeletedSwappableBooks).toList());
   }
 
   public Page<@NonNull Book> getUserBooksByFilter(String id, @Valid FindAllBooksFilter filter, Pageable pageable) {
     filter.setOwnerId(id);
-    var criteria = filter.buildSearchAndFilterCriteria();
-    return getBooks(pageable, criteria);
+    return getBooks(pageable, filter);
   }
 
   @NotNull
-  private PageImpl<@NonNull Book> getBooks(Pageable pageable, Criteria criteria) {
-    pageable = getPageableWithValidSortingCriteria(pageable);
+  private PageImpl<@NonNull Book> getBooks(Pageable pageable, FindAllBooksFilter filter) {
+    var criteria = filter.buildSearchAndFilterCriteria();
+    pageable = getPageableWithValidSortingCriteria(pageable, filter);
     var bookDaos = bookRepository.findAllBooksByFilter(criteria, pageable);
-    var books = bookDaos.stream().map(this::bookWithImageUrlAndOwner).toList();
+    var books = bookListItemsWithImageUrls(bookDaos.getContent());
     return new PageImpl<>(books, pageable, bookDaos.getTotalElements());
   }
 
+  /**
+   * Books within the map bounds of the filter. Requests filtering by the bounds
+   * alone, in the default order, are served from cached geohash tiles: the tiles
+   * covering the bounds are loaded once, then trimmed to the exact bounds and
+   * paged in memory. Anything else is queried directly.
+   */
+  public Page<@NonNull Book> getBooksInMapBounds(FindAllBooksFilter filter, Pageable pageable) {
+    if (!filter.hasOnlyMapBounds() || pageable.getSort().isSorted()) {
+      return getAllBooksByFilter(filter, pageable);
+    }
+    var tiles = bookMapTileCache.tilesCovering(filter.getNorth(), filter.getSouth(), filter.getEast(),
+        filter.getWest());
+    if (tiles.isEmpty()) {
+      return getAllBooksByFilter(filter, pageable);
+    }
+
+    var books = new ArrayList<Book>();
+    for (var tile : tiles) {
+      var cached = bookMapTileCache.get(tile, () -> loadMapTile(tile));
+      if (!cached.complete()) {
+        return getAllBooksByFilter(filter, pageable);
+      }
+      cached.books().stream().filter(book -> isWithinMapBounds(book, filter)).forEach(books::add);
+    }
+    books.sort(Comparator.comparing(Book::bookUpdatedAt).reversed().thenComparing(Book::id));
+
+    pageable = getPageableWithValidSortingCriteria(pageable, filter);
+    int from = (int) Math.min(pageable.getOffset(), books.size());
+    int to = Math.min(from + pageable.getPageSize(), books.size());
+    return new PageImpl<>(books.subList(from, to), pageable, books.size());
+  }
+
+  private BookMapTileCache.Tile loadMapTile(String geohash) {
+    var criteria = Criteria.where("isDeleted").is(false)
+        .and("location.geohash").regex("^" + geohash);
+    var bookDaos = bookRepository.findAllBooksByFilter(criteria, Sort.Order.desc("bookUpdatedAt"), null,
+        MAX_MAP_TILE_BOOKS);
+    if (bookDaos.hasNext()) {
+      return new BookMapTileCache.Tile(List.of(), false);
+    }
+    return new BookMapTileCache.Tile(bookListItemsWithImageUrls(bookDaos.getContent()), true);
+  }
+
+  private static boolean isWithinMapBounds(Book book, FindAllBooksFilter filter) {
+    var location = book.location();
+    return location != null && location.latitude() != null && location.longitude() != null
+        && location.latitude() >= filter.getSouth() && location.latitude() <= filter.getNorth()
+        && location.longitude() >= filter.getWest() && location.longitude() <= filter.getEast();
+  }
+
+  private static String geohashOf(BookDao bookDao) {
+    return bookDao.location() != null ? bookDao.location().geohash() : null;
+  }
+
+  /**
+   * Map clusters of the books matching the filter: one entry per geohash cell,
+   * with the cell size chosen from the map zoom level so that a viewport holds a
+   * few dozen cells regardless of how many books it contains.
+   *
+   * @param filter filter with the map bounds and any other book filters
+   * @param zoom   web map zoom level, 0 (whole world) to 22
+   * @return clusters ordered by geohash
+   */
+  public List<BookCluster> getBookClusters(FindAllBooksFilter filter, int zoom) {
+    resolveGenrePathsInFilter(filter);
+    expandFuzzySearchInFilter(filter);
+
+    var criteria = filter.buildSearchAndFilterCriteria();
+    return bookRepository.findBookClusters(criteria, clusterPrecisionForZoom(zoom)).stream()
+        .map(BookClusterMapper::toEntity)
+        .toList();
+  }
+
+  /**
+   * Geohash length whose cells are about a quarter of a 256 pixel map tile wide
+   * at the given zoom. Each zoom level halves the tile width while each geohash
+   * character divides the cell by 32, so the precision grows by one every two or
+   * three levels.
+   */
+  static int clusterPrecisionForZoom(int zoom) {
+    return Math.clamp(Math.round((zoom + 2) * 2 / 5f), 1, Geohash.STORED_PRECISION);
+  }
+
   /**
    * Find books near a specific location within a given radius.
    *
@@ -409,15 +819,53 @@ public class BookService {
    */
   public Page<@NonNull Book> findBooksNearLocation(Double latitude, Double longitude, Integer radiusKm,
       Pageable pageable) {
-    var filter = new FindAllBooksFilter();
-    filter.setNearLatitude(latitude);
-    filter.setNearLongitude(longitude);
-    filter.setRadiusKm(radiusKm);
-    return getAllBooksByFilter(filter, pageable);
+    // Closest first; $geoNear decides the order, so the pageable's sort is ignored
+    var criteria = new FindAllBooksFilter().buildSearchAndFilterCriteria();
+    var bookDaos = bookRepository.findBooksNearLocation(criteria, latitude, longitude, radiusKm * 1000.0,
+        pageable);
+    var books = bookListItemsWithImageUrls(bookDaos.getContent());
+    return new PageImpl<>(books, bookDaos.getPageable(), bookDaos.getTotalElements());
+  }
+
+  /**
+   * Keyset (cursor) variant of the nearby search above, paging on (distance, id).
+   *
+   * @param cursor opaque cursor of the previous page, or blank for the first page
+   */
+  public CursorPage<@NonNull Book> findBooksNearLocation(Double latitude, Double longitude, Integer radiusKm,
+      int size, String cursor) {
+    var criteria = new FindAllBooksFilter().buildSearchAndFilterCriteria();
+    var after = decodeDistanceCursor(cursor);
+    var bookDaos = bookRepository.findBooksNearLocation(criteria, latitude, longitude, radiusKm * 1000.0, after,
+        size);
+    var books = bookListItemsWithImageUrls(bookDaos.getContent());
+    String nextCursor = null;
+    if (bookDaos.hasNext()) {
+      var last = bookDaos.getContent().getLast();
+      nextCursor = new KeysetCursor(DISTANCE_FIELD, Sort.Direction.ASC, last.distanceMeters(), last.id()).encode();
+    }
+    return new CursorPage<>(books, size, nextCursor);
+  }
+
+  private static KeysetCursor decodeDistanceCursor(String cursor) {
+    if (cursor == null || cursor.isBlank()) {
+      return null;
+    }
+    try {
+      var decoded = KeysetCursor.decode(cursor);
+      if (!DISTANCE_FIELD.equals(decoded.property()) || decoded.direction() != Sort.Direction.ASC
+          || !(decoded.value() instanceof Double)) {
+        throw new IllegalArgumentException("Not a distance cursor: " + decoded.property());
+      }
+      return decoded;
+    } catch (IllegalArgumentException e) {
+      throw new BadRequestException("invalidCursor", cursor);
+    }
   }
 
   /**
-   * Find books in a specific city.
+   * Find books in a specific city. The name matches exactly, ignoring case and
+   * accents, through the normalized city index.
    *
    * @param city     the city name
    * @param pageable pagination information
@@ -430,7 +878,8 @@ public class BookService {
   }
 
   /**
-   * Find books in a specific country.
+   * Find books in a specific country. The name matches exactly, ignoring case and
+   * accents, through the normalized country index.
    *
    * @param country  the country name
    * @param pageable pagination information
@@ -441,42 +890,4 @@ public class BookService {
     filter.setCountry(country);
     return getAllBooksByFilter(filter, pageable);
   }
-
-  private void notifySwapRequestSendersAboutBookChange(String bookId, String action) {
-    try {
-      var bookDao = bookRepository.findById(bookId).orElse(null);
-      if (bookDao == null)
-        return;
-
-      var swapRequests = swapRequestRepository.findByBookToSwapWithIdAndSwapStatus(bookId,
-          SwapStatus.PENDING.getCode());
-      for (var request : swapRequests) {
-        // Cancel pending swap requests when book is deleted
-        if ("deleted".equals(action)) {
-          request.swapStatus(SwapStatus.CANCELLED.getCode());
-          swapRequestRepository.save(request);
-        }
-        String title = "Book " + action.substring(0, 1).toUpperCase() + action.substring(1);
-        String message = String.format("The book '%s' you requested has been %s by its owner.",
-            bookDao.title(), action);
-        notificationClient.sendNotification(request.sender().id(), title, message);
-      }
-
-      // Also cancel accepted/reserved swap requests when book is deleted
-      if ("deleted".equals(action)) {
-        for (String status : List.of(SwapStatus.ACCEPTED.getCode(), SwapStatus.RESERVED.getCode())) {
-          var activeRequests = swapRequestRepository.findByBookToSwapWithIdAndSwapStatus(bookId, status);
-          for (var request : activeRequests) {
-            request.swapStatus(SwapStatus.CANCELLED.getCode());
-            swapRequestRepository.save(request);
-            String message = String.format("The book '%s' you requested has been deleted by its owner.",
-                bookDao.title());
-            notificationClient.sendNotification(request.sender().id(), "Book Deleted", message);
-          }
-        }
-      }
-    } catch (Exception e) {
-      log.error("Failed to notify swap request senders about book change. BookId: {}", bookId, e);
-    }
-  }
 }
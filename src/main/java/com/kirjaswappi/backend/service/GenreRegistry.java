@@ -0,0 +1,126 @@
+/*
+ * Copyright (c) 2026 KirjaSwappi or KirjaSwappi affiliate company. All rights reserved.
+ * Author: Mahiuddin Al Kamal <mahiuddinalkamal>
+ */
+package com.kirjaswappi.backend.service;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.kirjaswappi.backend.events.GenresChangedEvent;
+import com.kirjaswappi.backend.jpa.daos.GenreDao;
+import com.kirjaswappi.backend.jpa.repositories.GenreRepository;
+import com.kirjaswappi.backend.mapper.GenreMapper;
+import com.kirjaswappi.backend.service.entities.Genre;
+import com.kirjaswappi.backend.service.exceptions.GenreNotFoundException;
+
+/**
+ * In-memory copy of the genre taxonomy. The genres live in an immutable
+ * snapshot, together with the materialized path of every genre, so lookups and
+ * resolving genre filters are plain map reads without locking.
+ * <p>
+ * Any change rebuilds the whole snapshot from the database and swaps it in
+ * atomically, so readers see either the old or the new taxonomy, never a mix.
+ * GenreService announces changes with a {@link GenresChangedEvent}; in the
+ * cloud the event is relayed to the other nodes as well.
+ * <p>
+ * The returned genres are shared by all readers and must not be modified.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class GenreRegistry {
+
+  private final GenreRepository genreRepository;
+
+  private volatile Snapshot snapshot;
+
+  /**
+   * @param byName      genres by name, parents pointing to registry instances
+   * @param pathsByName materialized paths of the genres by name
+   */
+  private record Snapshot(Map<String, Genre> byName, Map<String, String> pathsByName) {
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void build() {
+    try {
+      refresh();
+    } catch (Exception e) {
+      // built on first use instead
+      log.warn("Failed to build genre registry: {}", e.getMessage());
+    }
+  }
+
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onGenresChanged(GenresChangedEvent event) {
+    refresh();
+  }
+
+  /**
+   * Rebuilds the snapshot from the database. Rebuilds run one at a time, so a
+   * slow rebuild can never replace a newer snapshot.
+   */
+  public synchronized void refresh() {
+    snapshot = load(genreRepository.findAll());
+    log.debug("Rebuilt genre registry with {} genres", snapshot.byName().size());
+  }
+
+  public Genre getGenreByName(String name) {
+    var genre = snapshot().byName().get(name);
+    if (genre == null) {
+      throw new GenreNotFoundException(name);
+    }
+    return genre;
+  }
+
+  /**
+   * The materialized path of the genre, a prefix of the paths of all its
+   * descendants, or empty for unknown names.
+   */
+  public Optional<String> findPath(String name) {
+    return Optional.ofNullable(snapshot().pathsByName().get(name));
+  }
+
+  private Snapshot snapshot() {
+    var current = snapshot;
+    if (current == null) {
+      synchronized (this) {
+        if (snapshot == null) {
+          refresh();
+        }
+        current = snapshot;
+      }
+    }
+    return current;
+  }
+
+  private static Snapshot load(List<GenreDao> daos) {
+    var genresById = new HashMap<String, Genre>();
+    daos.forEach(dao -> genresById.put(dao.id(), new Genre(dao.id(), dao.name(), null)));
+    for (var dao : daos) {
+      // a parent missing from the taxonomy leaves its children at the top
+      if (dao.parent() != null && genresById.containsKey(dao.parent().id())) {
+        genresById.get(dao.id()).setParent(genresById.get(dao.parent().id()));
+      }
+    }
+
+    var byName = new HashMap<String, Genre>();
+    var pathsByName = new HashMap<String, String>();
+    for (var genre : genresById.values()) {
+      byName.put(genre.getName(), genre);
+      pathsByName.put(genre.getName(), GenreMapper.pathOf(genre));
+    }
+    return new Snapshot(Map.copyOf(byName), Map.copyOf(pathsByName));
+  }
+}
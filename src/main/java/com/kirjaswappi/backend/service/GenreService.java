@@ -4,21 +4,25 @@
  */
 package com.kirjaswappi.backend.service;
 
-import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 import lombok.RequiredArgsConstructor;
 
+import org.bson.types.ObjectId;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.kirjaswappi.backend.events.GenresChangedEvent;
 import com.kirjaswappi.backend.http.dtos.responses.NestedGenresResponse;
 import com.kirjaswappi.backend.http.dtos.responses.ParentGenreResponse;
 import com.kirjaswappi.backend.jpa.repositories.BookRepository;
@@ -26,6 +30,7 @@ import com.kirjaswappi.backend.jpa.repositories.GenreRepository;
 import com.kirjaswappi.backend.jpa.repositories.UserRepository;
 import com.kirjaswappi.backend.mapper.GenreMapper;
 import com.kirjaswappi.backend.service.entities.Genre;
+import com.kirjaswappi.backend.service.exceptions.BadRequestException;
 import com.kirjaswappi.backend.service.exceptions.GenreAlreadyExistsException;
 import com.kirjaswappi.backend.service.exceptions.GenreCannotBeDeletedException;
 import com.kirjaswappi.backend.service.exceptions.GenreNotFoundException;
@@ -42,6 +47,8 @@ public class GenreService {
 
   private final BookRepository bookRepository;
 
+  private final ApplicationEventPublisher eventPublisher;
+
   @Cacheable(value = "genres")
   public List<Genre> getGenres() {
     // fetch all the genres
@@ -75,28 +82,22 @@ public class GenreService {
     Map<String, List<Genre>> childrenByParentId = childGenres.stream()
         .collect(Collectors.groupingBy(genre -> genre.getParent().getId()));
 
-    // Build the nested structure
+    // Build the nested structure, with children nested to any depth
     Map<String, ParentGenreResponse> parentGenresMap = new HashMap<>();
 
     for (Genre parentGenre : parentGenres) {
-      // Get children for this parent, or empty list if none
-      List<Genre> children = childrenByParentId.getOrDefault(parentGenre.getId(), new ArrayList<>());
-
-      // Create ParentGenreResponse with children
-      ParentGenreResponse parentResponse = new ParentGenreResponse(parentGenre, children);
-
       // Use genre name as key in the map
-      parentGenresMap.put(parentGenre.getName(), parentResponse);
+      parentGenresMap.put(parentGenre.getName(), new ParentGenreResponse(parentGenre, childrenByParentId));
     }
 
     // Handle orphaned children (children whose parent doesn't exist in the
     // database)
-    List<String> existingParentIds = parentGenres.stream()
+    Set<String> existingGenreIds = allGenres.stream()
         .map(Genre::getId)
-        .toList();
+        .collect(Collectors.toSet());
 
     List<Genre> orphanedChildren = childGenres.stream()
-        .filter(child -> !existingParentIds.contains(child.getParent().getId()))
+        .filter(child -> !existingGenreIds.contains(child.getParent().getId()))
         .toList();
 
     if (!orphanedChildren.isEmpty()) {
@@ -104,10 +105,9 @@ public class GenreService {
           orphanedChildren.size(),
           orphanedChildren.stream().map(Genre::getName).collect(Collectors.joining(", ")));
 
-      // Treat orphaned children as parent genres with empty child lists
+      // Treat orphaned children as parent genres, keeping their own children
       for (Genre orphanedChild : orphanedChildren) {
-        ParentGenreResponse orphanResponse = new ParentGenreResponse(orphanedChild, new ArrayList<>());
-        parentGenresMap.put(orphanedChild.getName(), orphanResponse);
+        parentGenresMap.put(orphanedChild.getName(), new ParentGenreResponse(orphanedChild, childrenByParentId));
       }
     }
 
@@ -122,7 +122,13 @@ public class GenreService {
       throw new GenreAlreadyExistsException(genre.getName());
     }
     checkAndFetchParentIfExists(genre);
-    return GenreMapper.toEntity(genreRepository.save(GenreMapper.toDao(genre)));
+    if (genre.getId() == null) {
+      // the id is part of the materialized path, so it is needed before saving
+      genre.setId(new ObjectId().toHexString());
+    }
+    var saved = genreRepository.save(GenreMapper.toDao(genre));
+    eventPublisher.publishEvent(new GenresChangedEvent(saved.id()));
+    return GenreMapper.toEntity(saved);
   }
 
   private void checkAndFetchParentIfExists(Genre genre) {
@@ -147,6 +153,7 @@ public class GenreService {
     }
 
     genreRepository.deleteById(id);
+    eventPublisher.publishEvent(new GenresChangedEvent(id));
   }
 
   private boolean isIsBeingGenreUsed(String id) {
@@ -157,14 +164,31 @@ public class GenreService {
   public Genre updateGenre(Genre genre) {
     var dao = genreRepository.findById(genre.getId())
         .orElseThrow(() -> new GenreNotFoundException(genre.getId()));
+    boolean renamed = !Objects.equals(dao.name(), genre.getName());
     dao.name(genre.getName());
     if (genre.getParent() == null)
       dao.parent(null);
     else {
       checkAndFetchParentIfExists(genre);
+      if (GenreMapper.pathOf(genre.getParent()).contains("/" + genre.getId() + "/")) {
+        throw new BadRequestException("genreParentCycle", genre.getName());
+      }
       dao.parent(GenreMapper.toDao(genre.getParent()));
     }
-    return GenreMapper.toEntity(genreRepository.save(dao));
+    var oldPath = dao.path();
+    dao.path(GenreMapper.pathOf(genre));
+    var saved = genreRepository.save(dao);
+    if (renamed) {
+      // keep the genre names denormalized onto books in sync
+      bookRepository.updateGenreSnapshotName(saved.id(), saved.name());
+    }
+    if (oldPath != null && !oldPath.equals(saved.path())) {
+      // a moved genre takes its whole subtree along, on genres and on books
+      genreRepository.movePaths(oldPath, saved.path());
+      bookRepository.moveGenreSnapshotPaths(oldPath, saved.path());
+    }
+    eventPublisher.publishEvent(new GenresChangedEvent(saved.id()));
+    return GenreMapper.toEntity(saved);
   }
 
   public Genre getGenreById(String genreId) {
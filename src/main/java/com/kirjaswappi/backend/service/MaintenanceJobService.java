@@ -0,0 +1,185 @@
+/*
+ * Copyright (c) 2026 KirjaSwappi or KirjaSwappi affiliate company. All rights reserved.
+ * Author: Mahiuddin Al Kamal <mahiuddinalkamal>
+ */
+package com.kirjaswappi.backend.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.kirjaswappi.backend.jpa.daos.MaintenanceJobDao;
+import com.kirjaswappi.backend.jpa.repositories.MaintenanceJobRepository;
+import com.kirjaswappi.backend.mapper.MaintenanceJobMapper;
+import com.kirjaswappi.backend.service.entities.MaintenanceJob;
+import com.kirjaswappi.backend.service.enums.MaintenanceJobStatus;
+import com.kirjaswappi.backend.service.exceptions.ResourceNotFoundException;
+
+/**
+ * Runs maintenance work, such as deleting all books, in the background instead
+ * of within the request that starts it. The job and its progress are stored, so
+ * they can be followed from any instance while it runs.
+ * <p>
+ * Every instance keeps the jobs it runs alive by renewing their update time on
+ * a heartbeat, and fails the running jobs whose heartbeat stopped for longer
+ * than a lease, as the instance running them died.
+ */
+@Slf4j
+@Service
+public class MaintenanceJobService {
+  private static final long HEARTBEAT_INTERVAL_MS = 60_000;
+
+  static final Duration LEASE = Duration.ofMinutes(5);
+
+  static final String INSTANCE_STOPPED_ERROR = "The instance running the job stopped";
+
+  private final MaintenanceJobRepository maintenanceJobRepository;
+
+  // ids of the jobs running on this instance, whose heartbeat it renews
+  private final Set<String> runningJobIds = ConcurrentHashMap.newKeySet();
+
+  private final TaskExecutor maintenanceJobExecutor;
+
+  public MaintenanceJobService(MaintenanceJobRepository maintenanceJobRepository,
+      @Qualifier("maintenanceJobExecutor") TaskExecutor maintenanceJobExecutor) {
+    this.maintenanceJobRepository = maintenanceJobRepository;
+    this.maintenanceJobExecutor = maintenanceJobExecutor;
+  }
+
+  /**
+   * The work of a job, which reports its progress as it goes.
+   */
+  @FunctionalInterface
+  public interface Work {
+    void run(Progress progress);
+  }
+
+  /**
+   * Progress of a running job. Each report is stored, so report once per batch
+   * rather than once per item.
+   */
+  public interface Progress {
+    void total(long total);
+
+    void advance(long processed);
+  }
+
+  /**
+   * Stops the work of a job that another instance failed once its lease ran out.
+   */
+  private static final class LeaseLostException extends RuntimeException {
+    private LeaseLostException(String jobId) {
+      super("Maintenance job " + jobId + " is no longer running");
+    }
+  }
+
+  private final class StoredProgress implements Progress {
+    private final MaintenanceJobDao dao;
+
+    private StoredProgress(MaintenanceJobDao dao) {
+      this.dao = dao;
+    }
+
+    @Override
+    public void total(long total) {
+      dao.total(total);
+      store();
+    }
+
+    @Override
+    public void advance(long processed) {
+      dao.processed(dao.processed() + processed);
+      store();
+    }
+
+    private void store() {
+      dao.updatedAt(Instant.now());
+      if (!maintenanceJobRepository.updateProgressIfRunning(dao.id(), dao.total(), dao.processed(),
+          dao.updatedAt())) {
+        throw new LeaseLostException(dao.id());
+      }
+    }
+  }
+
+  public MaintenanceJob start(String type, Work work) {
+    var now = Instant.now();
+    var dao = maintenanceJobRepository.save(MaintenanceJobDao.builder()
+        .type(type)
+        .status(MaintenanceJobStatus.RUNNING.getCode())
+        .startedAt(now)
+        .updatedAt(now)
+        .build());
+    // mapped before the job starts changing the dao
+    var job = MaintenanceJobMapper.toEntity(dao);
+    try {
+      maintenanceJobExecutor.execute(() -> run(dao, work));
+      return job;
+    } catch (TaskRejectedException e) {
+      log.error("Maintenance job {} of type {} was rejected", dao.id(), type, e);
+      finish(dao, MaintenanceJobStatus.FAILED, "Too many maintenance jobs are running");
+      return MaintenanceJobMapper.toEntity(dao);
+    }
+  }
+
+  public MaintenanceJob getJob(String id) {
+    return maintenanceJobRepository.findById(id)
+        .map(MaintenanceJobMapper::toEntity)
+        .orElseThrow(() -> new ResourceNotFoundException("maintenanceJobNotFound", id));
+  }
+
+  /**
+   * Renews the lease of the jobs running on this instance, then fails the running
+   * jobs of any instance whose lease ran out.
+   */
+  @Scheduled(fixedDelay = HEARTBEAT_INTERVAL_MS)
+  public void renewLeases() {
+    var now = Instant.now();
+    maintenanceJobRepository.touchRunning(Set.copyOf(runningJobIds), now);
+    long failed = maintenanceJobRepository.failRunningUpdatedBefore(now.minus(LEASE), INSTANCE_STOPPED_ERROR, now);
+    if (failed > 0) {
+      log.warn("Failed {} maintenance jobs whose instance stopped", failed);
+    }
+  }
+
+  private void run(MaintenanceJobDao dao, Work work) {
+    runningJobIds.add(dao.id());
+    try {
+      work.run(new StoredProgress(dao));
+      finish(dao, MaintenanceJobStatus.COMPLETED, null);
+    } catch (LeaseLostException e) {
+      log.warn("Maintenance job {} of type {} stopped after {} items as its lease ran out", dao.id(), dao.type(),
+          dao.processed());
+    } catch (Exception e) {
+      log.error("Maintenance job {} of type {} failed after {} items", dao.id(), dao.type(), dao.processed(), e);
+      finish(dao, MaintenanceJobStatus.FAILED, e.getMessage());
+    } finally {
+      runningJobIds.remove(dao.id());
+    }
+  }
+
+  /**
+   * Ends the job unless it already ended, as another instance failed it once its
+   * lease ran out.
+   */
+  private void finish(MaintenanceJobDao dao, MaintenanceJobStatus status, String error) {
+    var now = Instant.now();
+    if (!maintenanceJobRepository.finishIfRunning(dao.id(), status.getCode(), error, now)) {
+      log.warn("Maintenance job {} of type {} ended as {} after its lease ran out", dao.id(), dao.type(),
+          status.getCode());
+      return;
+    }
+    dao.status(status.getCode());
+    dao.error(error);
+    dao.updatedAt(now);
+    dao.finishedAt(now);
+  }
+}
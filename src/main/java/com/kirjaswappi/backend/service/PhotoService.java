@@ -5,8 +5,17 @@
 package com.kirjaswappi.backend.service;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -21,6 +30,7 @@ import com.kirjaswappi.backend.jpa.repositories.PhotoRepository;
 import com.kirjaswappi.backend.jpa.repositories.UserRepository;
 import com.kirjaswappi.backend.mapper.PhotoMapper;
 import com.kirjaswappi.backend.service.entities.Photo;
+import com.kirjaswappi.backend.service.exceptions.ImageUploadFailureException;
 import com.kirjaswappi.backend.service.exceptions.PhotoNotFoundException;
 import com.kirjaswappi.backend.service.exceptions.ResourceNotFoundException;
 import com.kirjaswappi.backend.service.exceptions.UserNotFoundException;
@@ -29,6 +39,7 @@ import com.kirjaswappi.backend.service.exceptions.UserNotFoundException;
 @Transactional
 public class PhotoService {
   private final Logger logger = LoggerFactory.getLogger(PhotoService.class);
+  private static final int MAX_CONCURRENT_COVER_UPLOADS = 4;
 
   @Autowired
   private ImageService imageService;
@@ -80,6 +91,64 @@ public class PhotoService {
     imageService.uploadImage(file, uniqueId);
   }
 
+  /**
+   * Uploads the book cover photos under their unique ids concurrently, each on a
+   * virtual thread but at most {@value #MAX_CONCURRENT_COVER_UPLOADS} at a time,
+   * so that all take about as long as the slowest one. When an upload fails, the
+   * others are cancelled and the photos already uploaded deleted before the
+   * failure is rethrown.
+   */
+  public void addBookCoverPhotos(Map<String, MultipartFile> filesByUniqueId) {
+    var permits = new Semaphore(MAX_CONCURRENT_COVER_UPLOADS);
+    var startedUploads = ConcurrentHashMap.<String>newKeySet();
+    RuntimeException failure = null;
+    // closing the executor waits for every upload, so none outlives the call
+    try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+      var uploads = new ExecutorCompletionService<String>(executor);
+      var futures = new ArrayList<Future<String>>();
+      filesByUniqueId.forEach((uniqueId, file) -> futures.add(uploads.submit(() -> {
+        permits.acquire();
+        try {
+          startedUploads.add(uniqueId);
+          addBookCoverPhoto(file, uniqueId);
+          return uniqueId;
+        } finally {
+          permits.release();
+        }
+      })));
+      for (int i = 0; i < futures.size() && failure == null; i++) {
+        failure = failureOf(uploads);
+      }
+      if (failure != null) {
+        futures.forEach(future -> future.cancel(true));
+      }
+    }
+    if (failure != null) {
+      startedUploads.forEach(this::deleteUploadedBookCoverPhoto);
+      throw failure;
+    }
+  }
+
+  private static RuntimeException failureOf(ExecutorCompletionService<String> uploads) {
+    try {
+      uploads.take().get();
+      return null;
+    } catch (ExecutionException e) {
+      return e.getCause() instanceof RuntimeException cause ? cause : new ImageUploadFailureException();
+    } catch (InterruptedException _) {
+      Thread.currentThread().interrupt();
+      return new ImageUploadFailureException();
+    }
+  }
+
+  private void deleteUploadedBookCoverPhoto(String uniqueId) {
+    try {
+      deleteBookCoverPhoto(uniqueId);
+    } catch (RuntimeException e) {
+      logger.warn("Failed to delete cover photo {} after a failed upload: {}", uniqueId, e.getMessage());
+    }
+  }
+
   public void deleteBookCoverPhoto(String uniqueId) {
     logger.debug("Deleting cover photo for book with uniqueId: {}", uniqueId);
     imageService.deleteImage(uniqueId);
@@ -92,6 +161,19 @@ public class PhotoService {
     return imageService.getDownloadUrl(uniqueId);
   }
 
+  /**
+   * Bulk variant of {@link #getBookCoverPhoto(String)} that resolves the cover
+   * photos of a whole page of books in one go.
+   *
+   * @return the URL of every given unique ID
+   */
+  public Map<String, String> getBookCoverPhotos(Collection<String> uniqueIds) {
+    logger.debug("Fetching cover photo URLs for {} books", uniqueIds.size());
+    if (uniqueIds.stream().anyMatch(Objects::isNull))
+      throw new PhotoNotFoundException();
+    return imageService.getDownloadUrls(uniqueIds);
+  }
+
   private String addUserPhoto(String userId, MultipartFile file, boolean isProfilePhoto) {
     var userDao = userRepository.findByIdAndIsEmailVerifiedTrue(userId).orElseThrow(UserNotFoundException::new);
     var uniqueId = userDao.id() + "-" + (isProfilePhoto ? "ProfilePhoto" : "CoverPhoto");
@@ -0,0 +1,78 @@
+/*
+ * Copyright (c) 2026 KirjaSwappi or KirjaSwappi affiliate company. All rights reserved.
+ * Author: Mahiuddin Al Kamal <mahiuddinalkamal>
+ */
+package com.kirjaswappi.backend.service;
+
+import java.util.List;
+import java.util.Map;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.kirjaswappi.backend.common.service.NotificationClient;
+import com.kirjaswappi.backend.events.BookChangedEvent;
+import com.kirjaswappi.backend.jpa.repositories.SwapRequestRepository;
+import com.kirjaswappi.backend.service.enums.SwapStatus;
+
+/**
+ * Tells the senders of swap requests for a book that the book was updated or
+ * deleted, cancelling their active requests once it is deleted. Runs in the
+ * background after the book change has committed, so changing a book takes the
+ * same time however many requests it has.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SwapRequestBookChangeListener {
+  private static final List<String> ACTIVE_STATUSES = List.of(SwapStatus.PENDING.getCode(),
+      SwapStatus.ACCEPTED.getCode(), SwapStatus.RESERVED.getCode());
+
+  private final SwapRequestRepository swapRequestRepository;
+
+  private final NotificationClient notificationClient;
+
+  @Async("bookEventExecutor")
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onBookChanged(BookChangedEvent event) {
+    try {
+      if (event.deleted()) {
+        var senderIds = swapRequestRepository.updateStatusByBookToSwapWith(event.bookId(), ACTIVE_STATUSES,
+            SwapStatus.CANCELLED.getCode());
+        notifySenders(senderIds, event.title(), "deleted");
+      } else {
+        var senderIds = swapRequestRepository.findSenderIdsByBookToSwapWith(event.bookId(),
+            List.of(SwapStatus.PENDING.getCode()));
+        notifySenders(senderIds, event.title(), "updated");
+      }
+    } catch (Exception e) {
+      log.error("Failed to notify swap request senders about book change. BookId: {}", event.bookId(), e);
+    }
+  }
+
+  /**
+   * Cancels the active swap requests for the deleted books with one update and
+   * tells their senders, as {@link #onBookChanged} does for a single book. Runs
+   * on the caller's thread, for deletions already running in the background.
+   *
+   * @param titlesByBookId titles of the deleted books, by their ids
+   */
+  public void cancelSwapRequestsForDeletedBooks(Map<String, String> titlesByBookId) {
+    if (titlesByBookId.isEmpty()) {
+      return;
+    }
+    var senderIdsByBookId = swapRequestRepository.updateStatusByBooksToSwapWith(titlesByBookId.keySet(),
+        ACTIVE_STATUSES, SwapStatus.CANCELLED.getCode());
+    senderIdsByBookId.forEach((bookId, senderIds) -> notifySenders(senderIds, titlesByBookId.get(bookId), "deleted"));
+  }
+
+  private void notifySenders(List<String> senderIds, String bookTitle, String action) {
+    String title = "Book " + action.substring(0, 1).toUpperCase() + action.substring(1);
+    String message = String.format("The book '%s' you requested has been %s by its owner.", bookTitle, action);
+    notificationClient.sendNotifications(senderIds.stream().distinct().toList(), title, message);
+  }
+}
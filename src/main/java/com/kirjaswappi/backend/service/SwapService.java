@@ -7,6 +7,7 @@ package com.kirjaswappi.backend.service;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import lombok.RequiredArgsConstructor;
@@ -216,19 +217,28 @@ public class SwapService {
       return swapRequest;
     }
     List<String> rawCovers = swapRequest.bookToSwapWith().coverPhotos();
+    var offeredBook = swapRequest.swapOffer() != null ? swapRequest.swapOffer().offeredBook() : null;
+    String offeredCover = offeredBook != null ? offeredBook.getCoverPhoto() : null;
+    boolean hasOfferedCover = offeredCover != null && !offeredCover.isBlank();
+
+    List<String> coverPhotoIds = new ArrayList<>();
+    if (rawCovers != null) {
+      coverPhotoIds.addAll(rawCovers);
+    }
+    if (hasOfferedCover) {
+      coverPhotoIds.add(offeredCover);
+    }
+    if (coverPhotoIds.isEmpty()) {
+      return swapRequest;
+    }
+    Map<String, String> imageUrls = photoService.getBookCoverPhotos(coverPhotoIds);
+
     if (rawCovers != null && !rawCovers.isEmpty()) {
-      List<String> resolved = new ArrayList<>(rawCovers.size());
-      for (String uniqueId : rawCovers) {
-        resolved.add(photoService.getBookCoverPhoto(uniqueId));
-      }
+      List<String> resolved = rawCovers.stream().map(imageUrls::get).toList();
       swapRequest = swapRequest.withBookToSwapWith(swapRequest.bookToSwapWith().withCoverPhotos(resolved));
     }
-
-    if (swapRequest.swapOffer() != null && swapRequest.swapOffer().offeredBook() != null) {
-      String offeredCover = swapRequest.swapOffer().offeredBook().getCoverPhoto();
-      if (offeredCover != null && !offeredCover.isBlank()) {
-        swapRequest.swapOffer().offeredBook().setCoverPhoto(photoService.getBookCoverPhoto(offeredCover));
-      }
+    if (hasOfferedCover) {
+      offeredBook.setCoverPhoto(imageUrls.get(offeredCover));
     }
 
     return swapRequest;
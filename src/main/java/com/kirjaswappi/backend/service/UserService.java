@@ -5,18 +5,22 @@
 package com.kirjaswappi.backend.service;
 
 import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 
 import lombok.RequiredArgsConstructor;
 
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import com.kirjaswappi.backend.common.service.EmailService;
 import com.kirjaswappi.backend.common.service.exceptions.InvalidCredentials;
 import com.kirjaswappi.backend.common.utils.Util;
+import com.kirjaswappi.backend.events.BookSuggestionsChangedEvent;
 import com.kirjaswappi.backend.jpa.daos.BookDao;
 import com.kirjaswappi.backend.jpa.daos.UserDao;
 import com.kirjaswappi.backend.jpa.repositories.BookRepository;
@@ -30,6 +34,9 @@ import com.kirjaswappi.backend.service.exceptions.BadRequestException;
 import com.kirjaswappi.backend.service.exceptions.BookNotFoundException;
 import com.kirjaswappi.backend.service.exceptions.UserAlreadyExistsException;
 import com.kirjaswappi.backend.service.exceptions.UserNotFoundException;
+import com.kirjaswappi.backend.service.search.BookMapTileCache;
+import com.kirjaswappi.backend.service.search.BookSearchCache;
+import com.kirjaswappi.backend.service.search.BookSuggestionIndex;
 
 @Service
 @Transactional
@@ -50,6 +57,14 @@ public class UserService {
 
   private final EmailService emailService;
 
+  private final BookSuggestionIndex bookSuggestionIndex;
+
+  private final BookMapTileCache bookMapTileCache;
+
+  private final BookSearchCache bookSearchCache;
+
+  private final ApplicationEventPublisher eventPublisher;
+
   public User addUser(User user) {
 
     this.checkUserExistButNotVerified(user);
@@ -91,22 +106,26 @@ public class UserService {
   }
 
   private void setCoverPhotos(UserDao userDao) {
+    var bookDaos = new ArrayList<BookDao>();
     if (userDao.books() != null) {
-      userDao.books().forEach(this::fetchAndSetImage);
+      bookDaos.addAll(userDao.books());
     }
     if (userDao.favBooks() != null) {
-      userDao.favBooks().forEach(this::fetchAndSetImage);
+      bookDaos.addAll(userDao.favBooks());
     }
+    var coverPhotoIds = new ArrayList<String>();
+    bookDaos.stream()
+        .filter(bookDao -> bookDao.coverPhotos() != null)
+        .forEach(bookDao -> coverPhotoIds.addAll(bookDao.coverPhotos()));
+    // one bulk lookup for the whole profile instead of one per cover photo
+    var imageUrls = coverPhotoIds.isEmpty() ? Map.<String, String>of()
+        : photoService.getBookCoverPhotos(coverPhotoIds);
+    bookDaos.forEach(bookDao -> setImageUrls(bookDao, imageUrls));
   }
 
-  private void fetchAndSetImage(BookDao bookDao) {
-    var imageUrls = new ArrayList<String>();
+  private static void setImageUrls(BookDao bookDao, Map<String, String> imageUrls) {
     if (bookDao.coverPhotos() != null) {
-      bookDao.coverPhotos().forEach(uniqueId -> {
-        var imageUrl = photoService.getBookCoverPhoto(uniqueId);
-        imageUrls.add(imageUrl);
-      });
-      bookDao.coverPhotos(imageUrls);
+      bookDao.coverPhotos(bookDao.coverPhotos().stream().map(imageUrls::get).toList());
     } else {
       bookDao.coverPhotos(List.of());
     }
@@ -141,11 +160,23 @@ public class UserService {
     swapRequestRepository.deleteAllBySenderId(id);
     swapRequestRepository.deleteAllByReceiverId(id);
 
-    // Soft-delete all books owned by this user
-    if (dao.books() != null) {
+    // Soft-delete all books owned by this user with one update
+    if (dao.books() != null && !dao.books().isEmpty()) {
+      var bookIds = dao.books().stream().map(BookDao::id).toList();
+      bookRepository.deleteLogically(bookIds);
+      var searchScopes = new LinkedHashSet<String>();
+      var geohashes = new LinkedHashSet<String>();
       for (var book : dao.books()) {
-        bookRepository.deleteLogically(book.id());
+        bookSuggestionIndex.remove(book.id());
+        if (book.location() != null) {
+          geohashes.add(book.location().geohash());
+        }
+        searchScopes.addAll(BookSearchCache.scopesOf(book));
       }
+      geohashes.forEach(bookMapTileCache::evict);
+      bookSearchCache.evictBooks(bookIds);
+      bookSearchCache.invalidate(searchScopes);
+      eventPublisher.publishEvent(new BookSuggestionsChangedEvent(bookIds));
     }
 
     // Delete photos
@@ -33,7 +33,8 @@ public record Book(
     BookLocation location,
     Instant bookAddedAt,
     Instant bookUpdatedAt,
-    Instant bookDeletedAt
+    Instant bookDeletedAt,
+    Double distanceKm
 ) {
 
   public Book {
@@ -0,0 +1,8 @@
+/*
+ * Copyright (c) 2026 KirjaSwappi or KirjaSwappi affiliate company. All rights reserved.
+ * Author: Mahiuddin Al Kamal <mahiuddinalkamal>
+ */
+package com.kirjaswappi.backend.service.entities;
+
+public record BookCluster(String geohash, long count, double latitude, double longitude) {
+}
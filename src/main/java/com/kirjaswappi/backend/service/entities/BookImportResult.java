@@ -0,0 +1,26 @@
+/*
+ * Copyright (c) 2026 KirjaSwappi or KirjaSwappi affiliate company. All rights reserved.
+ * Author: Mahiuddin Al Kamal <mahiuddinalkamal>
+ */
+package com.kirjaswappi.backend.service.entities;
+
+import com.kirjaswappi.backend.common.exceptions.BusinessException;
+
+/**
+ * Outcome of importing one book of a bulk import: the id of the created book,
+ * or the error that kept it from being created.
+ */
+public record BookImportResult(String bookId, BusinessException error) {
+
+  public static BookImportResult created(String bookId) {
+    return new BookImportResult(bookId, null);
+  }
+
+  public static BookImportResult failed(BusinessException error) {
+    return new BookImportResult(null, error);
+  }
+
+  public boolean isCreated() {
+    return error == null;
+  }
+}
@@ -6,6 +6,8 @@ package com.kirjaswappi.backend.service.entities;
 
 import static com.kirjaswappi.backend.common.utils.Util.defaultIfNull;
 
+import java.util.Locale;
+
 import lombok.*;
 
 import org.apache.commons.lang3.StringUtils;
@@ -99,4 +101,19 @@ public record BookLocation(
   public static boolean isValidLongitude(Double lng) {
     return lng != null && lng >= -180.0 && lng <= 180.0;
   }
+
+  /**
+   * Normalizes a city or country name for exact matching: accents stripped,
+   * lower-cased and with whitespace collapsed, so "Jyväskylä " and "jyvaskyla"
+   * compare equal.
+   *
+   * @param name the city or country name
+   * @return the normalized name, or null if the name is blank
+   */
+  public static String normalizePlaceName(String name) {
+    if (StringUtils.isBlank(name)) {
+      return null;
+    }
+    return StringUtils.normalizeSpace(StringUtils.stripAccents(name)).toLowerCase(Locale.ROOT);
+  }
 }
@@ -0,0 +1,24 @@
+/*
+ * Copyright (c) 2026 KirjaSwappi or KirjaSwappi affiliate company. All rights reserved.
+ * Author: Mahiuddin Al Kamal <mahiuddinalkamal>
+ */
+package com.kirjaswappi.backend.service.entities;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * A page fetched by keyset (cursor) pagination. Unlike a
+ * {@link org.springframework.data.domain.Page} it carries no total count, only
+ * the opaque cursor of the following page, or {@code null} on the last page.
+ */
+public record CursorPage<T>(List<T> content, int size, String nextCursor) {
+
+  public boolean hasNext() {
+    return nextCursor != null;
+  }
+
+  public <R> CursorPage<R> map(Function<? super T, ? extends R> mapper) {
+    return new CursorPage<>(content.stream().<R>map(mapper).toList(), size, nextCursor);
+  }
+}
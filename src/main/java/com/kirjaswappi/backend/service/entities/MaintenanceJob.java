@@ -0,0 +1,27 @@
+/*
+ * Copyright (c) 2026 KirjaSwappi or KirjaSwappi affiliate company. All rights reserved.
+ * Author: Mahiuddin Al Kamal <mahiuddinalkamal>
+ */
+package com.kirjaswappi.backend.service.entities;
+
+import java.time.Instant;
+
+import lombok.Builder;
+import lombok.With;
+
+import com.kirjaswappi.backend.service.enums.MaintenanceJobStatus;
+
+@With
+@Builder
+public record MaintenanceJob(
+    String id,
+    String type,
+    MaintenanceJobStatus status,
+    long total,
+    long processed,
+    String error,
+    Instant startedAt,
+    Instant updatedAt,
+    Instant finishedAt
+) {
+}
@@ -0,0 +1,31 @@
+/*
+ * Copyright (c) 2026 KirjaSwappi or KirjaSwappi affiliate company. All rights reserved.
+ * Author: Mahiuddin Al Kamal <mahiuddinalkamal>
+ */
+package com.kirjaswappi.backend.service.enums;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+import lombok.Getter;
+
+@Getter
+public enum MaintenanceJobStatus {
+  RUNNING("Running"),
+  COMPLETED("Completed"),
+  FAILED("Failed");
+
+  private final String code;
+
+  MaintenanceJobStatus(String code) {
+    this.code = code;
+  }
+
+  public static MaintenanceJobStatus fromCode(String code) {
+    Objects.requireNonNull(code);
+    return Arrays.stream(MaintenanceJobStatus.values())
+        .filter(c -> c.getCode().equalsIgnoreCase(code))
+        .findFirst()
+        .orElseThrow(() -> new IllegalArgumentException("Unknown maintenance job status: " + code));
+  }
+}
@@ -5,20 +5,29 @@
 package com.kirjaswappi.backend.service.filters;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.regex.Pattern;
 
 import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
 
+import org.bson.Document;
 import org.springframework.data.mongodb.core.query.Criteria;
 
+import com.kirjaswappi.backend.service.entities.BookLocation;
+
 @Getter
 @Setter
 public class FindAllBooksFilter {
-  @Schema(description = "Search parameter to find specific books by name, author, or genre.", example = "Lord of the Rings")
+  @Schema(description = "Search parameter to find specific books by whole words in their title, author, or description, ignoring case; parts of words do not match. Combine with sort=relevance to order by match quality.", example = "Lord of the Rings")
   String search;
 
+  @Schema(description = "Tolerate typos in the search words by also matching the closest known title and author words. Results are ordered by relevance, then recency, unless a sort is given.", example = "true")
+  Boolean fuzzy;
+
   @Schema(description = "Filter parameter for the language of the book.", example = "[\"English\"]", allowableValues = {
       "English", "Finnish", "Bengali", "Spanish", "French", "German", "Russian", "Arabic", "Chinese", "Japanese" })
   List<String> languages;
@@ -27,10 +36,16 @@ public class FindAllBooksFilter {
       "New", "Like New", "Good", "Fair", "Poor" })
   List<String> conditions;
 
-  @Schema(description = "Filter parameter for the genre of the book. Supports both parent genres (e.g., 'Fiction') which will return books from all child genres, and specific child genres.", example = "[\"Fiction\"]", allowableValues = {
+  @Schema(description = "Filter parameter for the genre of the book. A genre also matches books of all its descendant genres, at any depth (e.g., 'Fiction' returns books from all fiction subgenres). Genre names that do not exist match no book.", example = "[\"Fiction\"]", allowableValues = {
       "Fantasy", "Science Fiction", "Mystery", "Horror", "Romance", "Thriller", "Historical Fiction", "Non-Fiction" })
   List<String> genres;
 
+  // resolved from the genres by BookService; no setter, so never bound
+  @Schema(hidden = true)
+  @Getter(AccessLevel.NONE)
+  @Setter(AccessLevel.NONE)
+  List<String> genrePaths;
+
   @Schema(description = "Filter parameter for owner's book.", example = "64e8b2f2c2a4e2a1b8d7c9e0")
   String ownerId;
 
@@ -64,24 +79,70 @@ public class FindAllBooksFilter {
   @Schema(description = "Bounding box west longitude for map view", example = "23.0")
   Double west;
 
-  @Schema(description = "Sort field for ordering results. Use with Pageable's 'sort' parameter.", example = "createdAt", allowableValues = {
-      "title", "author", "createdAt", "condition", "language" })
+  @Schema(description = "Sort field for ordering results. Use with Pageable's 'sort' parameter. 'relevance' only applies together with a search.", example = "createdAt", allowableValues = {
+      "title", "author", "createdAt", "condition", "language", "relevance" })
   String sortBy;
 
   @Schema(description = "Sort direction for ordering results. Use with Pageable's 'sort' parameter.", example = "desc", allowableValues = {
       "asc", "desc" })
   String sortDirection;
 
+  /**
+   * Matches the genres by their materialized paths instead of their names, which
+   * includes all descendants of the genres.
+   */
+  public void matchGenrePaths(List<String> genrePaths) {
+    this.genrePaths = genrePaths;
+  }
+
+  /**
+   * Canonical form of the filter for cache keys: equal for filters selecting the
+   * same books, whatever the order of their list parameters. Place names are
+   * normalized as they are matched.
+   */
+  public String canonicalKey() {
+    return Arrays.asList(search, usesFuzzySearch(), sorted(languages), sorted(conditions),
+        genrePaths != null ? sorted(genrePaths) : sorted(genres), genrePaths != null, ownerId, notOwnerId,
+        nearLatitude, nearLongitude, radiusKm, BookLocation.normalizePlaceName(city),
+        BookLocation.normalizePlaceName(country), north, south, east, west).toString();
+  }
+
+  private static List<String> sorted(List<String> values) {
+    return values == null ? null : values.stream().sorted().distinct().toList();
+  }
+
+  public boolean hasSearch() {
+    return search != null && !search.isBlank();
+  }
+
+  public boolean usesFuzzySearch() {
+    return hasSearch() && Boolean.TRUE.equals(fuzzy);
+  }
+
+  /**
+   * Whether the filter selects books by map bounds alone, which is what lets
+   * map-bounds queries be answered from cached tiles.
+   */
+  public boolean hasOnlyMapBounds() {
+    return north != null && south != null && east != null && west != null
+        && !hasSearch()
+        && (languages == null || languages.isEmpty())
+        && (conditions == null || conditions.isEmpty())
+        && (genres == null || genres.isEmpty())
+        && (ownerId == null || ownerId.isEmpty())
+        && (notOwnerId == null || notOwnerId.isEmpty())
+        && (nearLatitude == null || nearLongitude == null)
+        && BookLocation.normalizePlaceName(city) == null
+        && BookLocation.normalizePlaceName(country) == null;
+  }
+
   public Criteria buildSearchAndFilterCriteria() {
     List<Criteria> combinedCriteria = new ArrayList<>();
 
-    // Add search criteria:
-    if (search != null && !search.isEmpty()) {
-      String escaped = java.util.regex.Pattern.quote(search);
-      combinedCriteria.add(new Criteria().orOperator(
-          Criteria.where("title").regex(escaped, "i"),
-          Criteria.where("author").regex(escaped, "i"),
-          Criteria.where("description").regex(escaped, "i")));
+    // Add search criteria, served by the weighted text index on title, author and
+    // description (see MongoIndexConfig):
+    if (hasSearch()) {
+      combinedCriteria.add(Criteria.where("$text").is(new Document("$search", search)));
     }
 
     // Add filter criteria:
@@ -116,20 +177,26 @@ public class FindAllBooksFilter {
       }
     }
 
-    if (genres != null && !genres.isEmpty()) {
+    // Genres are denormalized onto the book, so no join is needed. A resolved
+    // materialized path selects the genre and all its descendants with one
+    // indexed prefix match; paths consist of ids and slashes, so the prefix needs
+    // no escaping. An empty list of paths matches no book.
+    if (genres != null && !genres.isEmpty() && genrePaths != null) {
+      combinedCriteria.add(Criteria.where("genreSnapshots.path").in(genrePaths.stream()
+          .map(path -> Pattern.compile("^" + path))
+          .toList()));
+    } else if (genres != null && !genres.isEmpty()) {
       if (genres.size() == 1) {
-        combinedCriteria.add(Criteria.where("genres.name").is(genres.getFirst()));
+        combinedCriteria.add(Criteria.where("genreSnapshots.name").is(genres.getFirst()));
       } else {
-        combinedCriteria.add(new Criteria().orOperator(
-            genres.stream().map(genre -> Criteria.where("genres.name").is(genre)).toArray(Criteria[]::new)));
+        combinedCriteria.add(Criteria.where("genreSnapshots.name").in(genres));
       }
     }
 
     // Add location-based filtering with proper geospatial queries:
     if (nearLatitude != null && nearLongitude != null) {
       // Validate coordinates before using them
-      if (!com.kirjaswappi.backend.service.entities.BookLocation.isValidLatitude(nearLatitude) ||
-          !com.kirjaswappi.backend.service.entities.BookLocation.isValidLongitude(nearLongitude)) {
+      if (!BookLocation.isValidLatitude(nearLatitude) || !BookLocation.isValidLongitude(nearLongitude)) {
         throw new IllegalArgumentException("Invalid coordinates for location search");
       }
 
@@ -165,14 +232,17 @@ public class FindAllBooksFilter {
       }
     }
 
-    // Filter by city if provided:
-    if (city != null && !city.isEmpty()) {
-      combinedCriteria.add(Criteria.where("location.city").regex(java.util.regex.Pattern.quote(city), "i"));
+    // Filter by city if provided, matching the indexed normalized name exactly. A
+    // blank name normalizes to null and filters nothing:
+    var normalizedCity = BookLocation.normalizePlaceName(city);
+    if (normalizedCity != null) {
+      combinedCriteria.add(Criteria.where("location.normalizedCity").is(normalizedCity));
     }
 
-    // Filter by country if provided:
-    if (country != null && !country.isEmpty()) {
-      combinedCriteria.add(Criteria.where("location.country").regex(java.util.regex.Pattern.quote(country), "i"));
+    // Filter by country if provided, matching the indexed normalized name exactly:
+    var normalizedCountry = BookLocation.normalizePlaceName(country);
+    if (normalizedCountry != null) {
+      combinedCriteria.add(Criteria.where("location.normalizedCountry").is(normalizedCountry));
     }
 
     // Filter by map bounding box if provided:
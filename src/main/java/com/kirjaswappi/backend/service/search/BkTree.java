@@ -0,0 +1,138 @@
+/*
+ * Copyright (c) 2026 KirjaSwappi or KirjaSwappi affiliate company. All rights reserved.
+ * Author: Mahiuddin Al Kamal <mahiuddinalkamal>
+ */
+package com.kirjaswappi.backend.service.search;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Burkhard-Keller tree over a term dictionary using Levenshtein distance. A
+ * lookup only descends into children whose edge distance lies within
+ * {@code maxDistance} of the distance to their parent, so it visits a small
+ * fraction of the dictionary for small distances. Not thread-safe; callers
+ * guard it with their own lock.
+ */
+class BkTree {
+
+  private Node root;
+  private int size;
+
+  /**
+   * Adds the term; adding a term that is already present does nothing.
+   */
+  void add(String term) {
+    if (root == null) {
+      root = new Node(term);
+      size++;
+      return;
+    }
+    Node node = root;
+    while (true) {
+      int distance = distance(term, node.term);
+      if (distance == 0) {
+        return;
+      }
+      Node child = node.child(distance);
+      if (child == null) {
+        node.addChild(distance, new Node(term));
+        size++;
+        return;
+      }
+      node = child;
+    }
+  }
+
+  int size() {
+    return size;
+  }
+
+  /**
+   * Returns every term within {@code maxDistance} edits of the query.
+   */
+  List<Match> search(String query, int maxDistance) {
+    var matches = new ArrayList<Match>();
+    if (root == null) {
+      return matches;
+    }
+    var pending = new ArrayDeque<Node>();
+    pending.push(root);
+    while (!pending.isEmpty()) {
+      Node node = pending.pop();
+      int distance = distance(query, node.term);
+      if (distance <= maxDistance) {
+        matches.add(new Match(node.term, distance));
+      }
+      for (int i = 0; i < node.childCount; i++) {
+        if (Math.abs(node.edges[i] - distance) <= maxDistance) {
+          pending.push(node.children[i]);
+        }
+      }
+    }
+    return matches;
+  }
+
+  /**
+   * Levenshtein distance using two rolling rows.
+   */
+  static int distance(String a, String b) {
+    if (a.length() < b.length()) {
+      return distance(b, a);
+    }
+    int[] previous = new int[b.length() + 1];
+    int[] current = new int[b.length() + 1];
+    for (int j = 0; j <= b.length(); j++) {
+      previous[j] = j;
+    }
+    for (int i = 1; i <= a.length(); i++) {
+      current[0] = i;
+      char ca = a.charAt(i - 1);
+      for (int j = 1; j <= b.length(); j++) {
+        int substitution = previous[j - 1] + (ca == b.charAt(j - 1) ? 0 : 1);
+        current[j] = Math.min(substitution, Math.min(previous[j], current[j - 1]) + 1);
+      }
+      int[] swap = previous;
+      previous = current;
+      current = swap;
+    }
+    return previous[b.length()];
+  }
+
+  record Match(String term, int distance) {
+  }
+
+  // children are kept in parallel arrays rather than a map to keep a million
+  // node dictionary compact
+  private static final class Node {
+    private final String term;
+    private int[] edges = new int[0];
+    private Node[] children = new Node[0];
+    private int childCount;
+
+    Node(String term) {
+      this.term = term;
+    }
+
+    Node child(int distance) {
+      for (int i = 0; i < childCount; i++) {
+        if (edges[i] == distance) {
+          return children[i];
+        }
+      }
+      return null;
+    }
+
+    void addChild(int distance, Node child) {
+      if (childCount == edges.length) {
+        int capacity = Math.max(2, childCount * 2);
+        edges = Arrays.copyOf(edges, capacity);
+        children = Arrays.copyOf(children, capacity);
+      }
+      edges[childCount] = distance;
+      children[childCount++] = child;
+    }
+  }
+}
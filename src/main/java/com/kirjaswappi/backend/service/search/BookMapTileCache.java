@@ -0,0 +1,106 @@
+/*
+ * Copyright (c) 2026 KirjaSwappi or KirjaSwappi affiliate company. All rights reserved.
+ * Author: Mahiuddin Al Kamal <mahiuddinalkamal>
+ */
+package com.kirjaswappi.backend.service.search;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+import com.kirjaswappi.backend.common.utils.Geohash;
+import com.kirjaswappi.backend.service.entities.Book;
+
+/**
+ * Caches the books of fixed geohash tiles for map-bounds queries. A viewport is
+ * snapped to the finest tiles of which at most {@link #MAX_TILES_PER_VIEW}
+ * cover it, so panning keeps hitting the same tiles instead of issuing a new
+ * query per bounding box. A book change evicts exactly the tiles containing the
+ * book, one per precision, since every tile is a prefix of the book's geohash.
+ */
+@Component
+public class BookMapTileCache {
+  public static final String CACHE_NAME = "map_tiles";
+  static final int MAX_TILE_PRECISION = 6;
+  static final int MAX_TILES_PER_VIEW = 16;
+
+  private final CacheManager cacheManager;
+
+  public BookMapTileCache(CacheManager cacheManager) {
+    this.cacheManager = cacheManager;
+  }
+
+  /**
+   * The books located in one tile, ordered as loaded. A tile holding more books
+   * than the loader fetches is stored as incomplete, telling callers to query the
+   * database instead.
+   */
+  public record Tile(List<Book> books, boolean complete) {
+  }
+
+  /**
+   * Geohashes of the tiles covering the bounding box, or an empty list when it
+   * would take more than {@link #MAX_TILES_PER_VIEW} tiles or wraps around the
+   * antimeridian.
+   */
+  public List<String> tilesCovering(double north, double south, double east, double west) {
+    if (west > east) {
+      return List.of();
+    }
+    for (int precision = MAX_TILE_PRECISION; precision >= 1; precision--) {
+      double height = Geohash.cellHeight(precision);
+      double width = Geohash.cellWidth(precision);
+      long firstRow = cellIndex(south + 90, height, 180);
+      long lastRow = cellIndex(north + 90, height, 180);
+      long firstColumn = cellIndex(west + 180, width, 360);
+      long lastColumn = cellIndex(east + 180, width, 360);
+      if ((lastRow - firstRow + 1) * (lastColumn - firstColumn + 1) > MAX_TILES_PER_VIEW) {
+        continue;
+      }
+      var tiles = new ArrayList<String>();
+      for (long row = firstRow; row <= lastRow; row++) {
+        for (long column = firstColumn; column <= lastColumn; column++) {
+          // encode the cell centre so rounding never lands in a neighbour
+          tiles.add(Geohash.encode((row + 0.5) * height - 90, (column + 0.5) * width - 180, precision));
+        }
+      }
+      return tiles;
+    }
+    return List.of();
+  }
+
+  public Tile get(String geohash, Supplier<Tile> loader) {
+    return cache().get(geohash, loader::get);
+  }
+
+  /**
+   * Evicts every tile containing a book at the given geohash.
+   */
+  public void evict(String geohash) {
+    if (geohash == null) {
+      return;
+    }
+    var cache = cache();
+    for (int precision = 1; precision <= Math.min(MAX_TILE_PRECISION, geohash.length()); precision++) {
+      cache.evict(geohash.substring(0, precision));
+    }
+  }
+
+  private static long cellIndex(double offset, double cellSize, double extent) {
+    // the north pole and the antimeridian belong to the last cell, not one past it
+    long lastCell = Math.round(extent / cellSize) - 1;
+    return Math.clamp((long) Math.floor(offset / cellSize), 0, lastCell);
+  }
+
+  private Cache cache() {
+    var cache = cacheManager.getCache(CACHE_NAME);
+    if (cache == null) {
+      throw new IllegalStateException("Cache not configured: " + CACHE_NAME);
+    }
+    return cache;
+  }
+}
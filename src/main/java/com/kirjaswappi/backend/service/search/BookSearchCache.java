@@ -0,0 +1,201 @@
+/*
+ * Copyright (c) 2026 KirjaSwappi or KirjaSwappi affiliate company. All rights reserved.
+ * Author: Mahiuddin Al Kamal <mahiuddinalkamal>
+ */
+package com.kirjaswappi.backend.service.search;
+
+import static com.kirjaswappi.backend.common.utils.ListUtil.emptyIfNull;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.kirjaswappi.backend.events.GenresChangedEvent;
+import com.kirjaswappi.backend.jpa.daos.BookDao;
+import com.kirjaswappi.backend.service.entities.Book;
+import com.kirjaswappi.backend.service.entities.BookLocation;
+
+/**
+ * Caches the results of book searches as the ids of a page and the total, so a
+ * repeated search skips the database and only hydrates the books from the
+ * "books" cache.
+ * <p>
+ * Entries are never evicted. Instead every key carries the generations of the
+ * scopes its results depend on: the city of the search, else its genres, else
+ * all books. A book change bumps the generations of all scopes it touches,
+ * before and after the change, so the affected keys are simply never asked for
+ * again and expire on their own. Genre changes bump the epoch, which is part of
+ * every key.
+ */
+@Component
+public class BookSearchCache {
+  public static final String PAGES_CACHE_NAME = "book_search_pages";
+  public static final String GENERATIONS_CACHE_NAME = "book_search_generations";
+  static final String BOOKS_CACHE_NAME = "books";
+  static final String EPOCH_SCOPE = "epoch";
+  static final String ALL_SCOPE = "all";
+
+  private final CacheManager cacheManager;
+
+  public BookSearchCache(CacheManager cacheManager) {
+    this.cacheManager = cacheManager;
+  }
+
+  /**
+   * The books of one page of a search, in order, and the total of the search.
+   */
+  public record CachedPage(List<String> ids, long total) {
+  }
+
+  /**
+   * The scopes whose changes may alter the results of a search: the city when it
+   * filters by one, else the genres it filters by, else all books.
+   *
+   * @param genrePaths resolved materialized paths of the genres of the search
+   */
+  public static List<String> scopesOf(String city, List<String> genrePaths) {
+    var normalizedCity = BookLocation.normalizePlaceName(city);
+    if (normalizedCity != null) {
+      return List.of(cityScope(normalizedCity));
+    }
+    if (genrePaths != null && !genrePaths.isEmpty()) {
+      // a genre's own id ends its path
+      return genrePaths.stream()
+          .map(path -> genreScope(path.substring(path.lastIndexOf('/', path.length() - 2) + 1, path.length() - 1)))
+          .toList();
+    }
+    return List.of(ALL_SCOPE);
+  }
+
+  /**
+   * The scopes a change of the book touches: all books, its city, and its genres
+   * together with all their ancestors.
+   */
+  public static Set<String> scopesOf(BookDao book) {
+    var scopes = new LinkedHashSet<String>();
+    scopes.add(ALL_SCOPE);
+    if (book.location() != null && book.location().normalizedCity() != null) {
+      scopes.add(cityScope(book.location().normalizedCity()));
+    }
+    for (var genre : emptyIfNull(book.genreSnapshots())) {
+      if (genre.path() == null) {
+        scopes.add(genreScope(genre.id()));
+        continue;
+      }
+      for (var id : genre.path().split("/")) {
+        if (!id.isEmpty()) {
+          scopes.add(genreScope(id));
+        }
+      }
+    }
+    return scopes;
+  }
+
+  /**
+   * Key of a page of a search under the current generations of its scopes.
+   *
+   * @param canonicalFilter canonical form of the resolved filter
+   * @param pageable        pageable with a validated sort
+   */
+  public String keyOf(String canonicalFilter, Pageable pageable, List<String> scopes) {
+    var search = canonicalFilter + "#" + pageable.getOffset() + "," + pageable.getPageSize() + "," + pageable.getSort();
+    var generations = new StringBuilder().append(generation(EPOCH_SCOPE));
+    scopes.forEach(scope -> generations.append('.').append(generation(scope)));
+    return sha256(search) + ":" + generations;
+  }
+
+  public Optional<CachedPage> get(String key) {
+    return Optional.ofNullable(cache(PAGES_CACHE_NAME).get(key, CachedPage.class));
+  }
+
+  public void put(String key, CachedPage page) {
+    cache(PAGES_CACHE_NAME).put(key, page);
+  }
+
+  /**
+   * The books of the given ids found in the "books" cache, by id.
+   */
+  public Map<String, Book> cachedBooks(Collection<String> ids) {
+    var cache = cache(BOOKS_CACHE_NAME);
+    var books = new HashMap<String, Book>();
+    for (var id : ids) {
+      var book = cache.get(id, Book.class);
+      if (book != null) {
+        books.put(id, book);
+      }
+    }
+    return books;
+  }
+
+  public void cacheBooks(Collection<Book> books) {
+    var cache = cache(BOOKS_CACHE_NAME);
+    books.forEach(book -> cache.put(book.id(), book));
+  }
+
+  public void evictBooks(Collection<String> ids) {
+    var cache = cache(BOOKS_CACHE_NAME);
+    ids.forEach(cache::evict);
+  }
+
+  /**
+   * Invalidates the cached searches depending on any of the scopes.
+   */
+  public void invalidate(Collection<String> scopes) {
+    scopes.forEach(this::bump);
+  }
+
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onGenresChanged(GenresChangedEvent event) {
+    // renamed or moved genres change which paths match which books
+    bump(EPOCH_SCOPE);
+  }
+
+  private long generation(String scope) {
+    // a lost generation restarts at random, never reusing the keys of an old one
+    return cache(GENERATIONS_CACHE_NAME).get(scope, () -> ThreadLocalRandom.current().nextLong());
+  }
+
+  private void bump(String scope) {
+    cache(GENERATIONS_CACHE_NAME).put(scope, generation(scope) + 1);
+  }
+
+  private static String cityScope(String normalizedCity) {
+    return "city:" + normalizedCity;
+  }
+
+  private static String genreScope(String genreId) {
+    return "genre:" + genreId;
+  }
+
+  private static String sha256(String value) {
+    try {
+      return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256")
+          .digest(value.getBytes(StandardCharsets.UTF_8)));
+    } catch (GeneralSecurityException e) {
+      throw new IllegalStateException("SHA-256 is not available", e);
+    }
+  }
+
+  private Cache cache(String name) {
+    var cache = cacheManager.getCache(name);
+    if (cache == null) {
+      throw new IllegalStateException("Cache not configured: " + name);
+    }
+    return cache;
+  }
+}
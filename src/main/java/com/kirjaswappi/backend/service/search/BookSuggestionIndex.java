@@ -0,0 +1,405 @@
+/*
+ * Copyright (c) 2026 KirjaSwappi or KirjaSwappi affiliate company. All rights reserved.
+ * Author: Mahiuddin Al Kamal <mahiuddinalkamal>
+ */
+package com.kirjaswappi.backend.service.search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import com.kirjaswappi.backend.jpa.repositories.BookRepository;
+import com.kirjaswappi.backend.service.entities.BookSuggestion;
+
+/**
+ * In-memory inverted index over book titles and authors for search-as-you-type.
+ * Every word is split into trigrams, and each trigram maps to a sorted
+ * {@code int[]} of book ordinals. Ordinals only grow, so postings stay sorted
+ * by plain appends and a higher ordinal means a more recently indexed book.
+ * <p>
+ * The index is built once the application is ready and then kept in sync by
+ * BookService, and with the changes of other nodes by
+ * BookSuggestionIndexBroadcaster. Re-indexed and removed books leave stale
+ * ordinals behind, which are skipped at query time and dropped by the next
+ * compaction.
+ * <p>
+ * Alongside the postings it keeps the dictionary of title and author words in a
+ * {@link BkTree}, which {@link #correctSearch(String)} uses to repair typos in
+ * full searches.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class BookSuggestionIndex {
+
+  public static final int MAX_SUGGESTIONS = 20;
+
+  private static final int MIN_FUZZY_TERM_LENGTH = 3;
+  private static final int MAX_CORRECTIONS_PER_WORD = 5;
+
+  private static final int GRAM_LENGTH = 3;
+  private static final char WORD_START = ' ';
+  private static final int COMPACTION_THRESHOLD = 1024;
+  private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+  private static final Pattern WORD_SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+  private final BookRepository bookRepository;
+
+  private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+  // indexed by ordinal, null once the book has been removed or re-indexed
+  private final List<Entry> entries = new ArrayList<>();
+  private final Map<String, Integer> ordinalsById = new HashMap<>();
+  private final Map<String, Postings> postingsByGram = new HashMap<>();
+  private final Map<String, TermStats> termStats = new HashMap<>();
+  private BkTree terms = new BkTree();
+  private int staleEntries;
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void build() {
+    try {
+      var books = bookRepository.findAllByIsDeletedFalse();
+      lock.writeLock().lock();
+      try {
+        clear();
+        books.forEach(book -> add(book.id(), book.title(), book.author()));
+      } finally {
+        lock.writeLock().unlock();
+      }
+      log.info("Built book suggestion index with {} books", books.size());
+    } catch (Exception e) {
+      log.warn("Failed to build book suggestion index: {}", e.getMessage());
+    }
+  }
+
+  /**
+   * Adds the book to the index, replacing any previously indexed version.
+   */
+  public void index(String id, String title, String author) {
+    lock.writeLock().lock();
+    try {
+      markStale(id);
+      add(id, title, author);
+      compactIfNeeded();
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  public void remove(String id) {
+    lock.writeLock().lock();
+    try {
+      markStale(id);
+      compactIfNeeded();
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Brings the given books up to date from the database after another node
+   * changed them: live books are re-indexed, deleted or missing ones removed.
+   */
+  public void refresh(Collection<String> ids) {
+    var liveBooks = bookRepository.findAllById(ids).stream().filter(book -> !book.isDeleted()).toList();
+    lock.writeLock().lock();
+    try {
+      ids.forEach(this::markStale);
+      liveBooks.forEach(book -> add(book.id(), book.title(), book.author()));
+      compactIfNeeded();
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Returns up to {@code limit} books whose title or author contains every word
+   * of the query. Matches at the start of the title rank first, then matches at
+   * the start of words, then matches inside words; ties go to the most recently
+   * indexed book.
+   */
+  public List<BookSuggestion> suggest(String query, int limit) {
+    var words = words(normalize(query));
+    var queryGrams = new LinkedHashSet<String>();
+    words.forEach(word -> queryGrams.addAll(queryGrams(word)));
+    if (queryGrams.isEmpty()) {
+      return List.of();
+    }
+    int maxResults = Math.clamp(limit, 1, MAX_SUGGESTIONS);
+
+    lock.readLock().lock();
+    try {
+      int[] candidates = null;
+      for (String gram : queryGrams) {
+        Postings postings = postingsByGram.get(gram);
+        if (postings == null) {
+          return List.of();
+        }
+        candidates = candidates == null ? postings.toArray() : postings.intersect(candidates);
+        if (candidates.length == 0) {
+          return List.of();
+        }
+      }
+      return rank(candidates, String.join(" ", words), words, maxResults);
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /**
+   * Replaces every search word that is not a known title or author word with the
+   * closest known words: 1 edit away for words of 3 to 5 letters, 2 edits for
+   * longer words. Of the closest candidates, those last seen on the most recently
+   * indexed books are kept. Words without a close match are kept as typed.
+   */
+  public String correctSearch(String search) {
+    var corrected = new ArrayList<String>();
+    lock.readLock().lock();
+    try {
+      for (String word : words(normalize(search))) {
+        corrected.addAll(correctWord(word));
+      }
+    } finally {
+      lock.readLock().unlock();
+    }
+    return String.join(" ", corrected);
+  }
+
+  private List<String> correctWord(String word) {
+    if (word.length() < MIN_FUZZY_TERM_LENGTH || termStats.containsKey(word)) {
+      return List.of(word);
+    }
+    int maxDistance = word.length() <= 5 ? 1 : 2;
+    var candidates = terms.search(word, maxDistance).stream()
+        .filter(match -> termStats.containsKey(match.term()))
+        .toList();
+    if (candidates.isEmpty()) {
+      return List.of(word);
+    }
+    int closest = candidates.stream().mapToInt(BkTree.Match::distance).min().getAsInt();
+    return candidates.stream()
+        .filter(match -> match.distance() == closest)
+        .map(BkTree.Match::term)
+        .sorted(Comparator.comparingInt((String term) -> termStats.get(term).latestOrdinal).reversed())
+        .limit(MAX_CORRECTIONS_PER_WORD)
+        .toList();
+  }
+
+  private List<BookSuggestion> rank(int[] candidates, String phrase, List<String> words, int maxResults) {
+    // worst match at the head, so it is the one evicted once the queue is full
+    Comparator<Match> best = Comparator.comparingInt(Match::tier)
+        .thenComparing(Comparator.comparingInt(Match::ordinal).reversed());
+    var topMatches = new PriorityQueue<Match>(maxResults + 1, best.reversed());
+
+    for (int ordinal : candidates) {
+      Entry entry = entries.get(ordinal);
+      if (entry == null) {
+        continue;
+      }
+      int tier = matchTier(entry, phrase, words);
+      if (tier < 0) {
+        continue;
+      }
+      topMatches.add(new Match(ordinal, tier));
+      if (topMatches.size() > maxResults) {
+        topMatches.poll();
+      }
+    }
+
+    return topMatches.stream()
+        .sorted(best)
+        .map(match -> entries.get(match.ordinal()).toSuggestion())
+        .toList();
+  }
+
+  // 0: title prefix, 1: every word starts a word, 2: infix only, -1: trigram
+  // false positive
+  private static int matchTier(Entry entry, String phrase, List<String> words) {
+    boolean wordStarts = true;
+    for (String word : words) {
+      if (!entry.text().contains(word)) {
+        return -1;
+      }
+      wordStarts &= entry.text().contains(WORD_START + word);
+    }
+    if (entry.text().startsWith(WORD_START + phrase)) {
+      return 0;
+    }
+    return wordStarts ? 1 : 2;
+  }
+
+  private void add(String id, String title, String author) {
+    int ordinal = entries.size();
+    var text = WORD_START + normalize(title) + WORD_START + normalize(author);
+    entries.add(new Entry(id, title, author, text));
+    ordinalsById.put(id, ordinal);
+
+    Set<String> grams = new LinkedHashSet<>();
+    for (String word : words(text)) {
+      grams.addAll(grams(WORD_START + word));
+    }
+    grams.forEach(gram -> postingsByGram.computeIfAbsent(gram, key -> new Postings()).append(ordinal));
+
+    for (String term : dictionaryTerms(text)) {
+      var stats = termStats.computeIfAbsent(term, key -> {
+        terms.add(key);
+        return new TermStats();
+      });
+      stats.books++;
+      stats.latestOrdinal = ordinal;
+    }
+  }
+
+  private void markStale(String id) {
+    Integer ordinal = ordinalsById.remove(id);
+    if (ordinal != null) {
+      // words no longer used by any book stay in the tree until compaction but
+      // are no longer offered as corrections
+      for (String term : dictionaryTerms(entries.get(ordinal).text())) {
+        var stats = termStats.get(term);
+        if (--stats.books == 0) {
+          termStats.remove(term);
+        }
+      }
+      entries.set(ordinal, null);
+      staleEntries++;
+    }
+  }
+
+  private void compactIfNeeded() {
+    if (staleEntries < COMPACTION_THRESHOLD || staleEntries < ordinalsById.size()) {
+      return;
+    }
+    var liveEntries = entries.stream().filter(entry -> entry != null).toList();
+    clear();
+    liveEntries.forEach(entry -> add(entry.id(), entry.title(), entry.author()));
+    log.debug("Compacted book suggestion index to {} books", liveEntries.size());
+  }
+
+  private void clear() {
+    entries.clear();
+    ordinalsById.clear();
+    postingsByGram.clear();
+    termStats.clear();
+    terms = new BkTree();
+    staleEntries = 0;
+  }
+
+  // a query word matches anywhere inside an indexed word, except two letter
+  // words, which only match the start of a word
+  private static List<String> queryGrams(String word) {
+    if (word.length() < GRAM_LENGTH - 1) {
+      return List.of();
+    }
+    return word.length() < GRAM_LENGTH ? List.of(WORD_START + word) : grams(word);
+  }
+
+  private static List<String> grams(String value) {
+    var grams = new ArrayList<String>();
+    for (int i = 0; i + GRAM_LENGTH <= value.length(); i++) {
+      grams.add(value.substring(i, i + GRAM_LENGTH));
+    }
+    return grams;
+  }
+
+  private static Set<String> dictionaryTerms(String text) {
+    var dictionaryTerms = new LinkedHashSet<String>();
+    for (String word : words(text)) {
+      if (word.length() >= MIN_FUZZY_TERM_LENGTH) {
+        dictionaryTerms.add(word);
+      }
+    }
+    return dictionaryTerms;
+  }
+
+  private static List<String> words(String normalized) {
+    return Arrays.stream(normalized.split(String.valueOf(WORD_START)))
+        .filter(word -> !word.isEmpty())
+        .toList();
+  }
+
+  /**
+   * Lower-cases the value, strips diacritics so "Kivi" matches "kivi" and "Väinö"
+   * matches "vaino", and turns anything but letters and digits into single
+   * spaces.
+   */
+  static String normalize(String value) {
+    if (value == null) {
+      return "";
+    }
+    var decomposed = Normalizer.normalize(value, Normalizer.Form.NFD);
+    var lowerCase = COMBINING_MARKS.matcher(decomposed).replaceAll("").toLowerCase(Locale.ROOT);
+    return WORD_SEPARATORS.matcher(lowerCase).replaceAll(" ").trim();
+  }
+
+  private record Entry(String id, String title, String author, String text) {
+    BookSuggestion toSuggestion() {
+      return new BookSuggestion(id, title, author);
+    }
+  }
+
+  private record Match(int ordinal, int tier) {
+  }
+
+  private static final class TermStats {
+    private int books;
+    private int latestOrdinal;
+  }
+
+  /**
+   * Growable, sorted array of ordinals.
+   */
+  private static final class Postings {
+    private int[] ordinals = new int[4];
+    private int size;
+
+    void append(int ordinal) {
+      if (size == ordinals.length) {
+        ordinals = Arrays.copyOf(ordinals, size * 2);
+      }
+      ordinals[size++] = ordinal;
+    }
+
+    int[] toArray() {
+      return Arrays.copyOf(ordinals, size);
+    }
+
+    int[] intersect(int[] sorted) {
+      int[] result = new int[Math.min(size, sorted.length)];
+      int count = 0;
+      int i = 0;
+      int j = 0;
+      while (i < size && j < sorted.length) {
+        if (ordinals[i] < sorted[j]) {
+          i++;
+        } else if (ordinals[i] > sorted[j]) {
+          j++;
+        } else {
+          result[count++] = ordinals[i];
+          i++;
+          j++;
+        }
+      }
+      return Arrays.copyOf(result, count);
+    }
+  }
+}
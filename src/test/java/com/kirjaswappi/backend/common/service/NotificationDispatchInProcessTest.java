@@ -0,0 +1,193 @@
+/*
+ * Copyright (c) 2026 KirjaSwappi or KirjaSwappi affiliate company. All rights reserved.
+ * Author: Mahiuddin Al Kamal <mahiuddinalkamal>
+ */
+package com.kirjaswappi.backend.common.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import io.grpc.ManagedChannel;
+import io.grpc.Server;
+import io.grpc.inprocess.InProcessChannelBuilder;
+import io.grpc.inprocess.InProcessServerBuilder;
+import io.grpc.stub.StreamObserver;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.kirjaswappi.backend.jpa.daos.NotificationOutboxDao;
+import com.kirjaswappi.backend.jpa.repositories.NotificationOutboxRepository;
+import com.kirjaswappi.backend.proto.notification.NotificationRequest;
+import com.kirjaswappi.backend.proto.notification.NotificationResponse;
+import com.kirjaswappi.backend.proto.notification.NotificationServiceGrpc;
+
+/**
+ * Sends outbox notifications to an in-process gRPC server standing in for the
+ * notification service, which answers every call after a fixed round trip, and
+ * measures the throughput and latency of the dispatch.
+ */
+class NotificationDispatchInProcessTest {
+  private static final Logger logger = LoggerFactory.getLogger(NotificationDispatchInProcessTest.class);
+
+  private static final long ROUND_TRIP_MS = 20;
+
+  @Mock
+  private NotificationOutboxRepository notificationOutboxRepository;
+
+  private ScheduledExecutorService responder;
+  private Server server;
+  private ManagedChannel channel;
+  private NotificationService notificationService;
+
+  private volatile long roundTripMs = ROUND_TRIP_MS;
+  private final AtomicInteger inFlight = new AtomicInteger();
+  private final AtomicInteger maxInFlight = new AtomicInteger();
+  private final Queue<Duration> latencies = new ConcurrentLinkedQueue<>();
+  private final List<NotificationOutboxDao> completed = new ArrayList<>();
+
+  @BeforeEach
+  void setUp() throws IOException {
+    MockitoAnnotations.openMocks(this);
+    responder = Executors.newScheduledThreadPool(4);
+    String name = InProcessServerBuilder.generateName();
+    server = InProcessServerBuilder.forName(name)
+        .addService(new NotificationServiceGrpc.NotificationServiceImplBase() {
+          @Override
+          public void sendNotification(NotificationRequest request,
+              StreamObserver<NotificationResponse> responseObserver) {
+            // latency from the moment the notification was sent
+            latencies.add(Duration.between(Instant.ofEpochSecond(request.getTime().getSeconds(),
+                request.getTime().getNanos()), Instant.now()));
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            responder.schedule(() -> {
+              inFlight.decrementAndGet();
+              responseObserver.onNext(NotificationResponse.newBuilder().setSuccess(true).build());
+              responseObserver.onCompleted();
+            }, roundTripMs, TimeUnit.MILLISECONDS);
+          }
+        })
+        .build()
+        .start();
+    channel = InProcessChannelBuilder.forName(name).build();
+
+    notificationService = new NotificationService("localhost", 9090, true, "", false);
+    ((ManagedChannel) ReflectionTestUtils.getField(notificationService, "channel")).shutdownNow();
+    ReflectionTestUtils.setField(notificationService, "notificationOutboxRepository", notificationOutboxRepository);
+    ReflectionTestUtils.setField(notificationService, "channel", channel);
+    ReflectionTestUtils.setField(notificationService, "stub", NotificationServiceGrpc.newFutureStub(channel));
+
+    when(notificationOutboxRepository.completeClaims(any(), any())).thenAnswer(invocation -> {
+      List<NotificationOutboxDao> notifications = invocation.getArgument(0);
+      completed.addAll(notifications);
+      return notifications.size();
+    });
+  }
+
+  @AfterEach
+  void tearDown() throws InterruptedException {
+    channel.shutdownNow().awaitTermination(5, TimeUnit.SECONDS);
+    server.shutdownNow().awaitTermination(5, TimeUnit.SECONDS);
+    responder.shutdownNow();
+  }
+
+  @Test
+  @DisplayName("Keeps the in-flight window full instead of waiting a round trip per notification")
+  void sendsWithinInFlightWindow() {
+    ReflectionTestUtils.setField(notificationService, "maxInFlight", 32);
+    when(notificationOutboxRepository.claimPending(any(), any(), anyInt()))
+        .thenReturn(pending(100), pending(100), List.of());
+
+    long started = System.nanoTime();
+    notificationService.processOutbox();
+    Duration elapsed = Duration.ofNanos(System.nanoTime() - started);
+
+    report("window of 32", elapsed);
+    assertEquals(200, completed.size());
+    assertTrue(completed.stream().allMatch(notification -> "SENT".equals(notification.status())));
+    assertTrue(maxInFlight.get() <= 32);
+    assertTrue(maxInFlight.get() > 1);
+    // one round trip per notification would take 200 round trips
+    assertTrue(elapsed.toMillis() < 200 * ROUND_TRIP_MS / 4, "took " + elapsed.toMillis() + " ms");
+  }
+
+  @Test
+  @DisplayName("Sends one notification at a time with a window of one")
+  void sendsOneAtATimeWithWindowOfOne() {
+    ReflectionTestUtils.setField(notificationService, "maxInFlight", 1);
+    when(notificationOutboxRepository.claimPending(any(), any(), anyInt())).thenReturn(pending(10));
+
+    long started = System.nanoTime();
+    notificationService.processOutbox();
+    Duration elapsed = Duration.ofNanos(System.nanoTime() - started);
+
+    report("window of 1", elapsed);
+    assertEquals(10, completed.size());
+    assertEquals(1, maxInFlight.get());
+    assertTrue(elapsed.toMillis() >= 10 * ROUND_TRIP_MS);
+  }
+
+  @Test
+  @DisplayName("Retries the notifications still unanswered at the response timeout, ignoring their late responses")
+  void retriesNotificationsAnsweredAfterTheTimeout() throws InterruptedException {
+    ReflectionTestUtils.setField(notificationService, "responseTimeout", Duration.ofMillis(100));
+    roundTripMs = 500;
+    var notifications = pending(3);
+    when(notificationOutboxRepository.claimPending(any(), any(), anyInt())).thenReturn(notifications);
+
+    notificationService.processOutbox();
+
+    assertEquals(3, completed.size());
+    // the responses arrive after the claims were already released for a retry
+    Thread.sleep(2 * roundTripMs);
+    assertEquals(3, latencies.size());
+    for (var notification : notifications) {
+      assertEquals("PENDING", notification.status());
+      assertNull(notification.sentAt());
+      assertEquals(1, notification.retryCount());
+      assertTrue(notification.errorMessage().contains("No response within"));
+    }
+  }
+
+  private void report(String label, Duration elapsed) {
+    var sorted = latencies.stream().map(Duration::toMillis).sorted().toList();
+    logger.info("{}: {} notifications in {} ms ({} per second), latency p50 {} ms, max {} ms", label,
+        completed.size(), elapsed.toMillis(), completed.size() * 1000L / Math.max(1, elapsed.toMillis()),
+        sorted.get(sorted.size() / 2), sorted.getLast());
+  }
+
+  private static List<NotificationOutboxDao> pending(int count) {
+    return IntStream.range(0, count)
+        .mapToObj(i -> NotificationOutboxDao.builder()
+            .id("notif" + i)
+            .userId("user" + i)
+            .title("Title")
+            .message("Message")
+            .status("PENDING")
+            .createdAt(Instant.now())
+            .build())
+        .toList();
+  }
+}
@@ -4,13 +4,20 @@
  */
 package com.kirjaswappi.backend.common.service;
 
+import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
+import java.time.Duration;
 import java.time.Instant;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
 
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
 import io.grpc.ManagedChannel;
 
 import org.junit.jupiter.api.BeforeEach;
@@ -20,6 +27,7 @@ import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.springframework.test.util.ReflectionTestUtils;
 
+import com.google.common.util.concurrent.Futures;
 import com.kirjaswappi.backend.jpa.daos.NotificationOutboxDao;
 import com.kirjaswappi.backend.jpa.repositories.NotificationOutboxRepository;
 import com.kirjaswappi.backend.proto.notification.NotificationResponse;
@@ -34,7 +42,7 @@ class NotificationServiceTest {
   private ManagedChannel channel;
 
   @Mock
-  private NotificationServiceGrpc.NotificationServiceBlockingStub stub;
+  private NotificationServiceGrpc.NotificationServiceFutureStub stub;
 
   private NotificationService notificationService;
 
@@ -49,6 +57,7 @@ class NotificationServiceTest {
     ReflectionTestUtils.setField(notificationService, "notificationOutboxRepository", notificationOutboxRepository);
     ReflectionTestUtils.setField(notificationService, "channel", channel);
     ReflectionTestUtils.setField(notificationService, "stub", stub);
+    when(stub.withDeadlineAfter(anyLong(), any(TimeUnit.class))).thenReturn(stub);
   }
 
   @Test
@@ -62,6 +71,16 @@ class NotificationServiceTest {
     verifyNoInteractions(stub); // Should not call gRPC directly
   }
 
+  @Test
+  @DisplayName("Should insert the notifications of several users into the outbox at once")
+  void shouldInsertNotificationsToOutboxInOneBatch() {
+    notificationService.sendNotifications(List.of("user1", "user2"), "Test Title", "Test Message");
+
+    verify(notificationOutboxRepository).insert(argThat((List<NotificationOutboxDao> outbox) -> outbox.size() == 2
+        && outbox.stream().allMatch(notification -> "PENDING".equals(notification.status()))));
+    verify(notificationOutboxRepository, never()).save(any(NotificationOutboxDao.class));
+  }
+
   @Test
   @DisplayName("Should process pending notifications from outbox")
   void shouldProcessPendingNotifications() {
@@ -76,21 +95,57 @@ class NotificationServiceTest {
         .createdAt(Instant.now())
         .build();
 
-    when(notificationOutboxRepository.findByStatusOrderByCreatedAtAsc("PENDING"))
+    when(notificationOutboxRepository.claimPending(any(), any(), anyInt()))
         .thenReturn(List.of(pendingNotification));
+    when(notificationOutboxRepository.completeClaims(any(), any())).thenReturn(1);
 
     NotificationResponse successResponse = NotificationResponse.newBuilder()
         .setSuccess(true)
         .build();
-    when(stub.sendNotification(any())).thenReturn(successResponse);
+    when(stub.sendNotification(any())).thenReturn(Futures.immediateFuture(successResponse));
 
     // When
     notificationService.processOutbox();
 
     // Then
     verify(stub).sendNotification(any());
-    verify(notificationOutboxRepository)
-        .save(argThat(notification -> notification.status().equals("SENT") && notification.sentAt() != null));
+    verify(notificationOutboxRepository).completeClaims(argThat(notifications -> notifications.size() == 1
+        && notifications.getFirst().status().equals("SENT") && notifications.getFirst().sentAt() != null), any());
+  }
+
+  @Test
+  @DisplayName("Should claim pending notifications in bounded batches under a lease held by this node")
+  void shouldClaimPendingNotificationsInBoundedBatches() {
+    when(notificationOutboxRepository.claimPending(any(), any(), anyInt())).thenReturn(List.of());
+
+    Instant before = Instant.now();
+    notificationService.processOutbox();
+
+    verify(notificationOutboxRepository).claimPending(argThat(claimedBy -> !claimedBy.isBlank()),
+        argThat(leaseUntil -> leaseUntil.isAfter(before)), intThat(limit -> limit > 0 && limit <= 100));
+    verify(notificationOutboxRepository, never()).findByStatusOrderByCreatedAtAsc(any());
+    verifyNoInteractions(stub);
+  }
+
+  @Test
+  @DisplayName("Should claim further batches only while full batches are claimed")
+  void shouldStopClaimingAfterPartialBatch() {
+    NotificationOutboxDao pendingNotification = NotificationOutboxDao.builder()
+        .id("notif1")
+        .userId("user1")
+        .title("Title")
+        .message("Message")
+        .status("PENDING")
+        .createdAt(Instant.now())
+        .build();
+    when(notificationOutboxRepository.claimPending(any(), any(), anyInt()))
+        .thenReturn(List.of(pendingNotification));
+    when(stub.sendNotification(any()))
+        .thenReturn(Futures.immediateFuture(NotificationResponse.newBuilder().setSuccess(true).build()));
+
+    notificationService.processOutbox();
+
+    verify(notificationOutboxRepository, times(1)).claimPending(any(), any(), anyInt());
   }
 
   @Test
@@ -107,19 +162,22 @@ class NotificationServiceTest {
         .createdAt(Instant.now())
         .build();
 
-    when(notificationOutboxRepository.findByStatusOrderByCreatedAtAsc("PENDING"))
+    when(notificationOutboxRepository.claimPending(any(), any(), anyInt()))
         .thenReturn(List.of(pendingNotification));
+    when(notificationOutboxRepository.completeClaims(any(), any())).thenReturn(1);
 
-    when(stub.sendNotification(any())).thenThrow(new RuntimeException("gRPC Error"));
+    when(stub.sendNotification(any())).thenReturn(Futures.immediateFailedFuture(new RuntimeException("gRPC Error")));
 
     // When
     notificationService.processOutbox();
 
     // Then
     verify(stub).sendNotification(any());
-    verify(notificationOutboxRepository).save(argThat(notification -> notification.status().equals("PENDING") &&
-        notification.retryCount() == 1 &&
-        notification.errorMessage().contains("gRPC Error")));
+    verify(notificationOutboxRepository).completeClaims(argThat(notifications -> notifications.size() == 1 &&
+        notifications.getFirst().status().equals("PENDING") &&
+        notifications.getFirst().retryCount() == 1 &&
+        notifications.getFirst().nextAttemptAt().isAfter(Instant.now()) &&
+        notifications.getFirst().errorMessage().contains("gRPC Error")), any());
   }
 
   @Test
@@ -136,17 +194,71 @@ class NotificationServiceTest {
         .createdAt(Instant.now())
         .build();
 
-    when(notificationOutboxRepository.findByStatusOrderByCreatedAtAsc("PENDING"))
+    when(notificationOutboxRepository.claimPending(any(), any(), anyInt()))
         .thenReturn(List.of(pendingNotification));
+    when(notificationOutboxRepository.completeClaims(any(), any())).thenReturn(1);
 
-    when(stub.sendNotification(any())).thenThrow(new RuntimeException("gRPC Error"));
+    when(stub.sendNotification(any())).thenReturn(Futures.immediateFailedFuture(new RuntimeException("gRPC Error")));
 
     // When
     notificationService.processOutbox();
 
     // Then
     verify(stub).sendNotification(any());
-    verify(notificationOutboxRepository).save(argThat(notification -> notification.status().equals("FAILED")));
+    verify(notificationOutboxRepository).completeClaims(
+        argThat(notifications -> notifications.getFirst().status().equals("FAILED")), any());
+  }
+
+  @Test
+  @DisplayName("Should back off exponentially with jitter between retries")
+  void shouldBackOffExponentiallyWithJitter() {
+    for (int retry = 1; retry <= 3; retry++) {
+      Duration full = Duration.ofSeconds(30L << (retry - 1));
+      Duration delay = NotificationService.retryDelay(retry);
+      assertTrue(delay.compareTo(full.dividedBy(2)) >= 0 && delay.compareTo(full) <= 0,
+          "retry " + retry + " waits " + delay);
+    }
+    assertTrue(NotificationService.retryDelay(40).compareTo(Duration.ofMinutes(30)) <= 0);
+  }
+
+  @Test
+  @DisplayName("Should not claim notifications while the circuit breaker is open")
+  void shouldNotClaimWhileCircuitBreakerIsOpen() {
+    circuitBreaker().transitionToOpenState();
+
+    notificationService.processOutbox();
+
+    verify(notificationOutboxRepository, never()).claimPending(any(), any(), anyInt());
+    verifyNoInteractions(stub);
+  }
+
+  @Test
+  @DisplayName("Should stop sending once failures open the circuit breaker, releasing the rest untouched")
+  void shouldStopSendingOnceCircuitBreakerOpens() {
+    var claimed = IntStream.range(0, 20)
+        .mapToObj(i -> NotificationOutboxDao.builder()
+            .id("notif" + i)
+            .userId("user" + i)
+            .title("Title")
+            .message("Message")
+            .status("PENDING")
+            .createdAt(Instant.now())
+            .build())
+        .toList();
+    when(notificationOutboxRepository.claimPending(any(), any(), anyInt())).thenReturn(claimed);
+    when(stub.sendNotification(any())).thenReturn(Futures.immediateFailedFuture(new RuntimeException("Unavailable")));
+
+    notificationService.processOutbox();
+
+    assertEquals(CircuitBreaker.State.OPEN, circuitBreaker().getState());
+    verify(stub, times(10)).sendNotification(any());
+    verify(notificationOutboxRepository).completeClaims(argThat(notifications -> notifications.size() == 20
+        && notifications.stream().filter(notification -> notification.retryCount() == 1).count() == 10
+        && notifications.stream().filter(notification -> notification.retryCount() == 0).count() == 10), any());
+  }
+
+  private CircuitBreaker circuitBreaker() {
+    return (CircuitBreaker) ReflectionTestUtils.getField(notificationService, "circuitBreaker");
   }
 
   @Test
@@ -179,4 +291,11 @@ class NotificationServiceTest {
     // Then
     verifyNoInteractions(notificationOutboxRepository);
   }
+
+  @Test
+  @DisplayName("Should reject an in-flight window of no notifications")
+  void shouldRejectEmptyInFlightWindow() {
+    assertThrows(IllegalArgumentException.class, () -> notificationService.setMaxInFlight(0));
+    assertDoesNotThrow(() -> notificationService.setMaxInFlight(1));
+  }
 }
@@ -0,0 +1,34 @@
+/*
+ * Copyright (c) 2026 KirjaSwappi or KirjaSwappi affiliate company. All rights reserved.
+ * Author: Mahiuddin Al Kamal <mahiuddinalkamal>
+ */
+package com.kirjaswappi.backend.common.utils;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class CsvUtilTest {
+
+  @Test
+  @DisplayName("Splits a line on commas, keeping empty fields")
+  void splitsOnCommas() {
+    assertEquals(List.of("Dune", "", "Frank Herbert", ""), CsvUtil.parseLine("Dune,,Frank Herbert,"));
+  }
+
+  @Test
+  @DisplayName("Keeps commas and doubled quotes inside quoted fields")
+  void readsQuotedFields() {
+    assertEquals(List.of("Dune, Deluxe", "The \"Spice\" Saga", "1965"),
+        CsvUtil.parseLine("\"Dune, Deluxe\",\"The \"\"Spice\"\" Saga\",1965"));
+  }
+
+  @Test
+  @DisplayName("Rejects a line with an unclosed quote")
+  void rejectsUnclosedQuote() {
+    assertThrows(IllegalArgumentException.class, () -> CsvUtil.parseLine("\"Dune,Frank Herbert"));
+  }
+}
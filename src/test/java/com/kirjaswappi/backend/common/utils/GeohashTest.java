@@ -0,0 +1,45 @@
+/*
+ * Copyright (c) 2026 KirjaSwappi or KirjaSwappi affiliate company. All rights reserved.
+ * Author: Mahiuddin Al Kamal <mahiuddinalkamal>
+ */
+package com.kirjaswappi.backend.common.utils;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class GeohashTest {
+
+  @Test
+  @DisplayName("Encodes the reference point to its known geohash")
+  void encodesReferencePoint() {
+    assertEquals("u4pruydqqvj", Geohash.encode(57.64911, 10.40744, 11));
+  }
+
+  @Test
+  @DisplayName("Shorter precisions are prefixes of longer ones")
+  void shorterPrecisionIsPrefix() {
+    String full = Geohash.encode(60.1699, 24.9384, Geohash.STORED_PRECISION);
+
+    for (int precision = 1; precision < Geohash.STORED_PRECISION; precision++) {
+      assertEquals(full.substring(0, precision), Geohash.encode(60.1699, 24.9384, precision));
+    }
+  }
+
+  @Test
+  @DisplayName("Cell sizes alternate the extra bit between longitude and latitude")
+  void cellSizes() {
+    assertEquals(45.0, Geohash.cellWidth(1));
+    assertEquals(45.0, Geohash.cellHeight(1));
+    assertEquals(11.25, Geohash.cellWidth(2));
+    assertEquals(5.625, Geohash.cellHeight(2));
+  }
+
+  @Test
+  @DisplayName("Rejects precisions outside 1 to 12")
+  void rejectsInvalidPrecision() {
+    assertThrows(IllegalArgumentException.class, () -> Geohash.encode(0, 0, 0));
+    assertThrows(IllegalArgumentException.class, () -> Geohash.encode(0, 0, 13));
+  }
+}
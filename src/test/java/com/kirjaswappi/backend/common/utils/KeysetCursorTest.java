@@ -0,0 +1,58 @@
+/*
+ * Copyright (c) 2026 KirjaSwappi or KirjaSwappi affiliate company. All rights reserved.
+ * Author: Mahiuddin Al Kamal <mahiuddinalkamal>
+ */
+package com.kirjaswappi.backend.common.utils;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Date;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+
+class KeysetCursorTest {
+
+  @Test
+  @DisplayName("Round-trips a date sort value")
+  void roundTripsDateValue() {
+    var cursor = new KeysetCursor("bookUpdatedAt", Sort.Direction.DESC, new Date(1735725600000L),
+        "64e8b2f2c2a4e2a1b8d7c9e0");
+
+    assertEquals(cursor, KeysetCursor.decode(cursor.encode()));
+  }
+
+  @Test
+  @DisplayName("Round-trips string and null sort values containing separators")
+  void roundTripsStringAndNullValues() {
+    var withString = new KeysetCursor("title", Sort.Direction.ASC, "a.b:c", "id-1");
+    var withNull = new KeysetCursor("author", Sort.Direction.ASC, null, "id-2");
+
+    assertEquals(withString, KeysetCursor.decode(withString.encode()));
+    assertEquals(withNull, KeysetCursor.decode(withNull.encode()));
+  }
+
+  @Test
+  @DisplayName("Round-trips a distance sort value")
+  void roundTripsDoubleValue() {
+    var cursor = new KeysetCursor("distanceMeters", Sort.Direction.ASC, 1234.5678, "id-3");
+
+    assertEquals(cursor, KeysetCursor.decode(cursor.encode()));
+  }
+
+  @Test
+  @DisplayName("Encoded cursor is URL safe")
+  void encodedCursorIsUrlSafe() {
+    var cursor = new KeysetCursor("title", Sort.Direction.ASC, "??>>//++", "id");
+
+    assertTrue(cursor.encode().matches("[A-Za-z0-9_.-]+"));
+  }
+
+  @Test
+  @DisplayName("Rejects malformed cursors")
+  void rejectsMalformedCursors() {
+    assertThrows(IllegalArgumentException.class, () -> KeysetCursor.decode("garbage"));
+    assertThrows(IllegalArgumentException.class, () -> KeysetCursor.decode("a.b.c.d"));
+  }
+}
@@ -27,6 +27,7 @@ import org.springframework.test.web.servlet.MockMvc;
 
 import com.kirjaswappi.backend.common.http.controllers.mockMvc.config.CustomMockMvcConfiguration;
 import com.kirjaswappi.backend.http.controllers.BookController;
+import com.kirjaswappi.backend.service.BookImportService;
 import com.kirjaswappi.backend.service.BookService;
 import com.kirjaswappi.backend.service.entities.Book;
 import com.kirjaswappi.backend.service.entities.BookLocation;
@@ -51,6 +52,9 @@ class BookControllerEdgeCaseTest {
   @MockitoBean
   private BookService bookService;
 
+  @MockitoBean
+  private BookImportService bookImportService;
+
   // Minimal JPEG SOI marker so ValidationUtil's magic-byte check passes.
   private static final byte[] JPEG_BYTES = new byte[] { (byte) 0xFF, (byte) 0xD8, (byte) 0xFF, (byte) 0xE0,
       0, 16, 'J', 'F', 'I', 'F', 0, 1, 1, 0, 0, 1, 0, 1, 0, 0 };
@@ -238,7 +242,7 @@ class BookControllerEdgeCaseTest {
     @Test
     @DisplayName("Should return 404 when getting more books for nonexistent book")
     void shouldReturn404WhenGettingMoreBooksForNonexistent() throws Exception {
-      when(bookService.getMoreBooksOfTheUser("nonexistent-id"))
+      when(bookService.getMoreBooksOfTheUser("nonexistent-id", 10))
           .thenThrow(new BookNotFoundException());
 
       mockMvc.perform(get(API_BASE + "/nonexistent-id/more-books"))
@@ -6,8 +6,11 @@ package com.kirjaswappi.backend.http.controllers.mockMvc;
 
 import static com.kirjaswappi.backend.common.utils.Constants.API_BASE;
 import static com.kirjaswappi.backend.common.utils.Constants.BOOKS;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -16,6 +19,7 @@ import java.util.List;
 
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.webmvc.test.autoconfigure.WebMvcTest;
@@ -28,18 +32,27 @@ import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
 import com.kirjaswappi.backend.common.http.controllers.mockMvc.config.CustomMockMvcConfiguration;
 import com.kirjaswappi.backend.http.controllers.BookController;
+import com.kirjaswappi.backend.service.BookImportService;
 import com.kirjaswappi.backend.service.BookService;
 import com.kirjaswappi.backend.service.entities.Book;
+import com.kirjaswappi.backend.service.entities.BookCluster;
+import com.kirjaswappi.backend.service.entities.BookImportResult;
+import com.kirjaswappi.backend.service.entities.BookSuggestion;
+import com.kirjaswappi.backend.service.entities.CursorPage;
+import com.kirjaswappi.backend.service.entities.Genre;
+import com.kirjaswappi.backend.service.entities.MaintenanceJob;
 import com.kirjaswappi.backend.service.entities.User;
 import com.kirjaswappi.backend.service.enums.Condition;
 import com.kirjaswappi.backend.service.enums.Language;
+import com.kirjaswappi.backend.service.enums.MaintenanceJobStatus;
 import com.kirjaswappi.backend.service.enums.SwapType;
 
 @WebMvcTest(BookController.class)
-@Import(CustomMockMvcConfiguration.class)
+@Import({ CustomMockMvcConfiguration.class, BookImportService.class })
 class BookControllerTest {
   @Autowired
   private MockMvc mockMvc;
@@ -364,13 +377,25 @@ class BookControllerTest {
     Book b1 = Book.builder().id("b1").title("B1").build();
     Book b2 = Book.builder().id("b2").title("B2").build();
 
-    when(bookService.getMoreBooksOfTheUser("b3")).thenReturn(List.of(b1, b2));
+    when(bookService.getMoreBooksOfTheUser("b3", 10)).thenReturn(List.of(b1, b2));
 
     mockMvc.perform(get(BASE_PATH + "/b3/more-books"))
         .andExpect(status().isOk())
         .andExpect(jsonPath("$.length()").value(2));
   }
 
+  @Test
+  @DisplayName("Should pass the limit of more books of this user on")
+  void shouldPassLimitOfOtherBooksThisUserHave() throws Exception {
+    when(bookService.getMoreBooksOfTheUser("b3", 3)).thenReturn(List.of());
+
+    mockMvc.perform(get(BASE_PATH + "/b3/more-books").param("limit", "3"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.length()").value(0));
+
+    verify(bookService).getMoreBooksOfTheUser("b3", 3);
+  }
+
   @Test
   @DisplayName("Should return supported book languages")
   void shouldReturnSupportedLanguages() throws Exception {
@@ -484,6 +509,98 @@ class BookControllerTest {
         .andExpect(jsonPath("$._embedded.books[0].ownerId").value("owner-1"));
   }
 
+  @Test
+  @DisplayName("Should return keyset page with next cursor link when cursor is passed")
+  void shouldReturnCursorPageWhenCursorIsPassed() throws Exception {
+    var owner = User.builder()
+        .id("owner-1")
+        .firstName("Alice")
+        .lastName("Smith")
+        .build();
+
+    var book = Book.builder()
+        .id("book123")
+        .title("Test")
+        .genres(List.of())
+        .language(Language.ENGLISH)
+        .condition(Condition.FAIR)
+        .owner(owner)
+        .build();
+
+    when(bookService.getAllBooksByFilter(any(), any(Pageable.class), eq("")))
+        .thenReturn(new CursorPage<>(List.of(book), 10, "next-token"));
+
+    mockMvc.perform(get(BASE_PATH).param("cursor", ""))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$._embedded.books.length()").value(1))
+        .andExpect(jsonPath("$._links.next.href").value(BASE_PATH + "?cursor=next-token&size=10"));
+  }
+
+  @Test
+  @DisplayName("Should return nearby books with their distance when cursor is passed")
+  void shouldReturnNearbyCursorPageWithDistance() throws Exception {
+    var owner = User.builder()
+        .id("owner-1")
+        .firstName("Alice")
+        .lastName("Smith")
+        .build();
+
+    var book = Book.builder()
+        .id("book123")
+        .title("Test")
+        .genres(List.of())
+        .language(Language.ENGLISH)
+        .condition(Condition.FAIR)
+        .owner(owner)
+        .distanceKm(1.23456)
+        .build();
+
+    when(bookService.findBooksNearLocation(eq(60.17), eq(24.94), eq(50), eq(10), eq("")))
+        .thenReturn(new CursorPage<>(List.of(book), 10, "next-token"));
+
+    mockMvc.perform(get(BASE_PATH + "/near")
+        .param("latitude", "60.17")
+        .param("longitude", "24.94")
+        .param("cursor", ""))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$._embedded.books[0].distanceKm").value(1.23))
+        .andExpect(jsonPath("$._links.next.href").value(BASE_PATH + "/near?cursor=next-token&size=10"));
+  }
+
+  @Test
+  @DisplayName("Should return map clusters with counts and centroids")
+  void shouldReturnMapClusters() throws Exception {
+    when(bookService.getBookClusters(any(), eq(6)))
+        .thenReturn(List.of(new BookCluster("ud9", 42, 60.2, 24.9)));
+
+    mockMvc.perform(get(BASE_PATH + "/map/clusters")
+        .param("north", "70").param("south", "59").param("east", "32").param("west", "19")
+        .param("zoom", "6"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$[0].geohash").value("ud9"))
+        .andExpect(jsonPath("$[0].count").value(42))
+        .andExpect(jsonPath("$[0].latitude").value(60.2));
+  }
+
+  @Test
+  @DisplayName("Should return 400 for map clusters without bounds")
+  void shouldRejectMapClustersWithoutBounds() throws Exception {
+    mockMvc.perform(get(BASE_PATH + "/map/clusters").param("zoom", "6"))
+        .andExpect(status().isBadRequest());
+  }
+
+  @Test
+  @DisplayName("Should flag capped totals when approximate total is requested")
+  void shouldFlagCappedTotalWhenApproximateTotalIsRequested() throws Exception {
+    when(bookService.getAllBooksByFilter(any(), any(Pageable.class), eq(true)))
+        .thenReturn(new PageImpl<>(List.of(), PageRequest.of(0, 10), 10_000));
+
+    mockMvc.perform(get(BASE_PATH).param("approximateTotal", "true"))
+        .andExpect(status().isOk())
+        .andExpect(header().string("X-Total-Count-Capped", "true"))
+        .andExpect(jsonPath("$.page.totalElements").value(10_000));
+  }
+
   @Test
   @WithMockUser(username = "user-123")
   @DisplayName("Should delete a book successfully")
@@ -497,10 +614,85 @@ class BookControllerTest {
   }
 
   @Test
-  @DisplayName("Should delete all books successfully")
-  void shouldReturnNoContentWhenDeletingAllBooks() throws Exception {
-    doNothing().when(bookService).deleteAllBooks();
+  @DisplayName("Should start deleting all books in the background")
+  void shouldReturnAcceptedWhenDeletingAllBooks() throws Exception {
+    when(bookService.deleteAllBooks()).thenReturn(MaintenanceJob.builder()
+        .id("job-1").type("DeleteAllBooks").status(MaintenanceJobStatus.RUNNING).build());
     mockMvc.perform(delete(BASE_PATH))
-        .andExpect(status().isNoContent());
+        .andExpect(status().isAccepted())
+        .andExpect(header().string("Location", "/api/v1/maintenance-jobs/job-1"))
+        .andExpect(jsonPath("$.id").value("job-1"))
+        .andExpect(jsonPath("$.status").value("Running"));
+  }
+
+  @Test
+  @DisplayName("Should return book suggestions for the typed text")
+  void shouldReturnBookSuggestions() throws Exception {
+    when(bookService.suggestBooks("hobb", 5))
+        .thenReturn(List.of(new BookSuggestion("book123", "The Hobbit", "J. R. R. Tolkien")));
+
+    mockMvc.perform(get(BASE_PATH + "/suggest").param("q", "hobb").param("limit", "5"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.length()").value(1))
+        .andExpect(jsonPath("$[0].id").value("book123"))
+        .andExpect(jsonPath("$[0].title").value("The Hobbit"));
+  }
+
+  @Test
+  @DisplayName("Should import NDJSON books and report every line")
+  void shouldImportNdjsonBooksLineByLine() throws Exception {
+    when(bookService.importBooks(eq("user-123"), anyList()))
+        .thenReturn(List.of(BookImportResult.created("book-1")));
+    String books = """
+        {"title": "Dune", "author": "Frank Herbert", "language": "English", "condition": "Good", "genres": ["Fiction"], "swapType": "GiveAway"}
+        {"title": "Emma", "author": "Jane Austen", "language": "English", "condition": "Good", "genres": ["Fiction"], "swapType": "ByBooks"}
+        not a book
+        """;
+
+    MvcResult result = mockMvc.perform(post(BASE_PATH + "/bulk")
+        .contentType("application/x-ndjson")
+        .content(books)
+        .principal(() -> "user-123"))
+        .andExpect(request().asyncStarted())
+        .andReturn();
+    String response = mockMvc.perform(asyncDispatch(result))
+        .andExpect(status().isOk())
+        .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+        .andReturn().getResponse().getContentAsString();
+
+    List<String> lines = response.lines().toList();
+    assertTrue(lines.get(0).contains("\"line\":2") && lines.get(0).contains("swappableBooksCannotBeImported"));
+    assertTrue(lines.get(1).contains("\"line\":3") && lines.get(1).contains("invalidBookImportLine"));
+    assertTrue(lines.get(2).contains("\"line\":1") && lines.get(2).contains("\"bookId\":\"book-1\""));
+    assertTrue(lines.getLast().contains("\"processed\":3,\"created\":1,\"failed\":2,\"done\":true"));
+  }
+
+  @Test
+  @DisplayName("Should import CSV books by the columns of the header")
+  void shouldImportCsvBooks() throws Exception {
+    when(bookService.importBooks(eq("user-123"), anyList()))
+        .thenReturn(List.of(BookImportResult.created("book-1")));
+    String books = """
+        title,author,language,condition,genres,swapType,swappableGenres,city
+        "Dune, Deluxe",Frank Herbert,English,Good,Fiction|Classics,ByGenres,Fantasy,Helsinki
+        """;
+
+    MvcResult result = mockMvc.perform(post(BASE_PATH + "/bulk")
+        .contentType("text/csv")
+        .content(books)
+        .principal(() -> "user-123"))
+        .andExpect(request().asyncStarted())
+        .andReturn();
+    mockMvc.perform(asyncDispatch(result))
+        .andExpect(status().isOk());
+
+    @SuppressWarnings("unchecked")
+    ArgumentCaptor<List<Book>> imported = ArgumentCaptor.forClass(List.class);
+    verify(bookService).importBooks(eq("user-123"), imported.capture());
+    Book book = imported.getValue().getFirst();
+    assertEquals("Dune, Deluxe", book.title());
+    assertEquals(List.of("Fiction", "Classics"), book.genres().stream().map(Genre::getName).toList());
+    assertEquals(SwapType.BY_GENRES, book.swapCondition().swapType());
+    assertEquals("Helsinki", book.location().city());
   }
 }
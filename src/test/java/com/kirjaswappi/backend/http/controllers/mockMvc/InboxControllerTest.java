@@ -427,8 +427,8 @@ class InboxControllerTest {
     when(inboxService.getBatchUnreadMessageCounts("receiver123", List.of("swap1")))
         .thenReturn(Map.of("swap1", 0L));
     when(inboxService.isInboxItemUnread(swapRequest, "receiver123")).thenReturn(false);
-    when(photoService.getBookCoverPhoto("cover-photo-id-123"))
-        .thenReturn("https://minio.example.com/presigned-url");
+    when(photoService.getBookCoverPhotos(List.of("cover-photo-id-123")))
+        .thenReturn(Map.of("cover-photo-id-123", "https://minio.example.com/presigned-url"));
 
     mockMvc.perform(get(API_PATH)
         .with(withUser("receiver123")))
@@ -436,7 +436,7 @@ class InboxControllerTest {
         .andExpect(jsonPath("$[0].bookToSwapWith.coverPhotoUrl")
             .value("https://minio.example.com/presigned-url"));
 
-    verify(photoService).getBookCoverPhoto("cover-photo-id-123");
+    verify(photoService).getBookCoverPhotos(List.of("cover-photo-id-123"));
   }
 
   @Test
@@ -478,7 +478,7 @@ class InboxControllerTest {
     when(inboxService.getBatchUnreadMessageCounts("receiver123", List.of("swap1")))
         .thenReturn(Map.of("swap1", 0L));
     when(inboxService.isInboxItemUnread(swapRequest, "receiver123")).thenReturn(false);
-    when(photoService.getBookCoverPhoto("missing-photo-id"))
+    when(photoService.getBookCoverPhotos(List.of("missing-photo-id")))
         .thenThrow(new PhotoNotFoundException());
 
     mockMvc.perform(get(API_PATH)
@@ -486,7 +486,7 @@ class InboxControllerTest {
         .andExpect(status().isOk())
         .andExpect(jsonPath("$[0].bookToSwapWith.coverPhotoUrl").value((Object) null));
 
-    verify(photoService).getBookCoverPhoto("missing-photo-id");
+    verify(photoService).getBookCoverPhotos(List.of("missing-photo-id"));
   }
 
   private static RequestPostProcessor withUser(String userId) {
@@ -0,0 +1,70 @@
+/*
+ * Copyright (c) 2026 KirjaSwappi or KirjaSwappi affiliate company. All rights reserved.
+ * Author: Mahiuddin Al Kamal <mahiuddinalkamal>
+ */
+package com.kirjaswappi.backend.http.controllers.mockMvc;
+
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.time.Instant;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.webmvc.test.autoconfigure.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.kirjaswappi.backend.common.http.controllers.mockMvc.config.CustomMockMvcConfiguration;
+import com.kirjaswappi.backend.http.controllers.MaintenanceJobController;
+import com.kirjaswappi.backend.service.MaintenanceJobService;
+import com.kirjaswappi.backend.service.entities.MaintenanceJob;
+import com.kirjaswappi.backend.service.enums.MaintenanceJobStatus;
+import com.kirjaswappi.backend.service.exceptions.ResourceNotFoundException;
+
+@WebMvcTest(MaintenanceJobController.class)
+@Import(CustomMockMvcConfiguration.class)
+class MaintenanceJobControllerTest {
+  private static final String API_PATH = "/api/v1/maintenance-jobs";
+
+  @Autowired
+  private MockMvc mockMvc;
+
+  @MockitoBean
+  private MaintenanceJobService maintenanceJobService;
+
+  @Test
+  @DisplayName("Should return the progress of a maintenance job")
+  void shouldReturnJobProgress() throws Exception {
+    when(maintenanceJobService.getJob("job-1")).thenReturn(MaintenanceJob.builder()
+        .id("job-1")
+        .type("DeleteAllBooks")
+        .status(MaintenanceJobStatus.RUNNING)
+        .total(1000)
+        .processed(500)
+        .startedAt(Instant.now())
+        .updatedAt(Instant.now())
+        .build());
+
+    mockMvc.perform(get(API_PATH + "/job-1"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.type").value("DeleteAllBooks"))
+        .andExpect(jsonPath("$.status").value("Running"))
+        .andExpect(jsonPath("$.total").value(1000))
+        .andExpect(jsonPath("$.processed").value(500));
+  }
+
+  @Test
+  @DisplayName("Should return not found for an unknown maintenance job")
+  void shouldReturnNotFoundForUnknownJob() throws Exception {
+    when(maintenanceJobService.getJob("job-1"))
+        .thenThrow(new ResourceNotFoundException("maintenanceJobNotFound", "job-1"));
+
+    mockMvc.perform(get(API_PATH + "/job-1"))
+        .andExpect(status().isNotFound());
+  }
+}
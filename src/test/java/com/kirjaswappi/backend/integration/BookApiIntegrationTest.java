@@ -28,6 +28,7 @@ import org.springframework.test.web.servlet.MockMvc;
 
 import com.kirjaswappi.backend.common.http.controllers.mockMvc.config.CustomMockMvcConfiguration;
 import com.kirjaswappi.backend.http.controllers.BookController;
+import com.kirjaswappi.backend.service.BookImportService;
 import com.kirjaswappi.backend.service.BookService;
 import com.kirjaswappi.backend.service.entities.*;
 import com.kirjaswappi.backend.service.enums.Condition;
@@ -52,6 +53,9 @@ class BookApiIntegrationTest {
   @MockitoBean
   private BookService bookService;
 
+  @MockitoBean
+  private BookImportService bookImportService;
+
   // Minimal JPEG SOI marker so ValidationUtil's magic-byte check passes.
   private static final byte[] JPEG_BYTES = new byte[] { (byte) 0xFF, (byte) 0xD8, (byte) 0xFF, (byte) 0xE0,
       0, 16, 'J', 'F', 'I', 'F', 0, 1, 1, 0, 0, 1, 0, 1, 0, 0 };
@@ -380,7 +384,7 @@ class BookApiIntegrationTest {
     void shouldReturnMoreBooksOfUser() throws Exception {
       Book book2 = createTestBook("book-2", "Book 2", "Author");
       Book book3 = createTestBook("book-3", "Book 3", "Author");
-      when(bookService.getMoreBooksOfTheUser("book-1")).thenReturn(List.of(book2, book3));
+      when(bookService.getMoreBooksOfTheUser("book-1", 10)).thenReturn(List.of(book2, book3));
 
       mockMvc.perform(get(API_BASE + "/book-1/more-books"))
           .andExpect(status().isOk())
@@ -390,7 +394,7 @@ class BookApiIntegrationTest {
     @Test
     @DisplayName("Should return empty list when no other books exist")
     void shouldReturnEmptyListWhenNoOtherBooks() throws Exception {
-      when(bookService.getMoreBooksOfTheUser("book-1")).thenReturn(List.of());
+      when(bookService.getMoreBooksOfTheUser("book-1", 10)).thenReturn(List.of());
 
       mockMvc.perform(get(API_BASE + "/book-1/more-books"))
           .andExpect(status().isOk())
@@ -540,7 +544,7 @@ class BookApiIntegrationTest {
     @DisplayName("Should return books in map bounds")
     void shouldReturnBooksInMapBounds() throws Exception {
       Book book = createTestBookWithLocation("book-1", "Map Book", "Helsinki", "Finland");
-      when(bookService.getAllBooksByFilter(any(), any(Pageable.class)))
+      when(bookService.getBooksInMapBounds(any(), any(Pageable.class)))
           .thenReturn(new PageImpl<>(List.of(book), PageRequest.of(0, 100), 1));
 
       mockMvc.perform(get(API_BASE + "/map")
@@ -555,7 +559,7 @@ class BookApiIntegrationTest {
     @Test
     @DisplayName("Should return empty results when no books in bounds")
     void shouldReturnEmptyResultsWhenNoBooksInBounds() throws Exception {
-      when(bookService.getAllBooksByFilter(any(), any(Pageable.class)))
+      when(bookService.getBooksInMapBounds(any(), any(Pageable.class)))
           .thenReturn(new PageImpl<>(List.of(), PageRequest.of(0, 100), 0));
 
       mockMvc.perform(get(API_BASE + "/map")
@@ -0,0 +1,97 @@
+/*
+ * Copyright (c) 2026 KirjaSwappi or KirjaSwappi affiliate company. All rights reserved.
+ * Author: Mahiuddin Al Kamal <mahiuddinalkamal>
+ */
+package com.kirjaswappi.backend.integration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.bson.Document;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.kirjaswappi.backend.common.utils.KeysetCursor;
+import com.kirjaswappi.backend.config.TestContainersConfig;
+import com.kirjaswappi.backend.jpa.daos.BookDao;
+import com.kirjaswappi.backend.jpa.daos.BookListItemDao;
+import com.kirjaswappi.backend.jpa.repositories.BookRepository;
+
+/**
+ * Walks the keyset pages of a catalogue where some books lack the sort key, to
+ * check that every book is returned exactly once in either direction.
+ */
+@SpringBootTest
+@Import(TestContainersConfig.class)
+@ActiveProfiles("test")
+class BookKeysetPaginationIntegrationTest {
+
+  private static final int PAGE_SIZE = 2;
+
+  @Autowired
+  private MongoTemplate mongoTemplate;
+
+  @Autowired
+  private BookRepository bookRepository;
+
+  @BeforeEach
+  void setUp() {
+    mongoTemplate.dropCollection(BookDao.class);
+    var books = new ArrayList<Document>();
+    for (int i = 0; i < 5; i++) {
+      var book = new Document("title", "Book " + i).append("isDeleted", false);
+      // the odd books were added before the author became mandatory
+      books.add(i % 2 == 0 ? book.append("author", "Author " + i) : book);
+    }
+    mongoTemplate.getCollection("books").insertMany(books);
+  }
+
+  @AfterEach
+  void tearDown() {
+    mongoTemplate.dropCollection(BookDao.class);
+  }
+
+  @Test
+  @DisplayName("Descending pages return the books without the key after the others")
+  void descendingPagesIncludeBooksWithoutTheKey() {
+    var titles = allPages(Sort.Order.desc("author"));
+
+    assertEquals(List.of("Book 4", "Book 2", "Book 0"), titles.subList(0, 3));
+    assertEquals(5, titles.size());
+    assertEquals(5, titles.stream().distinct().count());
+  }
+
+  @Test
+  @DisplayName("Ascending pages return the books without the key before the others")
+  void ascendingPagesIncludeBooksWithoutTheKey() {
+    var titles = allPages(Sort.Order.asc("author"));
+
+    assertEquals(List.of("Book 0", "Book 2", "Book 4"), titles.subList(2, 5));
+    assertEquals(5, titles.stream().distinct().count());
+  }
+
+  private List<String> allPages(Sort.Order order) {
+    var titles = new ArrayList<String>();
+    KeysetCursor after = null;
+    while (true) {
+      var page = bookRepository.findAllBooksByFilter(Criteria.where("isDeleted").is(false), order, after, PAGE_SIZE);
+      page.getContent().forEach(book -> titles.add(book.title()));
+      if (!page.hasNext()) {
+        return titles;
+      }
+      BookListItemDao last = page.getContent().getLast();
+      after = new KeysetCursor(order.getProperty(), order.getDirection(), last.author(), last.id());
+    }
+  }
+}
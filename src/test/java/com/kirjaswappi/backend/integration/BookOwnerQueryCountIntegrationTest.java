@@ -0,0 +1,148 @@
+/*
+ * Copyright (c) 2026 KirjaSwappi or KirjaSwappi affiliate company. All rights reserved.
+ * Author: Mahiuddin Al Kamal <mahiuddinalkamal>
+ */
+package com.kirjaswappi.backend.integration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.mongodb.autoconfigure.MongoClientSettingsBuilderCustomizer;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import com.kirjaswappi.backend.config.TestContainersConfig;
+import com.kirjaswappi.backend.jpa.daos.BookDao;
+import com.kirjaswappi.backend.jpa.daos.SwapConditionDao;
+import com.kirjaswappi.backend.jpa.daos.UserDao;
+import com.kirjaswappi.backend.jpa.repositories.BookRepository;
+import com.kirjaswappi.backend.jpa.repositories.UserRepository;
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandStartedEvent;
+
+/**
+ * Counts the commands a page of books sends to MongoDB. Reading a page must
+ * load all owners with one query rather than resolve each book's owner
+ * reference on its own.
+ */
+@SpringBootTest
+@Import({ TestContainersConfig.class, BookOwnerQueryCountIntegrationTest.CommandRecorder.class })
+@ActiveProfiles("test")
+class BookOwnerQueryCountIntegrationTest {
+
+  private static final int PAGE_SIZE = 50;
+
+  @Autowired
+  private WebApplicationContext webApplicationContext;
+
+  @Autowired
+  private MongoTemplate mongoTemplate;
+
+  @Autowired
+  private BookRepository bookRepository;
+
+  @Autowired
+  private UserRepository userRepository;
+
+  @Autowired
+  private CommandRecorder commandRecorder;
+
+  private MockMvc mockMvc;
+
+  /**
+   * Records the name and target collection of every command sent to MongoDB.
+   */
+  @TestConfiguration(proxyBeanMethods = false)
+  static class CommandRecorder implements CommandListener {
+    private final Queue<String> commands = new ConcurrentLinkedQueue<>();
+
+    @Bean
+    MongoClientSettingsBuilderCustomizer commandRecorderCustomizer() {
+      return settings -> settings.addCommandListener(this);
+    }
+
+    @Override
+    public void commandStarted(CommandStartedEvent event) {
+      var target = event.getCommand().get(event.getCommandName());
+      commands.add(event.getCommandName() + " " + (target != null && target.isString()
+          ? target.asString().getValue()
+          : ""));
+    }
+
+    long count(String command) {
+      return commands.stream().filter(command::equals).count();
+    }
+
+    void clear() {
+      commands.clear();
+    }
+  }
+
+  @BeforeEach
+  void setUp() {
+    mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext).build();
+    mongoTemplate.dropCollection(BookDao.class);
+    mongoTemplate.dropCollection(UserDao.class);
+  }
+
+  @AfterEach
+  void tearDown() {
+    mongoTemplate.dropCollection(BookDao.class);
+    mongoTemplate.dropCollection(UserDao.class);
+  }
+
+  @Test
+  @DisplayName("A page of 50 books loads its owner with a single users query")
+  void pageOfBooksQueriesUsersOnce() throws Exception {
+    var owner = userRepository.save(UserDao.builder()
+        .firstName("Test")
+        .lastName("Owner")
+        .email("owner@example.com")
+        .isEmailVerified(true)
+        .build());
+    var books = new ArrayList<BookDao>();
+    var addedAt = Instant.now();
+    for (int i = 0; i <= PAGE_SIZE; i++) {
+      books.add(BookDao.builder()
+          .title("Book " + i)
+          .author("Author " + i)
+          .language("English")
+          .condition("Good")
+          .coverPhotos(List.of())
+          .genres(List.of())
+          .owner(owner)
+          .swapCondition(SwapConditionDao.builder().swapType("GiveAway").giveAway(true).build())
+          .bookAddedAt(addedAt.minusSeconds(i))
+          .bookUpdatedAt(addedAt.minusSeconds(i))
+          .build());
+    }
+    var firstBookId = bookRepository.saveAll(books).getFirst().id();
+    commandRecorder.clear();
+
+    mockMvc.perform(get("/api/v1/books/{id}/more-books", firstBookId).param("limit", String.valueOf(PAGE_SIZE)))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.length()").value(PAGE_SIZE))
+        .andExpect(jsonPath("$[0].owner.name").value("Test Owner"));
+
+    assertEquals(1, commandRecorder.count("find users"));
+  }
+}
@@ -0,0 +1,136 @@
+/*
+ * Copyright (c) 2026 KirjaSwappi or KirjaSwappi affiliate company. All rights reserved.
+ * Author: Mahiuddin Al Kamal <mahiuddinalkamal>
+ */
+package com.kirjaswappi.backend.integration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+import org.bson.Document;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.TextIndexDefinition.TextIndexDefinitionBuilder;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.kirjaswappi.backend.config.TestContainersConfig;
+import com.kirjaswappi.backend.jpa.daos.BookDao;
+import com.kirjaswappi.backend.jpa.repositories.BookRepository;
+import com.kirjaswappi.backend.service.filters.FindAllBooksFilter;
+import com.mongodb.ExplainVerbosity;
+
+/**
+ * Compares the text index search against the former case-insensitive regex scan
+ * on a seeded catalogue. Plans are compared by documents examined rather than
+ * wall time so the test stays stable on slow CI machines; timings are only
+ * logged.
+ */
+@SpringBootTest
+@Import(TestContainersConfig.class)
+@ActiveProfiles("test")
+class BookSearchBenchmarkIntegrationTest {
+
+  private static final Logger logger = LoggerFactory.getLogger(BookSearchBenchmarkIntegrationTest.class);
+  private static final int CATALOGUE_SIZE = 50_000;
+  private static final int MATCHING_BOOKS = 25;
+  private static final String SEARCH = "silmarillion";
+
+  @Autowired
+  private MongoTemplate mongoTemplate;
+
+  @Autowired
+  private BookRepository bookRepository;
+
+  @BeforeEach
+  void setUp() {
+    mongoTemplate.dropCollection(BookDao.class);
+    mongoTemplate.indexOps(BookDao.class).createIndex(new TextIndexDefinitionBuilder()
+        .onField("title", 10F)
+        .onField("author", 5F)
+        .onField("description", 1F)
+        .withDefaultLanguage("none")
+        .withLanguageOverride("searchLanguage")
+        .named("book_search_text")
+        .build());
+
+    List<Document> books = new ArrayList<>(CATALOGUE_SIZE);
+    for (int i = 0; i < CATALOGUE_SIZE; i++) {
+      boolean matching = i % (CATALOGUE_SIZE / MATCHING_BOOKS) == 0;
+      books.add(new Document("title", matching ? "The " + SEARCH + " volume " + i : "Catalogue title " + i)
+          .append("author", "Author " + (i % 500))
+          .append("description", "A seeded book used to benchmark search number " + i)
+          .append("language", i % 2 == 0 ? "English" : "Finnish")
+          .append("isDeleted", false));
+    }
+    mongoTemplate.getCollection("books").insertMany(books);
+  }
+
+  @AfterEach
+  void tearDown() {
+    mongoTemplate.dropCollection(BookDao.class);
+  }
+
+  @Test
+  @DisplayName("Text search examines only matching books while the regex scan reads the whole catalogue")
+  void textSearchExaminesFarFewerDocumentsThanRegexScan() {
+    String escaped = Pattern.quote(SEARCH);
+    Document regexQuery = new Document("$and", List.of(
+        new Document("$or", List.of(
+            new Document("title", new Document("$regex", escaped).append("$options", "i")),
+            new Document("author", new Document("$regex", escaped).append("$options", "i")),
+            new Document("description", new Document("$regex", escaped).append("$options", "i")))),
+        new Document("isDeleted", false)));
+    Document textQuery = new Document("$and", List.of(
+        new Document("$text", new Document("$search", SEARCH)),
+        new Document("isDeleted", false)));
+
+    Document regexStats = executionStats(regexQuery);
+    Document textStats = executionStats(textQuery);
+    logger.info("Regex scan: {} docs examined in {} ms; text search: {} docs examined in {} ms",
+        regexStats.get("totalDocsExamined"), regexStats.get("executionTimeMillis"),
+        textStats.get("totalDocsExamined"), textStats.get("executionTimeMillis"));
+
+    assertEquals(MATCHING_BOOKS, regexStats.getInteger("nReturned"));
+    assertEquals(MATCHING_BOOKS, textStats.getInteger("nReturned"));
+    assertEquals(CATALOGUE_SIZE, regexStats.getInteger("totalDocsExamined"));
+    assertEquals(MATCHING_BOOKS, textStats.getInteger("totalDocsExamined"));
+  }
+
+  @Test
+  @DisplayName("Relevance sort ranks title matches above description matches")
+  void relevanceSortRanksTitleMatchesFirst() {
+    mongoTemplate.getCollection("books").insertOne(new Document("title", "Unrelated title")
+        .append("author", "Someone")
+        .append("description", "Mentions " + SEARCH + " only in passing")
+        .append("isDeleted", false));
+
+    FindAllBooksFilter filter = new FindAllBooksFilter();
+    filter.setSearch(SEARCH);
+    var page = bookRepository.findAllBooksByFilter(filter.buildSearchAndFilterCriteria(),
+        PageRequest.of(0, MATCHING_BOOKS + 1, Sort.by(Sort.Direction.DESC, "relevance")));
+
+    assertEquals(MATCHING_BOOKS + 1, page.getTotalElements());
+    assertTrue(page.getContent().getFirst().title().contains(SEARCH));
+    assertEquals("Unrelated title", page.getContent().getLast().title());
+  }
+
+  private Document executionStats(Document query) {
+    return mongoTemplate.getCollection("books")
+        .find(query)
+        .explain(ExplainVerbosity.EXECUTION_STATS)
+        .get("executionStats", Document.class);
+  }
+}
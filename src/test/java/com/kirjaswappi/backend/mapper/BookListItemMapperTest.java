@@ -0,0 +1,84 @@
+/*
+ * Copyright (c) 2026 KirjaSwappi or KirjaSwappi affiliate company. All rights reserved.
+ * Author: Mahiuddin Al Kamal <mahiuddinalkamal>
+ */
+package com.kirjaswappi.backend.mapper;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.kirjaswappi.backend.jpa.daos.BookListItemDao;
+import com.kirjaswappi.backend.jpa.daos.BookLocationDao;
+import com.kirjaswappi.backend.jpa.daos.BookOwnerSummaryDao;
+import com.kirjaswappi.backend.jpa.daos.GenreSnapshotDao;
+import com.kirjaswappi.backend.service.enums.Condition;
+import com.kirjaswappi.backend.service.enums.Language;
+
+/**
+ * Unit tests for BookListItemMapper.
+ */
+class BookListItemMapperTest {
+
+  @Test
+  void testToEntity_WithOwnerSummary_ShouldMapListFields() {
+    // Arrange
+    var dao = BookListItemDao.builder()
+        .id("book-1")
+        .title("Seitsemän veljestä")
+        .author("Aleksis Kivi")
+        .language("Finnish")
+        .condition("Good")
+        .coverPhotos(List.of("cover-1"))
+        .genreSnapshots(List.of(new GenreSnapshotDao("genre-1", "Classics", "/genre-1/")))
+        .location(BookLocationDao.builder().city("Helsinki").country("Finland").build())
+        .owner(BookOwnerSummaryDao.builder()
+            .id("owner-1")
+            .firstName("Aino")
+            .lastName("Virtanen")
+            .city("Helsinki")
+            .build())
+        .distanceMeters(2500.0)
+        .build();
+
+    // Act
+    var book = BookListItemMapper.toEntity(dao, List.of("https://cdn/cover-1"));
+
+    // Assert
+    assertEquals("book-1", book.id());
+    assertEquals(Language.FINNISH, book.language());
+    assertEquals(Condition.GOOD, book.condition());
+    assertEquals(List.of("https://cdn/cover-1"), book.coverPhotos());
+    assertEquals(1, book.genres().size());
+    assertEquals("Classics", book.genres().getFirst().getName());
+    assertNull(book.genres().getFirst().getParent());
+    assertEquals("Helsinki", book.location().city());
+    assertEquals(2.5, book.distanceKm());
+    assertEquals("owner-1", book.owner().id());
+    assertEquals("Aino", book.owner().firstName());
+    assertEquals("Helsinki", book.owner().city());
+  }
+
+  @Test
+  void testToEntity_WithoutOwnerOrDistance_ShouldLeaveThemNull() {
+    // Arrange
+    var dao = BookListItemDao.builder()
+        .id("book-1")
+        .title("Title")
+        .author("Author")
+        .language("English")
+        .condition("New")
+        .build();
+
+    // Act
+    var book = BookListItemMapper.toEntity(dao, null);
+
+    // Assert
+    assertNull(book.owner());
+    assertNull(book.distanceKm());
+    assertTrue(book.coverPhotos().isEmpty());
+    assertTrue(book.genres().isEmpty());
+  }
+}
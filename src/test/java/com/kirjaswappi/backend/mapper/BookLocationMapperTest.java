@@ -41,6 +41,26 @@ class BookLocationMapperTest {
     assertEquals("Finland", dao.country());
     assertEquals("00100", dao.postalCode());
     assertEquals(50, dao.radiusKm());
+    assertEquals("ud9wr3xe", dao.geohash());
+    assertEquals("helsinki", dao.normalizedCity());
+    assertEquals("finland", dao.normalizedCountry());
+  }
+
+  @Test
+  void testToDao_WithAccentedPlaceNames_ShouldNormalizeForExactMatching() {
+    // Arrange
+    var entity = BookLocation.builder()
+        .city("  Jyväskylä ")
+        .country("Suomi   Finland")
+        .build();
+
+    // Act
+    BookLocationDao dao = BookLocationMapper.toDao(entity);
+
+    // Assert
+    assertEquals("  Jyväskylä ", dao.city());
+    assertEquals("jyvaskyla", dao.normalizedCity());
+    assertEquals("suomi finland", dao.normalizedCountry());
   }
 
   @Test
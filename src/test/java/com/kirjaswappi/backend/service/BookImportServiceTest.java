@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) 2026 KirjaSwappi or KirjaSwappi affiliate company. All rights reserved.
+ * Author: Mahiuddin Al Kamal <mahiuddinalkamal>
+ */
+package com.kirjaswappi.backend.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+import java.io.BufferedReader;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import com.kirjaswappi.backend.service.entities.BookImportResult;
+import com.kirjaswappi.backend.service.exceptions.UserNotFoundException;
+
+class BookImportServiceTest {
+  private static final String BOOK = """
+      {"title": "Dune", "author": "Frank Herbert", "language": "English", "condition": "Good", "genres": ["Fiction"], "swapType": "GiveAway"}""";
+
+  @Mock
+  private BookService bookService;
+  @InjectMocks
+  private BookImportService bookImportService;
+
+  private final List<String> events = new ArrayList<>();
+
+  private final BookImportService.Listener listener = new BookImportService.Listener() {
+    @Override
+    public void lineImported(int line, BookImportResult result) {
+      events.add(line + ":" + (result.isCreated() ? result.bookId() : result.error().getMessageKey()));
+    }
+
+    @Override
+    public void batchImported() {
+      events.add("batch");
+    }
+  };
+
+  @BeforeEach
+  void setUp() {
+    MockitoAnnotations.openMocks(this);
+  }
+
+  @Test
+  @DisplayName("Books are imported in batches, reporting every line of a batch before its end")
+  void importsBooksInBatches() throws Exception {
+    when(bookService.importBooks(eq("owner-id"), anyList())).thenAnswer(invocation -> {
+      List<?> books = invocation.getArgument(1);
+      return books.stream().map(_ -> BookImportResult.created("book")).toList();
+    });
+    var lines = String.join("\n", Collections.nCopies(BookImportService.BATCH_SIZE + 1, BOOK));
+
+    bookImportService.importBooks("owner-id", new BufferedReader(new StringReader(lines)), false, listener);
+
+    verify(bookService, times(2)).importBooks(eq("owner-id"), anyList());
+    assertEquals("batch", events.get(BookImportService.BATCH_SIZE));
+    assertEquals(List.of(BookImportService.BATCH_SIZE + 1 + ":book", "batch"),
+        events.subList(BookImportService.BATCH_SIZE + 1, events.size()));
+  }
+
+  @Test
+  @DisplayName("Invalid lines are reported at once without reaching the batch")
+  void reportsInvalidLinesWithoutImportingThem() throws Exception {
+    var lines = "not a book\n\n" + "{\"title\": \"Emma\"}";
+
+    bookImportService.importBooks("owner-id", new BufferedReader(new StringReader(lines)), false, listener);
+
+    assertEquals(List.of("1:invalidBookImportLine", "3:authorCannotBeBlank"), events);
+    verifyNoInteractions(bookService);
+  }
+
+  @Test
+  @DisplayName("A batch failing as a whole fails each of its lines")
+  void failsEveryLineOfAFailedBatch() throws Exception {
+    when(bookService.importBooks(eq("owner-id"), anyList())).thenThrow(new UserNotFoundException("owner-id"));
+    var lines = "title,author,language,condition,genres,swapType\n"
+        + "Dune,Frank Herbert,English,Good,Fiction,GiveAway\n"
+        + "Emma,Jane Austen,English,Good,Fiction,GiveAway\n";
+
+    bookImportService.importBooks("owner-id", new BufferedReader(new StringReader(lines)), true, listener);
+
+    assertEquals(List.of("2:userNotFound", "3:userNotFound", "batch"), events);
+  }
+}
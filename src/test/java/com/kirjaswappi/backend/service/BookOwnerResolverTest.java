@@ -0,0 +1,144 @@
+/*
+ * Copyright (c) 2026 KirjaSwappi or KirjaSwappi affiliate company. All rights reserved.
+ * Author: Mahiuddin Al Kamal <mahiuddinalkamal>
+ */
+package com.kirjaswappi.backend.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.StreamSupport;
+
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.mongodb.core.convert.LazyLoadingProxy;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import com.kirjaswappi.backend.jpa.daos.BookDao;
+import com.kirjaswappi.backend.jpa.daos.UserDao;
+import com.kirjaswappi.backend.jpa.repositories.UserRepository;
+import com.mongodb.DBRef;
+
+class BookOwnerResolverTest {
+  @Mock
+  private UserRepository userRepository;
+  @InjectMocks
+  private BookOwnerResolver bookOwnerResolver;
+
+  private final List<String> ownerIds = IntStream.range(0, 7)
+      .mapToObj(i -> new ObjectId().toHexString())
+      .toList();
+
+  @BeforeEach
+  void setUp() {
+    MockitoAnnotations.openMocks(this);
+    when(userRepository.findAllById(any())).thenAnswer(invocation -> {
+      Iterable<String> ids = invocation.getArgument(0);
+      return StreamSupport.stream(ids.spliterator(), false)
+          .map(id -> new UserDao().id(id).firstName("Owner " + id))
+          .toList();
+    });
+  }
+
+  @AfterEach
+  void tearDown() {
+    RequestContextHolder.resetRequestAttributes();
+  }
+
+  // what Spring Data leaves in BookDao.owner until the reference is resolved
+  private static UserDao unresolvedOwner(String id) {
+    var owner = mock(UserDao.class, withSettings().extraInterfaces(LazyLoadingProxy.class));
+    when(((LazyLoadingProxy) owner).toDBRef()).thenReturn(new DBRef("users", new ObjectId(id)));
+    return owner;
+  }
+
+  private List<BookDao> page(int size) {
+    var books = new ArrayList<BookDao>();
+    for (int i = 0; i < size; i++) {
+      books.add(BookDao.builder()
+          .id("book-" + i)
+          .owner(unresolvedOwner(ownerIds.get(i % ownerIds.size())))
+          .build());
+    }
+    return books;
+  }
+
+  @Test
+  @DisplayName("Loads the owners of a 50-book page with one query")
+  @SuppressWarnings("unchecked")
+  void ownersOfPageIssuesSingleQuery() {
+    var books = page(50);
+
+    var owners = bookOwnerResolver.ownersOf(books);
+
+    ArgumentCaptor<Iterable<String>> ids = ArgumentCaptor.forClass(Iterable.class);
+    verify(userRepository, times(1)).findAllById(ids.capture());
+    verifyNoMoreInteractions(userRepository);
+    assertEquals(Set.copyOf(ownerIds), StreamSupport.stream(ids.getValue().spliterator(), false)
+        .collect(Collectors.toSet()));
+    for (var book : books) {
+      var ownerId = BookOwnerResolver.ownerId(book);
+      assertEquals(ownerId, owners.get(ownerId).id());
+      // only the reference was read, the proxy itself was never resolved
+      verify((LazyLoadingProxy) book.owner(), atLeastOnce()).toDBRef();
+      verifyNoMoreInteractions(book.owner());
+    }
+  }
+
+  @Test
+  @DisplayName("Reuses owners loaded earlier in the same request")
+  void ownersOfReusesOwnersWithinRequest() {
+    RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+
+    bookOwnerResolver.ownersOf(page(50));
+    var owners = bookOwnerResolver.ownersOf(page(10));
+
+    verify(userRepository, times(1)).findAllById(any());
+    assertEquals(7, owners.size());
+  }
+
+  @Test
+  @DisplayName("Queries again outside of a request")
+  void ownersOfQueriesEveryCallOutsideRequest() {
+    bookOwnerResolver.ownersOf(page(5));
+    bookOwnerResolver.ownersOf(page(5));
+
+    verify(userRepository, times(2)).findAllById(any());
+  }
+
+  @Test
+  @DisplayName("Uses owners assigned in code without querying")
+  void ownersOfKeepsResolvedOwners() {
+    var owner = new UserDao().id("owner-1");
+    var book = BookDao.builder().id("book-1").owner(owner).build();
+
+    var owners = bookOwnerResolver.ownersOf(List.of(book));
+
+    assertSame(owner, owners.get("owner-1"));
+    verifyNoInteractions(userRepository);
+  }
+
+  @Test
+  @DisplayName("Skips books without an owner")
+  void ownersOfSkipsBooksWithoutOwner() {
+    var owners = bookOwnerResolver.ownersOf(List.of(BookDao.builder().id("book-1").build()));
+
+    assertTrue(owners.isEmpty());
+    verifyNoInteractions(userRepository);
+  }
+}
@@ -10,36 +10,62 @@ import static org.mockito.Mockito.*;
 
 import java.time.Instant;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.web.multipart.MultipartFile;
 
-import com.kirjaswappi.backend.common.service.NotificationClient;
+import com.kirjaswappi.backend.common.utils.Geohash;
+import com.kirjaswappi.backend.common.utils.KeysetCursor;
+import com.kirjaswappi.backend.events.BookChangedEvent;
+import com.kirjaswappi.backend.events.BookSuggestionsChangedEvent;
+import com.kirjaswappi.backend.jpa.daos.BookClusterDao;
 import com.kirjaswappi.backend.jpa.daos.BookDao;
+import com.kirjaswappi.backend.jpa.daos.BookListItemDao;
+import com.kirjaswappi.backend.jpa.daos.BookLocationDao;
+import com.kirjaswappi.backend.jpa.daos.BookOwnerSummaryDao;
 import com.kirjaswappi.backend.jpa.daos.SwapConditionDao;
 import com.kirjaswappi.backend.jpa.daos.UserDao;
 import com.kirjaswappi.backend.jpa.repositories.BookRepository;
-import com.kirjaswappi.backend.jpa.repositories.SwapRequestRepository;
 import com.kirjaswappi.backend.jpa.repositories.UserRepository;
 import com.kirjaswappi.backend.mapper.BookMapper;
 import com.kirjaswappi.backend.service.entities.Book;
+import com.kirjaswappi.backend.service.entities.BookCluster;
+import com.kirjaswappi.backend.service.entities.BookImportResult;
+import com.kirjaswappi.backend.service.entities.BookLocation;
+import com.kirjaswappi.backend.service.entities.CursorPage;
+import com.kirjaswappi.backend.service.entities.Genre;
+import com.kirjaswappi.backend.service.entities.MaintenanceJob;
 import com.kirjaswappi.backend.service.entities.SwapCondition;
+import com.kirjaswappi.backend.service.entities.SwappableBook;
 import com.kirjaswappi.backend.service.entities.User;
 import com.kirjaswappi.backend.service.enums.Condition;
 import com.kirjaswappi.backend.service.enums.Language;
+import com.kirjaswappi.backend.service.enums.MaintenanceJobStatus;
 import com.kirjaswappi.backend.service.enums.SwapType;
+import com.kirjaswappi.backend.service.exceptions.BadRequestException;
 import com.kirjaswappi.backend.service.exceptions.BookNotFoundException;
+import com.kirjaswappi.backend.service.exceptions.GenreNotFoundException;
 import com.kirjaswappi.backend.service.filters.FindAllBooksFilter;
+import com.kirjaswappi.backend.service.search.BookMapTileCache;
+import com.kirjaswappi.backend.service.search.BookSearchCache;
+import com.kirjaswappi.backend.service.search.BookSuggestionIndex;
 
 class BookServiceTest {
   @Mock
@@ -49,9 +75,21 @@ class BookServiceTest {
   @Mock
   private PhotoService photoService;
   @Mock
-  private SwapRequestRepository swapRequestRepository;
+  private ApplicationEventPublisher eventPublisher;
   @Mock
-  private NotificationClient notificationClient;
+  private BookSuggestionIndex bookSuggestionIndex;
+  @Mock
+  private BookMapTileCache bookMapTileCache;
+  @Mock
+  private BookSearchCache bookSearchCache;
+  @Mock
+  private BookOwnerResolver bookOwnerResolver;
+  @Mock
+  private GenreRegistry genreRegistry;
+  @Mock
+  private MaintenanceJobService maintenanceJobService;
+  @Mock
+  private SwapRequestBookChangeListener swapRequestBookChangeListener;
   @InjectMocks
   private BookService bookService;
 
@@ -84,10 +122,12 @@ class BookServiceTest {
         .build();
 
     when(bookRepository.findByIdAndIsDeletedFalse("id")).thenReturn(Optional.of(dao));
+    when(bookOwnerResolver.ownersOf(List.of(dao))).thenReturn(Map.of("owner-id", dao.owner()));
 
     Book book = bookService.getBookById("id");
 
     assertEquals("id", book.id());
+    assertEquals("owner-id", book.owner().id());
     assertNotNull(book.bookAddedAt());
     assertNotNull(book.bookUpdatedAt());
     assertNotNull(book.getOfferedAgo());
@@ -148,6 +188,49 @@ class BookServiceTest {
     assertNotNull(savedBook.getOfferedAgo());
   }
 
+  @Test
+  @DisplayName("Uploads the covers of a new book and of its swappable books together")
+  void createBookUploadsAllCoverPhotosTogether() {
+    MultipartFile coverPhoto = mock(MultipartFile.class);
+    MultipartFile swappableCoverPhoto = mock(MultipartFile.class);
+    var swappableBook = new SwappableBook();
+    swappableBook.setTitle("Emma");
+    swappableBook.setAuthor("Jane Austen");
+    swappableBook.setCoverPhotoFile(swappableCoverPhoto);
+    Book book = Book.builder()
+        .swapCondition(new SwapCondition(SwapType.BY_BOOKS, false, false, List.of(), List.of(swappableBook)))
+        .language(Language.ENGLISH)
+        .condition(Condition.NEW)
+        .genres(List.of())
+        .coverPhotoFiles(List.of(coverPhoto))
+        .owner(new User().id("owner-id"))
+        .build();
+    var storedDao = BookDao.builder()
+        .id("book-id")
+        .swapCondition(new SwapConditionDao("OpenForOffers", false, true, null, null))
+        .owner(new UserDao().id("owner-id"))
+        .language("English")
+        .condition("New")
+        .genres(List.of())
+        .coverPhotos(List.of("book-id-BookCoverPhoto-1"))
+        .build();
+
+    when(userRepository.findByIdAndIsEmailVerifiedTrue(any())).thenReturn(Optional.of(new UserDao().id("owner-id")));
+    when(bookRepository.save(any())).thenAnswer(invocation -> invocation.<BookDao>getArgument(0).id("book-id"));
+    when(bookRepository.findByIdAndIsDeletedFalse("book-id")).thenReturn(Optional.of(storedDao));
+
+    bookService.createBook(book);
+
+    @SuppressWarnings("unchecked")
+    ArgumentCaptor<Map<String, MultipartFile>> uploads = ArgumentCaptor.forClass(Map.class);
+    verify(photoService).addBookCoverPhotos(uploads.capture());
+    assertEquals(2, uploads.getValue().size());
+    assertSame(coverPhoto, uploads.getValue().get("book-id-BookCoverPhoto-1"));
+    assertTrue(uploads.getValue().containsValue(swappableCoverPhoto));
+    verify(photoService, never()).addBookCoverPhoto(any(), any());
+    verify(bookRepository, times(2)).save(any());
+  }
+
   @Test
   @DisplayName("Updates an existing book")
   void updateBookUpdatesBook() {
@@ -263,6 +346,55 @@ class BookServiceTest {
     bookService.deleteBook("id");
 
     verify(bookRepository, times(1)).deleteLogically("id");
+    // swap requests are cancelled by the event's listener, after the deletion
+    verify(eventPublisher).publishEvent(new BookChangedEvent("id", null, true));
+    verify(eventPublisher).publishEvent(new BookSuggestionsChangedEvent(List.of("id")));
+  }
+
+  @Test
+  @DisplayName("Deleting a book evicts the map tiles containing it")
+  void deleteBookEvictsMapTiles() {
+    var dao = BookDao.builder()
+        .id("id")
+        .owner(new UserDao())
+        .location(BookLocationDao.builder().latitude(60.1699).longitude(24.9384).geohash("ud9wr3xe").build())
+        .build();
+    when(bookRepository.findByIdAndIsDeletedFalse("id")).thenReturn(Optional.of(dao));
+    when(userRepository.findByIdAndIsEmailVerifiedTrue(any())).thenReturn(Optional.of(new UserDao()));
+
+    bookService.deleteBook("id");
+
+    verify(bookMapTileCache).evict("ud9wr3xe");
+  }
+
+  @Test
+  @DisplayName("Deletes all books in batches from a background job")
+  void deleteAllBooksDeletesInBatches() {
+    var job = MaintenanceJob.builder().id("job-1").status(MaintenanceJobStatus.RUNNING).build();
+    var work = ArgumentCaptor.forClass(MaintenanceJobService.Work.class);
+    when(maintenanceJobService.start(eq("DeleteAllBooks"), work.capture())).thenReturn(job);
+    var first = BookDao.builder().id("book-1").title("Dune")
+        .location(BookLocationDao.builder().geohash("ud9wr3xe").build()).build();
+    var second = BookDao.builder().id("book-2").title("Emma").build();
+    when(bookRepository.countByIsDeletedFalse()).thenReturn(2L);
+    when(bookRepository.findLiveBooksForDeletion(anyInt())).thenReturn(List.of(first, second), List.of());
+
+    assertEquals(job, bookService.deleteAllBooks());
+    verifyNoInteractions(bookRepository);
+
+    var progress = mock(MaintenanceJobService.Progress.class);
+    work.getValue().run(progress);
+
+    verify(bookRepository).deleteLogically(List.of("book-1", "book-2"));
+    verify(userRepository).removeBooks(List.of("book-1", "book-2"));
+    verify(bookMapTileCache).evict("ud9wr3xe");
+    verify(bookSearchCache).evictBooks(List.of("book-1", "book-2"));
+    verify(bookSearchCache, times(1)).invalidate(any());
+    verify(swapRequestBookChangeListener)
+        .cancelSwapRequestsForDeletedBooks(Map.of("book-1", "Dune", "book-2", "Emma"));
+    verify(progress).total(2);
+    verify(progress).advance(2);
+    verify(bookRepository, never()).deleteLogically(anyString());
   }
 
   @Test
@@ -272,6 +404,24 @@ class BookServiceTest {
     assertThrows(BookNotFoundException.class, () -> bookService.deleteBook("id"));
   }
 
+  @Test
+  @DisplayName("Matches filter genres and their descendants by materialized path prefix")
+  void getAllBooksByFilterMatchesGenrePaths() {
+    FindAllBooksFilter filter = new FindAllBooksFilter();
+    filter.setGenres(List.of("Fiction", "Unknown"));
+    when(genreRegistry.findPath("Fiction")).thenReturn(Optional.of("/fiction-id/"));
+    when(genreRegistry.findPath("Unknown")).thenReturn(Optional.empty());
+    when(bookRepository.findAllBooksByFilter(any(), any(Pageable.class))).thenReturn(new PageImpl<>(List.of()));
+
+    bookService.getAllBooksByFilter(filter, PageRequest.of(0, 10));
+
+    ArgumentCaptor<Criteria> criteria = ArgumentCaptor.forClass(Criteria.class);
+    verify(bookRepository).findAllBooksByFilter(criteria.capture(), any(Pageable.class));
+    var query = criteria.getValue().getCriteriaObject().toJson();
+    assertTrue(query.contains("genreSnapshots.path") && query.contains("^/fiction-id/"), query);
+    assertFalse(query.contains("genreSnapshots.name"), query);
+  }
+
   @Test
   @DisplayName("Returns page of books by user ID and filter")
   void getUserBooksByFilterReturnsPage() {
@@ -293,41 +443,519 @@ class BookServiceTest {
   }
 
   @Test
-  @DisplayName("getAllBooksByFilter returns books with owner info populated")
+  @DisplayName("More books of the user are one limited query on the owner, with swap conditions and all covers")
+  void getMoreBooksOfTheUserQueriesByOwner() {
+    var owner = new UserDao().id("owner-id");
+    var dao = BookDao.builder().id("book-1").owner(owner).build();
+    var other = BookDao.builder()
+        .id("book-2")
+        .swapCondition(new SwapConditionDao("GiveAway", true, false, List.of(), List.of()))
+        .owner(owner)
+        .language("English")
+        .condition("New")
+        .coverPhotos(List.of("cover-2", "cover-3"))
+        .isDeleted(false)
+        .build();
+    when(bookRepository.findByIdAndIsDeletedFalse("book-1")).thenReturn(Optional.of(dao));
+    when(bookRepository.findOtherBooksOfOwner("owner-id", "book-1", 5)).thenReturn(List.of(other));
+    when(photoService.getBookCoverPhotos(List.of("cover-2", "cover-3")))
+        .thenReturn(Map.of("cover-2", "url-2", "cover-3", "url-3"));
+
+    List<Book> books = bookService.getMoreBooksOfTheUser("book-1", 5);
+
+    assertEquals(List.of("book-2"), books.stream().map(Book::id).toList());
+    assertEquals(List.of("url-2", "url-3"), books.getFirst().coverPhotos());
+    assertNotNull(books.getFirst().swapCondition());
+    verify(bookRepository, never()).findAllBooksByFilter(any(), any(Sort.Order.class), any(), anyInt());
+  }
+
+  @Test
+  @DisplayName("More books of the user caps the limit")
+  void getMoreBooksOfTheUserCapsLimit() {
+    var dao = BookDao.builder().id("book-1").owner(new UserDao().id("64e8b2f2c2a4e2a1b8d7c9e0")).build();
+    when(bookRepository.findByIdAndIsDeletedFalse("book-1")).thenReturn(Optional.of(dao));
+    when(bookRepository.findOtherBooksOfOwner(any(), any(), anyInt())).thenReturn(List.of());
+
+    bookService.getMoreBooksOfTheUser("book-1", 1000);
+
+    verify(bookRepository).findOtherBooksOfOwner("64e8b2f2c2a4e2a1b8d7c9e0", "book-1", 50);
+  }
+
+  @Test
+  @DisplayName("getAllBooksByFilter returns books with the owner summary populated")
   void getAllBooksByFilterReturnsBooksWithOwnerInfo() {
-    UserDao ownerDao = UserDao.builder()
+    BookOwnerSummaryDao ownerDao = BookOwnerSummaryDao.builder()
         .id("owner-123")
         .firstName("Alice")
         .lastName("Smith")
+        .city("Helsinki")
         .build();
 
-    SwapConditionDao swapConditionDao = SwapConditionDao.builder()
-        .swapType("OpenForOffers")
-        .build();
-
-    BookDao bookDao = BookDao.builder()
+    BookListItemDao bookDao = BookListItemDao.builder()
         .id("book-1")
         .title("Book Title")
         .author("Author")
-        .genres(List.of())
         .language("English")
         .condition("New")
         .coverPhotos(List.of("cover-url"))
-        .swapCondition(swapConditionDao)
         .owner(ownerDao)
         .build();
 
     FindAllBooksFilter filter = mock(FindAllBooksFilter.class);
     Pageable pageable = PageRequest.of(0, 10);
     when(filter.buildSearchAndFilterCriteria()).thenReturn(null);
-    when(bookRepository.findAllBooksByFilter(any(), any())).thenReturn(new PageImpl<>(List.of(bookDao), pageable, 1));
-    when(photoService.getBookCoverPhoto(any())).thenReturn("dummy-url");
+    when(bookRepository.findAllBooksByFilter(any(), any(Pageable.class)))
+        .thenReturn(new PageImpl<>(List.of(bookDao), pageable, 1));
+    when(photoService.getBookCoverPhotos(any())).thenReturn(Map.of("cover-url", "dummy-url"));
     Page<Book> result = bookService.getAllBooksByFilter(filter, pageable);
     assertEquals(1, result.getTotalElements());
     Book book = result.getContent().getFirst();
+    assertEquals(List.of("dummy-url"), book.coverPhotos());
     assertNotNull(book.owner());
     assertEquals("owner-123", book.owner().id());
     assertEquals("Alice", book.owner().firstName());
     assertEquals("Smith", book.owner().lastName());
+    assertEquals("Helsinki", book.owner().city());
+    verifyNoInteractions(userRepository);
+  }
+
+  @Test
+  @DisplayName("getAllBooksByFilter resolves the covers of a whole page with one bulk lookup")
+  void getAllBooksByFilterResolvesCoversInBulk() {
+    BookListItemDao first = listItem("book-1", "cover-1");
+    BookListItemDao second = listItem("book-2", "cover-2");
+
+    FindAllBooksFilter filter = mock(FindAllBooksFilter.class);
+    Pageable pageable = PageRequest.of(0, 10);
+    when(bookRepository.findAllBooksByFilter(any(), any(Pageable.class)))
+        .thenReturn(new PageImpl<>(List.of(first, second), pageable, 2));
+    when(photoService.getBookCoverPhotos(List.of("cover-1", "cover-2")))
+        .thenReturn(Map.of("cover-1", "url-1", "cover-2", "url-2"));
+
+    Page<Book> result = bookService.getAllBooksByFilter(filter, pageable);
+
+    assertEquals(List.of("url-1"), result.getContent().get(0).coverPhotos());
+    assertEquals(List.of("url-2"), result.getContent().get(1).coverPhotos());
+    verify(photoService).getBookCoverPhotos(any());
+    verify(photoService, never()).getBookCoverPhoto(any());
+  }
+
+  private static BookListItemDao listItem(String id, String coverPhoto) {
+    return BookListItemDao.builder()
+        .id(id)
+        .title("Book Title")
+        .author("Author")
+        .language("English")
+        .condition("New")
+        .coverPhotos(List.of(coverPhoto))
+        .owner(BookOwnerSummaryDao.builder().id("owner-1").firstName("Alice").lastName("Smith").build())
+        .build();
+  }
+
+  @Test
+  @DisplayName("Cursor search returns the next cursor built from the last book")
+  void getAllBooksByCursorReturnsNextCursor() {
+    Instant updatedAt = Instant.parse("2025-01-01T10:00:00Z");
+    BookListItemDao bookDao = BookListItemDao.builder()
+        .id("64e8b2f2c2a4e2a1b8d7c9e0")
+        .title("Book Title")
+        .author("Author")
+        .language("English")
+        .condition("New")
+        .coverPhotos(List.of())
+        .owner(BookOwnerSummaryDao.builder().id("owner-1").build())
+        .bookUpdatedAt(updatedAt)
+        .build();
+
+    FindAllBooksFilter filter = mock(FindAllBooksFilter.class);
+    Pageable pageable = PageRequest.of(0, 1);
+    when(bookRepository.findAllBooksByFilter(any(), any(Sort.Order.class), isNull(), eq(1)))
+        .thenReturn(new SliceImpl<>(List.of(bookDao), pageable, true));
+
+    CursorPage<Book> result = bookService.getAllBooksByFilter(filter, pageable, "");
+
+    assertEquals(1, result.content().size());
+    assertTrue(result.hasNext());
+    KeysetCursor next = KeysetCursor.decode(result.nextCursor());
+    assertEquals("bookUpdatedAt", next.property());
+    assertEquals(Sort.Direction.DESC, next.direction());
+    assertEquals(java.util.Date.from(updatedAt), next.value());
+    assertEquals("64e8b2f2c2a4e2a1b8d7c9e0", next.id());
+  }
+
+  @Test
+  @DisplayName("Cursor search continues with the sort order stored in the cursor")
+  void getAllBooksByCursorUsesSortFromCursor() {
+    var cursor = new KeysetCursor("title", Sort.Direction.ASC, "Dune", "64e8b2f2c2a4e2a1b8d7c9e0");
+    FindAllBooksFilter filter = mock(FindAllBooksFilter.class);
+    Pageable pageable = PageRequest.of(0, 10, Sort.by("author"));
+    when(bookRepository.findAllBooksByFilter(any(), any(Sort.Order.class), any(KeysetCursor.class), eq(10)))
+        .thenReturn(new SliceImpl<>(List.of(), pageable, false));
+
+    CursorPage<Book> result = bookService.getAllBooksByFilter(filter, pageable, cursor.encode());
+
+    assertFalse(result.hasNext());
+    verify(bookRepository).findAllBooksByFilter(any(), eq(Sort.Order.asc("title")), eq(cursor), eq(10));
+  }
+
+  @Test
+  @DisplayName("Cursor search rejects a malformed cursor")
+  void getAllBooksByCursorRejectsMalformedCursor() {
+    FindAllBooksFilter filter = mock(FindAllBooksFilter.class);
+    Pageable pageable = PageRequest.of(0, 10);
+    assertThrows(BadRequestException.class, () -> bookService.getAllBooksByFilter(filter, pageable, "not-a-cursor"));
+  }
+
+  @Test
+  @DisplayName("Nearby cursor search returns distances and a distance cursor")
+  void findBooksNearLocationByCursorReturnsDistanceCursor() {
+    BookListItemDao bookDao = BookListItemDao.builder()
+        .id("64e8b2f2c2a4e2a1b8d7c9e0")
+        .title("Book Title")
+        .author("Author")
+        .language("English")
+        .condition("New")
+        .coverPhotos(List.of())
+        .owner(BookOwnerSummaryDao.builder().id("owner-1").build())
+        .distanceMeters(1520.0)
+        .build();
+    when(bookRepository.findBooksNearLocation(any(), eq(60.17), eq(24.94), eq(10_000.0), isNull(), eq(1)))
+        .thenReturn(new SliceImpl<>(List.of(bookDao), PageRequest.of(0, 1), true));
+
+    CursorPage<Book> result = bookService.findBooksNearLocation(60.17, 24.94, 10, 1, "");
+
+    assertEquals(1.52, result.content().getFirst().distanceKm());
+    KeysetCursor next = KeysetCursor.decode(result.nextCursor());
+    assertEquals("distanceMeters", next.property());
+    assertEquals(Sort.Direction.ASC, next.direction());
+    assertEquals(1520.0, next.value());
+    assertEquals("64e8b2f2c2a4e2a1b8d7c9e0", next.id());
+  }
+
+  @Test
+  @DisplayName("Nearby cursor search rejects cursors of other sort orders")
+  void findBooksNearLocationByCursorRejectsForeignCursor() {
+    var cursor = new KeysetCursor("title", Sort.Direction.ASC, "Dune", "64e8b2f2c2a4e2a1b8d7c9e0");
+
+    assertThrows(BadRequestException.class,
+        () -> bookService.findBooksNearLocation(60.17, 24.94, 10, 10, cursor.encode()));
+  }
+
+  @Test
+  @DisplayName("Map bounds search serves bounds-only requests from cached tiles")
+  void getBooksInMapBoundsUsesTiles() {
+    FindAllBooksFilter filter = mapBoundsFilter();
+    Book older = mapBook("older", 60.17, 24.94, "2025-01-01T10:00:00Z");
+    Book newer = mapBook("newer", 60.18, 24.95, "2025-02-01T10:00:00Z");
+    Book outside = mapBook("outside", 60.30, 24.95, "2025-03-01T10:00:00Z");
+    when(bookMapTileCache.tilesCovering(60.2, 60.1, 25.0, 24.9)).thenReturn(List.of("ud9wr", "ud9wx"));
+    when(bookMapTileCache.get(eq("ud9wr"), any())).thenReturn(new BookMapTileCache.Tile(List.of(older), true));
+    when(bookMapTileCache.get(eq("ud9wx"), any()))
+        .thenReturn(new BookMapTileCache.Tile(List.of(outside, newer), true));
+
+    Page<Book> result = bookService.getBooksInMapBounds(filter, PageRequest.of(0, 10));
+
+    assertEquals(List.of("newer", "older"), result.getContent().stream().map(Book::id).toList());
+    assertEquals(2, result.getTotalElements());
+    verify(bookRepository, never()).findAllBooksByFilter(any(), any(Pageable.class));
+  }
+
+  @Test
+  @DisplayName("Map bounds search queries the database when a tile is too full to cache")
+  void getBooksInMapBoundsFallsBackForIncompleteTile() {
+    FindAllBooksFilter filter = mapBoundsFilter();
+    Pageable pageable = PageRequest.of(0, 10);
+    when(bookMapTileCache.tilesCovering(60.2, 60.1, 25.0, 24.9)).thenReturn(List.of("ud9wr"));
+    when(bookMapTileCache.get(eq("ud9wr"), any())).thenReturn(new BookMapTileCache.Tile(List.of(), false));
+    when(bookRepository.findAllBooksByFilter(any(), any(Pageable.class)))
+        .thenReturn(new PageImpl<>(List.of(), pageable, 0));
+
+    bookService.getBooksInMapBounds(filter, pageable);
+
+    verify(bookRepository).findAllBooksByFilter(any(), any(Pageable.class));
+  }
+
+  private static FindAllBooksFilter mapBoundsFilter() {
+    FindAllBooksFilter filter = new FindAllBooksFilter();
+    filter.setNorth(60.2);
+    filter.setSouth(60.1);
+    filter.setEast(25.0);
+    filter.setWest(24.9);
+    return filter;
+  }
+
+  private static Book mapBook(String id, double latitude, double longitude, String updatedAt) {
+    return Book.builder()
+        .id(id)
+        .location(BookLocation.builder().latitude(latitude).longitude(longitude).build())
+        .bookUpdatedAt(Instant.parse(updatedAt))
+        .build();
+  }
+
+  @Test
+  @DisplayName("Map clusters group books on a geohash prefix sized for the zoom level")
+  void getBookClustersUsesZoomPrecision() {
+    FindAllBooksFilter filter = mock(FindAllBooksFilter.class);
+    when(bookRepository.findBookClusters(any(), eq(3)))
+        .thenReturn(List.of(new BookClusterDao("ud9", 42, 60.2, 24.9)));
+
+    List<BookCluster> clusters = bookService.getBookClusters(filter, 6);
+
+    assertEquals(List.of(new BookCluster("ud9", 42, 60.2, 24.9)), clusters);
+  }
+
+  @Test
+  @DisplayName("Cluster precision grows with zoom and stays within the stored geohash")
+  void clusterPrecisionForZoomIsBounded() {
+    assertEquals(1, BookService.clusterPrecisionForZoom(0));
+    assertEquals(5, BookService.clusterPrecisionForZoom(10));
+    assertEquals(Geohash.STORED_PRECISION, BookService.clusterPrecisionForZoom(22));
+  }
+
+  @Test
+  @DisplayName("Approximate total search caps the count")
+  void getAllBooksByFilterWithApproximateTotalCapsCount() {
+    FindAllBooksFilter filter = mock(FindAllBooksFilter.class);
+    Pageable pageable = PageRequest.of(0, 10);
+    when(bookRepository.findAllBooksByFilter(any(), any(Pageable.class), anyLong()))
+        .thenReturn(new PageImpl<>(List.of(), pageable, 10_000));
+
+    Page<Book> result = bookService.getAllBooksByFilter(filter, pageable, true);
+
+    verify(bookRepository).findAllBooksByFilter(any(), any(Pageable.class), eq(10_000L));
+    assertTrue(BookService.isTotalCapped(result, pageable));
+  }
+
+  @Test
+  @DisplayName("Approximate total cap always reaches past the requested page")
+  void approximateTotalCapReachesPastRequestedPage() {
+    assertEquals(10_000L, BookService.approximateTotalCap(PageRequest.of(0, 20)));
+    assertEquals(20_021L, BookService.approximateTotalCap(PageRequest.of(1000, 20)));
+  }
+
+  @Test
+  @DisplayName("Search sorted by relevance keeps the relevance order")
+  void getAllBooksByFilterKeepsRelevanceSortWithSearch() {
+    FindAllBooksFilter filter = new FindAllBooksFilter();
+    filter.setSearch("dune");
+    Pageable pageable = PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "relevance"));
+    when(bookRepository.findAllBooksByFilter(any(), any(Pageable.class)))
+        .thenReturn(new PageImpl<>(List.of(), pageable, 0));
+
+    bookService.getAllBooksByFilter(filter, pageable);
+
+    verify(bookRepository).findAllBooksByFilter(any(),
+        eq(PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "relevance"))));
+  }
+
+  @Test
+  @DisplayName("Relevance sort is dropped when there is no search")
+  void getAllBooksByFilterDropsRelevanceSortWithoutSearch() {
+    FindAllBooksFilter filter = new FindAllBooksFilter();
+    Pageable pageable = PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "relevance"));
+    when(bookRepository.findAllBooksByFilter(any(), any(Pageable.class)))
+        .thenReturn(new PageImpl<>(List.of(), pageable, 0));
+
+    bookService.getAllBooksByFilter(filter, pageable);
+
+    verify(bookRepository).findAllBooksByFilter(any(), eq(PageRequest.of(0, 10)));
+  }
+
+  @Test
+  @DisplayName("A cached search page is served from the books cache without a query")
+  void getAllBooksByFilterServesCachedPageWithoutQuery() {
+    FindAllBooksFilter filter = new FindAllBooksFilter();
+    Pageable pageable = PageRequest.of(0, 10);
+    Book first = Book.builder().id("book-1").build();
+    Book second = Book.builder().id("book-2").build();
+    when(bookSearchCache.keyOf(any(), any(), any())).thenReturn("key");
+    when(bookSearchCache.get("key"))
+        .thenReturn(Optional.of(new BookSearchCache.CachedPage(List.of("book-2", "book-1"), 42)));
+    when(bookSearchCache.cachedBooks(List.of("book-2", "book-1")))
+        .thenReturn(Map.of("book-1", first, "book-2", second));
+
+    Page<Book> result = bookService.getAllBooksByFilter(filter, pageable);
+
+    assertEquals(List.of(second, first), result.getContent());
+    assertEquals(42, result.getTotalElements());
+    verifyNoInteractions(bookRepository, photoService);
+  }
+
+  @Test
+  @DisplayName("A cached search page loads the books missing from the books cache in one query")
+  void getAllBooksByFilterHydratesMissingBooksInBulk() {
+    FindAllBooksFilter filter = new FindAllBooksFilter();
+    Pageable pageable = PageRequest.of(0, 10);
+    Book cached = Book.builder().id("book-1").build();
+    var missing = BookDao.builder()
+        .id("book-2")
+        .swapCondition(new SwapConditionDao("ByBooks", false, false, List.of(), List.of()))
+        .owner(new UserDao().id("owner-id"))
+        .language("English")
+        .condition("New")
+        .genres(List.of())
+        .coverPhotos(List.of())
+        .isDeleted(false)
+        .build();
+    when(bookSearchCache.keyOf(any(), any(), any())).thenReturn("key");
+    when(bookSearchCache.get("key"))
+        .thenReturn(Optional.of(new BookSearchCache.CachedPage(List.of("book-1", "book-2"), 2)));
+    when(bookSearchCache.cachedBooks(any())).thenReturn(Map.of("book-1", cached));
+    when(bookRepository.findAllById(List.of("book-2"))).thenReturn(List.of(missing));
+
+    Page<Book> result = bookService.getAllBooksByFilter(filter, pageable);
+
+    assertEquals(List.of("book-1", "book-2"), result.getContent().stream().map(Book::id).toList());
+    verify(bookSearchCache).cacheBooks(argThat(books -> books.size() == 1));
+    verify(bookRepository, never()).findAllBooksByFilter(any(), any(Pageable.class));
+  }
+
+  @Test
+  @DisplayName("An uncached search runs the query and caches the ids of the page")
+  void getAllBooksByFilterCachesPageIds() {
+    FindAllBooksFilter filter = new FindAllBooksFilter();
+    filter.setCity("Helsinki");
+    Pageable pageable = PageRequest.of(0, 10);
+    when(bookSearchCache.keyOf(any(), any(), eq(List.of("city:helsinki")))).thenReturn("key");
+    when(bookRepository.findAllBooksByFilter(any(), any(Pageable.class)))
+        .thenReturn(new PageImpl<>(List.of(listItem("book-1", "cover-1")), pageable, 1));
+
+    bookService.getAllBooksByFilter(filter, pageable);
+
+    verify(bookSearchCache).put("key", new BookSearchCache.CachedPage(List.of("book-1"), 1));
+  }
+
+  @Test
+  @DisplayName("Deleting a book invalidates the searches of its city and genres")
+  void deleteBookInvalidatesSearchScopes() {
+    var dao = BookDao.builder()
+        .id("id")
+        .owner(new UserDao().id("owner-id"))
+        .location(new BookLocationDao().normalizedCity("helsinki"))
+        .isDeleted(false)
+        .build();
+    when(bookRepository.findByIdAndIsDeletedFalse("id")).thenReturn(Optional.of(dao));
+    when(userRepository.findByIdAndIsEmailVerifiedTrue("owner-id")).thenReturn(Optional.of(new UserDao()));
+
+    bookService.deleteBook("id");
+
+    verify(bookSearchCache).invalidate(Set.of("all", "city:helsinki"));
+  }
+
+  @Test
+  @DisplayName("Search builds a text index query instead of a regex scan")
+  void searchFilterBuildsTextCriteria() {
+    FindAllBooksFilter filter = new FindAllBooksFilter();
+    filter.setSearch("lord of the rings");
+
+    var criteria = filter.buildSearchAndFilterCriteria().getCriteriaObject().toJson();
+
+    assertTrue(criteria.contains("\"$text\": {\"$search\": \"lord of the rings\"}"));
+    assertFalse(criteria.contains("$regex"));
+  }
+
+  @Test
+  @DisplayName("City and country filters match the normalized names, and blank names match any place")
+  void placeFiltersMatchNormalizedNames() {
+    FindAllBooksFilter filter = new FindAllBooksFilter();
+    filter.setCity(" Hélsinki ");
+    filter.setCountry(" ");
+
+    var criteria = filter.buildSearchAndFilterCriteria().getCriteriaObject().toJson();
+
+    assertTrue(criteria.contains("\"location.normalizedCity\": \"helsinki\""));
+    assertFalse(criteria.contains("location.normalizedCountry"));
+  }
+
+  @Test
+  @DisplayName("A search the text index matches no book for is not run again as a scan")
+  void getAllBooksByFilterRunsEmptySearchOnce() {
+    FindAllBooksFilter filter = new FindAllBooksFilter();
+    filter.setSearch("pott");
+    Pageable pageable = PageRequest.of(0, 10);
+    when(bookRepository.findAllBooksByFilter(any(), any(Pageable.class)))
+        .thenReturn(new PageImpl<>(List.of(), pageable, 0));
+
+    Page<Book> result = bookService.getAllBooksByFilter(filter, pageable);
+
+    ArgumentCaptor<Criteria> criteria = ArgumentCaptor.forClass(Criteria.class);
+    verify(bookRepository, times(1)).findAllBooksByFilter(criteria.capture(), any(Pageable.class));
+    assertFalse(criteria.getValue().getCriteriaObject().toJson().contains("$regex"));
+    assertTrue(result.isEmpty());
+  }
+
+  @Test
+  @DisplayName("Fuzzy search corrects the search words and ranks by relevance, then recency")
+  void getAllBooksByFilterWithFuzzySearchCorrectsWords() {
+    FindAllBooksFilter filter = new FindAllBooksFilter();
+    filter.setSearch("Tolkein");
+    filter.setFuzzy(true);
+    Pageable pageable = PageRequest.of(0, 10);
+    when(bookSuggestionIndex.correctSearch("Tolkein")).thenReturn("tolkien");
+    when(bookRepository.findAllBooksByFilter(any(), any(Pageable.class)))
+        .thenReturn(new PageImpl<>(List.of(), pageable, 0));
+
+    bookService.getAllBooksByFilter(filter, pageable);
+
+    assertEquals("tolkien", filter.getSearch());
+    verify(bookRepository).findAllBooksByFilter(any(), eq(PageRequest.of(0, 10,
+        Sort.by(Sort.Order.desc("relevance"), Sort.Order.desc("bookUpdatedAt")))));
+  }
+
+  @Test
+  @DisplayName("Imports a batch of books with one bulk insert and one update of the owner")
+  void importBooksInsertsBatchInBulk() {
+    var owner = new UserDao().id("owner-id");
+    when(userRepository.findByIdAndIsEmailVerifiedTrue("owner-id")).thenReturn(Optional.of(owner));
+    when(genreRegistry.getGenreByName("Fiction")).thenReturn(new Genre("fiction-id", "Fiction", null));
+    when(bookRepository.insertBooks(any())).thenReturn(Set.of());
+
+    var results = bookService.importBooks("owner-id", List.of(importedBook("Dune"), importedBook("Emma")));
+
+    assertTrue(results.stream().allMatch(BookImportResult::isCreated));
+    @SuppressWarnings("unchecked")
+    ArgumentCaptor<List<BookDao>> inserted = ArgumentCaptor.forClass(List.class);
+    verify(bookRepository).insertBooks(inserted.capture());
+    assertEquals(List.of("Dune", "Emma"), inserted.getValue().stream().map(BookDao::title).toList());
+    assertEquals(List.of(results.get(0).bookId(), results.get(1).bookId()),
+        inserted.getValue().stream().map(BookDao::id).toList());
+    assertEquals("/fiction-id/", inserted.getValue().getFirst().genreSnapshots().getFirst().path());
+    verify(userRepository).addBooks("owner-id", List.of(results.get(0).bookId(), results.get(1).bookId()));
+    verify(bookRepository, never()).save(any());
+    verify(userRepository, never()).save(any());
+    verify(bookSearchCache).invalidate(Set.of("all", "genre:fiction-id"));
+  }
+
+  @Test
+  @DisplayName("Reports books of unknown genres or failed inserts without failing the batch")
+  void importBooksReportsFailuresPerBook() {
+    when(userRepository.findByIdAndIsEmailVerifiedTrue("owner-id"))
+        .thenReturn(Optional.of(new UserDao().id("owner-id")));
+    when(genreRegistry.getGenreByName("Fiction")).thenReturn(new Genre("fiction-id", "Fiction", null));
+    when(genreRegistry.getGenreByName("Unknown")).thenThrow(new GenreNotFoundException("Unknown"));
+    when(bookRepository.insertBooks(any())).thenReturn(Set.of(1));
+    var unknownGenre = importedBook("Emma").withGenres(List.of(new Genre("Unknown")));
+
+    var results = bookService.importBooks("owner-id",
+        List.of(importedBook("Dune"), unknownGenre, importedBook("Ulysses")));
+
+    assertTrue(results.get(0).isCreated());
+    assertEquals("genreNotFound", results.get(1).error().getMessageKey());
+    assertEquals("bookCouldNotBeImported", results.get(2).error().getMessageKey());
+    verify(userRepository).addBooks("owner-id", List.of(results.get(0).bookId()));
+    verify(bookSuggestionIndex).index(results.get(0).bookId(), "Dune", "Frank Herbert");
+    verify(bookSuggestionIndex, never()).index(any(), eq("Ulysses"), any());
+  }
+
+  private static Book importedBook(String title) {
+    return Book.builder()
+        .title(title)
+        .author("Frank Herbert")
+        .language(Language.ENGLISH)
+        .condition(Condition.GOOD)
+        .genres(List.of(new Genre("Fiction")))
+        .swapCondition(new SwapCondition(SwapType.GIVE_AWAY, true, false, List.of(), List.of()))
+        .owner(new User().id("owner-id"))
+        .build();
   }
 }
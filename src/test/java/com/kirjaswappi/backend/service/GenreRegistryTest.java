@@ -0,0 +1,104 @@
+/*
+ * Copyright (c) 2026 KirjaSwappi or KirjaSwappi affiliate company. All rights reserved.
+ * Author: Mahiuddin Al Kamal <mahiuddinalkamal>
+ */
+package com.kirjaswappi.backend.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import com.kirjaswappi.backend.events.GenresChangedEvent;
+import com.kirjaswappi.backend.jpa.daos.GenreDao;
+import com.kirjaswappi.backend.jpa.repositories.GenreRepository;
+import com.kirjaswappi.backend.service.exceptions.GenreNotFoundException;
+
+class GenreRegistryTest {
+  @Mock
+  private GenreRepository genreRepository;
+  @InjectMocks
+  private GenreRegistry genreRegistry;
+
+  private final GenreDao fiction = new GenreDao("1", "Fiction", null, null);
+  private final GenreDao fantasy = new GenreDao("2", "Fantasy", fiction, null);
+  private final GenreDao epicFantasy = new GenreDao("3", "Epic Fantasy", fantasy, null);
+  private final GenreDao crime = new GenreDao("4", "Crime", fiction, null);
+  private final GenreDao poetry = new GenreDao("5", "Poetry", null, null);
+
+  @BeforeEach
+  void setUp() {
+    MockitoAnnotations.openMocks(this);
+    when(genreRepository.findAll()).thenReturn(List.of(fiction, fantasy, epicFantasy, crime, poetry));
+  }
+
+  @Test
+  @DisplayName("Resolves the materialized path of a genre from the root down")
+  void findPathReturnsPathFromRoot() {
+    assertEquals(Optional.of("/1/"), genreRegistry.findPath("Fiction"));
+    assertEquals(Optional.of("/1/2/3/"), genreRegistry.findPath("Epic Fantasy"));
+    assertEquals(Optional.of("/5/"), genreRegistry.findPath("Poetry"));
+  }
+
+  @Test
+  @DisplayName("Resolves no path for unknown genre names")
+  void findPathIsEmptyForUnknownName() {
+    assertTrue(genreRegistry.findPath("Unknown").isEmpty());
+  }
+
+  @Test
+  @DisplayName("Looks genres up by name with their parents")
+  void getGenreByNameReturnsGenreWithParents() {
+    var genre = genreRegistry.getGenreByName("Epic Fantasy");
+
+    assertEquals("3", genre.getId());
+    assertEquals("Fantasy", genre.getParent().getName());
+    assertEquals("Fiction", genre.getParent().getParent().getName());
+    assertThrows(GenreNotFoundException.class, () -> genreRegistry.getGenreByName("Unknown"));
+  }
+
+  @Test
+  @DisplayName("Loads the taxonomy once and serves lookups from memory")
+  void lookupsDoNotQueryDatabase() {
+    genreRegistry.getGenreByName("Fiction");
+    genreRegistry.findPath("Fiction");
+    genreRegistry.getGenreByName("Poetry");
+
+    verify(genreRepository, times(1)).findAll();
+  }
+
+  @Test
+  @DisplayName("Rebuilds the taxonomy when genres change")
+  void genresChangedEventRebuildsSnapshot() {
+    genreRegistry.build();
+    var horror = new GenreDao("6", "Horror", fiction, null);
+    when(genreRepository.findAll()).thenReturn(List.of(fiction, fantasy, epicFantasy, crime, poetry, horror));
+
+    genreRegistry.onGenresChanged(new GenresChangedEvent("6"));
+
+    assertEquals("Horror", genreRegistry.getGenreByName("Horror").getName());
+    assertEquals(Optional.of("/1/6/"), genreRegistry.findPath("Horror"));
+  }
+
+  @Test
+  @DisplayName("Survives parent cycles in the stored taxonomy")
+  void cyclesDoNotLoopForever() {
+    var first = new GenreDao("1", "First", null, null);
+    var second = new GenreDao("2", "Second", first, null);
+    first.parent(second);
+    when(genreRepository.findAll()).thenReturn(List.of(first, second));
+
+    genreRegistry.refresh();
+
+    assertTrue(genreRegistry.findPath("First").isPresent());
+    assertTrue(genreRegistry.findPath("Second").isPresent());
+  }
+}
@@ -18,7 +18,9 @@ import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.context.ApplicationEventPublisher;
 
+import com.kirjaswappi.backend.events.GenresChangedEvent;
 import com.kirjaswappi.backend.http.dtos.responses.NestedGenresResponse;
 import com.kirjaswappi.backend.http.dtos.responses.ParentGenreResponse;
 import com.kirjaswappi.backend.jpa.daos.GenreDao;
@@ -26,6 +28,7 @@ import com.kirjaswappi.backend.jpa.repositories.BookRepository;
 import com.kirjaswappi.backend.jpa.repositories.GenreRepository;
 import com.kirjaswappi.backend.jpa.repositories.UserRepository;
 import com.kirjaswappi.backend.service.entities.Genre;
+import com.kirjaswappi.backend.service.exceptions.BadRequestException;
 import com.kirjaswappi.backend.service.exceptions.GenreAlreadyExistsException;
 import com.kirjaswappi.backend.service.exceptions.GenreNotFoundException;
 
@@ -36,6 +39,8 @@ class GenreServiceTest {
   private UserRepository userRepository;
   @Mock
   private BookRepository bookRepository;
+  @Mock
+  private ApplicationEventPublisher eventPublisher;
   @InjectMocks
   private GenreService genreService;
 
@@ -99,6 +104,99 @@ class GenreServiceTest {
     });
   }
 
+  @Test
+  @DisplayName("Renaming a genre renames its snapshots on books")
+  void updateGenrePropagatesRenameToBooks() {
+    var dao = new GenreDao()
+        .id("1")
+        .name("Fantasy");
+    when(genreRepository.findById("1")).thenReturn(Optional.of(dao));
+    when(genreRepository.save(any())).thenReturn(dao);
+    genreService.updateGenre(new Genre("1", "High Fantasy", null));
+    verify(bookRepository).updateGenreSnapshotName("1", "High Fantasy");
+  }
+
+  @Test
+  @DisplayName("Updating a genre without renaming it leaves books untouched")
+  void updateGenreWithoutRenameSkipsBooks() {
+    var dao = new GenreDao()
+        .id("1")
+        .name("Fantasy");
+    when(genreRepository.findById("1")).thenReturn(Optional.of(dao));
+    when(genreRepository.save(any())).thenReturn(dao);
+    genreService.updateGenre(new Genre("1", "Fantasy", null));
+    verify(bookRepository, never()).updateGenreSnapshotName(any(), any());
+  }
+
+  @Test
+  @DisplayName("Moving a genre moves the paths of its subtree on genres and books")
+  void updateGenreMovesSubtreePaths() {
+    var dao = createGenreDao("3", "Epic Fantasy", "1").path("/1/3/");
+    when(genreRepository.findById("3")).thenReturn(Optional.of(dao));
+    when(genreRepository.findById("2")).thenReturn(Optional.of(createGenreDao("2", "Fantasy", null)));
+    when(genreRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+    genreService.updateGenre(new Genre("3", "Epic Fantasy", new Genre("2", "Fantasy", null)));
+
+    assertEquals("/2/3/", dao.path());
+    verify(genreRepository).movePaths("/1/3/", "/2/3/");
+    verify(bookRepository).moveGenreSnapshotPaths("/1/3/", "/2/3/");
+  }
+
+  @Test
+  @DisplayName("Updating a genre in place leaves the paths untouched")
+  void updateGenreWithoutMoveSkipsPaths() {
+    var dao = createGenreDao("1", "Fantasy", null).path("/1/");
+    when(genreRepository.findById("1")).thenReturn(Optional.of(dao));
+    when(genreRepository.save(any())).thenReturn(dao);
+
+    genreService.updateGenre(new Genre("1", "High Fantasy", null));
+
+    verify(genreRepository, never()).movePaths(any(), any());
+    verify(bookRepository, never()).moveGenreSnapshotPaths(any(), any());
+  }
+
+  @Test
+  @DisplayName("Throws when a genre is moved below its own subgenre")
+  void updateGenreThrowsOnParentCycle() {
+    var fiction = createGenreDao("1", "Fiction", null);
+    var fantasy = createGenreDao("2", "Fantasy", null).parent(fiction);
+    when(genreRepository.findById("1")).thenReturn(Optional.of(fiction));
+    when(genreRepository.findById("2")).thenReturn(Optional.of(fantasy));
+
+    assertThrows(BadRequestException.class,
+        () -> genreService.updateGenre(new Genre("1", "Fiction", new Genre("2", "Fantasy", null))));
+    verify(genreRepository, never()).save(any());
+  }
+
+  @Test
+  @DisplayName("Announces added, updated and deleted genres")
+  void genreChangesPublishEvent() {
+    var dao = new GenreDao()
+        .id("1")
+        .name("Fantasy");
+    when(genreRepository.existsByName("Fantasy")).thenReturn(false);
+    when(genreRepository.findById("1")).thenReturn(Optional.of(dao));
+    when(genreRepository.save(any())).thenReturn(dao);
+    when(genreRepository.existsById("1")).thenReturn(true);
+
+    genreService.addGenre(new Genre(null, "Fantasy", null));
+    genreService.updateGenre(new Genre("1", "High Fantasy", null));
+    genreService.deleteGenre("1");
+
+    verify(eventPublisher, times(3)).publishEvent(new GenresChangedEvent("1"));
+  }
+
+  @Test
+  @DisplayName("Failed genre changes are not announced")
+  void failedGenreChangeDoesNotPublishEvent() {
+    when(genreRepository.existsById("1")).thenReturn(false);
+
+    assertThrows(GenreNotFoundException.class, () -> genreService.deleteGenre("1"));
+
+    verifyNoInteractions(eventPublisher);
+  }
+
   @Test
   @DisplayName("Deletes a genre by ID")
   void deleteGenreDeletesGenre() {
@@ -255,6 +353,28 @@ class GenreServiceTest {
         .anyMatch(child -> child.getId().equals("5") && child.getName().equals("Biography")));
   }
 
+  @Test
+  @DisplayName("getNestedGenres nests genres to any depth")
+  void getNestedGenresWithGrandchildren() {
+    // Arrange
+    GenreDao fictionDao = createGenreDao("1", "Fiction", null);
+    GenreDao fantasyDao = createGenreDao("2", "Fantasy", "1");
+    GenreDao epicFantasyDao = createGenreDao("3", "Epic Fantasy", "2");
+
+    when(genreRepository.findAll()).thenReturn(List.of(fictionDao, fantasyDao, epicFantasyDao));
+
+    // Act
+    NestedGenresResponse response = genreService.getNestedGenres();
+
+    // Assert
+    assertEquals(1, response.getParentGenres().size());
+    var fantasy = response.getParentGenres().get("Fiction").getChildGenres().getFirst();
+    assertEquals("Fantasy", fantasy.getName());
+    assertEquals(1, fantasy.getChildGenres().size());
+    assertEquals("Epic Fantasy", fantasy.getChildGenres().getFirst().getName());
+    assertTrue(fantasy.getChildGenres().getFirst().getChildGenres().isEmpty());
+  }
+
   @Test
   @DisplayName("getNestedGenres handles mixed scenarios with parents, children, and orphans")
   void getNestedGenresWithMixedScenarios() {
@@ -0,0 +1,169 @@
+/*
+ * Copyright (c) 2026 KirjaSwappi or KirjaSwappi affiliate company. All rights reserved.
+ * Author: Mahiuddin Al Kamal <mahiuddinalkamal>
+ */
+package com.kirjaswappi.backend.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+
+import java.time.Instant;
+import java.util.Optional;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+
+import com.kirjaswappi.backend.jpa.daos.MaintenanceJobDao;
+import com.kirjaswappi.backend.jpa.repositories.MaintenanceJobRepository;
+import com.kirjaswappi.backend.service.enums.MaintenanceJobStatus;
+import com.kirjaswappi.backend.service.exceptions.ResourceNotFoundException;
+
+class MaintenanceJobServiceTest {
+  @Mock
+  private MaintenanceJobRepository maintenanceJobRepository;
+
+  private MaintenanceJobDao stored;
+
+  @BeforeEach
+  void setUp() {
+    MockitoAnnotations.openMocks(this);
+    when(maintenanceJobRepository.save(any())).thenAnswer(invocation -> {
+      stored = invocation.getArgument(0);
+      if (stored.id() == null) {
+        stored.id("job-1");
+      }
+      return stored;
+    });
+    when(maintenanceJobRepository.updateProgressIfRunning(any(), anyLong(), anyLong(), any())).thenReturn(true);
+    when(maintenanceJobRepository.finishIfRunning(any(), any(), any(), any())).thenReturn(true);
+  }
+
+  @Test
+  @DisplayName("Stores the progress of a job and completes it once its work is done")
+  void completesJob() {
+    var service = new MaintenanceJobService(maintenanceJobRepository, new SyncTaskExecutor());
+
+    var job = service.start("DeleteAllBooks", progress -> {
+      progress.total(3);
+      progress.advance(2);
+      progress.advance(1);
+    });
+
+    assertEquals("job-1", job.id());
+    assertEquals(MaintenanceJobStatus.RUNNING, job.status());
+    assertEquals(MaintenanceJobStatus.COMPLETED.getCode(), stored.status());
+    assertEquals(3, stored.total());
+    assertEquals(3, stored.processed());
+    assertNotNull(stored.finishedAt());
+    verify(maintenanceJobRepository).updateProgressIfRunning(eq("job-1"), eq(3L), eq(3L), any());
+    verify(maintenanceJobRepository).finishIfRunning(eq("job-1"), eq(MaintenanceJobStatus.COMPLETED.getCode()),
+        isNull(), any());
+    // only the job's creation writes the whole document
+    verify(maintenanceJobRepository, times(1)).save(any());
+  }
+
+  @Test
+  @DisplayName("Fails a job whose work throws, keeping the progress made")
+  void failsJob() {
+    var service = new MaintenanceJobService(maintenanceJobRepository, new SyncTaskExecutor());
+
+    service.start("DeleteAllBooks", progress -> {
+      progress.advance(1);
+      throw new IllegalStateException("Database unavailable");
+    });
+
+    assertEquals(MaintenanceJobStatus.FAILED.getCode(), stored.status());
+    assertEquals("Database unavailable", stored.error());
+    assertEquals(1, stored.processed());
+  }
+
+  @Test
+  @DisplayName("Stops the work of a job once another instance failed it")
+  void stopsJobWhoseLeaseRanOut() {
+    var service = new MaintenanceJobService(maintenanceJobRepository, new SyncTaskExecutor());
+    when(maintenanceJobRepository.updateProgressIfRunning(any(), anyLong(), anyLong(), any())).thenReturn(false);
+
+    service.start("DeleteAllBooks", progress -> {
+      progress.advance(1);
+      fail("The work must stop once the job is no longer running");
+    });
+
+    verify(maintenanceJobRepository, never()).finishIfRunning(any(), any(), any(), any());
+    assertEquals(MaintenanceJobStatus.RUNNING.getCode(), stored.status());
+  }
+
+  @Test
+  @DisplayName("Keeps the failure stored by another instance when the job ends")
+  void keepsFailureOfJobWhoseLeaseRanOut() {
+    var service = new MaintenanceJobService(maintenanceJobRepository, new SyncTaskExecutor());
+    when(maintenanceJobRepository.finishIfRunning(any(), any(), any(), any())).thenReturn(false);
+
+    service.start("DeleteAllBooks", _ -> {
+    });
+
+    verify(maintenanceJobRepository).finishIfRunning(eq("job-1"), eq(MaintenanceJobStatus.COMPLETED.getCode()),
+        isNull(), any());
+    verify(maintenanceJobRepository, times(1)).save(any());
+    assertNull(stored.finishedAt());
+  }
+
+  @Test
+  @DisplayName("Fails a job the executor cannot take")
+  void failsRejectedJob() {
+    TaskExecutor rejecting = task -> {
+      throw new TaskRejectedException("Queue full");
+    };
+    var service = new MaintenanceJobService(maintenanceJobRepository, rejecting);
+
+    var job = service.start("DeleteAllBooks", progress -> fail("Rejected jobs must not run"));
+
+    assertEquals(MaintenanceJobStatus.FAILED, job.status());
+  }
+
+  @Test
+  @DisplayName("Renews the lease of the jobs running on this instance only while they run")
+  void renewsLeaseOfRunningJobs() {
+    var service = new MaintenanceJobService(maintenanceJobRepository, new SyncTaskExecutor());
+
+    service.start("DeleteAllBooks", progress -> service.renewLeases());
+    service.renewLeases();
+
+    verify(maintenanceJobRepository).touchRunning(eq(Set.of("job-1")), any());
+    verify(maintenanceJobRepository).touchRunning(eq(Set.of()), any());
+  }
+
+  @Test
+  @DisplayName("Fails the running jobs whose lease ran out")
+  void failsJobsWhoseLeaseRanOut() {
+    var service = new MaintenanceJobService(maintenanceJobRepository, new SyncTaskExecutor());
+    var staleBefore = ArgumentCaptor.forClass(Instant.class);
+    var now = ArgumentCaptor.forClass(Instant.class);
+
+    service.renewLeases();
+
+    verify(maintenanceJobRepository).failRunningUpdatedBefore(staleBefore.capture(),
+        eq(MaintenanceJobService.INSTANCE_STOPPED_ERROR), now.capture());
+    assertEquals(now.getValue().minus(MaintenanceJobService.LEASE), staleBefore.getValue());
+  }
+
+  @Test
+  @DisplayName("Throws when the job is not found")
+  void getJobThrowsWhenNotFound() {
+    var service = new MaintenanceJobService(maintenanceJobRepository, new SyncTaskExecutor());
+    when(maintenanceJobRepository.findById("job-1")).thenReturn(Optional.empty());
+
+    assertThrows(ResourceNotFoundException.class, () -> service.getJob("job-1"));
+  }
+}
@@ -7,7 +7,9 @@ package com.kirjaswappi.backend.service;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import org.junit.jupiter.api.BeforeEach;
@@ -428,6 +430,35 @@ class PhotoServiceTest {
     assertThrows(ImageUploadFailureException.class, () -> photoService.addBookCoverPhoto(file, uniqueId));
   }
 
+  @Test
+  @DisplayName("Should upload all book cover photos concurrently")
+  void addBookCoverPhotosUploadsAll() {
+    MultipartFile first = mock(MultipartFile.class);
+    MultipartFile second = mock(MultipartFile.class);
+
+    photoService.addBookCoverPhotos(Map.of("book-123-cover-1", first, "book-123-cover-2", second));
+
+    verify(imageService).uploadImage(first, "book-123-cover-1");
+    verify(imageService).uploadImage(second, "book-123-cover-2");
+    verify(imageService, never()).deleteImage(anyString());
+  }
+
+  @Test
+  @DisplayName("Should delete the uploaded book cover photos when another upload fails")
+  void addBookCoverPhotosCleansUpOnFailure() {
+    MultipartFile uploaded = mock(MultipartFile.class);
+    MultipartFile failing = mock(MultipartFile.class);
+    doThrow(new ImageUploadFailureException()).when(imageService).uploadImage(failing, "book-123-cover-2");
+
+    assertThrows(ImageUploadFailureException.class, () -> photoService.addBookCoverPhotos(
+        Map.of("book-123-cover-1", uploaded, "book-123-cover-2", failing)));
+
+    verify(imageService).deleteImage("book-123-cover-2");
+    // the other upload either finished and is deleted, or was cancelled first
+    verify(imageService, atMost(1)).deleteImage("book-123-cover-1");
+    verify(imageService, atMost(1)).uploadImage(uploaded, "book-123-cover-1");
+  }
+
   // deleteBookCoverPhoto tests
   @Test
   @DisplayName("Should delete book cover photo successfully")
@@ -473,6 +504,31 @@ class PhotoServiceTest {
     verify(imageService, never()).getDownloadUrl(any());
   }
 
+  @Test
+  @DisplayName("Should return URLs for book cover photos in bulk")
+  void getBookCoverPhotosReturnsUrls() {
+    List<String> uniqueIds = List.of("book-1-cover", "book-2-cover");
+    Map<String, String> expectedUrls = Map.of(
+        "book-1-cover", "http://example.com/book-1.jpg",
+        "book-2-cover", "http://example.com/book-2.jpg");
+
+    when(imageService.getDownloadUrls(uniqueIds)).thenReturn(expectedUrls);
+
+    Map<String, String> result = photoService.getBookCoverPhotos(uniqueIds);
+
+    assertEquals(expectedUrls, result);
+    verify(imageService, never()).getDownloadUrl(any());
+  }
+
+  @Test
+  @DisplayName("Should throw PhotoNotFoundException when any book cover photo uniqueId is null")
+  void getBookCoverPhotosThrowsWhenAnyUniqueIdIsNull() {
+    List<String> uniqueIds = Arrays.asList("book-1-cover", null);
+
+    assertThrows(PhotoNotFoundException.class, () -> photoService.getBookCoverPhotos(uniqueIds));
+    verify(imageService, never()).getDownloadUrls(any());
+  }
+
   // addSupportedCoverPhoto tests
   @Test
   @DisplayName("Should add supported cover photo successfully")
@@ -0,0 +1,78 @@
+/*
+ * Copyright (c) 2026 KirjaSwappi or KirjaSwappi affiliate company. All rights reserved.
+ * Author: Mahiuddin Al Kamal <mahiuddinalkamal>
+ */
+package com.kirjaswappi.backend.service;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import com.kirjaswappi.backend.common.service.NotificationClient;
+import com.kirjaswappi.backend.events.BookChangedEvent;
+import com.kirjaswappi.backend.jpa.repositories.SwapRequestRepository;
+
+class SwapRequestBookChangeListenerTest {
+  @Mock
+  private SwapRequestRepository swapRequestRepository;
+  @Mock
+  private NotificationClient notificationClient;
+  @InjectMocks
+  private SwapRequestBookChangeListener listener;
+
+  @BeforeEach
+  void setUp() {
+    MockitoAnnotations.openMocks(this);
+  }
+
+  @Test
+  @DisplayName("Cancels all active requests for a deleted book with one update and notifies their senders at once")
+  void cancelsActiveRequestsOfDeletedBook() {
+    when(swapRequestRepository.updateStatusByBookToSwapWith("book-1", List.of("Pending", "Accepted", "Reserved"),
+        "Cancelled")).thenReturn(List.of("sender-1", "sender-2"));
+
+    listener.onBookChanged(new BookChangedEvent("book-1", "Dune", true));
+
+    verify(notificationClient).sendNotifications(List.of("sender-1", "sender-2"), "Book Deleted",
+        "The book 'Dune' you requested has been deleted by its owner.");
+    verify(notificationClient, never()).sendNotification(any(), any(), any());
+    verify(swapRequestRepository, never()).save(any());
+  }
+
+  @Test
+  @DisplayName("Notifies the senders of pending requests for an updated book without changing the requests")
+  void notifiesPendingSendersOfUpdatedBook() {
+    when(swapRequestRepository.findSenderIdsByBookToSwapWith("book-1", List.of("Pending")))
+        .thenReturn(List.of("sender-1"));
+
+    listener.onBookChanged(new BookChangedEvent("book-1", "Dune", false));
+
+    verify(notificationClient).sendNotifications(List.of("sender-1"), "Book Updated",
+        "The book 'Dune' you requested has been updated by its owner.");
+    verify(swapRequestRepository, never()).updateStatusByBookToSwapWith(any(), any(), any());
+  }
+
+  @Test
+  @DisplayName("Cancels the requests for many deleted books with one update and notifies senders per book")
+  void cancelsRequestsOfDeletedBooksAtOnce() {
+    when(swapRequestRepository.updateStatusByBooksToSwapWith(Set.of("book-1", "book-2"),
+        List.of("Pending", "Accepted", "Reserved"), "Cancelled"))
+        .thenReturn(Map.of("book-1", List.of("sender-1", "sender-1")));
+
+    listener.cancelSwapRequestsForDeletedBooks(Map.of("book-1", "Dune", "book-2", "Emma"));
+
+    verify(notificationClient).sendNotifications(List.of("sender-1"), "Book Deleted",
+        "The book 'Dune' you requested has been deleted by its owner.");
+    verifyNoMoreInteractions(notificationClient);
+  }
+}
@@ -9,8 +9,11 @@ import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 
 import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -70,7 +73,10 @@ class SwapServiceTest {
     // override this stub explicitly.
     when(userRepository.findById(anyString())).thenReturn(Optional.empty());
     // Cover photo resolution is a no-op for tests that don't care about URLs.
-    when(photoService.getBookCoverPhoto(anyString())).thenAnswer(inv -> inv.getArgument(0));
+    when(photoService.getBookCoverPhotos(any())).thenAnswer(inv -> {
+      Collection<String> uniqueIds = inv.getArgument(0);
+      return uniqueIds.stream().distinct().collect(Collectors.toMap(Function.identity(), Function.identity()));
+    });
   }
 
   @Test
@@ -16,8 +16,10 @@ import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.context.ApplicationEventPublisher;
 
 import com.kirjaswappi.backend.common.service.EmailService;
+import com.kirjaswappi.backend.events.BookSuggestionsChangedEvent;
 import com.kirjaswappi.backend.jpa.daos.BookDao;
 import com.kirjaswappi.backend.jpa.daos.GenreDao;
 import com.kirjaswappi.backend.jpa.daos.UserDao;
@@ -35,6 +37,9 @@ import com.kirjaswappi.backend.service.exceptions.BadRequestException;
 import com.kirjaswappi.backend.service.exceptions.BookNotFoundException;
 import com.kirjaswappi.backend.service.exceptions.UserAlreadyExistsException;
 import com.kirjaswappi.backend.service.exceptions.UserNotFoundException;
+import com.kirjaswappi.backend.service.search.BookMapTileCache;
+import com.kirjaswappi.backend.service.search.BookSearchCache;
+import com.kirjaswappi.backend.service.search.BookSuggestionIndex;
 
 class UserServiceTest {
   @Mock
@@ -49,6 +54,14 @@ class UserServiceTest {
   private SwapRequestRepository swapRequestRepository;
   @Mock
   private EmailService emailService;
+  @Mock
+  private BookSuggestionIndex bookSuggestionIndex;
+  @Mock
+  private BookMapTileCache bookMapTileCache;
+  @Mock
+  private BookSearchCache bookSearchCache;
+  @Mock
+  private ApplicationEventPublisher eventPublisher;
   @InjectMocks
   private UserService userService;
 
@@ -161,6 +174,24 @@ class UserServiceTest {
     verify(userRepository, times(1)).delete(dao);
   }
 
+  @Test
+  @DisplayName("Should soft-delete all books of the deleted user with one update")
+  void deleteUserDeletesBooksAtOnce() {
+    var books = List.of(BookDao.builder().id("book-1").build(), BookDao.builder().id("book-2").build());
+    UserDao dao = UserDao.builder().id("id").books(books).build();
+    when(userRepository.findById("id")).thenReturn(Optional.of(dao));
+    when(swapRequestRepository.findBySenderIdOrderByRequestedAtDesc("id")).thenReturn(List.of());
+    when(swapRequestRepository.findByReceiverIdOrderByRequestedAtDesc("id")).thenReturn(List.of());
+
+    userService.deleteUser("id");
+
+    verify(bookRepository).deleteLogically(List.of("book-1", "book-2"));
+    verify(bookRepository, never()).deleteLogically(anyString());
+    verify(bookSearchCache).evictBooks(List.of("book-1", "book-2"));
+    verify(bookSearchCache, times(1)).invalidate(any());
+    verify(eventPublisher).publishEvent(new BookSuggestionsChangedEvent(List.of("book-1", "book-2")));
+  }
+
   @Test
   @DisplayName("Should return list of users when users exist")
   void getUsersReturnsList() {
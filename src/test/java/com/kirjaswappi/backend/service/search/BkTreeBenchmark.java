@@ -0,0 +1,97 @@
+/*
+ * Copyright (c) 2026 KirjaSwappi or KirjaSwappi affiliate company. All rights reserved.
+ * Author: Mahiuddin Al Kamal <mahiuddinalkamal>
+ */
+package com.kirjaswappi.backend.service.search;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Lookup latency of the fuzzy term dictionary. Sample-time mode reports the
+ * p99 of single lookups. Not part of the test suite; run it with:
+ *
+ * <pre>
+ * mvn test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.kirjaswappi.backend.service.search.BkTreeBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 10)
+@Fork(value = 1, jvmArgs = { "-Xmx4g" })
+public class BkTreeBenchmark {
+
+  private static final String ALPHABET = "abcdefghijklmnopqrstuvwxyzäö";
+
+  @Param({ "1000000" })
+  public int terms;
+
+  private BkTree tree;
+  private String[] typos;
+  private int next;
+
+  @Setup(Level.Trial)
+  public void buildDictionary() {
+    var random = new Random(42);
+    tree = new BkTree();
+    while (tree.size() < terms) {
+      tree.add(randomWord(random, 4 + random.nextInt(9)));
+    }
+    typos = new String[1024];
+    for (int i = 0; i < typos.length; i++) {
+      typos[i] = misspell(random, randomWord(random, 4 + random.nextInt(9)));
+    }
+  }
+
+  @Benchmark
+  public int lookupWithinOneEdit() {
+    return tree.search(nextTypo(), 1).size();
+  }
+
+  @Benchmark
+  public int lookupWithinTwoEdits() {
+    return tree.search(nextTypo(), 2).size();
+  }
+
+  private String nextTypo() {
+    next = (next + 1) & (typos.length - 1);
+    return typos[next];
+  }
+
+  private static String randomWord(Random random, int length) {
+    var word = new StringBuilder(length);
+    for (int i = 0; i < length; i++) {
+      word.append(ALPHABET.charAt(random.nextInt(ALPHABET.length())));
+    }
+    return word.toString();
+  }
+
+  private static String misspell(Random random, String word) {
+    int position = random.nextInt(word.length());
+    char replacement = ALPHABET.charAt(random.nextInt(ALPHABET.length()));
+    return word.substring(0, position) + replacement + word.substring(position + 1);
+  }
+
+  public static void main(String[] args) throws RunnerException {
+    new Runner(new OptionsBuilder().include(BkTreeBenchmark.class.getSimpleName()).build()).run();
+  }
+}
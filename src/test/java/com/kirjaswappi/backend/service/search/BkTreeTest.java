@@ -0,0 +1,50 @@
+/*
+ * Copyright (c) 2026 KirjaSwappi or KirjaSwappi affiliate company. All rights reserved.
+ * Author: Mahiuddin Al Kamal <mahiuddinalkamal>
+ */
+package com.kirjaswappi.backend.service.search;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class BkTreeTest {
+
+  @Test
+  @DisplayName("Computes the Levenshtein distance")
+  void distanceCountsEdits() {
+    assertEquals(0, BkTree.distance("kivi", "kivi"));
+    assertEquals(1, BkTree.distance("kivi", "kiwi"));
+    assertEquals(2, BkTree.distance("tolkien", "tolkein"));
+    assertEquals(3, BkTree.distance("kitten", "sitting"));
+    assertEquals(4, BkTree.distance("", "kivi"));
+  }
+
+  @Test
+  @DisplayName("Finds exactly the terms within the distance")
+  void searchReturnsTermsWithinDistance() {
+    var tree = new BkTree();
+    List.of("book", "books", "boo", "cook", "cake", "boon", "cart").forEach(tree::add);
+
+    Set<String> matches = tree.search("bool", 1).stream()
+        .map(BkTree.Match::term)
+        .collect(Collectors.toSet());
+
+    assertEquals(Set.of("book", "boo", "boon"), matches);
+  }
+
+  @Test
+  @DisplayName("Ignores duplicate terms")
+  void addIgnoresDuplicates() {
+    var tree = new BkTree();
+    tree.add("kivi");
+    tree.add("kivi");
+
+    assertEquals(1, tree.size());
+  }
+}
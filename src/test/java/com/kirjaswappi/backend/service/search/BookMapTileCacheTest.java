@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) 2026 KirjaSwappi or KirjaSwappi affiliate company. All rights reserved.
+ * Author: Mahiuddin Al Kamal <mahiuddinalkamal>
+ */
+package com.kirjaswappi.backend.service.search;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import com.kirjaswappi.backend.common.utils.Geohash;
+
+class BookMapTileCacheTest {
+  private ConcurrentMapCacheManager cacheManager;
+  private BookMapTileCache bookMapTileCache;
+
+  @BeforeEach
+  void setUp() {
+    cacheManager = new ConcurrentMapCacheManager(BookMapTileCache.CACHE_NAME);
+    bookMapTileCache = new BookMapTileCache(cacheManager);
+  }
+
+  @Test
+  @DisplayName("Snaps a city-sized viewport to the fine tiles covering it")
+  void tilesCoveringSnapsToFineTiles() {
+    var tiles = bookMapTileCache.tilesCovering(60.20, 60.15, 24.98, 24.90);
+
+    assertEquals(List.of("ud9wn", "ud9wp", "ud9y0", "ud9wq", "ud9wr", "ud9y2"), tiles);
+    String helsinki = Geohash.encode(60.1699, 24.9384, Geohash.STORED_PRECISION);
+    assertTrue(tiles.stream().anyMatch(helsinki::startsWith));
+  }
+
+  @Test
+  @DisplayName("A slightly panned viewport reuses the tiles of the previous one")
+  void tilesCoveringIsStableAcrossSmallPans() {
+    var tiles = bookMapTileCache.tilesCovering(60.30, 60.00, 25.20, 24.60);
+    var panned = bookMapTileCache.tilesCovering(60.31, 60.01, 25.21, 24.61);
+
+    assertTrue(tiles.containsAll(panned));
+  }
+
+  @Test
+  @DisplayName("Gives up on viewports spanning the world or the antimeridian")
+  void tilesCoveringRejectsHugeAndWrappingViewports() {
+    assertTrue(bookMapTileCache.tilesCovering(85, -85, 180, -180).isEmpty());
+    assertTrue(bookMapTileCache.tilesCovering(60, 50, -170, 170).isEmpty());
+  }
+
+  @Test
+  @DisplayName("Loads a tile once and serves it from the cache afterwards")
+  void getLoadsOnce() {
+    var loads = new AtomicInteger();
+    var tile = new BookMapTileCache.Tile(List.of(), true);
+
+    bookMapTileCache.get("ud9wr", () -> {
+      loads.incrementAndGet();
+      return tile;
+    });
+    var cached = bookMapTileCache.get("ud9wr", () -> {
+      loads.incrementAndGet();
+      return tile;
+    });
+
+    assertEquals(tile, cached);
+    assertEquals(1, loads.get());
+  }
+
+  @Test
+  @DisplayName("Evicts only the tiles containing the changed book")
+  void evictRemovesContainingTilesOnly() {
+    var tile = new BookMapTileCache.Tile(List.of(), true);
+    for (String geohash : List.of("u", "ud9", "ud9wr3", "ud9wr4", "u4pru")) {
+      bookMapTileCache.get(geohash, () -> tile);
+    }
+
+    bookMapTileCache.evict("ud9wr3xe");
+
+    var cache = cacheManager.getCache(BookMapTileCache.CACHE_NAME);
+    assertNull(cache.get("u"));
+    assertNull(cache.get("ud9"));
+    assertNull(cache.get("ud9wr3"));
+    assertNotNull(cache.get("ud9wr4"));
+    assertNotNull(cache.get("u4pru"));
+  }
+}
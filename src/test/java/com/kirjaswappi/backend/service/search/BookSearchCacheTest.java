@@ -0,0 +1,98 @@
+/*
+ * Copyright (c) 2026 KirjaSwappi or KirjaSwappi affiliate company. All rights reserved.
+ * Author: Mahiuddin Al Kamal <mahiuddinalkamal>
+ */
+package com.kirjaswappi.backend.service.search;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import com.kirjaswappi.backend.events.GenresChangedEvent;
+import com.kirjaswappi.backend.jpa.daos.BookDao;
+import com.kirjaswappi.backend.jpa.daos.BookLocationDao;
+import com.kirjaswappi.backend.jpa.daos.GenreSnapshotDao;
+import com.kirjaswappi.backend.service.filters.FindAllBooksFilter;
+
+class BookSearchCacheTest {
+  private BookSearchCache bookSearchCache;
+
+  private final PageRequest firstPage = PageRequest.of(0, 20, Sort.by(Sort.Direction.DESC, "bookUpdatedAt"));
+
+  @BeforeEach
+  void setUp() {
+    var cacheManager = new ConcurrentMapCacheManager(BookSearchCache.PAGES_CACHE_NAME,
+        BookSearchCache.GENERATIONS_CACHE_NAME, BookSearchCache.BOOKS_CACHE_NAME);
+    bookSearchCache = new BookSearchCache(cacheManager);
+  }
+
+  @Test
+  @DisplayName("Equal searches share a key, whatever the order of their parameters")
+  void keyIsCanonical() {
+    var filter = new FindAllBooksFilter();
+    filter.setLanguages(List.of("English", "Finnish"));
+    filter.setCity("Helsinki");
+    var reordered = new FindAllBooksFilter();
+    reordered.setLanguages(List.of("Finnish", "English"));
+    reordered.setCity("  helsinki ");
+    var scopes = BookSearchCache.scopesOf("Helsinki", List.of());
+
+    assertEquals(bookSearchCache.keyOf(filter.canonicalKey(), firstPage, scopes),
+        bookSearchCache.keyOf(reordered.canonicalKey(), firstPage, scopes));
+    assertNotEquals(bookSearchCache.keyOf(filter.canonicalKey(), firstPage, scopes),
+        bookSearchCache.keyOf(filter.canonicalKey(), PageRequest.of(1, 20, firstPage.getSort()), scopes));
+  }
+
+  @Test
+  @DisplayName("Scopes a search by its city, else its genres, else all books")
+  void searchScopes() {
+    assertEquals(List.of("city:helsinki"), BookSearchCache.scopesOf("Helsinki", List.of("/1/")));
+    assertEquals(List.of("genre:1", "genre:3"), BookSearchCache.scopesOf(null, List.of("/1/", "/1/2/3/")));
+    assertEquals(List.of("all"), BookSearchCache.scopesOf(null, List.of()));
+  }
+
+  @Test
+  @DisplayName("A book change touches all books, its city and its genres with their ancestors")
+  void bookScopes() {
+    var book = new BookDao()
+        .location(new BookLocationDao().normalizedCity("helsinki"))
+        .genreSnapshots(List.of(new GenreSnapshotDao("3", "Epic Fantasy", "/1/2/3/")));
+
+    assertEquals(Set.of("all", "city:helsinki", "genre:1", "genre:2", "genre:3"), BookSearchCache.scopesOf(book));
+  }
+
+  @Test
+  @DisplayName("A book change invalidates the searches of its scopes only")
+  void invalidateChangesKeysOfTouchedScopes() {
+    var helsinki = BookSearchCache.scopesOf("Helsinki", List.of());
+    var tampere = BookSearchCache.scopesOf("Tampere", List.of());
+    var helsinkiKey = bookSearchCache.keyOf("helsinki", firstPage, helsinki);
+    var tampereKey = bookSearchCache.keyOf("tampere", firstPage, tampere);
+    bookSearchCache.put(helsinkiKey, new BookSearchCache.CachedPage(List.of("book-1"), 1));
+
+    bookSearchCache.invalidate(Set.of("all", "city:helsinki"));
+
+    assertNotEquals(helsinkiKey, bookSearchCache.keyOf("helsinki", firstPage, helsinki));
+    assertEquals(tampereKey, bookSearchCache.keyOf("tampere", firstPage, tampere));
+    assertTrue(bookSearchCache.get(helsinkiKey).isPresent());
+  }
+
+  @Test
+  @DisplayName("A genre change invalidates every search")
+  void genreChangeInvalidatesAllKeys() {
+    var scopes = BookSearchCache.scopesOf("Helsinki", List.of());
+    var key = bookSearchCache.keyOf("helsinki", firstPage, scopes);
+
+    bookSearchCache.onGenresChanged(new GenresChangedEvent("1"));
+
+    assertNotEquals(key, bookSearchCache.keyOf("helsinki", firstPage, scopes));
+  }
+}
@@ -0,0 +1,163 @@
+/*
+ * Copyright (c) 2026 KirjaSwappi or KirjaSwappi affiliate company. All rights reserved.
+ * Author: Mahiuddin Al Kamal <mahiuddinalkamal>
+ */
+package com.kirjaswappi.backend.service.search;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import com.kirjaswappi.backend.jpa.daos.BookDao;
+import com.kirjaswappi.backend.jpa.repositories.BookRepository;
+import com.kirjaswappi.backend.service.entities.BookSuggestion;
+
+class BookSuggestionIndexTest {
+  @Mock
+  private BookRepository bookRepository;
+  @InjectMocks
+  private BookSuggestionIndex bookSuggestionIndex;
+
+  @BeforeEach
+  void setUp() {
+    MockitoAnnotations.openMocks(this);
+    when(bookRepository.findAllByIsDeletedFalse()).thenReturn(List.of(
+        BookDao.builder().id("1").title("The Hobbit").author("J. R. R. Tolkien").build(),
+        BookDao.builder().id("2").title("Seitsemän veljestä").author("Aleksis Kivi").build(),
+        BookDao.builder().id("3").title("Hobbit Companion").author("David Day").build()));
+    bookSuggestionIndex.build();
+  }
+
+  private List<String> suggestedIds(String query) {
+    return bookSuggestionIndex.suggest(query, 10).stream().map(BookSuggestion::id).toList();
+  }
+
+  @Test
+  @DisplayName("Builds the index from all live books")
+  void buildIndexesAllLiveBooks() {
+    verify(bookRepository).findAllByIsDeletedFalse();
+    assertEquals(List.of("2"), suggestedIds("kivi"));
+  }
+
+  @Test
+  @DisplayName("Ranks title prefixes before word starts inside the title")
+  void suggestRanksTitlePrefixFirst() {
+    assertEquals(List.of("3", "1"), suggestedIds("hobbit"));
+  }
+
+  @Test
+  @DisplayName("Matches inside words, across title and author, ignoring case and diacritics")
+  void suggestMatchesInfixAcrossFields() {
+    assertEquals(List.of("1"), suggestedIds("OBBI tolk"));
+    assertEquals(List.of("2"), suggestedIds("seitseman"));
+  }
+
+  @Test
+  @DisplayName("Two letter queries only match the start of a word")
+  void suggestTwoLetterQueryMatchesWordStart() {
+    assertEquals(List.of("1"), suggestedIds("th"));
+    assertTrue(suggestedIds("bb").isEmpty());
+  }
+
+  @Test
+  @DisplayName("Returns nothing for queries without enough letters")
+  void suggestReturnsEmptyForShortQuery() {
+    assertTrue(suggestedIds("h").isEmpty());
+    assertTrue(suggestedIds("  ").isEmpty());
+  }
+
+  @Test
+  @DisplayName("Drops n-gram false positives that do not contain the query")
+  void suggestDropsFalsePositives() {
+    // every trigram of "banana" occurs in "ban nana", but the word does not
+    bookSuggestionIndex.index("4", "Ban Nana", "Anonymous");
+
+    assertTrue(suggestedIds("banana").isEmpty());
+    assertEquals(List.of("4"), suggestedIds("nana"));
+  }
+
+  @Test
+  @DisplayName("Limits the number of suggestions")
+  void suggestHonoursLimit() {
+    assertEquals(1, bookSuggestionIndex.suggest("hobbit", 1).size());
+  }
+
+  @Test
+  @DisplayName("Re-indexing a book replaces its old title")
+  void indexReplacesPreviousVersion() {
+    bookSuggestionIndex.index("1", "The Silmarillion", "J. R. R. Tolkien");
+
+    assertEquals(List.of("3"), suggestedIds("hobbit"));
+    assertEquals(List.of("1"), suggestedIds("silma"));
+  }
+
+  @Test
+  @DisplayName("Removed books are no longer suggested")
+  void removeDropsBook() {
+    bookSuggestionIndex.remove("3");
+
+    assertEquals(List.of("1"), suggestedIds("hobbit"));
+  }
+
+  @Test
+  @DisplayName("Stays correct across compaction")
+  void compactionKeepsLiveBooks() {
+    for (int i = 0; i < 2_000; i++) {
+      bookSuggestionIndex.index("tmp-" + i, "Temporary " + i, "Nobody");
+      bookSuggestionIndex.remove("tmp-" + i);
+    }
+
+    assertEquals(List.of("3", "1"), suggestedIds("hobbit"));
+    assertTrue(suggestedIds("temporary").isEmpty());
+  }
+
+  @Test
+  @DisplayName("Corrects misspelt search words to the closest known words")
+  void correctSearchRepairsTypos() {
+    assertEquals("tolkien", bookSuggestionIndex.correctSearch("Tolkein"));
+    assertEquals("aleksis kivi", bookSuggestionIndex.correctSearch("Aleksiz Kivi"));
+  }
+
+  @Test
+  @DisplayName("Keeps known, short and unmatched search words as typed")
+  void correctSearchKeepsWordsWithoutCorrection() {
+    assertEquals("hobbit of xyzzy", bookSuggestionIndex.correctSearch("hobbit of xyzzy"));
+  }
+
+  @Test
+  @DisplayName("Prefers the most recently indexed word among equally close corrections")
+  void correctSearchPrefersRecentTerms() {
+    bookSuggestionIndex.index("4", "Kiva", "Someone");
+
+    assertEquals("kiva kivi", bookSuggestionIndex.correctSearch("kivu"));
+  }
+
+  @Test
+  @DisplayName("Stops offering words of removed books as corrections")
+  void correctSearchForgetsRemovedTerms() {
+    bookSuggestionIndex.remove("2");
+
+    assertEquals("aleksiz", bookSuggestionIndex.correctSearch("aleksiz"));
+  }
+
+  @Test
+  @DisplayName("Refresh re-indexes changed books and removes deleted ones from the database")
+  void refreshReadsChangedBooksBack() {
+    when(bookRepository.findAllById(List.of("1", "4"))).thenReturn(List.of(
+        BookDao.builder().id("1").title("The Hobbit").author("J. R. R. Tolkien").isDeleted(true).build(),
+        BookDao.builder().id("4").title("Kalevala").author("Elias Lönnrot").build()));
+
+    bookSuggestionIndex.refresh(List.of("1", "4"));
+
+    assertEquals(List.of("3"), suggestedIds("hobbit"));
+    assertEquals(List.of("4"), suggestedIds("kalevala"));
+  }
+}